@@ -2,11 +2,17 @@ package com.leanx.app.api.employee;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leanx.app.model.entity.Employee;
+import com.leanx.app.repository.base.Cursor;
+import com.leanx.app.repository.base.Page;
+import com.leanx.app.repository.base.Sort;
 import com.leanx.app.service.modules.employee.EmployeeService;
+import com.leanx.app.service.modules.employee.EmployeeSuggestionIndex;
 import com.leanx.app.utils.ApiUtils;
 
 import jakarta.servlet.ServletException;
@@ -152,7 +158,9 @@ public class EmployeeController extends HttpServlet {
     /**
      * Handles GET requests for various employee retrieval endpoints:
      * - `/api/employee`: Gets all employees.
-     * - `/api/employee/search?name=...`: Searches employees by name.
+     * - `/api/employee?limit=...&after=...&sort=...&order=...`: Gets one page of employees.
+     * - `/api/employee/search?name=...&managerId=...`: Searches employees by name, optionally within a manager's team.
+     * - `/api/employee/suggest?q=...&k=...`: Suggests employees whose name starts with the typed prefix.
      * - `/api/employee/{id}`: Gets a specific employee by ID.
      *
      * @param request  The {@code HttpServletRequest} object containing the client's request.
@@ -164,10 +172,14 @@ public class EmployeeController extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         String pathInfo = request.getPathInfo();
 
-        if (pathInfo == null || pathInfo.equals("/")) {
+        if ((pathInfo == null || pathInfo.equals("/")) && request.getParameter("limit") != null) {
+            handleGetEmployeePage(request, response);
+        } else if (pathInfo == null || pathInfo.equals("/")) {
             handleGetAllEmployees(response);
         } else if (pathInfo.startsWith("/search")) {
             handleSearchEmployees(request, response);
+        } else if (pathInfo.startsWith("/suggest")) {
+            handleSuggestEmployees(request, response);
         } else if (pathInfo.matches("^/\\d+$")) {
             handleGetEmployeeById(pathInfo, response);
         }  else {
@@ -191,10 +203,50 @@ public class EmployeeController extends HttpServlet {
         }
     }
 
+    /**
+     * Handles the retrieval of one page of employee records. Reads the page size from the
+     * `limit` parameter, the opaque cursor of the previous page from `after` and the optional
+     * ordering from `sort` (employee field name) and `order` (`asc` or `desc`), and responds
+     * with the employees on the page and the cursor of the next page, which is {@code null}
+     * on the last page.
+     *
+     * @param request  The {@code HttpServletRequest} object.
+     * @param response The {@code HttpServletResponse} object.
+     * @throws IOException If an I/O error occurs during request or response processing.
+     */
+    private void handleGetEmployeePage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            int limit = Integer.parseInt(request.getParameter("limit"));
+            Cursor after = Cursor.decode(request.getParameter("after"));
+
+            Sort sort = null;
+            String sortField = request.getParameter("sort");
+            if (sortField != null && !sortField.isBlank()) {
+                String order = request.getParameter("order");
+                Sort.Direction direction = "desc".equalsIgnoreCase(order) ? Sort.Direction.DESC : Sort.Direction.ASC;
+                sort = new Sort(sortField.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(), direction);
+            }
+
+            Page<Employee> page = employeeService.getEmployeePage(after, limit, sort);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("items", page.getItems());
+            body.put("nextCursor", page.hasNext() ? page.getNextCursor().encode() : null);
+            ApiUtils.sendJsonResponse(response, body);
+        } catch (NumberFormatException e) {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid page size.");
+        } catch (IllegalArgumentException e) {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (SQLException e) {
+            ApiUtils.sendExceptionResponse(response, "Failed to fetch employees.", e);
+        }
+    }
+
     /**
      * Handles the search for employees by name. Extracts the `name` query parameter
      * from the request, delegates the search to the {@link EmployeeService}, and
-     * sends the list of matching employees as a JSON response.
+     * sends the list of matching employees as a JSON response. With the optional
+     * `managerId` parameter only direct and indirect subordinates of that manager are returned.
      *
      * @param request  The {@code HttpServletRequest} object.
      * @param response The {@code HttpServletResponse} object.
@@ -210,13 +262,48 @@ public class EmployeeController extends HttpServlet {
             }
 
 
-            List<Employee> employees = employeeService.searchEmployeesByName(nameQuery);
+            String managerId = request.getParameter("managerId");
+            List<Employee> employees = managerId == null || managerId.isBlank()
+                ? employeeService.searchEmployeesByName(nameQuery)
+                : employeeService.searchTeamMembersByName(nameQuery, Integer.valueOf(managerId.trim()));
             ApiUtils.sendJsonResponse(response, employees);
+        } catch (NumberFormatException e) {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid manager ID format.");
         } catch (SQLException e) {
             ApiUtils.sendExceptionResponse(response, "Database error while searching employees.", e);
         }
     }
 
+    /**
+     * Handles the typeahead suggestions for employees. Extracts the typed prefix from the `q`
+     * query parameter and the optional maximum number of suggestions from `k`, delegates the
+     * lookup to the {@link EmployeeService}, and sends the IDs and display names of the
+     * suggested employees as a JSON response.
+     *
+     * @param request  The {@code HttpServletRequest} object.
+     * @param response The {@code HttpServletResponse} object.
+     * @throws IOException If an I/O error occurs during request or response processing.
+     */
+    private void handleSuggestEmployees(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            String prefix = request.getParameter("q");
+            if (prefix == null || prefix.trim().isEmpty()) {
+                ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, "Missing search query.");
+                return;
+            }
+
+            String k = request.getParameter("k");
+            int limit = k == null || k.isBlank() ? EmployeeSuggestionIndex.MAX_K : Integer.parseInt(k.trim());
+            ApiUtils.sendJsonResponse(response, employeeService.suggestEmployees(prefix, limit));
+        } catch (NumberFormatException e) {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid number of suggestions.");
+        } catch (IllegalArgumentException e) {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (SQLException e) {
+            ApiUtils.sendExceptionResponse(response, "Database error while suggesting employees.", e);
+        }
+    }
+
     /**
      * Handles the retrieval of a specific employee record by their ID. Extracts the
      * employee ID from the path, delegates the retrieval to the
@@ -1,12 +1,15 @@
 package com.leanx.app.api.employee.self;
 
 import java.io.IOException;
-import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import com.leanx.app.model.dto.EmployeeProfile;
 import com.leanx.app.service.modules.employee.self.EmployeeSelfService;
 import com.leanx.app.utils.ApiUtils;
+import com.leanx.app.utils.database.DatabaseExecutor;
 
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -15,11 +18,15 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 /**
- * Servlet controller for handling API requests related to an employee themself
+ * Servlet controller for handling API requests related to an employee themself.
+ * Requests are processed asynchronously, so the request thread is released while
+ * the database is queried.
  */
-@WebServlet(name = "EmployeeSelfController", urlPatterns = "/api/employee/self/*")
+@WebServlet(name = "EmployeeSelfController", urlPatterns = "/api/employee/self/*", asyncSupported = true)
 public class EmployeeSelfController extends HttpServlet {
 
+    private static final Logger logger = Logger.getLogger(EmployeeSelfController.class.getName());
+
     private final EmployeeSelfService employeeSelfService = new EmployeeSelfService();
 
     /**
@@ -37,9 +44,10 @@ public class EmployeeSelfController extends HttpServlet {
         String pathInfo = request.getPathInfo();
         HttpSession session = request.getSession(false);
         Integer currentUserId = (Integer) session.getAttribute("userId");
+        Integer currentEmployeeId = (Integer) session.getAttribute("employeeId");
 
         if (pathInfo == null || pathInfo.equals("/")) {
-            handleGetEmployeeProfile(currentUserId, response);
+            handleGetEmployeeProfile(currentUserId, currentEmployeeId, request, response);
         } else {
             ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Unknown endpoint!");
         }
@@ -49,23 +57,38 @@ public class EmployeeSelfController extends HttpServlet {
      * Handles the retrieval of the personal employee profile for the user
      * associated with the provided user ID. It delegates the retrieval to the
      * {@link EmployeeSelfService} and sends the {@link EmployeeProfile} as a
-     * JSON response. Returns an error response if the profile cannot be fetched.
+     * JSON response once it is available. Returns an error response if the
+     * profile cannot be fetched.
      *
-     * @param userId   The ID of the currently logged-in user whose profile is being requested.
-     * @param response The {@code HttpServletResponse} object.
-     * @throws IOException If an I/O error occurs during response processing.
+     * @param userId     The ID of the currently logged-in user whose profile is being requested.
+     * @param employeeId The ID of the employee linked to the user, as stored in the session at login,
+     *                   or {@code null} if it has to be looked up.
+     * @param request    The {@code HttpServletRequest} object, put into asynchronous mode.
+     * @param response   The {@code HttpServletResponse} object.
      */
-    private void handleGetEmployeeProfile(Integer userId, HttpServletResponse response) throws IOException {
-        try {
-            EmployeeProfile employeeProfile = employeeSelfService.getPersonalEmployeeProfile(userId);
-            if (employeeProfile == null) {
-                ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, "Error fetching personal employee profile!");
-                return;
-            }
+    private void handleGetEmployeeProfile(Integer userId, Integer employeeId, HttpServletRequest request, HttpServletResponse response) {
+        AsyncContext asyncContext = request.startAsync();
 
-            ApiUtils.sendJsonResponse(response, employeeProfile);
-        } catch (SQLException e) {
-            ApiUtils.sendExceptionResponse(response, null, e);
-        }
+        employeeSelfService.getPersonalEmployeeProfileAsync(userId, employeeId).whenComplete((employeeProfile, e) -> {
+            try {
+                if (e != null) {
+                    Exception failure;
+                    try {
+                        failure = DatabaseExecutor.unwrap(e);
+                    } catch (RuntimeException unchecked) {
+                        failure = unchecked;
+                    }
+                    ApiUtils.sendExceptionResponse(response, null, failure);
+                } else if (employeeProfile == null) {
+                    ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, "Error fetching personal employee profile!");
+                } else {
+                    ApiUtils.sendJsonResponse(response, employeeProfile);
+                }
+            } catch (IOException | RuntimeException sendException) {
+                logger.log(Level.WARNING, "Failed to send employee profile response", sendException);
+            } finally {
+                asyncContext.complete();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.leanx.app.api.system;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.leanx.app.repository.base.UpdateSqlCache;
+import com.leanx.app.service.modules.employee.EmployeeCache;
+import com.leanx.app.service.modules.user.auth.UserAuthCache;
+import com.leanx.app.utils.ApiUtils;
+import com.leanx.app.utils.DatabaseUtils;
+import com.leanx.app.utils.database.QueryMetrics;
+import com.leanx.app.utils.database.TransactionTemplate;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Servlet controller exposing runtime metrics of the backend, such as the state
+ * of the database connection pool. Intended for operators sizing and monitoring
+ * the application under load. Reading the metrics requires the 'View System Settings'
+ * permission, resetting them the 'Modify System Settings' permission.
+ */
+@WebServlet(name = "MetricsController", urlPatterns = "/api/metrics/*")
+public class MetricsController extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String VIEW_PERMISSION = "View System Settings";
+    private static final String MODIFY_PERMISSION = "Modify System Settings";
+
+    /**
+     * Handles GET requests for the metrics endpoints:
+     * - `/api/metrics/database/pool`: Gets the statistics of the database connection pool.
+     * - `/api/metrics/database/statements`: Gets the statistics of the SQL statement caches.
+     * - `/api/metrics/database/replicas`: Gets the routing of read-only queries to the read replicas.
+     * - `/api/metrics/database/queries`: Gets the execution statistics of the SQL statements that took
+     * the most time, optionally limited through the `limit` parameter.
+     * - `/api/metrics/database/transactions`: Gets the statistics of the transactions run through the
+     * transaction template.
+     * - `/api/metrics/database/availability`: Gets the state of the circuit breakers and the bulkheads
+     * guarding the primary database and the read replicas.
+     * - `/api/metrics/caches`: Gets the statistics of the caches of application data.
+     *
+     * @param request  The {@code HttpServletRequest} object containing the client's request.
+     * @param response The {@code HttpServletResponse} object for sending the response to the client.
+     * @throws ServletException If a servlet-specific error occurs.
+     * @throws IOException      If an I/O error occurs while handling the request.
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if (!hasPermission(request, VIEW_PERMISSION)) {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_FORBIDDEN, "Missing Permission. Access Denied!");
+            return;
+        }
+        String pathInfo = request.getPathInfo();
+
+        if ("/database/pool".equals(pathInfo)) {
+            ApiUtils.sendJsonResponse(response, DatabaseUtils.getPoolStatistics());
+        } else if ("/database/statements".equals(pathInfo)) {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("preparedStatements", DatabaseUtils.getPoolStatistics().getStatementCache());
+            statistics.put("updateStatements", UpdateSqlCache.getStatistics());
+            ApiUtils.sendJsonResponse(response, statistics);
+        } else if ("/database/replicas".equals(pathInfo)) {
+            ApiUtils.sendJsonResponse(response, DatabaseUtils.getReadRoutingStatistics());
+        } else if ("/database/queries".equals(pathInfo)) {
+            handleGetQueryStatistics(request, response);
+        } else if ("/database/transactions".equals(pathInfo)) {
+            ApiUtils.sendJsonResponse(response, TransactionTemplate.getStatistics());
+        } else if ("/database/availability".equals(pathInfo)) {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("circuitBreaker", DatabaseUtils.getCircuitBreakerStatistics());
+            statistics.put("bulkhead", DatabaseUtils.getBulkheadStatistics());
+            statistics.put("replicaCircuitBreaker", DatabaseUtils.getReplicaCircuitBreakerStatistics());
+            statistics.put("replicaBulkhead", DatabaseUtils.getReplicaBulkheadStatistics());
+            ApiUtils.sendJsonResponse(response, statistics);
+        } else if ("/caches".equals(pathInfo)) {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("employees", EmployeeCache.getStatistics());
+            statistics.put("userAuth", UserAuthCache.getStatistics());
+            ApiUtils.sendJsonResponse(response, statistics);
+        } else {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Unknown endpoint!");
+        }
+    }
+
+    /**
+     * Handles DELETE requests for the metrics endpoints:
+     * - `/api/metrics/database/queries`: Resets the execution statistics of the SQL statements.
+     *
+     * @param request  The {@code HttpServletRequest} object containing the client's request.
+     * @param response The {@code HttpServletResponse} object for sending the response to the client.
+     * @throws ServletException If a servlet-specific error occurs.
+     * @throws IOException      If an I/O error occurs while handling the request.
+     */
+    @Override
+    protected void doDelete(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if (!hasPermission(request, MODIFY_PERMISSION)) {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_FORBIDDEN, "Missing Permission. Access Denied!");
+            return;
+        }
+        if ("/database/queries".equals(request.getPathInfo())) {
+            QueryMetrics.reset();
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+        } else {
+            ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Unknown endpoint!");
+        }
+    }
+
+    /**
+     * Checks whether the permissions stored in the session at login include the given permission.
+     *
+     * @param request    The {@code HttpServletRequest} object containing the client's request.
+     * @param permission The name of the required permission.
+     * @return {@code true} if the user of the session has the permission.
+     */
+    private static boolean hasPermission(HttpServletRequest request, String permission) {
+        HttpSession session = request.getSession(false);
+        return session != null && session.getAttribute("permissions") instanceof List<?> permissions
+            && permissions.contains(permission);
+    }
+
+    /**
+     * Handles the retrieval of the SQL statement execution statistics, ordered by the total
+     * time spent executing each statement. The optional `limit` parameter restricts the number
+     * of statements returned (default 50).
+     *
+     * @param request  The {@code HttpServletRequest} object containing the `limit` parameter.
+     * @param response The {@code HttpServletResponse} object.
+     * @throws IOException If an I/O error occurs during response processing.
+     */
+    private void handleGetQueryStatistics(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        int limit = 50;
+        String limitParameter = request.getParameter("limit");
+        if (limitParameter != null) {
+            try {
+                limit = Integer.parseInt(limitParameter);
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit <= 0) {
+                ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid limit!");
+                return;
+            }
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", QueryMetrics.ENABLED);
+        statistics.put("slowQueryThresholdMillis", QueryMetrics.SLOW_QUERY_THRESHOLD_MILLIS);
+        statistics.put("statementCount", QueryMetrics.getStatementCount());
+        statistics.put("acquireLatency", QueryMetrics.getAcquireLatency());
+        statistics.put("queries", QueryMetrics.getStatistics(limit));
+        ApiUtils.sendJsonResponse(response, statistics);
+    }
+}
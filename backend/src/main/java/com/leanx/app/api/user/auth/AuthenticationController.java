@@ -7,6 +7,7 @@ import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leanx.app.model.dto.LoginContext;
 import com.leanx.app.service.modules.system.configs.SecurityConfig;
 import com.leanx.app.service.modules.user.admin.UserService;
 import com.leanx.app.service.modules.user.auth.AuthenticationService;
@@ -90,7 +91,8 @@ public class AuthenticationController extends HttpServlet {
     /**
      * Handles the user login process. It authenticates the user based on the
      * provided username and password. Upon successful authentication, it creates
-     * a new session and stores the user ID. It also handles specific authentication
+     * a new session and stores the user ID, the linked employee ID, the roles and the
+     * permissions of the user, which are read in one query during the login. It also handles specific authentication
      * exceptions like first login or password expiry by generating a temporary
      * token for password change.
      *
@@ -145,18 +147,20 @@ public class AuthenticationController extends HttpServlet {
             }
             session = request.getSession(true);
 
-            int authUserId = authService.authenticate(username, password);
-            if (authUserId == -1) {
+            LoginContext loginContext = authService.login(username, password);
+            if (loginContext == null) {
                 session.invalidate();
                 ApiUtils.sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "Incorrect username or password. Please Try again!");
                 return;
             }
 
-            // TODO: Implement Role Concept
-            // List<Roles> roles = userRoleViewRepository.loadUserRoles(authUserId);
-            // session.setAttribute("roles", roles);
-
-            session.setAttribute("userId", authUserId);
+            // everything the session needs was read together with the user, so later requests do not query it again
+            session.setAttribute("userId", loginContext.getUserId());
+            if (loginContext.getEmployeeId() != null) {
+                session.setAttribute("employeeId", loginContext.getEmployeeId());
+            }
+            session.setAttribute("roles", loginContext.getRoles());
+            session.setAttribute("permissions", loginContext.getPermissions());
             session.setMaxInactiveInterval(SecurityConfig.SESSION_TIMEOUT);
 
             ApiUtils.sendJsonResponse(response, "Login successful");
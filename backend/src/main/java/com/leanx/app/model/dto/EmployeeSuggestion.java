@@ -0,0 +1,45 @@
+package com.leanx.app.model.dto;
+
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) representing one suggestion of the employee typeahead.
+ * It only carries what a picker needs to display and select an employee: the ID
+ * and the display name ("first last").
+ */
+public class EmployeeSuggestion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Integer id;
+    private final String displayName;
+
+    /**
+     * Constructs an {@code EmployeeSuggestion} object.
+     *
+     * @param id          The unique identifier of the employee.
+     * @param displayName The display name of the employee.
+     */
+    public EmployeeSuggestion(Integer id, String displayName) {
+        this.id = id;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the unique identifier of the employee.
+     *
+     * @return The employee ID.
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Returns the display name of the employee.
+     *
+     * @return The first and last name of the employee.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
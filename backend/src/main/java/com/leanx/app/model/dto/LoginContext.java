@@ -0,0 +1,82 @@
+package com.leanx.app.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) holding everything a login needs from the database, read in one
+ * query: the authentication data of the user, the employee linked to the account, and the
+ * names of its roles and of the permissions granted by them.
+ * <p>
+ * The {@link UserAuthSnapshot} contains the password hash, so only the other fields are meant
+ * to be stored in a session.
+ */
+public class LoginContext implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final UserAuthSnapshot user;
+    private final Integer employeeId;
+    private final List<String> roles;
+    private final List<String> permissions;
+
+    /**
+     * Constructs a {@code LoginContext} object.
+     *
+     * @param user        The authentication data of the user.
+     * @param employeeId  The ID of the linked employee, or {@code null} if the account is not linked.
+     * @param roles       The names of the roles of the user.
+     * @param permissions The names of the permissions granted by the roles.
+     */
+    public LoginContext(UserAuthSnapshot user, Integer employeeId, List<String> roles, List<String> permissions) {
+        this.user = user;
+        this.employeeId = employeeId;
+        this.roles = List.copyOf(roles);
+        this.permissions = List.copyOf(permissions);
+    }
+
+    /**
+     * Returns the authentication data of the user.
+     *
+     * @return The user snapshot.
+     */
+    public UserAuthSnapshot getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the unique identifier of the user.
+     *
+     * @return The user ID.
+     */
+    public Integer getUserId() {
+        return user.getId();
+    }
+
+    /**
+     * Returns the ID of the employee linked to the account.
+     *
+     * @return The employee ID, or {@code null} if the account is not linked to an employee.
+     */
+    public Integer getEmployeeId() {
+        return employeeId;
+    }
+
+    /**
+     * Returns the names of the roles of the user, sorted alphabetically.
+     *
+     * @return An unmodifiable list of role names.
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Returns the names of the permissions granted by the roles of the user, sorted alphabetically.
+     *
+     * @return An unmodifiable list of permission names.
+     */
+    public List<String> getPermissions() {
+        return permissions;
+    }
+}
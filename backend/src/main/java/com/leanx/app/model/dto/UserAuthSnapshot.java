@@ -0,0 +1,125 @@
+package com.leanx.app.model.dto;
+
+import java.io.Serializable;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Objects;
+
+import com.leanx.app.model.entity.User;
+import com.leanx.app.model.entity.User.UserStatus;
+
+/**
+ * Immutable snapshot of the fields of a {@link User} that authentication decides on: the ID,
+ * status, password hash and expiry, lockout state and first login flag.
+ * Snapshots are shared by all threads through the user authentication cache, so the mutable
+ * JDBC date types are copied on the way in and out.
+ */
+public final class UserAuthSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Integer id;
+    private final String name;
+    private final UserStatus status;
+    private final String passwordHash;
+    private final Long passwordExpiryDate;
+    private final int numFailedLoginAttempts;
+    private final Long lockUntil;
+    private final boolean firstLogin;
+
+    private UserAuthSnapshot(User user) {
+        this.id = user.getId();
+        this.name = user.getName();
+        this.status = user.getStatus();
+        this.passwordHash = user.getPasswordHash();
+        this.passwordExpiryDate = user.getPasswordExpiryDate() != null ? user.getPasswordExpiryDate().getTime() : null;
+        this.numFailedLoginAttempts = user.getNumFailedLoginAttempts() != null ? user.getNumFailedLoginAttempts() : 0;
+        this.lockUntil = user.getLockUntil() != null ? user.getLockUntil().getTime() : null;
+        this.firstLogin = Boolean.TRUE.equals(user.isFirstLogin());
+    }
+
+    /**
+     * Creates the snapshot of a user.
+     *
+     * @param user The user, may be {@code null}.
+     * @return The snapshot, or {@code null} if {@code user} is {@code null}.
+     */
+    public static UserAuthSnapshot of(User user) {
+        return user != null ? new UserAuthSnapshot(user) : null;
+    }
+
+    /**
+     * Returns the unique identifier of the user.
+     *
+     * @return The user ID.
+     */
+    public Integer getId() { return id; }
+
+    /**
+     * Returns the username.
+     *
+     * @return The username.
+     */
+    public String getName() { return name; }
+
+    /**
+     * Returns the status of the account.
+     *
+     * @return The user status.
+     */
+    public UserStatus getStatus() { return status; }
+
+    /**
+     * Returns the hash of the current password.
+     *
+     * @return The password hash.
+     */
+    public String getPasswordHash() { return passwordHash; }
+
+    /**
+     * Returns the date the current password expires.
+     *
+     * @return A copy of the password expiry date, or {@code null} if it does not expire.
+     */
+    public Date getPasswordExpiryDate() { return passwordExpiryDate != null ? new Date(passwordExpiryDate) : null; }
+
+    /**
+     * Returns the number of failed login attempts since the last successful login.
+     *
+     * @return The number of failed login attempts.
+     */
+    public int getNumFailedLoginAttempts() { return numFailedLoginAttempts; }
+
+    /**
+     * Returns the time the account was locked.
+     *
+     * @return A copy of the lock timestamp, or {@code null} if the account was not locked by failed attempts.
+     */
+    public Timestamp getLockUntil() { return lockUntil != null ? new Timestamp(lockUntil) : null; }
+
+    /**
+     * Returns whether the user still has to replace their initial password.
+     *
+     * @return {@code true} before the first password change.
+     */
+    public boolean isFirstLogin() { return firstLogin; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserAuthSnapshot other)) {
+            return false;
+        }
+        return numFailedLoginAttempts == other.numFailedLoginAttempts && firstLogin == other.firstLogin
+            && Objects.equals(id, other.id) && Objects.equals(name, other.name) && status == other.status
+            && Objects.equals(passwordHash, other.passwordHash) && Objects.equals(passwordExpiryDate, other.passwordExpiryDate)
+            && Objects.equals(lockUntil, other.lockUntil);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, status, passwordHash, passwordExpiryDate, numFailedLoginAttempts, lockUntil, firstLogin);
+    }
+}
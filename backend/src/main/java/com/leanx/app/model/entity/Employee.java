@@ -4,15 +4,20 @@ import java.io.Serializable;
 import java.sql.Date;
 import java.sql.Timestamp;
 
+import com.leanx.app.model.mapping.Column;
+import com.leanx.app.model.mapping.MappedTable;
+
 /**
  * Entity representing an employee within the LeanX application.
  * Contains details such as personal information, job specifics, employment status,
  * and audit timestamps.
  */
+@MappedTable("employees")
 public class Employee implements Serializable {
 
     private static final long serialVersionUID = 10L;
 
+    @Column(insertable = false)
     private Integer id;
     private String firstName;
     private String lastName;
@@ -24,12 +29,18 @@ public class Employee implements Serializable {
     private EmploymentStatus employmentStatus;
     private Date hireDate;
     private Date startDate;
+    @Column(insertable = false)
     private Date terminationDate;
+    @Column(insertable = false)
     private String terminationReason;
+    @Column(insertable = false)
     private Date retentionEndDate;
+    @Column(insertable = false)
     private Timestamp createdAt;
     private Integer createdBy;
+    @Column(insertable = false)
     private Integer lastUpdatedBy;
+    @Column(insertable = false)
     private Timestamp lastUpdatedAt;
 
     /**
@@ -4,28 +4,40 @@ import java.io.Serializable;
 import java.sql.Date;
 import java.sql.Timestamp;
 
+import com.leanx.app.model.mapping.Column;
+import com.leanx.app.model.mapping.MappedTable;
+
 /**
  * Entity representing a user account within the LeanX application.
  * Stores authentication details, status, type, and audit information.
  */
+@MappedTable("users")
 public class User implements Serializable {
 
     private static final long serialVersionUID = 20L;
 
+    @Column(insertable = false)
     private Integer id;
     private String name;
     private UserStatus status;
     private UserType type;
     private String passwordHash;
     private Date passwordExpiryDate;
+    @Column(insertable = false)
     private Integer numFailedLoginAttempts;
+    @Column(insertable = false)
     private Timestamp lockUntil;
+    @Column(insertable = false)
     private Boolean isFirstLogin;
+    @Column(insertable = false)
     private Timestamp lastLoginAt;
     private Date validUntil;
     private Integer createdBy;
+    @Column(insertable = false)
     private Timestamp createdAt;
+    @Column(insertable = false)
     private Integer lastUpdatedBy;
+    @Column(insertable = false)
     private Timestamp lastUpdatedAt;
 
     /**
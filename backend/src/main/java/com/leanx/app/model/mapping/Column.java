@@ -0,0 +1,31 @@
+package com.leanx.app.model.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Customises the mapping of a field of a {@link MappedTable} class.
+ * Fields without this annotation are mapped to the snake case form of their name
+ * and are included in the generated INSERT statement.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Column {
+
+    /**
+     * The name of the column, defaults to the snake case form of the field name.
+     *
+     * @return The column name.
+     */
+    String name() default "";
+
+    /**
+     * Whether the column is written by the generated INSERT statement.
+     * Set to {@code false} for generated keys and columns maintained by the database.
+     *
+     * @return {@code true} if the column is insertable.
+     */
+    boolean insertable() default true;
+}
@@ -0,0 +1,35 @@
+package com.leanx.app.model.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a model class whose rows are read from the given table or view.
+ * For every annotated class a {@code <ClassName>RowMapper} is generated at compile time
+ * in the same package, containing the column list, the SELECT and INSERT statements
+ * and a reflection-free mapping of result set rows to instances of the class.
+ * <p>
+ * Classes with a no-argument constructor are populated through their setters, all other
+ * classes through a constructor taking every mapped field in declaration order.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface MappedTable {
+
+    /**
+     * The name of the table or view the class is mapped to.
+     *
+     * @return The table name.
+     */
+    String value();
+
+    /**
+     * Whether the mapping is read-only. No INSERT statement is generated for read-only mappings,
+     * which is the case for database views.
+     *
+     * @return {@code true} if the mapping is read-only.
+     */
+    boolean readOnly() default false;
+}
@@ -0,0 +1,462 @@
+package com.leanx.app.model.mapping.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import com.leanx.app.model.mapping.Column;
+import com.leanx.app.model.mapping.MappedTable;
+
+/**
+ * Annotation processor generating a {@code <ClassName>RowMapper} for every class annotated
+ * with {@link MappedTable}. The generated mappers read columns by index in the order of the
+ * generated SELECT statement, resolve enum columns through precomputed lookup tables and
+ * bind INSERT parameters without reflection.
+ */
+@SupportedAnnotationTypes("com.leanx.app.model.mapping.MappedTable")
+public class RowMapperProcessor extends AbstractProcessor {
+
+    /**
+     * Describes a mapped field of an annotated class.
+     */
+    private static final class MappedField {
+        private final VariableElement field;
+        private final String column;
+        private final boolean insertable;
+        private final ColumnType type;
+        private final String enumType;
+
+        private MappedField(VariableElement field, String column, boolean insertable, ColumnType type, String enumType) {
+            this.field = field;
+            this.column = column;
+            this.insertable = insertable;
+            this.type = type;
+            this.enumType = enumType;
+        }
+    }
+
+    /**
+     * JDBC accessors for the supported field types.
+     */
+    private enum ColumnType {
+        INT("getInt", null, "INTEGER"),
+        LONG("getLong", null, "BIGINT"),
+        DOUBLE("getDouble", null, "DOUBLE"),
+        BOOLEAN("getBoolean", null, "BOOLEAN"),
+        STRING("getString", "setString", null),
+        BIG_DECIMAL("getBigDecimal", "setBigDecimal", null),
+        DATE("getDate", "setDate", null),
+        TIMESTAMP("getTimestamp", "setTimestamp", null),
+        ENUM("getString", null, null);
+
+        private final String getter;
+        private final String setter;
+        private final String sqlType;
+
+        ColumnType(String getter, String setter, String sqlType) {
+            this.getter = getter;
+            this.setter = setter;
+            this.sqlType = sqlType;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(MappedTable.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@MappedTable can only be applied to classes");
+                continue;
+            }
+
+            try {
+                generate((TypeElement) element);
+            } catch (IOException e) {
+                error(element, "Failed to write row mapper: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates the row mapper for the given class.
+     *
+     * @param type The annotated class.
+     * @throws IOException If the source file cannot be written.
+     */
+    private void generate(TypeElement type) throws IOException {
+        MappedTable table = type.getAnnotation(MappedTable.class);
+        List<MappedField> fields = collectFields(type);
+        if (fields == null) {
+            return;
+        }
+
+        boolean useSetters = hasConstructor(type, 0);
+        if (!useSetters && !hasConstructor(type, fields.size())) {
+            error(type, "@MappedTable classes need a no-argument constructor or a constructor taking all mapped fields");
+            return;
+        }
+
+        String packageName = ((PackageElement) type.getEnclosingElement()).getQualifiedName().toString();
+        String entityName = type.getSimpleName().toString();
+        String mapperName = entityName + "RowMapper";
+
+        StringJoiner columns = new StringJoiner(", ");
+        StringJoiner insertColumns = new StringJoiner(", ");
+        StringJoiner placeholders = new StringJoiner(", ");
+        boolean hasEnums = false;
+        for (MappedField f : fields) {
+            columns.add(f.column);
+            if (f.insertable) {
+                insertColumns.add(f.column);
+                placeholders.add("?");
+            }
+            hasEnums |= f.type == ColumnType.ENUM;
+        }
+        boolean generateInsert = !table.readOnly() && placeholders.length() > 0;
+
+        StringBuilder src = new StringBuilder();
+        src.append("package ").append(packageName).append(";\n\n");
+        if (generateInsert) {
+            src.append("import java.sql.PreparedStatement;\n");
+        }
+        src.append("import java.sql.ResultSet;\n");
+        src.append("import java.sql.SQLException;\n");
+        if (generateInsert) {
+            src.append("import java.sql.Types;\n");
+        }
+        if (hasEnums) {
+            src.append("import java.util.HashMap;\n");
+            src.append("import java.util.Map;\n");
+            src.append("import java.util.logging.Level;\n");
+            src.append("import java.util.logging.Logger;\n");
+        }
+        src.append("\nimport javax.annotation.processing.Generated;\n\n");
+        src.append("import com.leanx.app.repository.base.RowMapper;\n\n");
+
+        src.append("/**\n");
+        src.append(" * Maps rows of {@code ").append(table.value()).append("} to {@link ").append(entityName).append("} objects.\n");
+        src.append(" * Generated from the {@code @MappedTable} annotation, do not edit.\n");
+        src.append(" */\n");
+        src.append("@Generated(\"").append(RowMapperProcessor.class.getName()).append("\")\n");
+        src.append("public final class ").append(mapperName).append(" implements RowMapper<").append(entityName).append("> {\n\n");
+
+        src.append("    /** Shared stateless instance. */\n");
+        src.append("    public static final ").append(mapperName).append(" INSTANCE = new ").append(mapperName).append("();\n\n");
+        src.append("    /** The mapped table or view. */\n");
+        src.append("    public static final String TABLE = \"").append(table.value()).append("\";\n\n");
+        src.append("    /** The mapped columns in the order expected by {@link #mapRow(ResultSet)}. */\n");
+        src.append("    public static final String COLUMNS = \"").append(columns).append("\";\n\n");
+        src.append("    /** Selects all mapped columns of all rows, may be extended with WHERE and ORDER BY clauses. */\n");
+        src.append("    public static final String SELECT = \"SELECT \" + COLUMNS + \" FROM \" + TABLE;\n\n");
+        if (generateInsert) {
+            src.append("    /** Inserts a row, parameters are bound by {@link #bindInsert(PreparedStatement, ").append(entityName).append(")}. */\n");
+            src.append("    public static final String INSERT = \"INSERT INTO \" + TABLE + \" (").append(insertColumns)
+                    .append(") VALUES (").append(placeholders).append(")\";\n\n");
+        }
+
+        if (hasEnums) {
+            src.append("    private static final Logger logger = Logger.getLogger(").append(mapperName).append(".class.getName());\n\n");
+            for (MappedField f : fields) {
+                if (f.type == ColumnType.ENUM) {
+                    src.append("    private static final Map<String, ").append(f.enumType).append("> ").append(lookupName(f))
+                            .append(" = new HashMap<>();\n");
+                }
+            }
+            src.append("\n    static {\n");
+            for (MappedField f : fields) {
+                if (f.type == ColumnType.ENUM) {
+                    src.append("        for (").append(f.enumType).append(" value : ").append(f.enumType).append(".values()) {\n");
+                    src.append("            ").append(lookupName(f)).append(".put(value.name(), value);\n");
+                    src.append("        }\n");
+                }
+            }
+            src.append("    }\n\n");
+        }
+
+        src.append("    private ").append(mapperName).append("() {}\n\n");
+
+        src.append("    /**\n");
+        src.append("     * Maps the current row of a result set selected with {@link #SELECT} to a {@link ").append(entityName).append("}.\n");
+        src.append("     *\n");
+        src.append("     * @param rs The {@code ResultSet} positioned on the row to map.\n");
+        src.append("     * @return The mapped {@link ").append(entityName).append("}.\n");
+        src.append("     * @throws SQLException If a column cannot be read.\n");
+        src.append("     */\n");
+        src.append("    @Override\n");
+        src.append("    public ").append(entityName).append(" mapRow(ResultSet rs) throws SQLException {\n");
+        if (useSetters) {
+            src.append("        ").append(entityName).append(" entity = new ").append(entityName).append("();\n");
+            int index = 1;
+            for (MappedField f : fields) {
+                String setter = findAccessor(type, "set" + capitalize(f.field.getSimpleName().toString()), 1);
+                if (setter == null) {
+                    error(f.field, "No setter found for mapped field");
+                    return;
+                }
+                src.append("        entity.").append(setter).append("(").append(readExpression(f, index++)).append(");\n");
+            }
+            src.append("        return entity;\n");
+        } else {
+            src.append("        return new ").append(entityName).append("(\n");
+            int index = 1;
+            for (MappedField f : fields) {
+                src.append("            ").append(readExpression(f, index)).append(index < fields.size() ? ",\n" : "\n");
+                index++;
+            }
+            src.append("        );\n");
+        }
+        src.append("    }\n");
+
+        if (generateInsert) {
+            src.append("\n    /**\n");
+            src.append("     * Binds the insertable fields of the given object to the parameters of {@link #INSERT}.\n");
+            src.append("     *\n");
+            src.append("     * @param stmt   The statement prepared from {@link #INSERT}.\n");
+            src.append("     * @param entity The object to insert.\n");
+            src.append("     * @return The number of bound parameters.\n");
+            src.append("     * @throws SQLException If a parameter cannot be bound.\n");
+            src.append("     */\n");
+            src.append("    public static int bindInsert(PreparedStatement stmt, ").append(entityName).append(" entity) throws SQLException {\n");
+            int index = 1;
+            for (MappedField f : fields) {
+                if (!f.insertable) {
+                    continue;
+                }
+                String name = f.field.getSimpleName().toString();
+                String getter = findAccessor(type, "get" + capitalize(name), 0);
+                if (getter == null) {
+                    getter = findAccessor(type, "is" + capitalize(name), 0);
+                }
+                if (getter == null) {
+                    getter = findAccessor(type, name, 0);
+                }
+                if (getter == null) {
+                    error(f.field, "No getter found for insertable field");
+                    return;
+                }
+                src.append("        ").append(bindStatement(f, index++, "entity." + getter + "()")).append("\n");
+            }
+            src.append("        return ").append(index - 1).append(";\n");
+            src.append("    }\n");
+        }
+
+        if (hasEnums) {
+            src.append("\n    /**\n");
+            src.append("     * Resolves an enum constant from its name, logging unknown names instead of failing the whole row.\n");
+            src.append("     *\n");
+            src.append("     * @param values The lookup table of the enum type.\n");
+            src.append("     * @param name   The name read from the column, may be {@code null}.\n");
+            src.append("     * @param column The column the name was read from.\n");
+            src.append("     * @param <E>    The enum type.\n");
+            src.append("     * @return The enum constant, or {@code null} if the name is {@code null} or unknown.\n");
+            src.append("     */\n");
+            src.append("    private static <E> E lookup(Map<String, E> values, String name, String column) {\n");
+            src.append("        if (name == null) {\n");
+            src.append("            return null;\n");
+            src.append("        }\n");
+            src.append("        E value = values.get(name);\n");
+            src.append("        if (value == null) {\n");
+            src.append("            logger.log(Level.WARNING, \"Unknown value ''{0}'' in column {1}\", new Object[] {name, column});\n");
+            src.append("        }\n");
+            src.append("        return value;\n");
+            src.append("    }\n");
+        }
+
+        src.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + mapperName, type).openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    /**
+     * Collects the mapped instance fields of the given class in declaration order.
+     *
+     * @param type The annotated class.
+     * @return The mapped fields, or {@code null} if a field has an unsupported type.
+     */
+    private List<MappedField> collectFields(TypeElement type) {
+        List<MappedField> fields = new ArrayList<>();
+        boolean valid = true;
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+
+            Column column = field.getAnnotation(Column.class);
+            String name = column != null && !column.name().isEmpty() ? column.name() : toSnakeCase(field.getSimpleName().toString());
+            boolean insertable = column == null || column.insertable();
+
+            TypeMirror fieldType = field.asType();
+            ColumnType columnType = columnType(fieldType);
+            if (columnType == null) {
+                error(field, "Unsupported type for mapped field: " + fieldType);
+                valid = false;
+                continue;
+            }
+
+            String enumType = columnType == ColumnType.ENUM
+                    ? ((TypeElement) ((DeclaredType) fieldType).asElement()).getQualifiedName().toString()
+                    : null;
+            fields.add(new MappedField(field, name, insertable, columnType, enumType));
+        }
+
+        return valid ? fields : null;
+    }
+
+    /**
+     * Determines the JDBC accessors for the given field type.
+     *
+     * @param type The field type.
+     * @return The column type, or {@code null} if the type is not supported.
+     */
+    private ColumnType columnType(TypeMirror type) {
+        TypeKind kind = type.getKind();
+        if (kind == TypeKind.INT) {
+            return ColumnType.INT;
+        } else if (kind == TypeKind.LONG) {
+            return ColumnType.LONG;
+        } else if (kind == TypeKind.DOUBLE) {
+            return ColumnType.DOUBLE;
+        } else if (kind == TypeKind.BOOLEAN) {
+            return ColumnType.BOOLEAN;
+        } else if (kind != TypeKind.DECLARED) {
+            return null;
+        }
+
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getKind() == ElementKind.ENUM) {
+            return ColumnType.ENUM;
+        }
+
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.Integer": return ColumnType.INT;
+            case "java.lang.Long": return ColumnType.LONG;
+            case "java.lang.Double": return ColumnType.DOUBLE;
+            case "java.lang.Boolean": return ColumnType.BOOLEAN;
+            case "java.lang.String": return ColumnType.STRING;
+            case "java.math.BigDecimal": return ColumnType.BIG_DECIMAL;
+            case "java.sql.Date": return ColumnType.DATE;
+            case "java.sql.Timestamp": return ColumnType.TIMESTAMP;
+            default: return null;
+        }
+    }
+
+    /**
+     * Builds the expression reading the given field from the result set.
+     *
+     * @param f     The mapped field.
+     * @param index The column index.
+     * @return The Java expression.
+     */
+    private String readExpression(MappedField f, int index) {
+        String read = "rs." + f.type.getter + "(" + index + ")";
+        if (f.type == ColumnType.ENUM) {
+            return "lookup(" + lookupName(f) + ", " + read + ", \"" + f.column + "\")";
+        }
+        return read;
+    }
+
+    /**
+     * Builds the statement binding the given field to an INSERT parameter.
+     *
+     * @param f     The mapped field.
+     * @param index The parameter index.
+     * @param value The Java expression reading the value.
+     * @return The Java statement.
+     */
+    private String bindStatement(MappedField f, int index, String value) {
+        if (f.type == ColumnType.ENUM) {
+            return "stmt.setString(" + index + ", " + value + " == null ? null : " + value + ".name());";
+        } else if (f.type.setter != null) {
+            return "stmt." + f.type.setter + "(" + index + ", " + value + ");";
+        }
+        return "stmt.setObject(" + index + ", " + value + ", Types." + f.type.sqlType + ");";
+    }
+
+    /**
+     * Finds a public method with the given name and number of parameters.
+     *
+     * @param type       The class to search.
+     * @param name       The method name.
+     * @param parameters The number of parameters.
+     * @return The method name, or {@code null} if no such method exists.
+     */
+    private String findAccessor(TypeElement type, String name, int parameters) {
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(name)
+                    && method.getParameters().size() == parameters
+                    && method.getModifiers().contains(Modifier.PUBLIC)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasConstructor(TypeElement type, int parameters) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().size() == parameters && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String lookupName(MappedField f) {
+        return f.column.toUpperCase() + "_VALUES";
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Converts a camel case field name to its snake case column name.
+     *
+     * @param name The field name, e.g. {@code passwordExpiryDate}.
+     * @return The column name, e.g. {@code password_expiry_date}.
+     */
+    private static String toSnakeCase(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (Character.isUpperCase(ch)) {
+                sb.append('_').append(Character.toLowerCase(ch));
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
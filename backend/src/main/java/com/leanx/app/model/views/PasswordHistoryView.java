@@ -1,16 +1,17 @@
 package com.leanx.app.model.views;
 
 import java.io.Serializable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.sql.Timestamp;
 
+import com.leanx.app.model.mapping.MappedTable;
+
 /**
  * Represents a read-only view of password history entries.
  * This class encapsulates the user ID, the hashed password, and the timestamp
  * when the password was created. It is designed to be populated from a
  * database view or a similar query result.
  */
+@MappedTable(value = "password_history_view", readOnly = true)
 public class PasswordHistoryView implements Serializable {
 
     private static final long serialVersionUID = 100L;
@@ -20,18 +21,17 @@ public class PasswordHistoryView implements Serializable {
     private final Timestamp createdAt;
 
     /**
-     * Constructs an instance of {@code PasswordHistoryView} by extracting data
-     * from a {@code ResultSet}.
+     * Constructs an instance of {@code PasswordHistoryView}. Rows of the
+     * {@code password_history_view} are mapped by the generated {@link PasswordHistoryViewRowMapper}.
      *
-     * @param rs The {@code ResultSet} containing the password history data.
-     * It is expected to have columns named "user_id", "password_hash",
-     * and "created_at".
-     * @throws SQLException If an error occurs while accessing the data from the {@code ResultSet}.
+     * @param userId       The ID of the user the password belonged to.
+     * @param passwordHash The hashed password.
+     * @param createdAt    The timestamp when the password was created.
      */
-    public PasswordHistoryView(ResultSet rs) throws SQLException {
-        this.userId = rs.getInt("user_id");
-        this.passwordHash = rs.getString("password_hash");
-        this.createdAt= rs.getTimestamp("created_at");
+    public PasswordHistoryView(Integer userId, String passwordHash, Timestamp createdAt) {
+        this.userId = userId;
+        this.passwordHash = passwordHash;
+        this.createdAt = createdAt;
     }
 
     /**
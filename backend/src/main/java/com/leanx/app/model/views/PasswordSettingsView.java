@@ -1,10 +1,10 @@
 package com.leanx.app.model.views;
 
 import java.io.Serializable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.sql.Timestamp;
 
+import com.leanx.app.model.mapping.MappedTable;
+
 /**
  * Represents a read-only view of password configuration settings.
  * This class encapsulates the ID, configuration key, configuration value,
@@ -12,6 +12,7 @@ import java.sql.Timestamp;
  * who last updated the setting. It is designed to be populated from a
  * database view or a similar query result.
  */
+@MappedTable(value = "password_settings_view", readOnly = true)
 public class PasswordSettingsView implements Serializable {
 
     private static final long serialVersionUID = 200L;
@@ -25,23 +26,26 @@ public class PasswordSettingsView implements Serializable {
     private final Integer lastUpdatedBy;
 
     /**
-     * Constructs an instance of {@code PasswordSettingsView} by extracting data
-     * from a {@code ResultSet}.
+     * Constructs an instance of {@code PasswordSettingsView}. Rows of the
+     * {@code password_settings_view} are mapped by the generated {@link PasswordSettingsViewRowMapper}.
      *
-     * @param rs The {@code ResultSet} containing the password settings data.
-     * It is expected to have columns named "id", "config_key", "config_value",
-     * "config_category", "description", "last_updated", and "last_updated_by".
-     * @throws SQLException If an error occurs while accessing the data from the 
-     * {@code ResultSet}.
+     * @param id             The unique identifier of the setting.
+     * @param configKey      The configuration key.
+     * @param configValue    The configuration value.
+     * @param configCategory The configuration category.
+     * @param description    The description of the setting.
+     * @param lastUpdated    The timestamp when the setting was last updated.
+     * @param lastUpdatedBy  The ID of the user who last updated the setting.
      */
-    public PasswordSettingsView(ResultSet rs) throws SQLException {
-        this.id = rs.getInt("id");
-        this.configKey = rs.getString("config_key");
-        this.configValue = rs.getString("config_value");
-        this.configCategory = rs.getString("config_category");
-        this.description = rs.getString("description");
-        this.lastUpdated = rs.getTimestamp("last_updated");
-        this.lastUpdatedBy = rs.getInt("last_updated_by");
+    public PasswordSettingsView(Integer id, String configKey, String configValue, String configCategory,
+                                String description, Timestamp lastUpdated, Integer lastUpdatedBy) {
+        this.id = id;
+        this.configKey = configKey;
+        this.configValue = configValue;
+        this.configCategory = configCategory;
+        this.description = description;
+        this.lastUpdated = lastUpdated;
+        this.lastUpdatedBy = lastUpdatedBy;
     }
 
     /**
@@ -4,17 +4,30 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Level;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import com.leanx.app.model.entity.Employee;
-import com.leanx.app.model.entity.Employee.EmploymentStatus;
-import com.leanx.app.model.entity.Employee.EmploymentType;
+import com.leanx.app.model.entity.EmployeeRowMapper;
+import com.leanx.app.repository.base.BatchExecutor;
+import com.leanx.app.repository.base.BatchResult;
 import com.leanx.app.repository.base.CrudRepository;
+import com.leanx.app.repository.base.Cursor;
+import com.leanx.app.repository.base.KeysetPagination;
+import com.leanx.app.repository.base.Page;
+import com.leanx.app.repository.base.Sort;
+import com.leanx.app.repository.base.StreamingQuery;
+import com.leanx.app.repository.base.UpdateSqlCache;
 import com.leanx.app.utils.DatabaseUtils;
+import com.leanx.app.utils.database.DatabaseExecutor;
 
 /**
  * Repository class for performing CRUD (Create, Read, Update, Delete) operations
@@ -24,8 +37,11 @@ public class EmployeeRepository implements CrudRepository<Employee> {
 
     private static final Logger logger = Logger.getLogger(EmployeeRepository.class.getName());
 
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("first_name", "last_name", "hire_date");
+
     /**
-     * Creates a new employee record in the database.
+     * Creates a new employee record in the database. The ID generated for the record is set
+     * on the given {@link Employee}.
      *
      * @param employee The {@link Employee} object containing the data for the new record.
      * @return The number of rows affected by the insert operation (should be 1 on success).
@@ -38,25 +54,17 @@ public class EmployeeRepository implements CrudRepository<Employee> {
             throw new IllegalArgumentException("Invalid employee object.");
         }
 
-        String sql = "INSERT INTO employees (first_name, last_name, email, job_title, department, " +
-                "employment_type, employment_status, hire_date, start_date, created_by, manager_id) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection c = DatabaseUtils.getMySQLConnection();
-             PreparedStatement SQLStatement = c.prepareStatement(sql)) {
-            SQLStatement.setString(1, employee.getFirstName());
-            SQLStatement.setString(2, employee.getLastName());
-            SQLStatement.setString(3, employee.getEmail());
-            SQLStatement.setString(4, employee.getJobTitle());
-            SQLStatement.setString(5, employee.getDepartment());
-            SQLStatement.setString(6, String.valueOf(employee.getEmploymentType()));
-            SQLStatement.setString(7, String.valueOf(employee.getEmploymentStatus()));
-            SQLStatement.setDate(8, employee.getHireDate());
-            SQLStatement.setDate(9, employee.getStartDate());
-            SQLStatement.setInt(10, employee.getCreatedBy());
-            SQLStatement.setInt(11, employee.getManagerId());
+             PreparedStatement SQLStatement = c.prepareStatement(EmployeeRowMapper.INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            EmployeeRowMapper.bindInsert(SQLStatement, employee);
 
-            return SQLStatement.executeUpdate();
+            int affectedRows = SQLStatement.executeUpdate();
+            try (ResultSet keys = SQLStatement.getGeneratedKeys()) {
+                if (keys.next()) {
+                    employee.setId(keys.getInt(1));
+                }
+            }
+            return affectedRows;
         } catch (SQLException e) {
             throw new SQLException("Error creating new employee", e);
         }
@@ -72,41 +80,45 @@ public class EmployeeRepository implements CrudRepository<Employee> {
      */
     @Override
     public Employee read(Integer id) throws SQLException {
-        String sql = "SELECT * FROM employees WHERE id = ?";
+        try (Connection c = DatabaseUtils.getMySQLReadConnection()) {
+            return read(c, id);
+        }
+    }
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
-             PreparedStatement SQLStatement = c.prepareStatement(sql)) {
+    /**
+     * Retrieves an employee record from the primary database, bypassing the read replicas.
+     * Used to fill caches, which would otherwise keep data a lagging replica has not caught up
+     * with for their whole lifetime. Reading from the primary does not make the session sticky.
+     *
+     * @param id The ID of the employee to retrieve.
+     * @return An {@link Employee} object representing the retrieved record, or {@code null}
+     * if no employee with the given ID exists.
+     * @throws SQLException If a database access error occurs during the retrieval.
+     */
+    public Employee readFromPrimary(Integer id) throws SQLException {
+        try (Connection c = DatabaseUtils.getMySQLConnection()) {
+            return read(c, id);
+        }
+    }
 
+    /**
+     * Asynchronous variant of {@link #readFromPrimary(Integer)}, run by the {@link DatabaseExecutor}.
+     *
+     * @param id The ID of the employee to retrieve.
+     * @return A {@code CompletableFuture} completed with the {@link Employee}, or with {@code null} if it does not exist.
+     */
+    public CompletableFuture<Employee> readFromPrimaryAsync(Integer id) {
+        return DatabaseExecutor.supplyAsync(() -> readFromPrimary(id));
+    }
+
+    private Employee read(Connection c, Integer id) throws SQLException {
+        String sql = EmployeeRowMapper.SELECT + " WHERE id = ?";
+
+        try (PreparedStatement SQLStatement = c.prepareStatement(sql)) {
             SQLStatement.setInt(1, id);
             try (ResultSet rs = SQLStatement.executeQuery()) {
                 if (rs.next()) {
-                    Employee employee = new Employee();
-                    employee.setId(rs.getInt("id"));
-                    employee.setFirstName(rs.getString("first_name"));
-                    employee.setLastName(rs.getString("last_name"));
-                    employee.setEmail(rs.getString("email"));
-                    employee.setManagerId(rs.getInt("manager_id"));
-                    employee.setJobTitle(rs.getString("job_title"));
-                    employee.setDepartment(rs.getString("department"));
-
-                    try {
-                        employee.setEmploymentType(EmploymentType.valueOf(rs.getString("employment_type")));
-                        employee.setEmploymentStatus(EmploymentStatus.valueOf(rs.getString("employment_status")));
-                    } catch (IllegalArgumentException e) {
-                        logger.log(Level.WARNING, "IllegalArgumentException: " + e.getMessage(), e);
-                    }
-
-                    employee.setHireDate(rs.getDate("hire_date"));
-                    employee.setStartDate(rs.getDate("start_date"));
-                    employee.setTerminationDate(rs.getDate("termination_date"));
-                    employee.setTerminationReason(rs.getString("termination_reason"));
-                    employee.setRetentionEndDate(rs.getDate("retention_end_date"));
-                    employee.setCreatedAt(rs.getTimestamp("created_at"));
-                    employee.setCreatedBy(rs.getInt("created_by"));
-                    employee.setLastUpdatedBy(rs.getInt("last_updated_by"));
-                    employee.setLastUpdatedAt(rs.getTimestamp("last_updated_at"));
-
-                    return employee;
+                    return EmployeeRowMapper.INSTANCE.mapRow(rs);
                 }
             }
             return null;
@@ -122,7 +134,8 @@ public class EmployeeRepository implements CrudRepository<Employee> {
      * @param updates A {@code Map} where the keys are the column names to update
      * and the values are the new values for those columns.
      * @return The number of rows affected by the update operation (should be 1 on success).
-     * @throws IllegalArgumentException If the provided {@code updates} map is null or empty.
+     * @throws IllegalArgumentException If the provided {@code updates} map is null or empty,
+     * or contains a key that is not a valid column name.
      * @throws SQLException             If a database access error occurs during the update.
      */
     @Override
@@ -131,16 +144,10 @@ public class EmployeeRepository implements CrudRepository<Employee> {
             throw new IllegalArgumentException("Invalid input parameters");
         }
 
-        StringBuilder sql = new StringBuilder("UPDATE employees SET ");
-        for (String field : updates.keySet()) {
-            sql.append(field).append(" = ?, ");
-        }
-
-        sql.setLength(sql.length() - 2);
-        sql.append(" WHERE id = ?");
+        String sql = UpdateSqlCache.updateById(EmployeeRowMapper.TABLE, updates.keySet());
 
         try (Connection c = DatabaseUtils.getMySQLConnection();
-             PreparedStatement SQLStatement = c.prepareStatement(sql.toString())) {
+             PreparedStatement SQLStatement = c.prepareStatement(sql)) {
             int index = 1;
 
             for (Object value : updates.values()) {
@@ -189,19 +196,126 @@ public class EmployeeRepository implements CrudRepository<Employee> {
     @Override
     public List<Employee> findAll() throws SQLException {
         List<Employee> employees = new ArrayList<>();
-        String sql = "SELECT id FROM employees"; // Only fetch IDs for efficiency
+        forEach(employees::add);
+        return employees;
+    }
 
-        try (Connection connection = DatabaseUtils.getMySQLConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            while (rs.next()) {
-                Employee employee = read(rs.getInt("id"));
-                if (employee != null) {
-                    employees.add(employee);
-                }
-            }
+    /**
+     * Retrieves all employee records with a single query and passes each {@link Employee}
+     * to the consumer while the rows are streamed from the database.
+     *
+     * @param consumer The consumer receiving the employees in the order they are read.
+     * @throws SQLException If a database access error occurs during the retrieval.
+     */
+    @Override
+    public void forEach(Consumer<? super Employee> consumer) throws SQLException {
+        try {
+            StreamingQuery.forEach(EmployeeRowMapper.SELECT, EmployeeRowMapper.INSTANCE, consumer);
+        } catch (SQLException e) {
+            throw new SQLException("Error retrieving employees", e);
+        }
+    }
+
+    /**
+     * Retrieves all employee records as a lazily populated stream backed by an open
+     * database cursor. The stream must be closed to release the connection.
+     *
+     * @return A {@code Stream} of all {@link Employee} objects in the database.
+     * @throws SQLException If a database access error occurs while executing the query.
+     */
+    @Override
+    public Stream<Employee> stream() throws SQLException {
+        try {
+            return StreamingQuery.stream(EmployeeRowMapper.SELECT, EmployeeRowMapper.INSTANCE);
+        } catch (SQLException e) {
+            throw new SQLException("Error retrieving employees", e);
+        }
+    }
+
+    /**
+     * Retrieves one page of employee records using keyset pagination.
+     * Besides the ID, the records can be sorted by first name, last name or hire date.
+     *
+     * @param after   The cursor of the previous page, or {@code null} for the first page.
+     * @param limit   The maximum number of employees on the page.
+     * @param sort    The ordering of the records, or {@code null} to order by ID.
+     * @return The requested {@link Page} of {@link Employee} objects.
+     * @throws IllegalArgumentException If the limit is out of range, the sort column is not supported or the
+     *                                  cursor does not match it.
+     * @throws SQLException             If a database access error occurs during the retrieval.
+     */
+    @Override
+    public Page<Employee> findPage(Cursor after, int limit, Sort sort) throws IllegalArgumentException, SQLException {
+        try {
+            return KeysetPagination.fetch(EmployeeRowMapper.TABLE, EmployeeRowMapper.COLUMNS, SORTABLE_COLUMNS, EmployeeRowMapper.INSTANCE,
+                    Employee::getId, after, limit, sort);
+        } catch (SQLException e) {
+            throw new SQLException("Error retrieving employees after ID " + (after != null ? after.getId() : null), e);
+        }
+    }
+
+    /**
+     * Creates many employee records using JDBC batching, with one transaction per chunk of records.
+     *
+     * @param employees The {@link Employee} objects containing the data for the new records.
+     * @return The {@link BatchResult} with the outcome of every record, in the order of {@code employees}.
+     * @throws IllegalArgumentException If the list or one of the employees is null.
+     * @throws SQLException             If no connection can be obtained or the statement cannot be prepared.
+     */
+    @Override
+    public BatchResult createAll(List<Employee> employees) throws IllegalArgumentException, SQLException {
+        if (employees == null || employees.contains(null)) {
+            throw new IllegalArgumentException("Invalid employee object.");
+        }
+
+        try {
+            return BatchExecutor.execute(EmployeeRowMapper.INSERT, employees, EmployeeRowMapper::bindInsert);
+        } catch (SQLException e) {
+            throw new SQLException("Error creating " + employees.size() + " employees", e);
+        }
+    }
+
+    /**
+     * Updates many employee records using JDBC batching, with one transaction per chunk of records.
+     *
+     * @param updates The column names to update and their new values, keyed by the ID of the employee.
+     * @return The {@link BatchResult} with the outcome of every update, in the iteration order of {@code updates}.
+     * @throws IllegalArgumentException If the map or one of the updates is null, empty or contains an invalid column name.
+     * @throws SQLException             If no connection can be obtained or a statement cannot be prepared.
+     */
+    @Override
+    public BatchResult updateAll(Map<Integer, Map<String, Object>> updates) throws IllegalArgumentException, SQLException {
+        if (updates == null) {
+            throw new IllegalArgumentException("Invalid input parameters");
+        }
+
+        try {
+            return BatchExecutor.executeUpdates(EmployeeRowMapper.TABLE, updates);
+        } catch (SQLException e) {
+            throw new SQLException("Error updating " + updates.size() + " employees", e);
+        }
+    }
+
+    /**
+     * Deletes many employee records using JDBC batching, with one transaction per chunk of records.
+     *
+     * @param ids The IDs of the employee records to delete.
+     * @return The {@link BatchResult} with the outcome of every delete, in the order of {@code ids}.
+     * @throws IllegalArgumentException If the list is null or contains an ID that is null or not positive.
+     * @throws SQLException             If no connection can be obtained or the statement cannot be prepared.
+     */
+    @Override
+    public BatchResult deleteAll(List<Integer> ids) throws IllegalArgumentException, SQLException {
+        if (ids == null || ids.stream().anyMatch(id -> id == null || id <= 0)) {
+            throw new IllegalArgumentException("Invalid employee ID.");
+        }
+        String sql = "DELETE FROM employees WHERE id = ?";
+
+        try {
+            return BatchExecutor.execute(sql, ids, (stmt, id) -> stmt.setInt(1, id));
+        } catch (SQLException e) {
+            throw new SQLException("Error deleting " + ids.size() + " employees", e);
         }
-        return employees;
     }
 
     /**
@@ -215,7 +329,7 @@ public class EmployeeRepository implements CrudRepository<Employee> {
         List<Employee> employees = new ArrayList<>();
         String sql = "SELECT id, first_name, last_name, email FROM employees WHERE start_date = CURDATE()";
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
              PreparedStatement stmt = c.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -245,7 +359,7 @@ public class EmployeeRepository implements CrudRepository<Employee> {
         List<Employee> employees = new ArrayList<>();
         String sql = "SELECT id, first_name, last_name, email FROM employees WHERE LOWER(first_name) LIKE LOWER(?) OR LOWER(last_name) LIKE LOWER(?)";
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
              PreparedStatement stmt = c.prepareStatement(sql)) {
 
             stmt.setString(1, "%" + name + "%");
@@ -265,6 +379,68 @@ public class EmployeeRepository implements CrudRepository<Employee> {
         return employees;
     }
 
+    /**
+     * Searches for employees using the FULLTEXT index {@code ft_employees_search}, which is
+     * built with the ngram parser over the first name, last name, email, job title and
+     * department. The query is searched as a phrase, so it matches values containing its
+     * n-grams in sequence, and the results are ordered by relevance.
+     * <p>
+     * Queries shorter than the n-gram size of the server ({@code ngram_token_size}, 2 by
+     * default) find no n-grams and return no results.
+     *
+     * @param query The search term.
+     * @param limit The maximum number of employees to return.
+     * @return A {@code List} of {@link Employee} objects containing basic information, most
+     * relevant first. Returns an empty list if no matches are found.
+     * @throws SQLException If a database access error occurs during the search.
+     */
+    public List<Employee> findByNameFullText(String query, int limit) throws SQLException {
+        List<Employee> employees = new ArrayList<>();
+        String sql = "SELECT id, first_name, last_name, email, "
+            + "MATCH(first_name, last_name, email, job_title, department) AGAINST (? IN BOOLEAN MODE) AS relevance "
+            + "FROM employees WHERE MATCH(first_name, last_name, email, job_title, department) AGAINST (? IN BOOLEAN MODE) "
+            + "ORDER BY relevance DESC, last_name, first_name, id LIMIT ?";
+
+        // Quoting makes the query a phrase and keeps boolean operators in it from being interpreted
+        String phrase = "\"" + query.replace("\"", " ").trim() + "\"";
+
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
+             PreparedStatement stmt = c.prepareStatement(sql)) {
+
+            stmt.setString(1, phrase);
+            stmt.setString(2, phrase);
+            stmt.setInt(3, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    employees.add(new Employee(rs.getInt("id"), rs.getString("first_name"), rs.getString("last_name"), rs.getString("email")));
+                }
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Retrieves the basic information (ID, first name, last name, email) of all employees,
+     * e.g. to build a search index.
+     *
+     * @return A {@code List} of {@link Employee} objects containing basic information.
+     * @throws SQLException If a database access error occurs during the retrieval.
+     */
+    public List<Employee> findAllNames() throws SQLException {
+        List<Employee> employees = new ArrayList<>();
+        String sql = "SELECT id, first_name, last_name, email FROM employees";
+
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
+             PreparedStatement stmt = c.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                employees.add(new Employee(rs.getInt("id"), rs.getString("first_name"), rs.getString("last_name"), rs.getString("email")));
+            }
+        }
+        return employees;
+    }
+
     /**
      * Retrieves a basic employee information (ID, first name, last name, email)
      * based on the employee's ID.
@@ -277,7 +453,7 @@ public class EmployeeRepository implements CrudRepository<Employee> {
     public Employee findById(Integer id) throws SQLException {
         String sql = "SELECT id, first_name, last_name, email FROM employees WHERE id = ?";
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
              PreparedStatement stmt = c.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
@@ -309,7 +485,7 @@ public class EmployeeRepository implements CrudRepository<Employee> {
         List<String> name = new ArrayList<>();
         String sql = "SELECT first_name, last_name FROM employees WHERE id = ?";
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
             PreparedStatement stmt = c.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -322,6 +498,37 @@ public class EmployeeRepository implements CrudRepository<Employee> {
         return name;
     }
 
+    /**
+     * Asynchronous variant of {@link #findAllSubordinates(Integer)}, run by the {@link DatabaseExecutor}.
+     *
+     * @param managerId The ID of the manager.
+     * @return A {@code CompletableFuture} completed with the IDs of all direct and indirect subordinates.
+     */
+    public CompletableFuture<List<Integer>> findAllSubordinatesAsync(Integer managerId) {
+        return DatabaseExecutor.supplyAsync(() -> findAllSubordinates(managerId));
+    }
+
+    /**
+     * Retrieves the reporting line of every employee.
+     *
+     * @return A {@code Map} of the ID of every employee to the ID of their manager, or to
+     * {@code null} if the employee has no manager.
+     * @throws SQLException If a database access error occurs during the retrieval.
+     */
+    public Map<Integer, Integer> findManagerIds() throws SQLException {
+        Map<Integer, Integer> managerIds = new HashMap<>();
+        String sql = "SELECT id, manager_id FROM employees";
+
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
+            PreparedStatement stmt = c.prepareStatement(sql);
+            ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                managerIds.put(rs.getInt("id"), rs.getObject("manager_id", Integer.class));
+            }
+        }
+        return managerIds;
+    }
+
     /**
      * Retrieves a list of IDs of employees who directly report to the given manager.
      *
@@ -335,7 +542,7 @@ public class EmployeeRepository implements CrudRepository<Employee> {
         List<Integer> subordinates = new ArrayList<>();
         String sql = "SELECT id FROM employees WHERE manager_id = ?";
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
             PreparedStatement stmt = c.prepareStatement(sql)) {
             stmt.setInt(1, managerId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -349,7 +556,7 @@ public class EmployeeRepository implements CrudRepository<Employee> {
 
     /**
      * Retrieves a list of IDs of all employees who are direct or indirect
-     * subordinates of the given manager using a recursive common table expression (CTE).
+     * subordinates of the given manager from the {@code employee_hierarchy_closure} table.
      *
      * @param managerId The ID of the top-level manager.
      * @return A {@code List} of employee IDs who are subordinates (direct or indirect)
@@ -358,24 +565,95 @@ public class EmployeeRepository implements CrudRepository<Employee> {
      * @throws SQLException If a database access error occurs during the retrieval.
      */
     public List<Integer> findAllSubordinates(Integer managerId) throws SQLException {
+        return findSubordinates(managerId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves a list of IDs of the employees at most {@code maxDepth} levels below the given
+     * manager, e.g. the direct reports and their direct reports for a depth of 2.
+     *
+     * @param managerId The ID of the manager.
+     * @param maxDepth  The number of levels below the manager to include.
+     * @return A {@code List} of employee IDs, ordered by their level below the manager.
+     * Returns an empty list if the manager has no subordinates or if the manager ID is invalid.
+     * @throws IllegalArgumentException If {@code maxDepth} is less than 1.
+     * @throws SQLException             If a database access error occurs during the retrieval.
+     */
+    public List<Integer> findSubordinates(Integer managerId, int maxDepth) throws IllegalArgumentException, SQLException {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Invalid maximum depth: " + maxDepth);
+        }
+
         List<Integer> subordinates = new ArrayList<>();
-        // Recursive CTE to get all indirect subordinates
-        String sql = "WITH RECURSIVE Subordinates AS (" +
-                    "    SELECT id FROM employees WHERE manager_id = ?" +
-                    "    UNION ALL" +
-                    "    SELECT e.id FROM employees e INNER JOIN Subordinates s ON s.id = e.manager_id" +
-                    ")" +
-                    "SELECT id FROM Subordinates";
+        String sql = "SELECT descendant_id FROM employee_hierarchy_closure WHERE ancestor_id = ? AND depth BETWEEN 1 AND ? ORDER BY depth";
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
             PreparedStatement stmt = c.prepareStatement(sql)) {
             stmt.setInt(1, managerId);
+            stmt.setInt(2, maxDepth);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    subordinates.add(rs.getInt("id"));
+                    subordinates.add(rs.getInt("descendant_id"));
                 }
             }
         }
         return subordinates;
     }
+
+    /**
+     * Retrieves the IDs of the direct and indirect managers of the given employee from the
+     * {@code employee_hierarchy_closure} table.
+     *
+     * @param employeeId The ID of the employee.
+     * @return A {@code List} of manager IDs, starting with the direct manager and ending with
+     * the top of the hierarchy. Returns an empty list for employees without a manager.
+     * @throws SQLException If a database access error occurs during the retrieval.
+     */
+    public List<Integer> findManagerChain(Integer employeeId) throws SQLException {
+        List<Integer> managers = new ArrayList<>();
+        String sql = "SELECT ancestor_id FROM employee_hierarchy_closure WHERE descendant_id = ? AND depth > 0 ORDER BY depth";
+
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
+            PreparedStatement stmt = c.prepareStatement(sql)) {
+            stmt.setInt(1, employeeId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    managers.add(rs.getInt("ancestor_id"));
+                }
+            }
+        }
+        return managers;
+    }
+
+    /**
+     * Compares the {@code employee_hierarchy_closure} table with the reporting hierarchy
+     * recomputed from {@code employees.manager_id} using a recursive common table expression (CTE).
+     * Every path carries the IDs it visited and never revisits one, so reporting cycles, which
+     * only bulk imports can create, end the recursion instead of running into its depth limit.
+     *
+     * @return The number of rows that are missing from or wrong in the closure table,
+     * {@code 0} if it is consistent.
+     * @throws SQLException If a database access error occurs during the comparison.
+     */
+    public long countHierarchyClosureDrift() throws SQLException {
+        String sql = "WITH RECURSIVE paths (ancestor_id, descendant_id, depth, path) AS (" +
+                    "    SELECT id, id, 0, CAST(id AS CHAR(8000)) FROM employees" +
+                    "    UNION ALL" +
+                    "    SELECT p.ancestor_id, e.id, p.depth + 1, CONCAT(p.path, ',', e.id) FROM paths p" +
+                    "    JOIN employees e ON e.manager_id = p.descendant_id AND FIND_IN_SET(e.id, p.path) = 0" +
+                    ")" +
+                    "SELECT" +
+                    "    (SELECT COUNT(*) FROM paths p LEFT JOIN employee_hierarchy_closure c" +
+                    "        ON c.ancestor_id = p.ancestor_id AND c.descendant_id = p.descendant_id AND c.depth = p.depth" +
+                    "        WHERE c.ancestor_id IS NULL) +" +
+                    "    (SELECT COUNT(*) FROM employee_hierarchy_closure c LEFT JOIN paths p" +
+                    "        ON p.ancestor_id = c.ancestor_id AND p.descendant_id = c.descendant_id AND p.depth = c.depth" +
+                    "        WHERE p.ancestor_id IS NULL) AS drift";
+
+        try (Connection c = DatabaseUtils.getMySQLConnection();
+            PreparedStatement stmt = c.prepareStatement(sql);
+            ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong("drift") : 0;
+        }
+    }
 }
\ No newline at end of file
@@ -1,20 +1,21 @@
 package com.leanx.app.repository;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import com.leanx.app.model.views.PasswordHistoryView;
+import com.leanx.app.model.views.PasswordHistoryViewRowMapper;
+import com.leanx.app.repository.base.Sort;
+import com.leanx.app.repository.base.ViewQuery;
 import com.leanx.app.repository.base.ViewRepository;
-import com.leanx.app.utils.DatabaseUtils;
 
 /**
- * Repository class for accessing the {@code password_history_view} and the
- * {@code password_history} table. Provides methods to retrieve the entire
- * password history view and to load the password history for a specific user.
+ * Repository class for accessing the {@code password_history_view}. Provides
+ * methods to retrieve the entire password history view, to stream it and to
+ * query the recent history of a user from the view.
  */
 public class PasswordHistoryViewRepository extends ViewRepository<PasswordHistoryView> {
 
@@ -34,46 +35,56 @@ public class PasswordHistoryViewRepository extends ViewRepository<PasswordHistor
      * @throws SQLException If a database access error occurs during the retrieval.
      */
     public List<PasswordHistoryView> findAllPasswordHistory() throws SQLException {
-        return findAll("password_history_view", rs -> {
-            try {
-                return new PasswordHistoryView(rs);
-            } catch (SQLException e) {
-                throw new RuntimeException("Mapping failed!", e);
-            }
-        });
+        return findAll(PasswordHistoryViewRowMapper.TABLE, PasswordHistoryViewRowMapper.COLUMNS, PasswordHistoryViewRowMapper.INSTANCE);
     }
 
     /**
-     * Loads the password history for a specific user, ordered by creation date
-     * in descending order, up to a specified history size. This method directly
-     * queries the {@code password_history} table.
+     * Passes every entry of the {@code password_history_view} to the consumer while the rows
+     * are streamed from the database, e.g. for exports and audits of the whole history.
      *
-     * @param userId      The ID of the user whose password history is to be retrieved.
-     * @param historySize The maximum number of recent passwords to retrieve.
-     * @return A {@code List} of hashed passwords (Strings) for the given user,
-     * ordered from the most recent to the least recent, up to the specified
-     * {@code historySize}.
+     * @param consumer The consumer receiving the {@link PasswordHistoryView} objects.
+     * @return The number of entries passed to the consumer.
      * @throws SQLException If a database access error occurs during the retrieval.
      */
-    public static List<String> loadPasswordHistory(Integer userId, Integer historySize) throws SQLException {
-        List<String> passwordHistory = new ArrayList<>();
-        String sql = "SELECT password_hash FROM password_history WHERE user_id = ? ORDER BY created_at DESC LIMIT ?";
+    public int forEachPasswordHistory(Consumer<? super PasswordHistoryView> consumer) throws SQLException {
+        return forEach(PasswordHistoryViewRowMapper.TABLE, PasswordHistoryViewRowMapper.COLUMNS, PasswordHistoryViewRowMapper.INSTANCE, consumer);
+    }
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
-             PreparedStatement stmt = c.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            stmt.setInt(2, historySize);
+    /**
+     * Returns a lazily populated {@link Stream} over all entries of the {@code password_history_view}.
+     * The stream must be closed, preferably by a try-with-resources block.
+     *
+     * @return A {@link Stream} of {@link PasswordHistoryView} objects.
+     * @throws SQLException If a database access error occurs while executing the query.
+     */
+    public Stream<PasswordHistoryView> streamPasswordHistory() throws SQLException {
+        return stream(PasswordHistoryViewRowMapper.TABLE, PasswordHistoryViewRowMapper.COLUMNS, PasswordHistoryViewRowMapper.INSTANCE);
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String passwordHash = rs.getString("password_hash");
-                    if (passwordHash != null) {
-                        passwordHistory.add(passwordHash);
-                    }
-                }
-            }
+    /**
+     * Retrieves the most recent entries of the {@code password_history_view} for a specific user.
+     * The filter, ordering and limit are applied by the database. The history is read from the
+     * primary, so a password changed moments ago is already part of it.
+     *
+     * @param userId       The ID of the user whose password history is to be retrieved.
+     * @param createdSince The earliest creation timestamp to include, or {@code null} for no lower bound.
+     * @param limit        The maximum number of entries to retrieve.
+     * @return A {@code List} of {@link PasswordHistoryView} objects, ordered from the most recent
+     * to the least recent.
+     * @throws SQLException             If a database access error occurs during the retrieval.
+     * @throws IllegalArgumentException If the user ID is null or the limit is less than 1.
+     */
+    public List<PasswordHistoryView> findPasswordHistory(Integer userId, Timestamp createdSince, int limit) throws SQLException {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID must not be null.");
         }
 
-        return passwordHistory;
+        return findFromPrimary(ViewQuery.from(PasswordHistoryViewRowMapper.TABLE)
+                .select(PasswordHistoryViewRowMapper.COLUMNS)
+                .where("user_id", ViewQuery.Operator.EQ, userId)
+                .whereBetween("created_at", createdSince, null)
+                .orderBy("created_at", Sort.Direction.DESC)
+                .limit(limit),
+            PasswordHistoryViewRowMapper.INSTANCE);
     }
-}
\ No newline at end of file
+}
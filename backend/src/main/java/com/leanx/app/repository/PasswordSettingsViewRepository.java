@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.leanx.app.model.views.PasswordSettingsView;
+import com.leanx.app.model.views.PasswordSettingsViewRowMapper;
 import com.leanx.app.repository.base.ViewRepository;
 
 /**
@@ -30,13 +31,7 @@ public class PasswordSettingsViewRepository extends ViewRepository<PasswordSetti
      * @throws SQLException If a database access error occurs during the retrieval.
      */
     public List<PasswordSettingsView> findAllPasswordSettings() throws SQLException {
-        return findAll("password_settings_view", rs -> {
-            try {
-                return new PasswordSettingsView(rs);
-            } catch (SQLException e) {
-                throw new RuntimeException("Mapping failed!", e);
-            }
-        });
+        return findAll(PasswordSettingsViewRowMapper.TABLE, PasswordSettingsViewRowMapper.COLUMNS, PasswordSettingsViewRowMapper.INSTANCE);
     }
 
     /**
@@ -50,9 +45,8 @@ public class PasswordSettingsViewRepository extends ViewRepository<PasswordSetti
     public Map<String, String> loadPasswordSettings() throws SQLException {
         Map<String, String> pwSettings = new HashMap<>();
 
-        for (PasswordSettingsView setting : findAllPasswordSettings()) {
-            pwSettings.put(setting.getConfigKey(), setting.getConfigValue());
-        }
+        forEach(PasswordSettingsViewRowMapper.TABLE, PasswordSettingsViewRowMapper.COLUMNS, PasswordSettingsViewRowMapper.INSTANCE,
+            setting -> pwSettings.put(setting.getConfigKey(), setting.getConfigValue()));
 
         return pwSettings;
     }
@@ -5,9 +5,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import com.leanx.app.repository.base.BatchExecutor;
+import com.leanx.app.repository.base.BatchResult;
 import com.leanx.app.utils.DatabaseUtils;
+import com.leanx.app.utils.database.DatabaseExecutor;
 
 /**
  * Repository class for managing the links between user accounts and employee records
@@ -56,6 +62,40 @@ public class UserEmployeeLinkRepository {
         }
     }
 
+    /**
+     * Saves many links between users and employees using JDBC batching, with one
+     * transaction per chunk of links.
+     *
+     * @param userIdsByEmployeeId The IDs of the users to link, keyed by the ID of the employee.
+     * @return The {@link BatchResult} with the outcome of every link, in the iteration order of the map.
+     * @throws SQLException If no connection can be obtained or the statement cannot be prepared.
+     */
+    public BatchResult saveUserEmployeeLinks(Map<Integer, Integer> userIdsByEmployeeId) throws SQLException {
+        String sql = "INSERT INTO user_employee_link (user_id, employee_id) VALUES (?, ?)";
+
+        return BatchExecutor.execute(sql, new ArrayList<>(userIdsByEmployeeId.entrySet()), (stmt, link) -> {
+            stmt.setInt(1, link.getValue());
+            stmt.setInt(2, link.getKey());
+        });
+    }
+
+    /**
+     * Deletes many links between users and employees using JDBC batching, with one
+     * transaction per chunk of links.
+     *
+     * @param userIdsByEmployeeId The IDs of the users to unlink, keyed by the ID of the employee.
+     * @return The {@link BatchResult} with the outcome of every link, in the iteration order of the map.
+     * @throws SQLException If no connection can be obtained or the statement cannot be prepared.
+     */
+    public BatchResult deleteUserEmployeeLinks(Map<Integer, Integer> userIdsByEmployeeId) throws SQLException {
+        String sql = "DELETE FROM user_employee_link WHERE user_id = ? AND employee_id = ?";
+
+        return BatchExecutor.execute(sql, new ArrayList<>(userIdsByEmployeeId.entrySet()), (stmt, link) -> {
+            stmt.setInt(1, link.getValue());
+            stmt.setInt(2, link.getKey());
+        });
+    }
+
     /**
      * Finds all user IDs associated with a given employee ID.
      * In a typical one-to-one relationship, this list should contain at most one ID.
@@ -69,7 +109,7 @@ public class UserEmployeeLinkRepository {
         List<Integer> userIds = new ArrayList<>();
         String sql = "SELECT user_id FROM user_employee_link WHERE employee_id = ?";
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
              PreparedStatement stmt = c.prepareStatement(sql)) {
 
             stmt.setInt(1, employeeId);
@@ -94,7 +134,7 @@ public class UserEmployeeLinkRepository {
     public Integer findEmployeeIdByUserId(Integer userId) throws SQLException {
         String sql = "SELECT employee_id FROM user_employee_link WHERE user_id = ?";
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
              PreparedStatement stmt = c.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
@@ -107,4 +147,35 @@ public class UserEmployeeLinkRepository {
             }
         }
     }
+
+    /**
+     * Finds the names of the user accounts linked to each employee, ignoring deactivated accounts.
+     *
+     * @return A {@code Map} from employee ID to the names of its linked user accounts.
+     * Employees without an active or locked account are not contained.
+     * @throws SQLException If a database access error occurs during the query.
+     */
+    public Map<Integer, List<String>> findUsernamesByEmployeeId() throws SQLException {
+        Map<Integer, List<String>> usernames = new HashMap<>();
+        String sql = "SELECT l.employee_id, u.name FROM user_employee_link l JOIN users u ON u.id = l.user_id WHERE u.status <> 'DEACTIVATED'";
+
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
+             PreparedStatement stmt = c.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                usernames.computeIfAbsent(rs.getInt("employee_id"), id -> new ArrayList<>()).add(rs.getString("name"));
+            }
+        }
+        return usernames;
+    }
+
+    /**
+     * Asynchronous variant of {@link #findEmployeeIdByUserId(Integer)}, run by the {@link DatabaseExecutor}.
+     *
+     * @param userId The ID of the user.
+     * @return A {@code CompletableFuture} completed with the linked employee ID, or {@code null} if no link exists.
+     */
+    public CompletableFuture<Integer> findEmployeeIdByUserIdAsync(Integer userId) {
+        return DatabaseExecutor.supplyAsync(() -> findEmployeeIdByUserId(userId));
+    }
 }
\ No newline at end of file
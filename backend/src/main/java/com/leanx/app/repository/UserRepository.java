@@ -4,16 +4,30 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
+import com.leanx.app.model.dto.LoginContext;
+import com.leanx.app.model.dto.UserAuthSnapshot;
 import com.leanx.app.model.entity.User;
-import com.leanx.app.model.entity.User.UserStatus;
-import com.leanx.app.model.entity.User.UserType;
+import com.leanx.app.model.entity.UserRowMapper;
+import com.leanx.app.repository.base.BatchExecutor;
+import com.leanx.app.repository.base.BatchResult;
 import com.leanx.app.repository.base.CrudRepository;
+import com.leanx.app.repository.base.Cursor;
+import com.leanx.app.repository.base.KeysetPagination;
+import com.leanx.app.repository.base.Page;
+import com.leanx.app.repository.base.Sort;
+import com.leanx.app.repository.base.StreamingQuery;
+import com.leanx.app.repository.base.UpdateSqlCache;
 import com.leanx.app.utils.DatabaseUtils;
 
 /**
@@ -24,6 +38,8 @@ public class UserRepository implements CrudRepository<User> {
 
     private static final Logger logger = Logger.getLogger(UserRepository.class.getName());
 
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("name");
+
     /**
      * Creates a new user record in the database.
      *
@@ -38,18 +54,9 @@ public class UserRepository implements CrudRepository<User> {
             throw new IllegalArgumentException("Invalid user object.");
         }
 
-        String sql = "INSERT INTO users (name, status, type, password_hash, password_expiry_date, " +
-            "valid_until, created_by) VALUES (?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection c = DatabaseUtils.getMySQLConnection();
-            PreparedStatement SQLStatement = c.prepareStatement(sql)) {
-            SQLStatement.setString(1, user.getName());
-            SQLStatement.setString(2, String.valueOf(user.getStatus()));
-            SQLStatement.setString(3, String.valueOf(user.getType()));
-            SQLStatement.setString(4, user.getPasswordHash());
-            SQLStatement.setDate(5, user.getPasswordExpiryDate());
-            SQLStatement.setDate(6, user.getValidUntil());
-            SQLStatement.setInt(7, user.getCreatedBy());
+            PreparedStatement SQLStatement = c.prepareStatement(UserRowMapper.INSERT)) {
+            UserRowMapper.bindInsert(SQLStatement, user);
 
             return SQLStatement.executeUpdate();
         } catch (SQLException e) {
@@ -58,7 +65,8 @@ public class UserRepository implements CrudRepository<User> {
     }
 
     /**
-     * Retrieves a user record from the database based on its unique ID.
+     * Retrieves a user record from the database based on its unique ID. Users are read from
+     * the primary, since their lock and password state must never lag behind.
      *
      * @param id The ID of the user to retrieve.
      * @return A {@link User} object representing the retrieved record, or {@code null}
@@ -67,7 +75,7 @@ public class UserRepository implements CrudRepository<User> {
      */
     @Override
     public User read(Integer id) throws SQLException {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        String sql = UserRowMapper.SELECT + " WHERE id = ?";
 
         try (Connection c = DatabaseUtils.getMySQLConnection();
             PreparedStatement SQLStatement = c.prepareStatement(sql)) {
@@ -75,30 +83,7 @@ public class UserRepository implements CrudRepository<User> {
             SQLStatement.setInt(1, id);
             try (ResultSet rs = SQLStatement.executeQuery()) {
                 if (rs.next()) {
-                    User user = new User();
-                    user.setId(rs.getInt("id"));
-                    user.setName(rs.getString("name"));
-
-                    try {
-                        user.setType(UserType.valueOf(rs.getString("type")));
-                        user.setStatus(UserStatus.valueOf(rs.getString("status")));
-                    } catch (IllegalArgumentException e) {
-                        logger.log(Level.WARNING, "IllegalArgumentException: " + e.getMessage(), e);
-                    }
-
-                    user.setPasswordHash(rs.getString("password_hash"));
-                    user.setPasswordExpiryDate(rs.getDate("password_expiry_date"));
-                    user.setNumFailedLoginAttempts(rs.getInt("num_failed_login_attempts"));
-                    user.setLockUntil(rs.getTimestamp("lock_until"));
-                    user.setIsFirstLogin(rs.getBoolean("is_first_login"));
-                    user.setLastLoginAt(rs.getTimestamp("last_login_at"));
-                    user.setValidUntil(rs.getDate("valid_until"));
-                    user.setCreatedBy(rs.getInt("created_by"));
-                    user.setCreatedAt(rs.getTimestamp("created_at"));
-                    user.setLastUpdatedBy(rs.getInt("last_updated_by"));
-                    user.setLastUpdatedAt(rs.getTimestamp("last_updated_at"));
-
-                    return user;
+                    return UserRowMapper.INSTANCE.mapRow(rs);
                 }
             }
 
@@ -115,7 +100,8 @@ public class UserRepository implements CrudRepository<User> {
      * @param updates A {@code Map} where the keys are the column names to update
      * and the values are the new values for those columns.
      * @return The number of rows affected by the update operation (should be 1 on success).
-     * @throws IllegalArgumentException If the provided {@code updates} map is null or empty.
+     * @throws IllegalArgumentException If the provided {@code updates} map is null or empty,
+     * or contains a key that is not a valid column name.
      * @throws SQLException             If a database access error occurs during the update.
      */
     @Override
@@ -124,16 +110,10 @@ public class UserRepository implements CrudRepository<User> {
             throw new IllegalArgumentException("Invalid input parameters");
         }
 
-        StringBuilder sql = new StringBuilder("UPDATE users SET ");
-        for (String field : updates.keySet()) {
-            sql.append(field).append(" = ?, ");
-        }
-
-        sql.setLength(sql.length() - 2);
-        sql.append(" WHERE id = ?");
+        String sql = UpdateSqlCache.updateById(UserRowMapper.TABLE, updates.keySet());
 
         try (Connection c = DatabaseUtils.getMySQLConnection();
-            PreparedStatement SQLStatement = c.prepareStatement(sql.toString())) {
+            PreparedStatement SQLStatement = c.prepareStatement(sql)) {
             int index = 1;
 
             for (Object value : updates.values()) {
@@ -183,24 +163,130 @@ public class UserRepository implements CrudRepository<User> {
     @Override
     public List<User> findAll() throws SQLException {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT id FROM users"; // Fetch only IDs for efficiency
-
-        try (java.sql.Connection connection = DatabaseUtils.getMySQLConnection();
-             java.sql.PreparedStatement pstmt = connection.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-            while (rs.next()) {
-                User user = read(rs.getInt("id"));
-                if (user != null) {
-                    users.add(user);
-                }
-            }
+        forEach(users::add);
+        return users;
+    }
+
+    /**
+     * Retrieves all user records with a single query and passes each {@link User}
+     * to the consumer while the rows are streamed from the database.
+     *
+     * @param consumer The consumer receiving the users in the order they are read.
+     * @throws SQLException If a database access error occurs during the retrieval.
+     */
+    @Override
+    public void forEach(Consumer<? super User> consumer) throws SQLException {
+        try {
+            StreamingQuery.forEach(UserRowMapper.SELECT, UserRowMapper.INSTANCE, consumer);
+        } catch (SQLException e) {
+            throw new SQLException("Error retrieving users", e);
         }
+    }
 
-        return users;
+    /**
+     * Retrieves all user records as a lazily populated stream backed by an open
+     * database cursor. The stream must be closed to release the connection.
+     *
+     * @return A {@code Stream} of all {@link User} objects in the database.
+     * @throws SQLException If a database access error occurs while executing the query.
+     */
+    @Override
+    public Stream<User> stream() throws SQLException {
+        try {
+            return StreamingQuery.stream(UserRowMapper.SELECT, UserRowMapper.INSTANCE);
+        } catch (SQLException e) {
+            throw new SQLException("Error retrieving users", e);
+        }
+    }
+
+    /**
+     * Retrieves one page of user records using keyset pagination.
+     * Besides the ID, the records can be sorted by name.
+     *
+     * @param after   The cursor of the previous page, or {@code null} for the first page.
+     * @param limit   The maximum number of users on the page.
+     * @param sort    The ordering of the records, or {@code null} to order by ID.
+     * @return The requested {@link Page} of {@link User} objects.
+     * @throws IllegalArgumentException If the limit is out of range, the sort column is not supported or the
+     *                                  cursor does not match it.
+     * @throws SQLException             If a database access error occurs during the retrieval.
+     */
+    @Override
+    public Page<User> findPage(Cursor after, int limit, Sort sort) throws IllegalArgumentException, SQLException {
+        try {
+            return KeysetPagination.fetch(UserRowMapper.TABLE, UserRowMapper.COLUMNS, SORTABLE_COLUMNS, UserRowMapper.INSTANCE,
+                    User::getId, after, limit, sort);
+        } catch (SQLException e) {
+            throw new SQLException("Error retrieving users after ID " + (after != null ? after.getId() : null), e);
+        }
+    }
+
+    /**
+     * Creates many user records using JDBC batching, with one transaction per chunk of records.
+     *
+     * @param users The {@link User} objects containing the data for the new records.
+     * @return The {@link BatchResult} with the outcome of every record, in the order of {@code users}.
+     * @throws IllegalArgumentException If the list or one of the users is null.
+     * @throws SQLException             If no connection can be obtained or the statement cannot be prepared.
+     */
+    @Override
+    public BatchResult createAll(List<User> users) throws IllegalArgumentException, SQLException {
+        if (users == null || users.contains(null)) {
+            throw new IllegalArgumentException("Invalid user object.");
+        }
+
+        try {
+            return BatchExecutor.execute(UserRowMapper.INSERT, users, UserRowMapper::bindInsert);
+        } catch (SQLException e) {
+            throw new SQLException("Error creating " + users.size() + " users", e);
+        }
+    }
+
+    /**
+     * Updates many user records using JDBC batching, with one transaction per chunk of records.
+     *
+     * @param updates The column names to update and their new values, keyed by the ID of the user.
+     * @return The {@link BatchResult} with the outcome of every update, in the iteration order of {@code updates}.
+     * @throws IllegalArgumentException If the map or one of the updates is null, empty or contains an invalid column name.
+     * @throws SQLException             If no connection can be obtained or a statement cannot be prepared.
+     */
+    @Override
+    public BatchResult updateAll(Map<Integer, Map<String, Object>> updates) throws IllegalArgumentException, SQLException {
+        if (updates == null) {
+            throw new IllegalArgumentException("Invalid input parameters");
+        }
+
+        try {
+            return BatchExecutor.executeUpdates(UserRowMapper.TABLE, updates);
+        } catch (SQLException e) {
+            throw new SQLException("Error updating " + updates.size() + " users", e);
+        }
     }
 
     /**
-     * Retrieves a user record from the database based on their unique username.
+     * Deletes many user records using JDBC batching, with one transaction per chunk of records.
+     *
+     * @param ids The IDs of the user records to delete.
+     * @return The {@link BatchResult} with the outcome of every delete, in the order of {@code ids}.
+     * @throws IllegalArgumentException If the list is null or contains an ID that is null or not positive.
+     * @throws SQLException             If no connection can be obtained or the statement cannot be prepared.
+     */
+    @Override
+    public BatchResult deleteAll(List<Integer> ids) throws IllegalArgumentException, SQLException {
+        if (ids == null || ids.stream().anyMatch(id -> id == null || id <= 0)) {
+            throw new IllegalArgumentException("Invalid user ID.");
+        }
+        String sql = "DELETE FROM users WHERE id = ?";
+
+        try {
+            return BatchExecutor.execute(sql, ids, (stmt, id) -> stmt.setInt(1, id));
+        } catch (SQLException e) {
+            throw new SQLException("Error deleting " + ids.size() + " users", e);
+        }
+    }
+
+    /**
+     * Retrieves a user record from the database based on their unique username, read from the primary.
      *
      * @param name The username of the user to retrieve.
      * @return A {@link User} object representing the retrieved record, or {@code null}
@@ -208,7 +294,7 @@ public class UserRepository implements CrudRepository<User> {
      * @throws SQLException If a database access error occurs during the retrieval.
      */
     public User read(String name) throws SQLException {
-        String sql = "SELECT * FROM users WHERE name = ?";
+        String sql = UserRowMapper.SELECT + " WHERE name = ?";
 
         try (Connection c = DatabaseUtils.getMySQLConnection();
             PreparedStatement SQLStatement = c.prepareStatement(sql)) {
@@ -217,30 +303,7 @@ public class UserRepository implements CrudRepository<User> {
             logger.log(Level.INFO, "Executing SQL Query: {0}", sql);
             try (ResultSet rs = SQLStatement.executeQuery()) {
                 if (rs.next()) {
-                    User user = new User();
-                    user.setId(rs.getInt("id"));
-                    user.setName(rs.getString("name"));
-
-                    try {
-                        user.setType(UserType.valueOf(rs.getString("type")));
-                        user.setStatus(UserStatus.valueOf(rs.getString("status")));
-                    } catch (IllegalArgumentException e) {
-                        logger.log(Level.WARNING, "IllegalArgumentException: " + e.getMessage(), e);
-                    }
-
-                    user.setPasswordHash(rs.getString("password_hash"));
-                    user.setPasswordExpiryDate(rs.getDate("password_expiry_date"));
-                    user.setNumFailedLoginAttempts(rs.getInt("num_failed_login_attempts"));
-                    user.setLockUntil(rs.getTimestamp("lock_until"));
-                    user.setIsFirstLogin(rs.getBoolean("is_first_login"));
-                    user.setLastLoginAt(rs.getTimestamp("last_login_at"));
-                    user.setValidUntil(rs.getDate("valid_until"));
-                    user.setCreatedBy(rs.getInt("created_by"));
-                    user.setCreatedAt(rs.getTimestamp("created_at"));
-                    user.setLastUpdatedBy(rs.getInt("last_updated_by"));
-                    user.setLastUpdatedAt(rs.getTimestamp("last_updated_at"));
-
-                    return user;
+                    return UserRowMapper.INSTANCE.mapRow(rs);
                 }
             }
 
@@ -249,4 +312,101 @@ public class UserRepository implements CrudRepository<User> {
             throw new SQLException("Error retrieving user with name " + name + ": " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Atomically increments the number of failed login attempts of a user on the primary and
+     * returns the new count. Concurrent failed attempts are serialized by the row lock of the
+     * update, so none of them is lost; the count is read back through {@code LAST_INSERT_ID}
+     * on the same connection.
+     *
+     * @param id        The ID of the user.
+     * @param updatedBy The ID of the user who performed the update.
+     * @return The number of failed login attempts after the increment, or {@code 0} if no user with the given ID exists.
+     * @throws SQLException If a database access error occurs during the update.
+     */
+    public int incrementNumFailedLoginAttempts(Integer id, Integer updatedBy) throws SQLException {
+        String sql = "UPDATE " + UserRowMapper.TABLE
+            + " SET num_failed_login_attempts = LAST_INSERT_ID(COALESCE(num_failed_login_attempts, 0) + 1), last_updated_by = ?"
+            + " WHERE id = ?";
+
+        try (Connection c = DatabaseUtils.getMySQLConnection();
+            PreparedStatement SQLStatement = c.prepareStatement(sql)) {
+
+            SQLStatement.setInt(1, updatedBy);
+            SQLStatement.setInt(2, id);
+            if (SQLStatement.executeUpdate() == 0) {
+                return 0;
+            }
+
+            try (Statement countStatement = c.createStatement();
+                ResultSet rs = countStatement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Error counting failed login attempt of user with ID " + id, e);
+        }
+    }
+
+    /**
+     * Retrieves everything a login needs in a single query on the primary: the authentication
+     * data of the user, the linked employee and the names of the roles and permissions of the user.
+     * Users with several roles or permissions are returned as several joined rows, which are
+     * folded into one {@link LoginContext}.
+     *
+     * @param name The username of the user to retrieve.
+     * @return The {@link LoginContext} of the user, or {@code null} if no user with the given username exists.
+     * @throws SQLException If a database access error occurs during the retrieval.
+     */
+    public LoginContext findLoginContext(String name) throws SQLException {
+        String sql = "SELECT u.id, u.name, u.status, u.password_hash, u.password_expiry_date, u.num_failed_login_attempts, "
+            + "u.lock_until, u.is_first_login, l.employee_id, r.name AS role_name, p.name AS permission_name "
+            + "FROM users u "
+            + "LEFT JOIN user_employee_link l ON l.user_id = u.id "
+            + "LEFT JOIN user_roles ur ON ur.user_id = u.id "
+            + "LEFT JOIN roles r ON r.id = ur.role_id "
+            + "LEFT JOIN role_permissions rp ON rp.role_id = r.id "
+            + "LEFT JOIN permissions p ON p.id = rp.permission_id "
+            + "WHERE u.name = ? "
+            + "ORDER BY l.employee_id";
+
+        try (Connection c = DatabaseUtils.getMySQLConnection();
+            PreparedStatement SQLStatement = c.prepareStatement(sql)) {
+
+            SQLStatement.setString(1, name);
+            try (ResultSet rs = SQLStatement.executeQuery()) {
+                User user = null;
+                Integer employeeId = null;
+                Set<String> roles = new TreeSet<>();
+                Set<String> permissions = new TreeSet<>();
+                while (rs.next()) {
+                    if (user == null) {
+                        user = new User();
+                        user.setId(rs.getInt("id"));
+                        user.setName(rs.getString("name"));
+                        user.setStatus(User.UserStatus.valueOf(rs.getString("status")));
+                        user.setPasswordHash(rs.getString("password_hash"));
+                        user.setPasswordExpiryDate(rs.getDate("password_expiry_date"));
+                        user.setNumFailedLoginAttempts(rs.getInt("num_failed_login_attempts"));
+                        user.setLockUntil(rs.getTimestamp("lock_until"));
+                        user.setIsFirstLogin(rs.getBoolean("is_first_login"));
+                        employeeId = rs.getObject("employee_id", Integer.class);
+                    }
+                    if (rs.getString("role_name") != null) {
+                        roles.add(rs.getString("role_name"));
+                    }
+                    if (rs.getString("permission_name") != null) {
+                        permissions.add(rs.getString("permission_name"));
+                    }
+                }
+
+                if (user == null) {
+                    return null;
+                }
+                return new LoginContext(UserAuthSnapshot.of(user), employeeId, new ArrayList<>(roles), new ArrayList<>(permissions));
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Error retrieving login context of user with name " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.leanx.app.repository.base;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.leanx.app.utils.DatabaseUtils;
+import com.leanx.app.utils.database.TransactionTemplate;
+
+/**
+ * Helper for writing many rows with JDBC batching. Rows are sent in chunks of
+ * {@link DatabaseUtils#BATCH_SIZE} rows, each chunk in its own transaction, so a failing
+ * row only rolls back its own chunk. The MySQL driver rewrites each chunk into as few
+ * statements as possible ({@code rewriteBatchedStatements}).
+ * <p>
+ * Batches cannot run within a {@link TransactionTemplate} transaction: the connection bound to
+ * it ignores the commit of a chunk and turns the rollback of a chunk into a rollback of the
+ * whole transaction, so the per-row results could not be trusted.
+ */
+public final class BatchExecutor {
+
+    private static final Logger logger = Logger.getLogger(BatchExecutor.class.getName());
+
+    /**
+     * Binds the values of one row to the parameters of a prepared statement.
+     *
+     * @param <T> The type of the rows.
+     */
+    @FunctionalInterface
+    public interface ParameterBinder<T> {
+
+        /**
+         * Binds the values of the given row.
+         *
+         * @param stmt The statement to bind the values to.
+         * @param row  The row.
+         * @throws SQLException If a value cannot be bound.
+         */
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    private BatchExecutor() {}
+
+    /**
+     * Executes the given statement once for every row.
+     *
+     * @param sql    The SQL statement to execute.
+     * @param rows   The rows to write.
+     * @param binder The {@link ParameterBinder} binding the values of a row.
+     * @param <T>    The type of the rows.
+     * @return The per-row {@link BatchResult}, in the order of {@code rows}.
+     * @throws IllegalStateException If a transaction is running on the current thread.
+     * @throws SQLException          If no connection can be obtained or the statement cannot be prepared.
+     */
+    public static <T> BatchResult execute(String sql, List<T> rows, ParameterBinder<? super T> binder) throws SQLException {
+        requireNoTransaction();
+        BatchResult result = new BatchResult(rows.size());
+        if (rows.isEmpty()) {
+            return result;
+        }
+
+        int[] positions = new int[rows.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+
+        try (Connection c = DatabaseUtils.getMySQLConnection()) {
+            c.setAutoCommit(false);
+            try {
+                executeChunks(c, sql, rows, positions, binder, result);
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies partial updates to many rows of a table. Rows updating the same columns share
+     * one statement built by {@link UpdateSqlCache}.
+     *
+     * @param table   The table to update.
+     * @param updates The columns and values to update, keyed by the ID of the row. Positions in the
+     *                result follow the iteration order of this map.
+     * @return The per-row {@link BatchResult}.
+     * @throws IllegalArgumentException If an update is empty or contains an invalid column name.
+     * @throws IllegalStateException    If a transaction is running on the current thread.
+     * @throws SQLException             If no connection can be obtained or a statement cannot be prepared.
+     */
+    public static BatchResult executeUpdates(String table, Map<Integer, Map<String, Object>> updates)
+            throws IllegalArgumentException, SQLException {
+        requireNoTransaction();
+        BatchResult result = new BatchResult(updates.size());
+        if (updates.isEmpty()) {
+            return result;
+        }
+
+        List<Map.Entry<Integer, Map<String, Object>>> rows = new ArrayList<>(updates.entrySet());
+        Map<String, List<Integer>> positionsBySql = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Map.Entry<Integer, Map<String, Object>> row = rows.get(i);
+            if (row.getKey() == null || row.getValue() == null) {
+                throw new IllegalArgumentException("Invalid input parameters");
+            }
+            String sql = UpdateSqlCache.updateById(table, row.getValue().keySet());
+            positionsBySql.computeIfAbsent(sql, k -> new ArrayList<>()).add(i);
+        }
+
+        try (Connection c = DatabaseUtils.getMySQLConnection()) {
+            c.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<Integer>> group : positionsBySql.entrySet()) {
+                    int[] positions = group.getValue().stream().mapToInt(Integer::intValue).toArray();
+                    List<Map.Entry<Integer, Map<String, Object>>> groupRows = new ArrayList<>(positions.length);
+                    for (int position : positions) {
+                        groupRows.add(rows.get(position));
+                    }
+
+                    executeChunks(c, group.getKey(), groupRows, positions, (stmt, row) -> {
+                        int index = 1;
+                        for (Object value : row.getValue().values()) {
+                            stmt.setObject(index++, value);
+                        }
+                        stmt.setInt(index, row.getKey());
+                    }, result);
+                }
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Executes the statement for the given rows chunk by chunk, committing every chunk that
+     * succeeds and rolling back every chunk that fails.
+     *
+     * @param c         The connection to use, with auto-commit disabled.
+     * @param sql       The SQL statement to execute.
+     * @param rows      The rows to write.
+     * @param positions The position in the result of each row.
+     * @param binder    The {@link ParameterBinder} binding the values of a row.
+     * @param result    The {@link BatchResult} to record the outcome of each row in.
+     * @param <T>       The type of the rows.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    private static <T> void executeChunks(Connection c, String sql, List<T> rows, int[] positions,
+                                          ParameterBinder<? super T> binder, BatchResult result) throws SQLException {
+        int chunkSize = Math.max(1, DatabaseUtils.BATCH_SIZE);
+
+        try (PreparedStatement stmt = c.prepareStatement(sql)) {
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, rows.size());
+                try {
+                    for (int i = from; i < to; i++) {
+                        binder.bind(stmt, rows.get(i));
+                        stmt.addBatch();
+                    }
+                    int[] counts = stmt.executeBatch();
+                    c.commit();
+
+                    for (int i = from; i < to; i++) {
+                        int offset = i - from;
+                        result.succeeded(positions[i], offset < counts.length ? counts[offset] : Statement.SUCCESS_NO_INFO);
+                    }
+                } catch (SQLException e) {
+                    rollback(c);
+                    stmt.clearBatch();
+                    logger.log(Level.WARNING, "Batch chunk of " + (to - from) + " rows rolled back: {0}", e.getMessage());
+
+                    int[] counts = e instanceof BatchUpdateException batchException ? batchException.getUpdateCounts() : null;
+                    for (int i = from; i < to; i++) {
+                        int offset = i - from;
+                        // drivers either report every row (failed ones as EXECUTE_FAILED) or stop after the first failing row
+                        boolean culprit = counts == null || offset == counts.length
+                                || (offset < counts.length && counts[offset] == Statement.EXECUTE_FAILED);
+                        result.failed(positions[i], culprit ? e.getMessage() : "Rolled back because another row of the same chunk failed.");
+                    }
+                }
+            }
+        }
+    }
+
+    private static void requireNoTransaction() {
+        if (TransactionTemplate.isActive()) {
+            throw new IllegalStateException("Batch writes commit chunk by chunk and cannot run within a transaction");
+        }
+    }
+
+    private static void rollback(Connection c) {
+        try {
+            c.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to roll back batch chunk: {0}", e.getMessage());
+        }
+    }
+}
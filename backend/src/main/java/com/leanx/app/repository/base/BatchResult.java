@@ -0,0 +1,108 @@
+package com.leanx.app.repository.base;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-row outcome of a batch write. Rows are identified by their position in the
+ * input of the batch operation.
+ * <p>
+ * Rows are written in chunks, each in its own transaction. If any row of a chunk fails,
+ * the whole chunk is rolled back and every row of the chunk is reported as failed; the
+ * rows that caused the failure carry the database error, the other rows a rollback notice.
+ */
+public final class BatchResult {
+
+    private final int[] updateCounts;
+    private final Map<Integer, String> errors = new TreeMap<>();
+
+    /**
+     * Constructs a new {@code BatchResult} for the given number of rows.
+     *
+     * @param size The number of rows in the batch.
+     */
+    BatchResult(int size) {
+        this.updateCounts = new int[size];
+    }
+
+    /**
+     * Records the update count of a row that was committed.
+     *
+     * @param index       The position of the row in the input.
+     * @param updateCount The update count reported by the driver.
+     */
+    void succeeded(int index, int updateCount) {
+        updateCounts[index] = updateCount;
+    }
+
+    /**
+     * Records a row that was not committed.
+     *
+     * @param index   The position of the row in the input.
+     * @param message The reason why the row was not committed.
+     */
+    void failed(int index, String message) {
+        updateCounts[index] = Statement.EXECUTE_FAILED;
+        errors.put(index, message);
+    }
+
+    /**
+     * Gets the number of rows in the batch.
+     *
+     * @return The batch size.
+     */
+    public int getSize() { return updateCounts.length; }
+
+    /**
+     * Gets the update count of every row, in input order. Committed rows report the number of
+     * affected rows or {@link Statement#SUCCESS_NO_INFO} if the driver rewrote the batch into
+     * a multi-row statement; failed rows report {@link Statement#EXECUTE_FAILED}.
+     *
+     * @return A copy of the update counts.
+     */
+    public int[] getUpdateCounts() { return updateCounts.clone(); }
+
+    /**
+     * Gets the error messages of the rows that were not committed, keyed by their position in the input.
+     *
+     * @return An unmodifiable map of the errors.
+     */
+    public Map<Integer, String> getErrors() { return Collections.unmodifiableMap(errors); }
+
+    /**
+     * Gets the number of rows that were committed.
+     *
+     * @return The success count.
+     */
+    public int getSuccessCount() { return updateCounts.length - errors.size(); }
+
+    /**
+     * Gets the number of rows that were not committed.
+     *
+     * @return The failure count.
+     */
+    public int getFailureCount() { return errors.size(); }
+
+    /**
+     * Checks whether all rows were committed.
+     *
+     * @return {@code true} if no row failed.
+     */
+    public boolean isSuccessful() { return errors.isEmpty(); }
+
+    /**
+     * Returns a string representation of the {@code BatchResult} object.
+     *
+     * @return A string containing the update counts and errors.
+     */
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "updateCounts=" + Arrays.toString(updateCounts) +
+                ", errors=" + errors +
+                '}';
+    }
+}
@@ -3,6 +3,11 @@ package com.leanx.app.repository.base;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.leanx.app.utils.database.DatabaseExecutor;
 
 // Generic CRUD Repository Interface
 public interface CrudRepository<T> {
@@ -50,4 +55,92 @@ public interface CrudRepository<T> {
      */
     List<T> findAll() throws SQLException;
 
+    /**
+     * Retrieves all entities of the specified type with a single query and passes each
+     * entity to the given consumer as soon as its row has been read, without materialising
+     * the whole result in memory.
+     * @param consumer The consumer receiving the entities in the order they are read.
+     * @throws SQLException if there is an issue accessing the database.
+     */
+    void forEach(Consumer<? super T> consumer) throws SQLException;
+
+    /**
+     * Retrieves all entities of the specified type as a lazily populated stream backed by
+     * an open database cursor. The stream holds a database connection until it is closed
+     * and must therefore be used within a try-with-resources block.
+     * @return A stream of all entity objects.
+     * @throws SQLException if there is an issue accessing the database.
+     */
+    Stream<T> stream() throws SQLException;
+
+    /**
+     * Retrieves one page of entities using keyset pagination. The page starts after the position
+     * of the cursor in the requested order, so the cost of a page does not depend on how many
+     * pages precede it.
+     * @param after The cursor of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of entities on the page.
+     * @param sort The ordering of the entities, or {@code null} to order by ID.
+     * @return The requested page, including the cursor to continue from if more entities follow.
+     * @throws IllegalArgumentException if the limit is out of range, the sort column is not supported or the cursor does not match it.
+     * @throws SQLException if there is an issue accessing the database.
+     */
+    Page<T> findPage(Cursor after, int limit, Sort sort) throws IllegalArgumentException, SQLException;
+
+    /**
+     * Creates many entities using JDBC batching. The entities are written in chunks of
+     * {@link com.leanx.app.utils.DatabaseUtils#BATCH_SIZE}, each chunk in its own transaction,
+     * so a failing entity only rolls back the entities of its own chunk.
+     * @param entities The entity objects to be persisted.
+     * @return The outcome of every entity, in the order of {@code entities}.
+     * @throws IllegalArgumentException if the list or one of the entities is null.
+     * @throws SQLException if there is an issue accessing the database.
+     */
+    BatchResult createAll(List<T> entities) throws IllegalArgumentException, SQLException;
+
+    /**
+     * Updates many entities using JDBC batching, with one transaction per chunk of entities.
+     * @param updates The field names to update and their new values, keyed by the ID of the entity.
+     * @return The outcome of every update, in the iteration order of {@code updates}.
+     * @throws IllegalArgumentException if the map or one of the updates is null, empty or invalid.
+     * @throws SQLException if there is an issue accessing the database.
+     */
+    BatchResult updateAll(Map<Integer, Map<String, Object>> updates) throws IllegalArgumentException, SQLException;
+
+    /**
+     * Deletes many entities using JDBC batching, with one transaction per chunk of entities.
+     * @param ids The IDs of the entities to delete.
+     * @return The outcome of every delete, in the order of {@code ids}.
+     * @throws IllegalArgumentException if the list is null or contains an invalid ID.
+     * @throws SQLException if there is an issue accessing the database.
+     */
+    BatchResult deleteAll(List<Integer> ids) throws IllegalArgumentException, SQLException;
+
+    /**
+     * Asynchronous variant of {@link #read(Integer)}, run by the {@link DatabaseExecutor}.
+     * @param id The unique identifier of the entity to retrieve.
+     * @return A future completed with the entity, or {@code null} if the entity does not exist.
+     */
+    default CompletableFuture<T> readAsync(Integer id) {
+        return DatabaseExecutor.supplyAsync(() -> read(id));
+    }
+
+    /**
+     * Asynchronous variant of {@link #findAll()}, run by the {@link DatabaseExecutor}.
+     * @return A future completed with the list of all entity objects.
+     */
+    default CompletableFuture<List<T>> findAllAsync() {
+        return DatabaseExecutor.supplyAsync(this::findAll);
+    }
+
+    /**
+     * Asynchronous variant of {@link #findPage(Cursor, int, Sort)}, run by the {@link DatabaseExecutor}.
+     * @param after The cursor of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of entities on the page.
+     * @param sort The ordering of the entities, or {@code null} to order by ID.
+     * @return A future completed with the requested page.
+     */
+    default CompletableFuture<Page<T>> findPageAsync(Cursor after, int limit, Sort sort) {
+        return DatabaseExecutor.supplyAsync(() -> findPage(after, limit, sort));
+    }
+
 }
@@ -0,0 +1,84 @@
+package com.leanx.app.repository.base;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of keyset pagination: the sort column, the value of the sort column and the ID of
+ * the last row of the previous page. Since the cursor carries the values themselves, the next
+ * page can be found even if that row was deleted in the meantime.
+ * <p>
+ * Cursors are handed to clients as opaque, URL-safe strings (see {@link #encode()}).
+ */
+public final class Cursor {
+
+    private final String column;
+    private final String value;
+    private final int id;
+
+    /**
+     * Constructs a {@code Cursor}.
+     *
+     * @param column The column the rows are sorted by, {@code "id"} when sorting by ID only.
+     * @param value  The value of the sort column in the last row, {@code null} when sorting by ID only.
+     * @param id     The ID of the last row.
+     */
+    public Cursor(String column, String value, int id) {
+        this.column = column;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Returns the column the rows are sorted by.
+     *
+     * @return The sort column.
+     */
+    public String getColumn() { return column; }
+
+    /**
+     * Returns the value of the sort column in the last row of the previous page.
+     *
+     * @return The sort value, or {@code null} when sorting by ID only.
+     */
+    public String getValue() { return value; }
+
+    /**
+     * Returns the ID of the last row of the previous page.
+     *
+     * @return The ID.
+     */
+    public int getId() { return id; }
+
+    /**
+     * Encodes the cursor as an opaque, URL-safe string.
+     *
+     * @return The encoded cursor.
+     */
+    public String encode() {
+        String plain = id + ":" + column + (value != null ? ":" + value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor created by {@link #encode()}.
+     *
+     * @param encoded The encoded cursor, may be {@code null} or empty for the first page.
+     * @return The decoded cursor, or {@code null} for the first page.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public static Cursor decode(String encoded) throws IllegalArgumentException {
+        if (encoded == null || encoded.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length < 2 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new Cursor(parts[1], parts.length == 3 ? parts[2] : null, Integer.parseInt(parts[0]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+}
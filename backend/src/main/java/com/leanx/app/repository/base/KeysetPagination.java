@@ -0,0 +1,102 @@
+package com.leanx.app.repository.base;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Helper for keyset (seek) pagination. Instead of skipping {@code OFFSET} rows, each page
+ * continues after the last row of the previous page, so the cost of a page is independent of
+ * its position as long as the sort column is indexed.
+ * <p>
+ * Rows are ordered by {@code (column, id)}. The {@link Cursor} of a page holds the sort value
+ * and the ID of its last row, and the next page is selected with
+ * {@code column > ? OR (column = ? AND id > ?)}, which MySQL can answer with a range scan of the
+ * index of the column and which still works if the last row was deleted in the meantime.
+ */
+public final class KeysetPagination {
+
+    /** The maximum number of rows on a single page. */
+    public static final int MAX_LIMIT = 500;
+
+    private KeysetPagination() {}
+
+    /**
+     * Fetches one page of rows from the given table.
+     *
+     * @param table           The table to query.
+     * @param columns         The columns to select, in the order expected by the mapper.
+     * @param sortableColumns The columns the caller may sort by. Each should be {@code NOT NULL} and indexed.
+     * @param mapper          The {@link RowMapper} mapping each row.
+     * @param idOf            Extracts the ID of a mapped entity.
+     * @param after           The cursor of the previous page, or {@code null} for the first page.
+     * @param limit           The maximum number of entities on the page, between 1 and {@link #MAX_LIMIT}.
+     * @param sort            The ordering of the rows, or {@code null} to order by ID.
+     * @param <T>             The type of the mapped rows.
+     * @return The requested {@link Page}.
+     * @throws IllegalArgumentException If the limit is out of range, the sort column is not allowed or the
+     *                                  cursor belongs to another sort column.
+     * @throws SQLException             If a database access error occurs during the query execution.
+     */
+    public static <T> Page<T> fetch(String table, String columns, Set<String> sortableColumns, RowMapper<T> mapper,
+                                    Function<T, Integer> idOf, Cursor after, int limit, Sort sort)
+            throws IllegalArgumentException, SQLException {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Invalid page size: " + limit);
+        }
+
+        Sort order = sort != null ? sort : Sort.BY_ID;
+        String column = order.getColumn().toLowerCase();
+        if (!column.equals("id") && !sortableColumns.contains(column)) {
+            throw new IllegalArgumentException("Invalid sort column: " + order.getColumn());
+        }
+        boolean byId = column.equals("id");
+        if (after != null && (!after.getColumn().equals(column) || (!byId && after.getValue() == null))) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+
+        boolean descending = order.getDirection() == Sort.Direction.DESC;
+        String comparison = descending ? " < " : " > ";
+        String direction = descending ? " DESC" : " ASC";
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM ").append(table);
+        List<Object> params = new ArrayList<>(4);
+
+        if (after != null) {
+            if (byId) {
+                sql.append(" WHERE id").append(comparison).append("?");
+            } else {
+                sql.append(" WHERE (").append(column).append(comparison).append("? OR (")
+                   .append(column).append(" = ? AND id").append(comparison).append("?))");
+                params.add(after.getValue());
+                params.add(after.getValue());
+            }
+            params.add(after.getId());
+        }
+
+        sql.append(" ORDER BY ");
+        if (!byId) {
+            sql.append(column).append(direction).append(", ");
+        }
+        sql.append("id").append(direction).append(" LIMIT ?");
+        params.add(limit + 1);
+
+        List<T> items = new ArrayList<>(limit + 1);
+        List<String> sortValues = new ArrayList<>(byId ? 0 : limit + 1);
+        RowMapper<T> rowMapper = byId ? mapper : rs -> {
+            sortValues.add(rs.getString(column));
+            return mapper.mapRow(rs);
+        };
+        StreamingQuery.forEach(sql.toString(), rowMapper, items::add, params.toArray());
+
+        Cursor next = null;
+        if (items.size() > limit) {
+            items.remove(limit);
+            next = new Cursor(column, byId ? null : sortValues.get(limit - 1), idOf.apply(items.get(limit - 1)));
+        }
+
+        return new Page<>(items, next);
+    }
+}
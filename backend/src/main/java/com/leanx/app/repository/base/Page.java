@@ -0,0 +1,46 @@
+package com.leanx.app.repository.base;
+
+import java.util.List;
+
+/**
+ * A page of results returned by a keyset paginated query.
+ *
+ * @param <T> The type of the entities on the page.
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final Cursor nextCursor;
+
+    /**
+     * Constructs a new {@code Page}.
+     *
+     * @param items      The entities on this page.
+     * @param nextCursor The position of the last entity on this page if more pages follow, {@code null} otherwise.
+     */
+    public Page(List<T> items, Cursor nextCursor) {
+        this.items = List.copyOf(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the entities on this page.
+     *
+     * @return An unmodifiable list of the entities.
+     */
+    public List<T> getItems() { return items; }
+
+    /**
+     * Gets the cursor to pass as {@code after} to fetch the next page.
+     *
+     * @return The position of the last entity on this page, or {@code null} if this is the last page.
+     */
+    public Cursor getNextCursor() { return nextCursor; }
+
+    /**
+     * Checks if more pages follow this one.
+     *
+     * @return {@code true} if there is a next page.
+     */
+    public boolean hasNext() { return nextCursor != null; }
+}
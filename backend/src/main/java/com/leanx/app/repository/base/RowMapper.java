@@ -0,0 +1,23 @@
+package com.leanx.app.repository.base;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Functional interface for mapping the current row of a {@link ResultSet} to an object.
+ * Implementations must not advance the cursor.
+ *
+ * @param <T> The type of the object the row is mapped to.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row of the given result set.
+     *
+     * @param rs The {@link ResultSet} positioned on the row to map.
+     * @return The mapped object.
+     * @throws SQLException If a column cannot be read.
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,184 @@
+package com.leanx.app.repository.base;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.leanx.app.utils.DatabaseUtils;
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * Process-wide registry of the views of the application schema and their columns.
+ * <p>
+ * The metadata is held in an immutable snapshot that is replaced atomically, so lookups never
+ * lock. A snapshot is reloaded from {@code INFORMATION_SCHEMA} once it is older than
+ * {@link #TTL_MILLIS} or after {@link #invalidate()}; while one thread reloads, all other threads
+ * keep using the previous snapshot. Only the very first lookup waits for the metadata to load.
+ */
+public final class SchemaMetadataRegistry {
+
+    private static final Logger logger = Logger.getLogger(SchemaMetadataRegistry.class.getName());
+
+    /**
+     * The time after which the metadata is reloaded, retrieved from the optional
+     * 'RDS_MYSQL_SCHEMA_METADATA_TTL_MS' environment variable.
+     */
+    public static final long TTL_MILLIS = EnvironmentUtils.getLong("RDS_MYSQL_SCHEMA_METADATA_TTL_MS", 300_000);
+
+    private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private static final AtomicBoolean refreshing = new AtomicBoolean();
+    private static final Object initialLoadLock = new Object();
+
+    private SchemaMetadataRegistry() {}
+
+    /**
+     * Checks whether a view with the given name exists.
+     *
+     * @param viewName The name of the view, case-insensitive.
+     * @return {@code true} if the view exists.
+     * @throws SQLException If the metadata has never been loaded and cannot be loaded now.
+     */
+    public static boolean hasView(String viewName) throws SQLException {
+        return viewName != null && current().viewColumns.containsKey(viewName.toLowerCase());
+    }
+
+    /**
+     * Gets the columns of a view.
+     *
+     * @param viewName The name of the view, case-insensitive.
+     * @return The lowercase column names in their ordinal order, or {@code null} if the view does not exist.
+     * @throws SQLException If the metadata has never been loaded and cannot be loaded now.
+     */
+    public static List<String> getViewColumns(String viewName) throws SQLException {
+        return viewName == null ? null : current().viewColumns.get(viewName.toLowerCase());
+    }
+
+    /**
+     * Gets the names of all views.
+     *
+     * @return The lowercase view names.
+     * @throws SQLException If the metadata has never been loaded and cannot be loaded now.
+     */
+    public static Set<String> getViewNames() throws SQLException {
+        return current().viewColumns.keySet();
+    }
+
+    /**
+     * Marks the metadata as outdated, e.g. after a migration. The next lookup reloads it,
+     * lookups running in the meantime keep using the previous snapshot.
+     */
+    public static void invalidate() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            snapshot.compareAndSet(current, new Snapshot(current.viewColumns, current.loadedAt, true));
+        }
+    }
+
+    /**
+     * Returns the current snapshot, reloading it if it expired. Only one thread reloads an
+     * expired snapshot; if reloading fails, the expired snapshot stays in use until the next attempt.
+     *
+     * @return The current {@link Snapshot}.
+     * @throws SQLException If the metadata has never been loaded and cannot be loaded now.
+     */
+    private static Snapshot current() throws SQLException {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return loadInitial();
+        }
+        if (!current.isExpired() || !refreshing.compareAndSet(false, true)) {
+            return current;
+        }
+
+        try {
+            Snapshot loaded = load();
+            snapshot.set(loaded);
+            return loaded;
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to reload schema metadata, using the previous snapshot: {0}", e.getMessage());
+            return current;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Loads the first snapshot. Concurrent callers wait for a single load instead of all
+     * querying the database.
+     *
+     * @return The loaded {@link Snapshot}.
+     * @throws SQLException If the metadata cannot be loaded.
+     */
+    private static Snapshot loadInitial() throws SQLException {
+        synchronized (initialLoadLock) {
+            Snapshot current = snapshot.get();
+            if (current == null) {
+                current = load();
+                snapshot.compareAndSet(null, current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Loads the names and columns of all views of the application schema.
+     *
+     * @return A new {@link Snapshot}.
+     * @throws SQLException If a database access error occurs while querying the metadata.
+     */
+    private static Snapshot load() throws SQLException {
+        String sql = "SELECT c.TABLE_NAME, c.COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS c "
+            + "JOIN INFORMATION_SCHEMA.VIEWS v ON v.TABLE_SCHEMA = c.TABLE_SCHEMA AND v.TABLE_NAME = c.TABLE_NAME "
+            + "WHERE c.TABLE_SCHEMA = ? ORDER BY c.TABLE_NAME, c.ORDINAL_POSITION";
+
+        Map<String, List<String>> viewColumns = new LinkedHashMap<>();
+        try (Connection c = DatabaseUtils.getMySQLReadConnection();
+             PreparedStatement stmt = c.prepareStatement(sql)) {
+            stmt.setString(1, DatabaseUtils.DB_NAME);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    viewColumns.computeIfAbsent(rs.getString(1).toLowerCase(), view -> new ArrayList<>())
+                        .add(rs.getString(2).toLowerCase());
+                }
+            }
+        }
+
+        Map<String, List<String>> immutable = new LinkedHashMap<>();
+        viewColumns.forEach((view, columns) -> immutable.put(view, List.copyOf(columns)));
+        logger.log(Level.INFO, "Loaded metadata of {0} views.", immutable.size());
+        return new Snapshot(Collections.unmodifiableMap(immutable), System.nanoTime(), false);
+    }
+
+    /**
+     * Immutable snapshot of the view metadata.
+     */
+    private static final class Snapshot {
+
+        private final Map<String, List<String>> viewColumns;
+        private final long loadedAt;
+        private final boolean invalidated;
+
+        private Snapshot(Map<String, List<String>> viewColumns, long loadedAt, boolean invalidated) {
+            this.viewColumns = viewColumns;
+            this.loadedAt = loadedAt;
+            this.invalidated = invalidated;
+        }
+
+        private boolean isExpired() {
+            return invalidated || System.nanoTime() - loadedAt > TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.leanx.app.repository.base;
+
+/**
+ * Describes the ordering of a paged query. Rows are always ordered by the given column
+ * first and by their ID second, which makes the order total and allows keyset pagination
+ * on columns that are not unique.
+ */
+public final class Sort {
+
+    /**
+     * Enumeration defining the sort directions.
+     */
+    public enum Direction {
+        ASC, DESC
+    }
+
+    /** The default ordering by ascending ID. */
+    public static final Sort BY_ID = new Sort("id", Direction.ASC);
+
+    private final String column;
+    private final Direction direction;
+
+    /**
+     * Constructs a new {@code Sort}.
+     *
+     * @param column    The column to sort by.
+     * @param direction The sort direction.
+     * @throws IllegalArgumentException If the column or direction is null.
+     */
+    public Sort(String column, Direction direction) throws IllegalArgumentException {
+        if (column == null || column.isBlank() || direction == null) {
+            throw new IllegalArgumentException("Invalid sort order.");
+        }
+        this.column = column;
+        this.direction = direction;
+    }
+
+    /**
+     * Gets the column to sort by.
+     *
+     * @return The column name.
+     */
+    public String getColumn() { return column; }
+
+    /**
+     * Gets the sort direction.
+     *
+     * @return The sort direction.
+     */
+    public Direction getDirection() { return direction; }
+
+    /**
+     * Returns a string representation of the {@code Sort} object.
+     *
+     * @return A string containing the column and direction.
+     */
+    @Override
+    public String toString() {
+        return column + " " + direction;
+    }
+}
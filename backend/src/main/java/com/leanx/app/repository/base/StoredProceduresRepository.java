@@ -97,4 +97,24 @@ public class StoredProceduresRepository {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Calls the 'RebuildEmployeeHierarchyClosure' stored procedure to recompute the
+     * {@code employee_hierarchy_closure} table from {@code employees.manager_id}.
+     *
+     * @return {@code true} if the stored procedure executed successfully, {@code false} otherwise.
+     */
+    public boolean callRebuildEmployeeHierarchyClosure() {
+        String sql = "{ CALL RebuildEmployeeHierarchyClosure() }";
+
+        try (Connection c = DatabaseUtils.getMySQLConnection();
+             CallableStatement stmt = c.prepareCall(sql)) {
+
+            stmt.execute();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("An error occurred while calling the stored procedure 'RebuildEmployeeHierarchyClosure': " + e.getMessage());
+            return false;
+        }
+    }
+}
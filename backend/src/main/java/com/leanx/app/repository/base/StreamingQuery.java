@@ -0,0 +1,160 @@
+package com.leanx.app.repository.base;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.leanx.app.utils.DatabaseUtils;
+
+/**
+ * Helper for executing queries whose rows are mapped one by one while they are
+ * streamed from a forward-only, read-only cursor instead of being buffered by the
+ * JDBC driver. The fetch size is taken from {@link DatabaseUtils#FETCH_SIZE}.
+ * Queries are read-only and run on a connection from
+ * {@link DatabaseUtils#getMySQLReadConnection()}, i.e. preferably on a read replica,
+ * except for {@code forEachFromPrimary}.
+ */
+public final class StreamingQuery {
+
+    private static final Logger logger = Logger.getLogger(StreamingQuery.class.getName());
+
+    private StreamingQuery() {}
+
+    /**
+     * Executes the given query and passes every mapped row to the consumer while the
+     * result set is being read. All JDBC resources are released before this method returns.
+     *
+     * @param sql      The SQL query to execute.
+     * @param mapper   The {@link RowMapper} used to map each row.
+     * @param consumer The consumer receiving the mapped rows.
+     * @param params   The values bound to the query parameters, in order.
+     * @param <T>      The type of the mapped rows.
+     * @return The number of rows passed to the consumer.
+     * @throws SQLException If a database access error occurs during the query execution.
+     */
+    public static <T> int forEach(String sql, RowMapper<T> mapper, Consumer<? super T> consumer, Object... params) throws SQLException {
+        return forEach(DatabaseUtils.getMySQLReadConnection(), sql, mapper, consumer, params);
+    }
+
+    /**
+     * Executes the given query like {@link #forEach(String, RowMapper, Consumer, Object...)}, but
+     * always on the primary, for reads that must not see a lagging replica.
+     *
+     * @param sql      The SQL query to execute.
+     * @param mapper   The {@link RowMapper} used to map each row.
+     * @param consumer The consumer receiving the mapped rows.
+     * @param params   The values bound to the query parameters, in order.
+     * @param <T>      The type of the mapped rows.
+     * @return The number of rows passed to the consumer.
+     * @throws SQLException If a database access error occurs during the query execution.
+     */
+    public static <T> int forEachFromPrimary(String sql, RowMapper<T> mapper, Consumer<? super T> consumer, Object... params) throws SQLException {
+        return forEach(DatabaseUtils.getMySQLConnection(), sql, mapper, consumer, params);
+    }
+
+    private static <T> int forEach(Connection connection, String sql, RowMapper<T> mapper, Consumer<? super T> consumer, Object... params) throws SQLException {
+        try (Connection c = connection;
+             PreparedStatement stmt = prepare(c, sql, params);
+             ResultSet rs = stmt.executeQuery()) {
+            int count = 0;
+            while (rs.next()) {
+                consumer.accept(mapper.mapRow(rs));
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Executes the given query and returns a lazily populated {@link Stream} over the mapped rows.
+     * The underlying connection stays borrowed until the stream is closed, so the stream must be
+     * used within a try-with-resources block. Errors while reading rows are rethrown as
+     * {@link RuntimeException}s wrapping the original {@link SQLException}.
+     *
+     * @param sql    The SQL query to execute.
+     * @param mapper The {@link RowMapper} used to map each row.
+     * @param params The values bound to the query parameters, in order.
+     * @param <T>    The type of the mapped rows.
+     * @return A {@link Stream} of mapped rows that releases its JDBC resources when closed.
+     * @throws SQLException If a database access error occurs while executing the query.
+     */
+    public static <T> Stream<T> stream(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        Connection c = DatabaseUtils.getMySQLReadConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs;
+        try {
+            stmt = prepare(c, sql, params);
+            rs = stmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(stmt, c);
+            throw e;
+        }
+
+        final PreparedStatement statement = stmt;
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.mapRow(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error reading row from result set", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeQuietly(rs, statement, c));
+    }
+
+    /**
+     * Prepares a forward-only, read-only statement with the configured fetch size and binds the given parameters.
+     *
+     * @param c      The connection to prepare the statement on.
+     * @param sql    The SQL query.
+     * @param params The values bound to the query parameters, in order.
+     * @return The prepared statement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    private static PreparedStatement prepare(Connection c, String sql, Object... params) throws SQLException {
+        PreparedStatement stmt = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            stmt.setFetchSize(DatabaseUtils.FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            return stmt;
+        } catch (SQLException | RuntimeException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the given JDBC resources in order, logging instead of propagating failures.
+     *
+     * @param resources The resources to close, {@code null} entries are ignored.
+     */
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Failed to close JDBC resource: {0}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.leanx.app.repository.base;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import com.leanx.app.utils.CacheStatistics;
+
+/**
+ * Cache of the UPDATE statements built for partial updates. The SQL text for a table and an
+ * ordered set of columns is built once and then reused, which keeps the SQL text identical
+ * across calls so the prepared statement cache of the connection pool can reuse the statement.
+ * <p>
+ * The cache is bounded: once {@link #CAPACITY} statements are cached, further statements are
+ * still built but no longer cached.
+ */
+public final class UpdateSqlCache {
+
+    /** The maximum number of cached statements. */
+    public static final int CAPACITY = 256;
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private static final ConcurrentHashMap<String, String> statements = new ConcurrentHashMap<>();
+    private static final LongAdder hitCount = new LongAdder();
+    private static final LongAdder missCount = new LongAdder();
+
+    private UpdateSqlCache() {}
+
+    /**
+     * Returns the statement updating the given columns of the row with a given ID. The statement
+     * expects the new column values as parameters in the iteration order of {@code columns},
+     * followed by the ID.
+     *
+     * @param table   The table to update.
+     * @param columns The columns to update, in the order their values are bound.
+     * @return The UPDATE statement.
+     * @throws IllegalArgumentException If no columns are given or a column name is not a valid identifier.
+     */
+    public static String updateById(String table, Collection<String> columns) throws IllegalArgumentException {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("Invalid input parameters");
+        }
+
+        String key = table + ":" + String.join(",", columns);
+        String sql = statements.get(key);
+        if (sql != null) {
+            hitCount.increment();
+            return sql;
+        }
+
+        missCount.increment();
+        StringBuilder builder = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (String column : columns) {
+            if (column == null || !IDENTIFIER.matcher(column).matches()) {
+                throw new IllegalArgumentException("Invalid column name: " + column);
+            }
+            builder.append(column).append(" = ?, ");
+        }
+        builder.setLength(builder.length() - 2);
+        builder.append(" WHERE id = ?");
+
+        sql = builder.toString();
+        if (statements.size() < CAPACITY) {
+            statements.putIfAbsent(key, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Creates a snapshot of the size and counters of the cache.
+     *
+     * @return The current {@link CacheStatistics}.
+     */
+    public static CacheStatistics getStatistics() {
+        return new CacheStatistics(statements.size(), CAPACITY, hitCount.sum(), missCount.sum(), 0);
+    }
+}
@@ -0,0 +1,263 @@
+package com.leanx.app.repository.base;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builder for parameterised queries against a database view. Projection, predicates,
+ * ordering and the row limit are translated to SQL and executed by
+ * {@link ViewRepository#find(ViewQuery, RowMapper)}, so filtering happens in MySQL and
+ * only the selected columns are transferred.
+ * <p>
+ * Column names are never bound as parameters; instead every referenced column is checked
+ * against the columns of the view in the {@link SchemaMetadataRegistry} before the query
+ * is executed, and quoted, which also allows view columns with spaces such as
+ * {@code `first name`}. Values are always bound as parameters.
+ * <p>
+ * Instances are not thread-safe and are meant to be built and executed in place:
+ * <pre>{@code
+ * find(ViewQuery.from("active_users_view")
+ *         .select("username", "last login")
+ *         .where("user type", ViewQuery.Operator.EQ, "NORMAL")
+ *         .orderBy("last login", Sort.Direction.DESC)
+ *         .limit(50), mapper);
+ * }</pre>
+ */
+public final class ViewQuery {
+
+    /** The maximum number of values in an {@code IN} predicate. */
+    public static final int MAX_IN_VALUES = 1_000;
+
+    /**
+     * Enumeration defining the comparison operators of predicates.
+     */
+    public enum Operator {
+        EQ("="), NE("<>"), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String sql;
+
+        Operator(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final String viewName;
+    private final List<String> columns = new ArrayList<>();
+    private final List<String> referencedColumns = new ArrayList<>();
+    private final StringBuilder where = new StringBuilder();
+    private final List<Object> params = new ArrayList<>();
+    private final List<String> orderBy = new ArrayList<>();
+    private Integer limit;
+
+    private ViewQuery(String viewName) {
+        this.viewName = viewName;
+    }
+
+    /**
+     * Starts a query against the given view.
+     *
+     * @param viewName The name of the view to query.
+     * @return A new {@code ViewQuery} selecting all columns of all rows.
+     * @throws IllegalArgumentException If the view name is null or blank.
+     */
+    public static ViewQuery from(String viewName) throws IllegalArgumentException {
+        if (viewName == null || viewName.isBlank()) {
+            throw new IllegalArgumentException("Invalid view name.");
+        }
+        return new ViewQuery(viewName);
+    }
+
+    /**
+     * Adds columns to the projection. Without a projection all columns of the view are selected.
+     *
+     * @param columns The columns to select, in the order expected by the mapper. Each argument
+     * may itself be a comma separated list, such as the {@code COLUMNS} of a generated row mapper.
+     * @return This query.
+     * @throws IllegalArgumentException If no column is given.
+     */
+    public ViewQuery select(String... columns) throws IllegalArgumentException {
+        if (columns == null || columns.length == 0) {
+            throw new IllegalArgumentException("At least one column must be selected.");
+        }
+        for (String list : columns) {
+            for (String column : list.split(",")) {
+                this.columns.add(column(column));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a comparison predicate. A {@code null} value is translated to {@code IS NULL}
+     * for {@link Operator#EQ} and to {@code IS NOT NULL} for {@link Operator#NE}.
+     *
+     * @param column   The column to compare.
+     * @param operator The comparison operator.
+     * @param value    The value to compare with.
+     * @return This query.
+     * @throws IllegalArgumentException If the operator is null, or the value is null for an ordering operator.
+     */
+    public ViewQuery where(String column, Operator operator, Object value) throws IllegalArgumentException {
+        if (operator == null) {
+            throw new IllegalArgumentException("Invalid operator.");
+        }
+        String name = column(column);
+        if (value == null) {
+            if (operator != Operator.EQ && operator != Operator.NE) {
+                throw new IllegalArgumentException("Cannot compare column '" + name + "' with null using " + operator + ".");
+            }
+            return predicate(quote(name) + (operator == Operator.EQ ? " IS NULL" : " IS NOT NULL"));
+        }
+        params.add(value);
+        return predicate(quote(name) + " " + operator.sql + " ?");
+    }
+
+    /**
+     * Adds an {@code IN} predicate. An empty collection matches no rows.
+     *
+     * @param column The column to compare.
+     * @param values The values the column must be one of, at most {@link #MAX_IN_VALUES}.
+     * @return This query.
+     * @throws IllegalArgumentException If the values are null, contain null or are too many.
+     */
+    public ViewQuery whereIn(String column, Collection<?> values) throws IllegalArgumentException {
+        String name = column(column);
+        if (values == null || values.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Invalid values for column '" + name + "'.");
+        }
+        if (values.size() > MAX_IN_VALUES) {
+            throw new IllegalArgumentException("Too many values for column '" + name + "': " + values.size());
+        }
+        if (values.isEmpty()) {
+            return predicate("1 = 0");
+        }
+        params.addAll(values);
+        return predicate(quote(name) + " IN (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")");
+    }
+
+    /**
+     * Adds a range predicate. Either bound may be {@code null} for an open range.
+     *
+     * @param column The column to compare.
+     * @param from   The inclusive lower bound, or {@code null}.
+     * @param to     The inclusive upper bound, or {@code null}.
+     * @return This query.
+     */
+    public ViewQuery whereBetween(String column, Object from, Object to) {
+        if (from != null) {
+            where(column, Operator.GE, from);
+        }
+        if (to != null) {
+            where(column, Operator.LE, to);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a column to the ordering. Columns are ordered by in the order they are added.
+     *
+     * @param column    The column to sort by.
+     * @param direction The sort direction.
+     * @return This query.
+     * @throws IllegalArgumentException If the direction is null.
+     */
+    public ViewQuery orderBy(String column, Sort.Direction direction) throws IllegalArgumentException {
+        if (direction == null) {
+            throw new IllegalArgumentException("Invalid sort direction.");
+        }
+        orderBy.add(quote(column(column)) + " " + direction);
+        return this;
+    }
+
+    /**
+     * Limits the number of rows returned.
+     *
+     * @param limit The maximum number of rows, at least 1.
+     * @return This query.
+     * @throws IllegalArgumentException If the limit is less than 1.
+     */
+    public ViewQuery limit(int limit) throws IllegalArgumentException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Gets the name of the queried view.
+     *
+     * @return The view name.
+     */
+    public String getViewName() { return viewName; }
+
+    /**
+     * Gets the values bound to the parameters of the query, in order.
+     *
+     * @return The parameter values.
+     */
+    public Object[] getParams() { return params.toArray(); }
+
+    /**
+     * Builds the SQL of the query after checking every referenced column against the columns of the view.
+     *
+     * @param viewColumns The lowercase columns of the view.
+     * @return The parameterised SQL query.
+     * @throws IllegalArgumentException If a referenced column does not exist in the view.
+     */
+    String toSql(List<String> viewColumns) throws IllegalArgumentException {
+        for (String column : referencedColumns) {
+            if (!viewColumns.contains(column)) {
+                throw new IllegalArgumentException("Error: Column '" + column + "' does not exist in view '" + viewName + "'!");
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (columns.isEmpty()) {
+            sql.append('*');
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                sql.append(i > 0 ? ", " : "").append(quote(columns.get(i)));
+            }
+        }
+        sql.append(" FROM ").append(quote(viewName.toLowerCase()));
+        if (where.length() > 0) {
+            sql.append(" WHERE ").append(where);
+        }
+        if (!orderBy.isEmpty()) {
+            sql.append(" ORDER BY ").append(String.join(", ", orderBy));
+        }
+        if (limit != null) {
+            sql.append(" LIMIT ").append(limit);
+        }
+        return sql.toString();
+    }
+
+    private ViewQuery predicate(String predicate) {
+        where.append(where.length() > 0 ? " AND " : "").append(predicate);
+        return this;
+    }
+
+    /**
+     * Normalizes a column name and remembers it for the check against the view columns.
+     *
+     * @param column The column name.
+     * @return The trimmed, lowercase column name.
+     * @throws IllegalArgumentException If the column name is blank or contains a backtick.
+     */
+    private String column(String column) throws IllegalArgumentException {
+        String name = column == null ? "" : column.trim().toLowerCase();
+        if (name.isEmpty() || name.indexOf('`') >= 0) {
+            throw new IllegalArgumentException("Invalid column name: " + column);
+        }
+        referencedColumns.add(name);
+        return name;
+    }
+
+    private static String quote(String identifier) {
+        return "`" + identifier + "`";
+    }
+}
@@ -1,23 +1,26 @@
 package com.leanx.app.repository.base;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import com.leanx.app.utils.DatabaseUtils;
 
 /**
  * Abstract base class for repositories that interact with database views.
- * Provides functionality to lazily load available views and execute queries
- * against a specified view, mapping the results to a given entity type.
+ * Provides functionality to execute queries against a specified view, mapping
+ * the results to a given entity type. The existence of views is checked against
+ * the process-wide {@link SchemaMetadataRegistry}.
+ * Views are read through {@link DatabaseUtils#getMySQLReadConnection()}, i.e.
+ * preferably from a read replica, unless {@code findFromPrimary} is used. Large views should be read with {@code forEach}
+ * or {@code stream}, which map rows while they are streamed from the database
+ * instead of collecting them in a list.
  *
  * @param <T> The type of the entity that the view data will be mapped to.
  */
@@ -25,51 +28,24 @@ public abstract class ViewRepository<T> {
     
     private static final Logger logger = Logger.getLogger(ViewRepository.class.getName());
 
-    private Set<String> views = new HashSet<>();
-
     /**
-     * Lazily loads the names of all available views from the database schema.
-     * This method is synchronized to ensure thread-safe initialization of the
-     * view set. The loading process occurs only once, when the view set is empty.
+     * Ensures that a view with the given name exists, using the shared {@link SchemaMetadataRegistry}.
      *
-     * @throws SQLException If a database access error occurs during the view loading process.
+     * @param viewName The name of the database view.
+     * @throws SQLException             If the view metadata cannot be loaded.
+     * @throws IllegalArgumentException If the view does not exist in the database schema.
      */
-    protected synchronized void lazyLoadViews() throws SQLException {
-        if (this.views.isEmpty()) {
-            logger.log(Level.INFO, "Loading views from database...");
-            this.views = loadViews();
-            logger.log(Level.INFO, "Loaded {0} views.", this.views.size());
-        }
-    }
-
-    /**
-     * Loads the names of all views present in the application's database schema.
-     *
-     * @return A {@code Set} containing the lowercase names of all database views.
-     * @throws SQLException If a database access error occurs while querying the view metadata.
-     */
-    protected Set<String> loadViews() throws SQLException {
-        Set<String> dbViews = new HashSet<>();
-        String sql = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.VIEWS WHERE TABLE_SCHEMA = ?";
-
-        try (Connection c = DatabaseUtils.getMySQLConnection();
-             PreparedStatement pstmt = c.prepareStatement(sql)) {
-            pstmt.setString(1, DatabaseUtils.DB_NAME);
-            logger.log(Level.INFO, "Executing query: {0}", sql);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    dbViews.add(rs.getString("TABLE_NAME").toLowerCase());
-                }
-            }
+    protected void requireView(String viewName) throws SQLException {
+        if (!SchemaMetadataRegistry.hasView(viewName)) {
+            throw new IllegalArgumentException("Error: View '" + viewName + "' does not exist!");
         }
-
-        return dbViews;
     }
 
     /**
      * Retrieves all records from the specified database view and maps each row
      * to an entity of type {@code T} using the provided mapper function.
+     * The rows are mapped while they are streamed from the database, so only the
+     * returned list is held in memory; use {@code forEach} or {@code stream} to avoid that as well.
      *
      * @param viewName The name of the database view to query.
      * @param mapper   A {@code Function} that takes a {@code ResultSet} (representing
@@ -81,25 +57,144 @@ public abstract class ViewRepository<T> {
      * in the database schema.
      */
     public List<T> findAll(String viewName, Function<ResultSet, T> mapper) throws SQLException {
-        lazyLoadViews();
+        return find(ViewQuery.from(viewName), mapper::apply);
+    }
 
-        if (!views.contains(viewName.toLowerCase())) {
-            throw new IllegalArgumentException("Error: View '" + viewName + "' does not exist!");
-        }
+    /**
+     * Retrieves the given columns of all records from the specified database view and maps
+     * each row to an entity of type {@code T} using the provided {@link RowMapper}.
+     *
+     * @param viewName The name of the database view to query.
+     * @param columns  The comma separated list of columns to select, in the order expected by the mapper.
+     * @param mapper   The {@link RowMapper} mapping each row to an instance of type {@code T}.
+     * @return A {@code List} containing all entities of type {@code T} retrieved
+     * from the specified view.
+     * @throws SQLException             If a database access error occurs during the query execution.
+     * @throws IllegalArgumentException If the specified {@code viewName} does not exist
+     * in the database schema.
+     */
+    public List<T> findAll(String viewName, String columns, RowMapper<T> mapper) throws SQLException {
+        return find(ViewQuery.from(viewName).select(columns), mapper);
+    }
 
-        String sql = "SELECT * FROM " + viewName;
-        logger.log(Level.INFO, "Executing query: {0}", sql);
+    /**
+     * Retrieves the given columns of all records from the specified database view and passes
+     * each mapped row to the consumer while the rows are streamed from the database. Memory use
+     * is independent of the size of the view. All JDBC resources are released before this
+     * method returns, also if the consumer throws.
+     *
+     * @param viewName The name of the database view to query.
+     * @param columns  The comma separated list of columns to select, in the order expected by the mapper.
+     * @param mapper   The {@link RowMapper} mapping each row to an instance of type {@code T}.
+     * @param consumer The consumer receiving the mapped rows. It must not query the database
+     * through the connection of the cursor, which stays busy until all rows have been read.
+     * @return The number of rows passed to the consumer.
+     * @throws SQLException             If a database access error occurs during the query execution.
+     * @throws IllegalArgumentException If the view or one of the columns does not exist in the database schema.
+     */
+    public int forEach(String viewName, String columns, RowMapper<T> mapper, Consumer<? super T> consumer) throws SQLException {
+        return forEach(ViewQuery.from(viewName).select(columns), mapper, consumer);
+    }
+
+    /**
+     * Retrieves the given columns of all records from the specified database view as a lazily
+     * populated {@link Stream}. The rows are streamed from the database, so memory use is
+     * independent of the size of the view. The underlying connection stays borrowed until the
+     * stream is closed, so the stream must be used within a try-with-resources block.
+     *
+     * @param viewName The name of the database view to query.
+     * @param columns  The comma separated list of columns to select, in the order expected by the mapper.
+     * @param mapper   The {@link RowMapper} mapping each row to an instance of type {@code T}.
+     * @return A {@link Stream} of mapped rows that releases its JDBC resources when closed.
+     * @throws SQLException             If a database access error occurs while executing the query.
+     * @throws IllegalArgumentException If the view or one of the columns does not exist in the database schema.
+     */
+    public Stream<T> stream(String viewName, String columns, RowMapper<T> mapper) throws SQLException {
+        return stream(ViewQuery.from(viewName).select(columns), mapper);
+    }
 
-        try (Connection c = DatabaseUtils.getMySQLConnection();
-             Statement stmt = c.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Executes the given {@link ViewQuery} and maps each row to an entity of type {@code T}
+     * using the provided {@link RowMapper}. The projection, predicates, ordering and limit of
+     * the query are executed by the database, so only matching rows and selected columns are
+     * transferred.
+     *
+     * @param query  The {@link ViewQuery} to execute.
+     * @param mapper The {@link RowMapper} mapping each row to an instance of type {@code T}.
+     * @return A {@code List} containing the entities of type {@code T} matching the query.
+     * @throws SQLException             If a database access error occurs during the query execution.
+     * @throws IllegalArgumentException If the view or one of the referenced columns does not exist
+     * in the database schema.
+     */
+    public List<T> find(ViewQuery query, RowMapper<T> mapper) throws SQLException {
+        List<T> resultList = new ArrayList<>();
+        forEach(query, mapper, resultList::add);
+        return resultList;
+    }
 
-            List<T> resultList = new java.util.ArrayList<>();
-            while (rs.next()) {
-                resultList.add(mapper.apply(rs));
-            }
+    /**
+     * Executes the given {@link ViewQuery} like {@link #find(ViewQuery, RowMapper)}, but always on
+     * the primary, for reads that decide on security and must not see a lagging replica.
+     *
+     * @param query  The {@link ViewQuery} to execute.
+     * @param mapper The {@link RowMapper} mapping each row to an instance of type {@code T}.
+     * @return A {@code List} containing the entities of type {@code T} matching the query.
+     * @throws SQLException             If a database access error occurs during the query execution.
+     * @throws IllegalArgumentException If the view or one of the referenced columns does not exist
+     * in the database schema.
+     */
+    public List<T> findFromPrimary(ViewQuery query, RowMapper<T> mapper) throws SQLException {
+        List<T> resultList = new ArrayList<>();
+        StreamingQuery.forEachFromPrimary(toSql(query), mapper, resultList::add, query.getParams());
+        return resultList;
+    }
 
-            return resultList;
-        }
+    /**
+     * Executes the given {@link ViewQuery} and passes each mapped row to the consumer while the
+     * rows are streamed from the database. All JDBC resources are released before this method
+     * returns, also if the consumer throws.
+     *
+     * @param query    The {@link ViewQuery} to execute.
+     * @param mapper   The {@link RowMapper} mapping each row to an instance of type {@code T}.
+     * @param consumer The consumer receiving the mapped rows.
+     * @return The number of rows passed to the consumer.
+     * @throws SQLException             If a database access error occurs during the query execution.
+     * @throws IllegalArgumentException If the view or one of the referenced columns does not exist
+     * in the database schema.
+     */
+    public int forEach(ViewQuery query, RowMapper<T> mapper, Consumer<? super T> consumer) throws SQLException {
+        return StreamingQuery.forEach(toSql(query), mapper, consumer, query.getParams());
+    }
+
+    /**
+     * Executes the given {@link ViewQuery} and returns a lazily populated {@link Stream} over the
+     * mapped rows. The stream must be used within a try-with-resources block. Errors while reading
+     * rows are rethrown as {@link RuntimeException}s wrapping the original {@link SQLException}.
+     *
+     * @param query  The {@link ViewQuery} to execute.
+     * @param mapper The {@link RowMapper} mapping each row to an instance of type {@code T}.
+     * @return A {@link Stream} of mapped rows that releases its JDBC resources when closed.
+     * @throws SQLException             If a database access error occurs while executing the query.
+     * @throws IllegalArgumentException If the view or one of the referenced columns does not exist
+     * in the database schema.
+     */
+    public Stream<T> stream(ViewQuery query, RowMapper<T> mapper) throws SQLException {
+        return StreamingQuery.stream(toSql(query), mapper, query.getParams());
+    }
+
+    /**
+     * Builds the SQL of the given query after checking the view and the referenced columns.
+     *
+     * @param query The {@link ViewQuery} to translate.
+     * @return The parameterised SQL query.
+     * @throws SQLException             If the view metadata cannot be loaded.
+     * @throws IllegalArgumentException If the view or one of the referenced columns does not exist.
+     */
+    private String toSql(ViewQuery query) throws SQLException {
+        requireView(query.getViewName());
+
+        String sql = query.toSql(SchemaMetadataRegistry.getViewColumns(query.getViewName()));
+        logger.log(Level.INFO, "Executing query: {0}", sql);
+        return sql;
     }
-}
\ No newline at end of file
+}
@@ -23,7 +23,7 @@ import jakarta.servlet.http.HttpSession;
  * session validation. If the session is invalid or the 'userId' is missing,
  * an unauthorized error response (401) is sent back to the client.
  */
-@WebFilter("/api/*")
+@WebFilter(urlPatterns = "/api/*", asyncSupported = true)
 public class SessionValidationFilter implements Filter {
 
     @Override
@@ -0,0 +1,40 @@
+package com.leanx.app.service.jobs;
+
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+import com.leanx.app.service.modules.employee.EmployeeService;
+
+/**
+ * Quartz job that verifies the {@code employee_hierarchy_closure} table against the
+ * reporting hierarchy in {@code employees.manager_id}. The table is maintained by triggers,
+ * so it only drifts if they were bypassed, e.g. by a bulk import with triggers disabled;
+ * in that case the job rebuilds it.
+ */
+public class HierarchyClosureJob implements Job {
+
+    private static final Logger logger = Logger.getLogger(HierarchyClosureJob.class.getName());
+
+    private final EmployeeService employeeService = new EmployeeService();
+
+    @Override
+    public void execute(JobExecutionContext arg0) throws JobExecutionException {
+        logger.log(Level.INFO, "Executing Hierarchy Closure Job...");
+        try {
+            long drift = employeeService.verifyHierarchyClosure();
+            if (drift > 0) {
+                logger.log(Level.WARNING, "Executed Hierarchy Closure Job. Rebuilt the closure table after finding {0} inconsistent rows!", drift);
+                return;
+            }
+            logger.log(Level.INFO, "Successfully Executed Hierarchy Closure Job. The closure table is consistent!");
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to execute the Hierarchy Closure Job. Error accessing the database: {0}", e);
+            throw new JobExecutionException("Error during Hierarchy Closure Job execution: " + e.getMessage(), e);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
 import org.quartz.impl.StdSchedulerFactory;
 
+import com.leanx.app.service.jobs.HierarchyClosureJob;
 import com.leanx.app.service.jobs.OnboardingJob;
 
 import jakarta.servlet.ServletContextEvent;
@@ -65,6 +66,19 @@ public class JobScheduleInitializer implements ServletContextListener {
             // Schedule the job
             scheduler.scheduleJob(job, trigger);
             logger.info("OnboardingJob scheduled successfully with trigger: dailyTrigger");
+
+            // Verify the employee hierarchy closure table every night at 02:00 UTC
+            JobDetail hierarchyClosureJob = JobBuilder.newJob(HierarchyClosureJob.class)
+                    .withIdentity("hierarchyClosureJob", "hr-ops")
+                    .build();
+
+            Trigger nightlyTrigger = TriggerBuilder.newTrigger()
+                    .withIdentity("nightlyTrigger", "hr-ops")
+                    .withSchedule(CronScheduleBuilder.cronSchedule("0 0 2 * * ?")) // Run at 02:00 UTC every day
+                    .build();
+
+            scheduler.scheduleJob(hierarchyClosureJob, nightlyTrigger);
+            logger.info("HierarchyClosureJob scheduled successfully with trigger: nightlyTrigger");
         } catch (SchedulerException e) {
             logger.log(Level.SEVERE, "Error starting job scheduler!", e);
         }
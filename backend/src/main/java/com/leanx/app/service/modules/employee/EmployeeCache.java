@@ -0,0 +1,90 @@
+package com.leanx.app.service.modules.employee;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+import com.leanx.app.model.entity.Employee;
+import com.leanx.app.repository.EmployeeRepository;
+import com.leanx.app.utils.EnvironmentUtils;
+import com.leanx.app.utils.LoadingCacheStatistics;
+import com.leanx.app.utils.TinyLfuCache;
+
+/**
+ * Read-through cache of {@link Employee} records by ID, shared by all services of this
+ * application instance.
+ * <p>
+ * The cache holds at most 'EMPLOYEE_CACHE_CAPACITY' records (default 10000, 0 disables it)
+ * and evicts rarely used records first (see {@link TinyLfuCache}). Records are invalidated by
+ * the {@link EmployeeService} after their changes are committed and expire after
+ * 'EMPLOYEE_CACHE_TTL_MS' (default 60 seconds), which bounds how long changes made by other
+ * application instances or directly in the database stay invisible. Missing records are loaded
+ * from the primary, so that a record loaded right after an invalidation is never older than
+ * the change that caused it.
+ * <p>
+ * Cached records are shared between callers and must not be modified.
+ */
+public final class EmployeeCache {
+
+    /**
+     * The maximum number of cached records, retrieved from the optional
+     * 'EMPLOYEE_CACHE_CAPACITY' environment variable.
+     */
+    public static final int CAPACITY = EnvironmentUtils.getInt("EMPLOYEE_CACHE_CAPACITY", 10_000);
+
+    /**
+     * The time after which a cached record expires, retrieved from the optional
+     * 'EMPLOYEE_CACHE_TTL_MS' environment variable.
+     */
+    public static final long TTL_MILLIS = EnvironmentUtils.getLong("EMPLOYEE_CACHE_TTL_MS", 60_000);
+
+    private static final EmployeeRepository employeeRepository = new EmployeeRepository();
+    private static final TinyLfuCache<Integer, Employee> cache = new TinyLfuCache<>(CAPACITY, TTL_MILLIS);
+
+    private EmployeeCache() {}
+
+    /**
+     * Gets an employee, loading it from the database if it is not cached.
+     *
+     * @param employeeId The ID of the employee.
+     * @return The {@link Employee}, or {@code null} if it does not exist.
+     * @throws SQLException If the employee has to be loaded and the database cannot be accessed.
+     */
+    public static Employee get(int employeeId) throws SQLException {
+        return cache.get(employeeId, employeeRepository::readFromPrimary);
+    }
+
+    /**
+     * Asynchronous variant of {@link #get(int)}; cached employees are returned in a completed future.
+     *
+     * @param employeeId The ID of the employee.
+     * @return A {@code CompletableFuture} completed with the {@link Employee}, or with {@code null} if it does not exist.
+     */
+    public static CompletableFuture<Employee> getAsync(int employeeId) {
+        return cache.getAsync(employeeId, employeeRepository::readFromPrimaryAsync);
+    }
+
+    /**
+     * Removes an employee from the cache after it was changed.
+     *
+     * @param employeeId The ID of the employee.
+     */
+    public static void invalidate(int employeeId) {
+        cache.invalidate(employeeId);
+    }
+
+    /**
+     * Removes all employees from the cache, for example after a bulk change.
+     */
+    public static void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Gets the hit ratio, eviction and load latency statistics of the cache.
+     *
+     * @return The cache statistics.
+     */
+    public static LoadingCacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+}
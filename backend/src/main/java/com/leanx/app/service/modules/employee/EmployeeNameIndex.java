@@ -0,0 +1,503 @@
+package com.leanx.app.service.modules.employee;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import com.leanx.app.model.entity.Employee;
+import com.leanx.app.repository.EmployeeRepository;
+import com.leanx.app.utils.ColognePhonetic;
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * In-memory trigram index over the names of all employees, answering substring searches
+ * without scanning the {@code employees} table.
+ * <p>
+ * Names are normalized to lower case without diacritics, the way the accent- and
+ * case-insensitive collation of the database compares them, and the full name
+ * ({@code "first last"}) of every employee is split into overlapping three-character
+ * sequences. For every trigram the index keeps a sorted posting list of the IDs of the
+ * employees whose name contains it. A query is answered by intersecting the posting lists of
+ * its trigrams and verifying the few remaining candidates; queries shorter than three
+ * characters are answered by scanning the names in memory.
+ * <p>
+ * Results are ranked: exact matches of the first, last or full name come first, then names
+ * starting with the query, then names containing it.
+ * <p>
+ * The index also maps the {@link ColognePhonetic} code of every word of the first and last
+ * names to the IDs of the employees, so that {@link #search(String, boolean) phonetic
+ * searches} find names that sound like the query ("Meyer" or "Maier" for "Meier") with a
+ * lookup per query word. Phonetic matches are ranked after prefix matches and before
+ * substring matches.
+ * <p>
+ * The index is built from the database on first use and kept up to date by the
+ * {@link EmployeeService}; changes made outside this application instance are picked up when
+ * the index is rebuilt after 'EMPLOYEE_SEARCH_REFRESH_MS' (default 5 minutes).
+ */
+public final class EmployeeNameIndex {
+
+    private static final Logger logger = Logger.getLogger(EmployeeNameIndex.class.getName());
+
+    /**
+     * The time after which the index is rebuilt from the database, retrieved from the optional
+     * 'EMPLOYEE_SEARCH_REFRESH_MS' environment variable.
+     */
+    public static final long REFRESH_MILLIS = EnvironmentUtils.getLong("EMPLOYEE_SEARCH_REFRESH_MS", 300_000);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern NON_LETTERS = Pattern.compile("[^\\p{L}]+");
+
+    /**
+     * The minimum length of a query word to be searched phonetically; shorter words would
+     * match too many unrelated names.
+     */
+    private static final int MIN_PHONETIC_WORD_LENGTH = 3;
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int PHONETIC = 2;
+    private static final int SUBSTRING = 3;
+
+    private static final EmployeeRepository employeeRepository = new EmployeeRepository();
+    private static final Object buildLock = new Object();
+    private static volatile EmployeeNameIndex current;
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<String, PostingList> phoneticPostings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long builtAt = System.currentTimeMillis();
+
+    private EmployeeNameIndex() {}
+
+    /**
+     * Gets the current index, building it from the database on first use and once it is older
+     * than {@link #REFRESH_MILLIS}.
+     *
+     * @return The current {@code EmployeeNameIndex}.
+     * @throws SQLException If the names cannot be loaded.
+     */
+    public static EmployeeNameIndex get() throws SQLException {
+        EmployeeNameIndex index = current;
+        if (index != null && !index.isStale()) {
+            return index;
+        }
+
+        synchronized (buildLock) {
+            index = current;
+            if (index == null || index.isStale()) {
+                index = build(employeeRepository.findAllNames());
+                current = index;
+                logger.log(Level.INFO, "Built employee name index of {0} employees with {1} trigrams",
+                    new Object[]{index.entries.size(), index.postings.size()});
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Adds a newly created employee to the current index.
+     *
+     * @param employee The new employee, with its generated ID.
+     */
+    public static void employeeAdded(Employee employee) {
+        EmployeeNameIndex index = current;
+        if (index != null && employee.getId() != null) {
+            index.put(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        }
+    }
+
+    /**
+     * Applies a change of the name or email of an employee to the current index.
+     *
+     * @param employeeId The ID of the employee.
+     * @param firstName  The new first name, or {@code null} if unchanged.
+     * @param lastName   The new last name, or {@code null} if unchanged.
+     * @param email      The new email address, or {@code null} if unchanged.
+     */
+    public static void employeeUpdated(int employeeId, String firstName, String lastName, String email) {
+        EmployeeNameIndex index = current;
+        if (index != null) {
+            index.update(employeeId, firstName, lastName, email);
+        }
+    }
+
+    /**
+     * Discards the current index, so that it is rebuilt from the database on next use.
+     */
+    public static void invalidate() {
+        synchronized (buildLock) {
+            current = null;
+        }
+    }
+
+    /**
+     * Builds an index over the given employees.
+     *
+     * @param employees The employees with their ID, names and email address.
+     * @return The new {@code EmployeeNameIndex}.
+     */
+    static EmployeeNameIndex build(List<Employee> employees) {
+        EmployeeNameIndex index = new EmployeeNameIndex();
+        for (Employee employee : employees) {
+            index.put(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        }
+        return index;
+    }
+
+    /**
+     * Normalizes a name for comparison: lower case, without diacritics and with single spaces.
+     *
+     * @param name The name, may be {@code null}.
+     * @return The normalized name, empty for {@code null}.
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFD);
+        normalized = DIACRITICS.matcher(normalized).replaceAll("");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.toLowerCase(Locale.ROOT).replace("ß", "ss");
+    }
+
+    private boolean isStale() {
+        return System.currentTimeMillis() - builtAt >= REFRESH_MILLIS;
+    }
+
+    /**
+     * Searches for employees whose first, last or full name contains the given name.
+     *
+     * @param name The name (or part of a name) to search for.
+     * @return The matching employees with their ID, names and email address, ranked by how
+     * well they match. Empty if the name is blank.
+     */
+    public List<Employee> search(String name) {
+        return search(name, false);
+    }
+
+    /**
+     * Searches for employees whose first, last or full name contains the given name and,
+     * if requested, for employees whose names sound like it: every word of the query of at
+     * least three letters must have the same {@link ColognePhonetic} code as a word of the
+     * first or last name.
+     *
+     * @param name     The name (or part of a name) to search for.
+     * @param phonetic {@code true} to include phonetic matches.
+     * @return The matching employees with their ID, names and email address, ranked by how
+     * well they match. Empty if the name is blank.
+     */
+    public List<Employee> search(String name, boolean phonetic) {
+        String query = normalize(name);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int[] phoneticIds = phonetic ? phoneticCandidates(query) : new int[0];
+            if (query.length() < 3) {
+                for (Entry entry : entries.values()) {
+                    addIfMatches(matches, entry, query, phoneticIds);
+                }
+            } else {
+                for (int id : candidates(query)) {
+                    addIfMatches(matches, entries.get(id), query, phoneticIds);
+                }
+            }
+
+            // Phonetic matches not containing the query; those containing it were ranked above
+            Set<Integer> matched = new HashSet<>();
+            for (Match match : matches) {
+                matched.add(match.entry.id);
+            }
+            for (int id : phoneticIds) {
+                Entry entry = entries.get(id);
+                if (entry != null && !matched.contains(id)) {
+                    matches.add(new Match(entry, PHONETIC));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.<Match>comparingInt(match -> match.rank)
+            .thenComparing(match -> match.entry.normalizedLastName)
+            .thenComparing(match -> match.entry.normalizedFirstName)
+            .thenComparingInt(match -> match.entry.id));
+
+        List<Employee> employees = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            employees.add(match.entry.toEmployee());
+        }
+        return employees;
+    }
+
+    /**
+     * Gets the number of employees in the index.
+     *
+     * @return The number of employees.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Intersects the posting lists of all trigrams of the query, smallest first.
+     *
+     * @param query The normalized query of at least three characters.
+     * @return The IDs of the employees whose name contains every trigram of the query.
+     */
+    private int[] candidates(String query) {
+        List<PostingList> lists = new ArrayList<>();
+        for (long trigram : trigrams(query)) {
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        for (int l = 1; l < lists.size() && result.length > 0; l++) {
+            result = intersect(result, lists.get(l));
+        }
+        return result;
+    }
+
+    /**
+     * Intersects the phonetic posting lists of the words of the query, ignoring words shorter
+     * than {@link #MIN_PHONETIC_WORD_LENGTH}.
+     *
+     * @param query The normalized query.
+     * @return The sorted IDs of the employees having a name word with the code of every query
+     * word, empty if no query word is long enough.
+     */
+    private int[] phoneticCandidates(String query) {
+        int[] result = null;
+        for (String word : NON_LETTERS.split(query)) {
+            if (word.length() < MIN_PHONETIC_WORD_LENGTH) {
+                continue;
+            }
+            PostingList list = phoneticPostings.get(ColognePhonetic.encode(word));
+            if (list == null) {
+                return new int[0];
+            }
+            result = result == null ? Arrays.copyOf(list.ids, list.size) : intersect(result, list);
+        }
+        return result != null ? result : new int[0];
+    }
+
+    private static int[] intersect(int[] ids, PostingList list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < ids.length && j < list.size; i++) {
+            while (j < list.size && list.ids[j] < ids[i]) {
+                j++;
+            }
+            if (j < list.size && list.ids[j] == ids[i]) {
+                ids[kept++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, kept);
+    }
+
+    private static void addIfMatches(List<Match> matches, Entry entry, String query, int[] phoneticIds) {
+        if (entry == null || !entry.normalizedFullName.contains(query)) {
+            return;
+        }
+
+        int rank;
+        if (entry.normalizedFirstName.equals(query) || entry.normalizedLastName.equals(query) || entry.normalizedFullName.equals(query)) {
+            rank = EXACT;
+        } else if (entry.normalizedFirstName.startsWith(query) || entry.normalizedLastName.startsWith(query)
+            || entry.normalizedFullName.startsWith(query)) {
+            rank = PREFIX;
+        } else if (Arrays.binarySearch(phoneticIds, entry.id) >= 0) {
+            rank = PHONETIC;
+        } else {
+            rank = SUBSTRING;
+        }
+        matches.add(new Match(entry, rank));
+    }
+
+    /**
+     * Adds or replaces an employee.
+     */
+    private void put(int id, String firstName, String lastName, String email) {
+        lock.writeLock().lock();
+        try {
+            replace(new Entry(id, firstName, lastName, email));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the changed fields of an employee, ignoring employees that are not indexed yet.
+     */
+    private void update(int id, String firstName, String lastName, String email) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(id);
+            if (previous != null) {
+                replace(new Entry(id, firstName != null ? firstName : previous.firstName,
+                    lastName != null ? lastName : previous.lastName, email != null ? email : previous.email));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores an entry and moves its ID to the posting lists of its new trigrams and phonetic
+     * codes. Requires the write lock.
+     */
+    private void replace(Entry entry) {
+        Entry previous = entries.put(entry.id, entry);
+        if (previous != null) {
+            for (long trigram : trigrams(previous.normalizedFullName)) {
+                PostingList list = postings.get(trigram);
+                if (list != null && list.remove(entry.id) && list.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+            for (String code : previous.phoneticCodes) {
+                PostingList list = phoneticPostings.get(code);
+                if (list != null && list.remove(entry.id) && list.size == 0) {
+                    phoneticPostings.remove(code);
+                }
+            }
+        }
+        for (long trigram : trigrams(entry.normalizedFullName)) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(entry.id);
+        }
+        for (String code : entry.phoneticCodes) {
+            phoneticPostings.computeIfAbsent(code, key -> new PostingList()).add(entry.id);
+        }
+    }
+
+    /**
+     * Encodes the words of a normalized name into their distinct, non-empty phonetic codes.
+     */
+    private static String[] phoneticCodes(String name) {
+        return NON_LETTERS.splitAsStream(name)
+            .map(ColognePhonetic::encode)
+            .filter(code -> !code.isEmpty())
+            .distinct()
+            .toArray(String[]::new);
+    }
+
+    /**
+     * Splits a normalized name into its distinct trigrams, each packed into a {@code long}.
+     */
+    private static long[] trigrams(String name) {
+        if (name.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[name.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) name.charAt(i) << 32) | ((long) name.charAt(i + 1) << 16) | name.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    /**
+     * An indexed employee with its normalized names.
+     */
+    private static final class Entry {
+
+        private final int id;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final String normalizedFirstName;
+        private final String normalizedLastName;
+        private final String normalizedFullName;
+        private final String[] phoneticCodes;
+
+        private Entry(int id, String firstName, String lastName, String email) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.normalizedFirstName = normalize(firstName);
+            this.normalizedLastName = normalize(lastName);
+            this.normalizedFullName = (normalizedFirstName + " " + normalizedLastName).trim();
+            this.phoneticCodes = phoneticCodes(normalizedFullName);
+        }
+
+        private Employee toEmployee() {
+            return new Employee(id, firstName, lastName, email);
+        }
+    }
+
+    /**
+     * An employee matching a query, with the rank of the match.
+     */
+    private static final class Match {
+
+        private final Entry entry;
+        private final int rank;
+
+        private Match(Entry entry, int rank) {
+            this.entry = entry;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * A sorted, growable list of employee IDs.
+     */
+    private static final class PostingList {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        private boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
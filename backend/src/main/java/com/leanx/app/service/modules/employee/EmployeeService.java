@@ -1,15 +1,27 @@
 package com.leanx.app.service.modules.employee;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.leanx.app.model.dto.EmployeeSuggestion;
 import com.leanx.app.model.entity.Employee;
 import com.leanx.app.repository.EmployeeRepository;
+import com.leanx.app.repository.base.Cursor;
+import com.leanx.app.repository.base.Page;
+import com.leanx.app.repository.base.Sort;
 import com.leanx.app.repository.base.StoredProceduresRepository;
+import com.leanx.app.service.modules.user.auth.UserAuthCache;
+import com.leanx.app.utils.EnvironmentUtils;
+import com.leanx.app.utils.database.TransactionTemplate;
 
 /**
  * Service class for managing employee-related operations.
@@ -20,6 +32,32 @@ public class EmployeeService {
 
     private static final Logger logger = Logger.getLogger(EmployeeService.class.getName());
 
+    /**
+     * The backends that can answer employee name searches.
+     */
+    public enum NameSearchMode {
+        /** The in-memory {@link EmployeeNameIndex} of this application instance. */
+        INDEX,
+        /** The {@link EmployeeNameIndex}, also matching names that sound like the query (Kölner Phonetik). */
+        PHONETIC,
+        /** The FULLTEXT (ngram) index of the {@code employees} table, ordered by relevance. */
+        FULLTEXT,
+        /** A {@code LIKE} scan over the first and last names of the {@code employees} table. */
+        LIKE
+    }
+
+    /**
+     * The backend answering name searches, retrieved from the optional 'EMPLOYEE_SEARCH_MODE'
+     * environment variable ({@code index}, {@code phonetic}, {@code fulltext} or {@code like}).
+     */
+    public static final NameSearchMode NAME_SEARCH_MODE = EnvironmentUtils.getEnum("EMPLOYEE_SEARCH_MODE", NameSearchMode.class, NameSearchMode.INDEX);
+
+    /**
+     * The maximum number of results of a FULLTEXT name search, retrieved from the optional
+     * 'EMPLOYEE_SEARCH_LIMIT' environment variable.
+     */
+    public static final int NAME_SEARCH_LIMIT = Math.max(1, EnvironmentUtils.getInt("EMPLOYEE_SEARCH_LIMIT", 100));
+
     private final StoredProceduresRepository storedProceduresRepository = new StoredProceduresRepository();
     private final EmployeeRepository employeeRepository = new EmployeeRepository();
 
@@ -45,7 +83,14 @@ public class EmployeeService {
 
     /**
      * Searches for employees whose first or last name contains the given name.
-     * The search is case-insensitive and can match partial names.
+     * The search is case-insensitive and can match partial names. It is answered by the
+     * backend configured in {@link #NAME_SEARCH_MODE}: by default the {@link EmployeeNameIndex},
+     * which ranks exact matches before prefix and substring matches; in {@code PHONETIC} mode
+     * by the same index, which then also returns names that sound like the query ("Meyer" and
+     * "Maier" for "Meier") after the prefix matches; in {@code FULLTEXT} mode
+     * by the FULLTEXT index of the database, which also matches the email, job title and
+     * department, returns at most {@link #NAME_SEARCH_LIMIT} results ordered by relevance and
+     * is shared by all application instances.
      *
      * @param name The name (or part of a name) to search for.
      * @return A list of {@link Employee} objects matching the search criteria.
@@ -54,7 +99,12 @@ public class EmployeeService {
      */
     public List<Employee> searchEmployeesByName(String name) throws SQLException {
         try {
-            return employeeRepository.findByName(name);
+            return switch (NAME_SEARCH_MODE) {
+                case INDEX -> EmployeeNameIndex.get().search(name);
+                case PHONETIC -> EmployeeNameIndex.get().search(name, true);
+                case FULLTEXT -> employeeRepository.findByNameFullText(name, NAME_SEARCH_LIMIT);
+                case LIKE -> employeeRepository.findByName(name);
+            };
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to access the database: {0}", e);
             throw e;
@@ -62,6 +112,28 @@ public class EmployeeService {
 
     }
 
+    /**
+     * Suggests employees for a typeahead: the employees whose first name, last name, full name
+     * or user name starts with the given prefix, answered by the {@link EmployeeSuggestionIndex}.
+     *
+     * @param prefix The typed prefix.
+     * @param k      The maximum number of suggestions, limited to {@link EmployeeSuggestionIndex#MAX_K}.
+     * @return The best matching employees with their ID and display name, shortest matching name first.
+     * @throws IllegalArgumentException If {@code k} is less than 1.
+     * @throws SQLException             If the suggestion index has to be built and the database cannot be accessed.
+     */
+    public List<EmployeeSuggestion> suggestEmployees(String prefix, int k) throws IllegalArgumentException, SQLException {
+        if (k < 1) {
+            throw new IllegalArgumentException("The number of suggestions must be at least 1.");
+        }
+        try {
+            return EmployeeSuggestionIndex.get().suggest(prefix, Math.min(k, EmployeeSuggestionIndex.MAX_K));
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to access the database: {0}", e);
+            throw e;
+        }
+    }
+
     /**
      * Retrieves all employee records from the database.
      *
@@ -78,6 +150,25 @@ public class EmployeeService {
         }
     }
 
+    /**
+     * Retrieves one page of employee records using keyset pagination.
+     *
+     * @param after   The cursor of the previous page, or {@code null} for the first page.
+     * @param limit   The maximum number of employees on the page.
+     * @param sort    The ordering of the employees, or {@code null} to order by ID.
+     * @return The requested {@link Page} of {@link Employee} objects.
+     * @throws IllegalArgumentException If the limit is out of range or the sort column is not supported.
+     * @throws SQLException             If a database access error occurs while fetching the employees.
+     */
+    public Page<Employee> getEmployeePage(Cursor after, int limit, Sort sort) throws IllegalArgumentException, SQLException {
+        try {
+            return employeeRepository.findPage(after, limit, sort);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to access the database: {0}", e);
+            throw e;
+        }
+    }
+
     /**
      * Retrieves all employee records from the database whose start date is set to the current date.
      *
@@ -106,8 +197,35 @@ public class EmployeeService {
         }
     }
 
+    /**
+     * Terminates an employee by calling the 'TerminateEmployee' stored procedure and removes the
+     * employee from the {@link EmployeeCache} afterwards. The procedure also deactivates the user
+     * accounts of the employee, so the {@link UserAuthCache} is cleared as well.
+     *
+     * @param employeeId The ID of the employee to terminate.
+     * @return {@code true} if the stored procedure executed successfully, {@code false} otherwise.
+     * @throws IllegalArgumentException If the provided {@code employeeId} is null or not positive.
+     */
+    public boolean terminateEmployee(Integer employeeId) throws IllegalArgumentException {
+        if (employeeId == null || employeeId <= 0) {
+            throw new IllegalArgumentException("Illegal argument: employeeId cannot be null or less then 1");
+        }
+
+        boolean terminated = storedProceduresRepository.callTerminateEmployee(employeeId);
+        if (terminated) {
+            TransactionTemplate.afterCommit(() -> {
+                EmployeeCache.invalidate(employeeId);
+                UserAuthCache.invalidateAll();
+            });
+        } else {
+            logger.log(Level.SEVERE, "Failed to terminate employee with ID: {0}", employeeId);
+        }
+        return terminated;
+    }
+
     /**
      * Retrieves a specific employee record based on their unique ID.
+     * The record is served from the {@link EmployeeCache} if it was requested recently.
      *
      * @param employeeId The ID of the employee to retrieve.
      * @return The {@link Employee} object with the given ID.
@@ -120,13 +238,33 @@ public class EmployeeService {
                 throw new IllegalArgumentException("Illegal argument: employeeId cannot be null or less then 1");
             }
 
-            return employeeRepository.read(employeeId);
+            return EmployeeCache.get(employeeId);
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to fetch employee with ID: " + employeeId, e);
             throw e;
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #getEmployeeById(Integer)}.
+     *
+     * @param employeeId The ID of the employee to retrieve.
+     * @return A {@code CompletableFuture} completed with the {@link Employee}, or with {@code null}
+     * if it does not exist. The future fails with an {@link IllegalArgumentException} if the
+     * {@code employeeId} is null or not positive.
+     */
+    public CompletableFuture<Employee> getEmployeeByIdAsync(Integer employeeId) {
+        if (employeeId == null || employeeId <= 0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Illegal argument: employeeId cannot be null or less then 1"));
+        }
+
+        return EmployeeCache.getAsync(employeeId).whenComplete((employee, e) -> {
+            if (e != null) {
+                logger.log(Level.SEVERE, "Failed to fetch employee with ID: " + employeeId, e);
+            }
+        });
+    }
+
     /**
      * Updates an existing employee record with the information provided in the
      * {@link Employee} object. Only the non-null fields of the provided employee
@@ -184,7 +322,22 @@ public class EmployeeService {
             updates.put("termination_reason", employee.getTerminationReason());
         }
 
-        return executeUpdate(id, updates);
+        boolean updated = executeUpdate(id, updates);
+        if (updated) {
+            TransactionTemplate.afterCommit(() -> EmployeeCache.invalidate(id));
+        }
+        if (updated && employee.getManagerId() != null) {
+            TransactionTemplate.afterCommit(() -> OrgHierarchyIndex.managerChanged(id, employee.getManagerId()));
+        }
+        if (updated && (employee.getFirstName() != null || employee.getLastName() != null || employee.getEmail() != null)) {
+            TransactionTemplate.afterCommit(() -> {
+                EmployeeNameIndex.employeeUpdated(id, employee.getFirstName(), employee.getLastName(), employee.getEmail());
+                if (employee.getFirstName() != null || employee.getLastName() != null) {
+                    EmployeeSuggestionIndex.employeeUpdated(id, employee.getFirstName(), employee.getLastName());
+                }
+            });
+        }
+        return updated;
     }
 
     /**
@@ -198,7 +351,16 @@ public class EmployeeService {
      */
     public boolean createEmployeeRecord(Employee employee) throws SQLException {
         try {
-            return employeeRepository.create(employee) > 0;
+            boolean created = employeeRepository.create(employee) > 0;
+            if (created && employee.getId() != null) {
+                TransactionTemplate.afterCommit(() -> {
+                    EmployeeCache.invalidate(employee.getId());
+                    OrgHierarchyIndex.employeeAdded(employee.getId(), employee.getManagerId());
+                    EmployeeNameIndex.employeeAdded(employee);
+                    EmployeeSuggestionIndex.employeeAdded(employee);
+                });
+            }
+            return created;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to create records for employee with ID: " + employee.getId(), e);
             throw e;
@@ -207,7 +369,8 @@ public class EmployeeService {
 
     /**
      * Checks if a given employee is a direct or indirect subordinate of a specified manager.
-     * This method queries the database to determine the reporting hierarchy.
+     * The check is answered by the {@link OrgHierarchyIndex}; the database is only queried
+     * for employees that are not in the index yet.
      *
      * @param employeeId The ID of the employee to check.
      * @param managerId  The ID of the manager to check against.
@@ -222,6 +385,11 @@ public class EmployeeService {
         }
 
         try {
+            OrgHierarchyIndex index = OrgHierarchyIndex.get();
+            if (index.contains(employeeId) && index.contains(managerId)) {
+                return index.isSubordinate(employeeId, managerId);
+            }
+
             List<Integer> directSubordinates = employeeRepository.findDirectSubordinates(managerId);
             if (directSubordinates.contains(employeeId)) {
                 return true;
@@ -233,4 +401,152 @@ public class EmployeeService {
             throw e;
         }
     }
+
+    /**
+     * Resolves for many employees at once whether they are direct or indirect subordinates of
+     * a manager. The check is answered by the {@link OrgHierarchyIndex}; if some employees are
+     * not in the index yet, all subordinates of the manager are loaded with a single query.
+     *
+     * @param managerId   The ID of the manager to check against.
+     * @param employeeIds The IDs of the employees to check.
+     * @return A {@link BitSet} in which bit {@code i} is set if the employee at index {@code i}
+     * of {@code employeeIds} is a subordinate of the manager.
+     * @throws IllegalArgumentException If the {@code managerId}, the list or one of its IDs is null.
+     * @throws SQLException             If a database access error occurs while querying the hierarchy.
+     */
+    public BitSet teamMembershipBitmap(Integer managerId, List<Integer> employeeIds) throws IllegalArgumentException, SQLException {
+        if (managerId == null || employeeIds == null || employeeIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Illegal argument: managerId or employeeIds cannot be null!");
+        }
+
+        int[] ids = employeeIds.stream().mapToInt(Integer::intValue).toArray();
+        try {
+            OrgHierarchyIndex index = OrgHierarchyIndex.get();
+            boolean complete = index.contains(managerId);
+            for (int i = 0; complete && i < ids.length; i++) {
+                complete = index.contains(ids[i]);
+            }
+            if (complete) {
+                return index.teamMembership(managerId, ids);
+            }
+
+            BitSet subordinates = new BitSet();
+            for (Integer subordinateId : employeeRepository.findAllSubordinates(managerId)) {
+                subordinates.set(subordinateId);
+            }
+            BitSet members = new BitSet(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] >= 0 && subordinates.get(ids[i])) {
+                    members.set(i);
+                }
+            }
+            return members;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to resolve the team of employee with ID: " + managerId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Filters the given employees to the direct and indirect subordinates of a manager.
+     *
+     * @param managerId   The ID of the manager to check against.
+     * @param employeeIds The IDs of the employees to filter.
+     * @return The IDs of the employees that are subordinates of the manager, in the iteration
+     * order of {@code employeeIds}.
+     * @throws IllegalArgumentException If the {@code managerId}, the collection or one of its IDs is null.
+     * @throws SQLException             If a database access error occurs while querying the hierarchy.
+     */
+    public List<Integer> filterToTeam(Integer managerId, Collection<Integer> employeeIds) throws IllegalArgumentException, SQLException {
+        if (employeeIds == null) {
+            throw new IllegalArgumentException("Illegal argument: managerId or employeeIds cannot be null!");
+        }
+
+        List<Integer> ids = new ArrayList<>(employeeIds);
+        BitSet members = teamMembershipBitmap(managerId, ids);
+        List<Integer> team = new ArrayList<>(members.cardinality());
+        for (int i = members.nextSetBit(0); i >= 0; i = members.nextSetBit(i + 1)) {
+            team.add(ids.get(i));
+        }
+        return team;
+    }
+
+    /**
+     * Searches for employees whose first or last name contains the given name among the
+     * direct and indirect subordinates of a manager.
+     *
+     * @param name      The name (or part of a name) to search for.
+     * @param managerId The ID of the manager whose team is searched.
+     * @return A list of {@link Employee} objects matching the search criteria.
+     * Returns an empty list if no employees are found.
+     * @throws IllegalArgumentException If the {@code managerId} is null.
+     * @throws SQLException             If a database access error occurs during the search.
+     */
+    public List<Employee> searchTeamMembersByName(String name, Integer managerId) throws IllegalArgumentException, SQLException {
+        List<Employee> employees = searchEmployeesByName(name);
+        BitSet members = teamMembershipBitmap(managerId, employees.stream().map(Employee::getId).toList());
+
+        List<Employee> team = new ArrayList<>(members.cardinality());
+        for (int i = members.nextSetBit(0); i >= 0; i = members.nextSetBit(i + 1)) {
+            team.add(employees.get(i));
+        }
+        return team;
+    }
+
+    /**
+     * Verifies that the {@code employee_hierarchy_closure} table, which is maintained by
+     * triggers on the {@code employees} table, matches the reporting hierarchy, and rebuilds
+     * it if it drifted.
+     *
+     * @return The number of rows that were missing from or wrong in the closure table before
+     * the rebuild, {@code 0} if it was consistent.
+     * @throws SQLException If a database access error occurs during the verification or the rebuild fails.
+     */
+    public long verifyHierarchyClosure() throws SQLException {
+        try {
+            long drift = employeeRepository.countHierarchyClosureDrift();
+            if (drift == 0) {
+                return 0;
+            }
+
+            logger.log(Level.WARNING, "Employee hierarchy closure drifted by {0} rows, rebuilding it", drift);
+            if (!storedProceduresRepository.callRebuildEmployeeHierarchyClosure()) {
+                throw new SQLException("Failed to rebuild the employee hierarchy closure");
+            }
+            return drift;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to verify the employee hierarchy closure", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #isEmployeeInTeam(Integer, Integer)}. If the
+     * {@link OrgHierarchyIndex} is not built yet, the whole reporting hierarchy below the
+     * manager is loaded with a single query instead of building it.
+     *
+     * @param employeeId The ID of the employee to check.
+     * @param managerId  The ID of the manager to check against.
+     * @return A {@code CompletableFuture} completed with {@code true} if the employee is a direct
+     * or indirect subordinate of the manager. The future fails with an {@link IllegalArgumentException}
+     * if either ID is null.
+     */
+    public CompletableFuture<Boolean> isEmployeeInTeamAsync(Integer employeeId, Integer managerId) {
+        if (employeeId == null || managerId == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Illegal argument: employeeId or managerId cannot be null!"));
+        }
+
+        OrgHierarchyIndex index = OrgHierarchyIndex.getIfBuilt();
+        if (index != null && index.contains(employeeId) && index.contains(managerId)) {
+            return CompletableFuture.completedFuture(index.isSubordinate(employeeId, managerId));
+        }
+
+        return employeeRepository.findAllSubordinatesAsync(managerId)
+            .thenApply(subordinates -> subordinates.contains(employeeId))
+            .whenComplete((inTeam, e) -> {
+                if (e != null) {
+                    logger.log(Level.SEVERE, "Failed to verify if employee with ID: " + employeeId + " is subordinate of employee with ID: " + managerId, e);
+                }
+            });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,570 @@
+package com.leanx.app.service.modules.employee;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.leanx.app.model.dto.EmployeeSuggestion;
+import com.leanx.app.model.entity.Employee;
+import com.leanx.app.repository.EmployeeRepository;
+import com.leanx.app.repository.UserEmployeeLinkRepository;
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * In-memory compressed prefix trie (radix tree) answering the employee typeahead without
+ * querying the database.
+ * <p>
+ * Every employee is stored under several normalized keys (see
+ * {@link EmployeeNameIndex#normalize(String)}): the first name, the last name, both orders of
+ * the full name and the names of the linked user accounts. Chains of nodes with a single child
+ * are collapsed into one edge. Every node keeps the best {@link #MAX_K} employees of its
+ * subtree, so a lookup only walks the query and copies the list of the node it ends in.
+ * Employees are ranked by the length of their shortest key in the subtree, so that "Ann" comes
+ * before "Annabelle" for "an", then by display name.
+ * <p>
+ * The memory is bounded by the number of employees: every employee adds at most a handful of
+ * keys, which are cut to {@link #MAX_KEY_LENGTH} characters, and every node keeps at most
+ * {@link #MAX_K} suggestions.
+ * <p>
+ * The trie is built from the database on first use and kept up to date by the
+ * {@link EmployeeService}; changes made outside this application instance, including changes of
+ * user names, are picked up when it is rebuilt after 'EMPLOYEE_SUGGEST_REFRESH_MS' (default 5 minutes).
+ */
+public final class EmployeeSuggestionIndex {
+
+    private static final Logger logger = Logger.getLogger(EmployeeSuggestionIndex.class.getName());
+
+    /**
+     * The time after which the trie is rebuilt from the database, retrieved from the optional
+     * 'EMPLOYEE_SUGGEST_REFRESH_MS' environment variable.
+     */
+    public static final long REFRESH_MILLIS = EnvironmentUtils.getLong("EMPLOYEE_SUGGEST_REFRESH_MS", 300_000);
+
+    /**
+     * The maximum number of suggestions returned by a lookup and kept per node, retrieved from
+     * the optional 'EMPLOYEE_SUGGEST_MAX_K' environment variable.
+     */
+    public static final int MAX_K = Math.max(1, EnvironmentUtils.getInt("EMPLOYEE_SUGGEST_MAX_K", 10));
+
+    /**
+     * The number of characters of a key (and a query) that is indexed, retrieved from the
+     * optional 'EMPLOYEE_SUGGEST_MAX_KEY_LENGTH' environment variable.
+     */
+    public static final int MAX_KEY_LENGTH = Math.max(1, EnvironmentUtils.getInt("EMPLOYEE_SUGGEST_MAX_KEY_LENGTH", 32));
+
+    private static final int[] NO_IDS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final EmployeeRepository employeeRepository = new EmployeeRepository();
+    private static final UserEmployeeLinkRepository userEmployeeLinkRepository = new UserEmployeeLinkRepository();
+    private static final Object buildLock = new Object();
+    private static volatile EmployeeSuggestionIndex current;
+
+    private final Node root = new Node(new char[0], 0);
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long builtAt = System.currentTimeMillis();
+    private int nodeCount = 1;
+
+    private EmployeeSuggestionIndex() {}
+
+    /**
+     * Gets the current trie, building it from the database on first use and once it is older
+     * than {@link #REFRESH_MILLIS}.
+     *
+     * @return The current {@code EmployeeSuggestionIndex}.
+     * @throws SQLException If the names cannot be loaded.
+     */
+    public static EmployeeSuggestionIndex get() throws SQLException {
+        EmployeeSuggestionIndex index = current;
+        if (index != null && !index.isStale()) {
+            return index;
+        }
+
+        synchronized (buildLock) {
+            index = current;
+            if (index == null || index.isStale()) {
+                index = build(employeeRepository.findAllNames(), userEmployeeLinkRepository.findUsernamesByEmployeeId());
+                current = index;
+                logger.log(Level.INFO, "Built employee suggestion trie of {0} employees with {1} nodes",
+                    new Object[]{index.entries.size(), index.nodeCount});
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Adds a newly created employee to the current trie.
+     *
+     * @param employee The new employee, with its generated ID.
+     */
+    public static void employeeAdded(Employee employee) {
+        EmployeeSuggestionIndex index = current;
+        if (index != null && employee.getId() != null) {
+            index.put(new Entry(employee.getId(), employee.getFirstName(), employee.getLastName(), Collections.emptyList()));
+        }
+    }
+
+    /**
+     * Applies a change of the name of an employee to the current trie.
+     *
+     * @param employeeId The ID of the employee.
+     * @param firstName  The new first name, or {@code null} if unchanged.
+     * @param lastName   The new last name, or {@code null} if unchanged.
+     */
+    public static void employeeUpdated(int employeeId, String firstName, String lastName) {
+        EmployeeSuggestionIndex index = current;
+        if (index != null) {
+            index.update(employeeId, firstName, lastName);
+        }
+    }
+
+    /**
+     * Discards the current trie, so that it is rebuilt from the database on next use.
+     */
+    public static void invalidate() {
+        synchronized (buildLock) {
+            current = null;
+        }
+    }
+
+    /**
+     * Builds a trie over the given employees.
+     *
+     * @param employees The employees with their ID and names.
+     * @param usernames The names of the user accounts linked to each employee.
+     * @return The new {@code EmployeeSuggestionIndex}.
+     */
+    static EmployeeSuggestionIndex build(List<Employee> employees, Map<Integer, List<String>> usernames) {
+        EmployeeSuggestionIndex index = new EmployeeSuggestionIndex();
+        for (Employee employee : employees) {
+            index.put(new Entry(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                usernames.getOrDefault(employee.getId(), Collections.emptyList())));
+        }
+        return index;
+    }
+
+    private boolean isStale() {
+        return System.currentTimeMillis() - builtAt >= REFRESH_MILLIS;
+    }
+
+    /**
+     * Suggests the employees having a name or user name starting with the given prefix.
+     *
+     * @param prefix The typed prefix.
+     * @param k      The maximum number of suggestions, at most {@link #MAX_K} are returned.
+     * @return The best matching employees with their ID and display name, empty if the prefix is blank.
+     */
+    public List<EmployeeSuggestion> suggest(String prefix, int k) {
+        String query = key(prefix);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = find(query);
+            if (node == null) {
+                return new ArrayList<>();
+            }
+
+            int count = Math.min(k, node.topCount);
+            List<EmployeeSuggestion> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Entry entry = entries.get(node.top[i]);
+                suggestions.add(new EmployeeSuggestion(entry.id, entry.displayName));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of employees in the trie.
+     *
+     * @return The number of employees.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizes a name and cuts it to {@link #MAX_KEY_LENGTH} characters.
+     */
+    private static String key(String name) {
+        String key = EmployeeNameIndex.normalize(name);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    /**
+     * Finds the node whose subtree contains all keys starting with the query.
+     *
+     * @return The node, or {@code null} if no key starts with the query.
+     */
+    private Node find(String query) {
+        Node node = root;
+        int position = 0;
+        while (position < query.length()) {
+            Node child = node.child(query.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            int length = Math.min(child.label.length, query.length() - position);
+            for (int i = 1; i < length; i++) {
+                if (child.label[i] != query.charAt(position + i)) {
+                    return null;
+                }
+            }
+            position += length;
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Adds or replaces an employee.
+     */
+    private void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            replace(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the changed names of an employee, ignoring employees that are not indexed yet.
+     */
+    void update(int id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(id);
+            if (previous != null) {
+                replace(new Entry(id, firstName != null ? firstName : previous.firstName,
+                    lastName != null ? lastName : previous.lastName, previous.usernames));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the keys of the previous entry of the employee and inserts the keys of the new
+     * one. The previous entry stays registered until its keys are removed, since the ranking of
+     * the suggestion lists depends on it. Requires the write lock.
+     */
+    private void replace(Entry entry) {
+        Entry previous = entries.get(entry.id);
+        if (previous != null) {
+            for (String key : previous.keys) {
+                remove(key, entry.id);
+            }
+        }
+        entries.put(entry.id, entry);
+        for (String key : entry.keys) {
+            insert(key, entry.id);
+        }
+    }
+
+    /**
+     * Inserts a key, splitting the edge it diverges from, and offers the employee to the
+     * suggestion lists of all nodes on its path. Requires the write lock.
+     */
+    private void insert(String key, int id) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int position = 0;
+
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                child = new Node(key.substring(position).toCharArray(), key.length());
+                node.addChild(child);
+                nodeCount++;
+                position = key.length();
+            } else {
+                int common = 1;
+                while (common < child.label.length && position + common < key.length()
+                    && child.label[common] == key.charAt(position + common)) {
+                    common++;
+                }
+                if (common < child.label.length) {
+                    child = split(node, child, common);
+                }
+                position += common;
+            }
+            node = child;
+            path.add(node);
+        }
+
+        node.ids = Arrays.copyOf(node.ids, node.ids.length + 1);
+        node.ids[node.ids.length - 1] = id;
+        for (Node onPath : path) {
+            offer(onPath, id, key.length());
+        }
+    }
+
+    /**
+     * Splits the edge to a child after the given number of characters.
+     *
+     * @return The new node in the middle of the edge.
+     */
+    private Node split(Node parent, Node child, int length) {
+        Node middle = new Node(Arrays.copyOf(child.label, length), child.depth - child.label.length + length);
+        child.label = Arrays.copyOfRange(child.label, length, child.label.length);
+        middle.children = new Node[]{child};
+        middle.top = Arrays.copyOf(child.top, child.top.length);
+        middle.topLengths = Arrays.copyOf(child.topLengths, child.topLengths.length);
+        middle.topCount = child.topCount;
+        parent.replaceChild(child, middle);
+        nodeCount++;
+        return middle;
+    }
+
+    /**
+     * Removes a key of an employee, prunes and merges the nodes that are no longer needed and
+     * recomputes the suggestion lists on its path that contained the employee. Requires the write lock.
+     */
+    private void remove(String key, int id) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int position = 0;
+
+        while (position < key.length()) {
+            node = node.child(key.charAt(position));
+            if (node == null || !key.startsWith(new String(node.label), position)) {
+                return;
+            }
+            position += node.label.length;
+            path.add(node);
+        }
+
+        int index = indexOf(node.ids, node.ids.length, id);
+        if (index < 0) {
+            return;
+        }
+        int[] ids = new int[node.ids.length - 1];
+        System.arraycopy(node.ids, 0, ids, 0, index);
+        System.arraycopy(node.ids, index + 1, ids, index, ids.length - index);
+        node.ids = ids.length == 0 ? NO_IDS : ids;
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.ids.length == 0 && current.children.length <= 1) {
+                Node parent = path.get(i - 1);
+                if (current.children.length == 0) {
+                    parent.removeChild(current);
+                } else {
+                    Node child = current.children[0];
+                    char[] label = Arrays.copyOf(current.label, current.label.length + child.label.length);
+                    System.arraycopy(child.label, 0, label, current.label.length, child.label.length);
+                    child.label = label;
+                    parent.replaceChild(current, child);
+                }
+                nodeCount--;
+            } else if (indexOf(current.top, current.topCount, id) >= 0) {
+                recompute(current);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the suggestion list of a node from its own employees and the lists of its children.
+     */
+    private void recompute(Node node) {
+        node.topCount = 0;
+        for (int id : node.ids) {
+            offer(node, id, node.depth);
+        }
+        for (Node child : node.children) {
+            for (int i = 0; i < child.topCount; i++) {
+                offer(node, child.top[i], child.topLengths[i]);
+            }
+        }
+    }
+
+    /**
+     * Inserts an employee into the suggestion list of a node, keeping the list sorted, free of
+     * duplicates and at most {@link #MAX_K} long.
+     *
+     * @param node   The node.
+     * @param id     The ID of the employee.
+     * @param length The length of the key of the employee in the subtree of the node.
+     */
+    private void offer(Node node, int id, int length) {
+        int existing = indexOf(node.top, node.topCount, id);
+        if (existing >= 0) {
+            if (node.topLengths[existing] <= length) {
+                return;
+            }
+            System.arraycopy(node.top, existing + 1, node.top, existing, node.topCount - existing - 1);
+            System.arraycopy(node.topLengths, existing + 1, node.topLengths, existing, node.topCount - existing - 1);
+            node.topCount--;
+        }
+
+        int position = 0;
+        while (position < node.topCount && compare(node.top[position], node.topLengths[position], id, length) < 0) {
+            position++;
+        }
+        if (position >= MAX_K) {
+            return;
+        }
+
+        if (node.top.length == node.topCount && node.topCount < MAX_K) {
+            int capacity = Math.min(MAX_K, Math.max(2, node.topCount * 2));
+            node.top = Arrays.copyOf(node.top, capacity);
+            node.topLengths = Arrays.copyOf(node.topLengths, capacity);
+        }
+        int moved = Math.min(node.topCount, MAX_K - 1) - position;
+        System.arraycopy(node.top, position, node.top, position + 1, moved);
+        System.arraycopy(node.topLengths, position, node.topLengths, position + 1, moved);
+        node.top[position] = id;
+        node.topLengths[position] = length;
+        node.topCount = Math.min(node.topCount + 1, MAX_K);
+    }
+
+    private int compare(int id, int length, int otherId, int otherLength) {
+        if (length != otherLength) {
+            return Integer.compare(length, otherLength);
+        }
+        int byName = entries.get(id).sortName.compareTo(entries.get(otherId).sortName);
+        return byName != 0 ? byName : Integer.compare(id, otherId);
+    }
+
+    private static int indexOf(int[] ids, int size, int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * An indexed employee with its display name and keys.
+     */
+    private static final class Entry {
+
+        private final int id;
+        private final String firstName;
+        private final String lastName;
+        private final List<String> usernames;
+        private final String displayName;
+        private final String sortName;
+        private final String[] keys;
+
+        private Entry(int id, String firstName, String lastName, List<String> usernames) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.usernames = usernames;
+            this.displayName = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+            this.sortName = EmployeeNameIndex.normalize(displayName);
+
+            String first = key(firstName);
+            String last = key(lastName);
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(first);
+            keys.add(last);
+            keys.add(key(first + " " + last));
+            keys.add(key(last + " " + first));
+            for (String username : usernames) {
+                keys.add(key(username));
+            }
+            keys.remove("");
+            this.keys = keys.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * A node of the trie. The label holds the characters of the edge leading to the node and
+     * the depth the length of the key ending in it.
+     */
+    private static final class Node {
+
+        private char[] label;
+        private final int depth;
+        private Node[] children = NO_CHILDREN;
+        private int[] ids = NO_IDS;
+        private int[] top = NO_IDS;
+        private int[] topLengths = NO_IDS;
+        private int topCount;
+
+        private Node(char[] label, int depth) {
+            this.label = label;
+            this.depth = depth;
+        }
+
+        /**
+         * Finds the child whose label starts with the given character; children are sorted by it.
+         */
+        private Node child(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = children[middle].label[0];
+                if (label < first) {
+                    low = middle + 1;
+                } else if (label > first) {
+                    high = middle - 1;
+                } else {
+                    return children[middle];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            int position = 0;
+            while (position < children.length && children[position].label[0] < child.label[0]) {
+                position++;
+            }
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, position);
+            grown[position] = child;
+            System.arraycopy(children, position, grown, position + 1, children.length - position);
+            children = grown;
+        }
+
+        private void replaceChild(Node child, Node replacement) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child) {
+                    children[i] = replacement;
+                    return;
+                }
+            }
+        }
+
+        private void removeChild(Node child) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child) {
+                    Node[] shrunk = new Node[children.length - 1];
+                    System.arraycopy(children, 0, shrunk, 0, i);
+                    System.arraycopy(children, i + 1, shrunk, i, shrunk.length - i);
+                    children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.leanx.app.service.modules.employee;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.leanx.app.repository.EmployeeRepository;
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * Immutable in-memory index of the reporting hierarchy of all employees, answering whether an
+ * employee reports directly or indirectly to a manager in constant time.
+ * <p>
+ * The hierarchy is stored as a forest over primitive arrays: the parent of every employee and
+ * the position at which a depth-first (Euler) tour enters and leaves the employee. An employee
+ * is below a manager exactly if the tour enters the employee after and leaves it before the
+ * manager, so a check is two array lookups.
+ * <p>
+ * The current index is built from {@code employees.manager_id} on first use and shared by all
+ * threads; readers never lock. {@link #employeeAdded(int, Integer)} and
+ * {@link #managerChanged(int, Integer)} apply changes made through the {@link EmployeeService}
+ * without reloading the hierarchy: the tour of the moved subtree is relocated and only the
+ * intervals in between are renumbered. Changes made outside this application instance are picked
+ * up when the index is rebuilt after 'ORG_HIERARCHY_REFRESH_MS' (default 5 minutes).
+ */
+public final class OrgHierarchyIndex {
+
+    private static final Logger logger = Logger.getLogger(OrgHierarchyIndex.class.getName());
+
+    /**
+     * The time after which the index is rebuilt from the database, retrieved from the optional
+     * 'ORG_HIERARCHY_REFRESH_MS' environment variable. {@code 0} rebuilds it on every use.
+     */
+    public static final long REFRESH_MILLIS = EnvironmentUtils.getLong("ORG_HIERARCHY_REFRESH_MS", 300_000);
+
+    private static final int NONE = -1;
+
+    private static final EmployeeRepository employeeRepository = new EmployeeRepository();
+    private static final Object lock = new Object();
+    private static volatile OrgHierarchyIndex current;
+
+    /** The employee at every node. */
+    private final int[] ids;
+    /** The node of every employee ID, {@link #NONE} for unknown IDs. */
+    private final int[] nodeById;
+    /** The parent node of every node, {@link #NONE} for employees without a manager. */
+    private final int[] parent;
+    /** The number of nodes in the subtree of every node, including the node itself. */
+    private final int[] size;
+    /** The node at every position of the tour. */
+    private final int[] order;
+    /** The position of every node in the tour. */
+    private final int[] enter;
+    /** The position of the last node of the subtree of every node in the tour. */
+    private final int[] exit;
+    private final int count;
+    private final long builtAt;
+
+    private OrgHierarchyIndex(int[] ids, int[] nodeById, int[] parent, int[] size, int[] order, int[] enter, int[] exit,
+                              int count, long builtAt) {
+        this.ids = ids;
+        this.nodeById = nodeById;
+        this.parent = parent;
+        this.size = size;
+        this.order = order;
+        this.enter = enter;
+        this.exit = exit;
+        this.count = count;
+        this.builtAt = builtAt;
+    }
+
+    /**
+     * Gets the current index, building it from the database on first use and once it is older
+     * than {@link #REFRESH_MILLIS}.
+     *
+     * @return The current {@code OrgHierarchyIndex}.
+     * @throws SQLException If the hierarchy cannot be loaded.
+     */
+    public static OrgHierarchyIndex get() throws SQLException {
+        OrgHierarchyIndex index = current;
+        if (index != null && !index.isStale()) {
+            return index;
+        }
+
+        synchronized (lock) {
+            index = current;
+            if (index == null || index.isStale()) {
+                index = build(employeeRepository.findManagerIds());
+                current = index;
+                logger.log(Level.INFO, "Built org hierarchy index of {0} employees", index.count);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Gets the current index without loading it.
+     *
+     * @return The current {@code OrgHierarchyIndex}, or {@code null} if it is not built or stale.
+     */
+    public static OrgHierarchyIndex getIfBuilt() {
+        OrgHierarchyIndex index = current;
+        return index != null && !index.isStale() ? index : null;
+    }
+
+    /**
+     * Discards the current index, so that it is rebuilt from the database on next use.
+     */
+    public static void invalidate() {
+        synchronized (lock) {
+            current = null;
+        }
+    }
+
+    /**
+     * Adds a newly created employee to the current index.
+     *
+     * @param employeeId The ID of the new employee.
+     * @param managerId  The ID of the manager of the employee, or {@code null}.
+     */
+    public static void employeeAdded(int employeeId, Integer managerId) {
+        synchronized (lock) {
+            if (current != null) {
+                current = current.withEmployee(employeeId, managerId);
+            }
+        }
+    }
+
+    /**
+     * Moves an employee, together with everybody reporting to them, below a new manager in the
+     * current index.
+     *
+     * @param employeeId The ID of the employee.
+     * @param managerId  The ID of the new manager of the employee, or {@code null}.
+     */
+    public static void managerChanged(int employeeId, Integer managerId) {
+        synchronized (lock) {
+            if (current != null) {
+                current = current.withManager(employeeId, managerId);
+            }
+        }
+    }
+
+    /**
+     * Builds an index from the reporting lines of all employees. Managers that are not employees
+     * themselves are ignored, as are reporting lines that form a cycle.
+     *
+     * @param managerIds The ID of the manager of every employee, or {@code null} for employees without a manager.
+     * @return The new {@code OrgHierarchyIndex}.
+     */
+    static OrgHierarchyIndex build(Map<Integer, Integer> managerIds) {
+        int count = managerIds.size();
+        int[] ids = new int[count];
+        int maxId = 0;
+        int node = 0;
+        for (Integer id : managerIds.keySet()) {
+            ids[node++] = id;
+            maxId = Math.max(maxId, id);
+        }
+        Arrays.sort(ids);
+
+        int[] nodeById = new int[maxId + 1];
+        Arrays.fill(nodeById, NONE);
+        for (int i = 0; i < count; i++) {
+            nodeById[ids[i]] = i;
+        }
+
+        int[] parent = new int[count];
+        int[] childCount = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            Integer managerId = managerIds.get(ids[i]);
+            parent[i] = managerId != null && managerId != ids[i] && managerId >= 0 && managerId <= maxId
+                ? nodeById[managerId] : NONE;
+            if (parent[i] != NONE) {
+                childCount[parent[i]]++;
+            }
+        }
+
+        // children of every node in contiguous ranges of one array
+        int[] childStart = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            childStart[i + 1] = childStart[i] + childCount[i];
+        }
+        int[] children = new int[childStart[count]];
+        int[] next = Arrays.copyOf(childStart, count);
+        for (int i = 0; i < count; i++) {
+            if (parent[i] != NONE) {
+                children[next[parent[i]]++] = i;
+            }
+        }
+
+        int[] order = new int[count];
+        int[] enter = new int[count];
+        int[] exit = new int[count];
+        int[] size = new int[count];
+        Arrays.fill(enter, NONE);
+        int position = 0;
+        int[] stack = new int[count];
+        int[] nextChild = new int[count];
+
+        // roots first, then employees on reporting cycles, which are never reached from a root
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < count; root++) {
+                if (enter[root] != NONE || (pass == 0 && parent[root] != NONE)) {
+                    continue;
+                }
+                if (pass == 1) {
+                    logger.log(Level.WARNING, "Employee {0} is part of a reporting cycle", ids[root]);
+                    parent[root] = NONE;
+                }
+
+                int depth = 0;
+                stack[0] = root;
+                nextChild[root] = childStart[root];
+                enter[root] = position;
+                order[position++] = root;
+                while (depth >= 0) {
+                    int top = stack[depth];
+                    if (nextChild[top] < childStart[top + 1]) {
+                        int child = children[nextChild[top]++];
+                        if (enter[child] != NONE) {
+                            continue;
+                        }
+                        nextChild[child] = childStart[child];
+                        enter[child] = position;
+                        order[position++] = child;
+                        stack[++depth] = child;
+                    } else {
+                        exit[top] = position - 1;
+                        size[top] = position - enter[top];
+                        depth--;
+                    }
+                }
+            }
+        }
+
+        return new OrgHierarchyIndex(ids, nodeById, parent, size, order, enter, exit, count, System.currentTimeMillis());
+    }
+
+    private boolean isStale() {
+        return System.currentTimeMillis() - builtAt >= REFRESH_MILLIS;
+    }
+
+    private int nodeOf(int employeeId) {
+        return employeeId >= 0 && employeeId < nodeById.length ? nodeById[employeeId] : NONE;
+    }
+
+    /**
+     * Checks whether the index knows the given employee.
+     *
+     * @param employeeId The ID of the employee.
+     * @return {@code true} if the employee exists in the index.
+     */
+    public boolean contains(int employeeId) {
+        return nodeOf(employeeId) != NONE;
+    }
+
+    /**
+     * Checks whether an employee reports directly or indirectly to a manager.
+     *
+     * @param employeeId The ID of the employee.
+     * @param managerId  The ID of the manager.
+     * @return {@code true} if the employee is below the manager in the hierarchy, {@code false}
+     * otherwise, including for the manager themselves and for unknown IDs.
+     */
+    public boolean isSubordinate(int employeeId, int managerId) {
+        int employee = nodeOf(employeeId);
+        int manager = nodeOf(managerId);
+        return employee != NONE && manager != NONE && employee != manager
+            && enter[manager] < enter[employee] && enter[employee] <= exit[manager];
+    }
+
+    /**
+     * Checks for many employees at once whether they report directly or indirectly to a manager.
+     *
+     * @param managerId   The ID of the manager.
+     * @param employeeIds The IDs of the employees.
+     * @return A {@link BitSet} in which bit {@code i} is set if {@code employeeIds[i]} is below
+     * the manager in the hierarchy.
+     */
+    public BitSet teamMembership(int managerId, int[] employeeIds) {
+        BitSet members = new BitSet(employeeIds.length);
+        int manager = nodeOf(managerId);
+        if (manager == NONE || size[manager] == 1) {
+            return members;
+        }
+
+        int first = enter[manager];
+        int last = exit[manager];
+        for (int i = 0; i < employeeIds.length; i++) {
+            int employee = nodeOf(employeeIds[i]);
+            if (employee != NONE && enter[employee] > first && enter[employee] <= last) {
+                members.set(i);
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Gets the number of employees in the index.
+     *
+     * @return The number of employees.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Creates a copy of this index with a new employee placed directly below their manager.
+     *
+     * @param employeeId The ID of the new employee.
+     * @param managerId  The ID of the manager, or {@code null}.
+     * @return The new index, or {@code null} to rebuild it if the change cannot be applied.
+     */
+    OrgHierarchyIndex withEmployee(int employeeId, Integer managerId) {
+        int manager = managerId != null ? nodeOf(managerId) : NONE;
+        if (employeeId < 0 || contains(employeeId) || (managerId != null && manager == NONE)) {
+            return null;
+        }
+
+        int node = count;
+        int[] newIds = Arrays.copyOf(ids, count + 1);
+        int[] newNodeById = Arrays.copyOf(nodeById, Math.max(nodeById.length, employeeId + 1));
+        Arrays.fill(newNodeById, nodeById.length, newNodeById.length, NONE);
+        int[] newParent = Arrays.copyOf(parent, count + 1);
+        int[] newSize = Arrays.copyOf(size, count + 1);
+        int[] newOrder = Arrays.copyOf(order, count + 1);
+        int[] newEnter = Arrays.copyOf(enter, count + 1);
+        int[] newExit = Arrays.copyOf(exit, count + 1);
+
+        newIds[node] = employeeId;
+        newNodeById[employeeId] = node;
+        newParent[node] = manager;
+        newSize[node] = 1;
+
+        // insert the employee into the tour right after the subtree of the manager
+        int position = manager != NONE ? exit[manager] + 1 : count;
+        System.arraycopy(newOrder, position, newOrder, position + 1, count - position);
+        newOrder[position] = node;
+        for (int ancestor = manager; ancestor != NONE; ancestor = newParent[ancestor]) {
+            newSize[ancestor]++;
+        }
+
+        OrgHierarchyIndex index = new OrgHierarchyIndex(newIds, newNodeById, newParent, newSize, newOrder, newEnter, newExit,
+            count + 1, builtAt);
+        index.renumber(position, count, manager, NONE);
+        return index;
+    }
+
+    /**
+     * Creates a copy of this index with an employee and their subtree moved below a new manager.
+     *
+     * @param employeeId The ID of the employee.
+     * @param managerId  The ID of the new manager, or {@code null}.
+     * @return The new index, or {@code null} to rebuild it if the change cannot be applied.
+     */
+    OrgHierarchyIndex withManager(int employeeId, Integer managerId) {
+        int node = nodeOf(employeeId);
+        int manager = managerId != null ? nodeOf(managerId) : NONE;
+        if (node == NONE || (managerId != null && manager == NONE)) {
+            return null;
+        }
+        if (parent[node] == manager) {
+            return this;
+        }
+        if (manager != NONE && enter[node] <= enter[manager] && enter[manager] <= exit[node]) {
+            // the rebuild warns if the cycle is really stored, so this is only worth a trace
+            logger.log(Level.FINE, "Employee {0} now reports to their own subordinate {1}", new Object[]{employeeId, managerId});
+            return null;
+        }
+
+        int[] newParent = parent.clone();
+        int[] newSize = size.clone();
+        int[] newOrder = order.clone();
+        OrgHierarchyIndex index = new OrgHierarchyIndex(ids, nodeById, newParent, newSize, newOrder, enter.clone(), exit.clone(),
+            count, builtAt);
+
+        // the subtree occupies [first, last] of the tour and moves right after the subtree of the new manager
+        int first = enter[node];
+        int last = exit[node];
+        int subtreeSize = last - first + 1;
+        int target = manager != NONE ? exit[manager] + 1 : count;
+        int from;
+        int to;
+        if (target <= first) {
+            from = target;
+            to = last;
+            int[] subtree = Arrays.copyOfRange(order, first, last + 1);
+            System.arraycopy(order, target, newOrder, target + subtreeSize, first - target);
+            System.arraycopy(subtree, 0, newOrder, target, subtreeSize);
+        } else {
+            from = first;
+            to = target - 1;
+            int[] subtree = Arrays.copyOfRange(order, first, last + 1);
+            System.arraycopy(order, last + 1, newOrder, first, target - last - 1);
+            System.arraycopy(subtree, 0, newOrder, target - subtreeSize, subtreeSize);
+        }
+
+        int oldManager = parent[node];
+        for (int ancestor = oldManager; ancestor != NONE; ancestor = parent[ancestor]) {
+            newSize[ancestor] -= subtreeSize;
+        }
+        for (int ancestor = manager; ancestor != NONE; ancestor = parent[ancestor]) {
+            newSize[ancestor] += subtreeSize;
+        }
+        newParent[node] = manager;
+
+        index.renumber(from, to, manager, oldManager);
+        return index;
+    }
+
+    /**
+     * Recomputes the tour intervals after the nodes in a range of the tour moved and the
+     * subtree sizes along two ancestor chains changed. Intervals outside the range only change
+     * for the ancestors of the range's boundaries, which are the two chains.
+     *
+     * @param from     The first position of the tour whose node changed.
+     * @param to       The last position of the tour whose node changed.
+     * @param chainA   A node whose ancestors' subtree sizes changed, or {@link #NONE}.
+     * @param chainB   Another node whose ancestors' subtree sizes changed, or {@link #NONE}.
+     */
+    private void renumber(int from, int to, int chainA, int chainB) {
+        for (int position = from; position <= to; position++) {
+            int node = order[position];
+            enter[node] = position;
+            exit[node] = position + size[node] - 1;
+        }
+        for (int ancestor = chainA; ancestor != NONE; ancestor = parent[ancestor]) {
+            exit[ancestor] = enter[ancestor] + size[ancestor] - 1;
+        }
+        for (int ancestor = chainB; ancestor != NONE; ancestor = parent[ancestor]) {
+            exit[ancestor] = enter[ancestor] + size[ancestor] - 1;
+        }
+    }
+}
@@ -1,15 +1,16 @@
 package com.leanx.app.service.modules.employee.self;
 
 import java.sql.SQLException;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.leanx.app.model.dto.EmployeeProfile;
 import com.leanx.app.model.entity.Employee;
-import com.leanx.app.repository.EmployeeRepository;
 import com.leanx.app.repository.UserEmployeeLinkRepository;
+import com.leanx.app.service.modules.employee.EmployeeCache;
 import com.leanx.app.service.modules.user.admin.UserService;
+import com.leanx.app.utils.database.DatabaseExecutor;
 
 /**
  * Service class for handling self-service operations related to employees.
@@ -21,7 +22,6 @@ public class EmployeeSelfService {
     private static final Logger logger = Logger.getLogger(UserService.class.getName());
 
     private final UserEmployeeLinkRepository userEmployeeLinkRepository = new UserEmployeeLinkRepository();
-    private final EmployeeRepository employeeRepository = new EmployeeRepository();
 
     /**
      * Retrieves the employee ID associated with a given user ID.
@@ -52,29 +52,75 @@ public class EmployeeSelfService {
      * details or the manager's name.
      */
     public EmployeeProfile getPersonalEmployeeProfile(Integer userId) throws SQLException {
-        try {
-            Employee employee = employeeRepository.read(getEmployeeId(userId));
-            List<String> managerName = employeeRepository.findNameById(employee.getManagerId());
+        return DatabaseExecutor.await(getPersonalEmployeeProfileAsync(userId));
+    }
 
-            EmployeeProfile employeeProfile = new EmployeeProfile(
-                employee.getId(),
-                employee.getFirstName(),
-                employee.getLastName(),
-                employee.getEmail(),
-                managerName.get(0),
-                managerName.get(1),
-                employee.getJobTitle(),
-                employee.getDepartment(),
-                employee.getEmploymentType(),
-                employee.getEmploymentStatus(),
-                employee.getStartDate()
-            );
+    /**
+     * Asynchronous variant of {@link #getPersonalEmployeeProfile(Integer)}. Once the employee ID
+     * of the user is known, the employee and then their manager are read through the
+     * {@link EmployeeCache}, so that repeated requests do not query the employee records again.
+     *
+     * @param userId The ID of the user whose employee profile is to be retrieved.
+     * @return A {@code CompletableFuture} completed with the {@link EmployeeProfile}, or with
+     * {@code null} if the user is not linked to an employee. The future fails with the
+     * {@link SQLException} thrown while fetching the employee details or the manager's name.
+     */
+    public CompletableFuture<EmployeeProfile> getPersonalEmployeeProfileAsync(Integer userId) {
+        return getPersonalEmployeeProfileAsync(userId, null);
+    }
 
-            return employeeProfile;
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get employee profile for user with ID: " + userId, e);
-            throw e;
+    /**
+     * Variant of {@link #getPersonalEmployeeProfileAsync(Integer)} for callers that already know
+     * the employee ID of the user, such as requests of a session that stored it at login. The
+     * link of the user to the employee is then not queried again.
+     *
+     * @param userId     The ID of the user whose employee profile is to be retrieved.
+     * @param employeeId The ID of the employee linked to the user, or {@code null} to look it up.
+     * @return A {@code CompletableFuture} completed with the {@link EmployeeProfile}, or with
+     * {@code null} if the user is not linked to an employee.
+     */
+    public CompletableFuture<EmployeeProfile> getPersonalEmployeeProfileAsync(Integer userId, Integer employeeId) {
+        CompletableFuture<Integer> linkedEmployeeId = employeeId != null
+            ? CompletableFuture.completedFuture(employeeId)
+            : userEmployeeLinkRepository.findEmployeeIdByUserIdAsync(userId);
+
+        return linkedEmployeeId
+            .thenCompose(id -> {
+                if (id == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                return EmployeeCache.getAsync(id).thenCompose(employee -> {
+                    if (employee == null || employee.getManagerId() == null) {
+                        return CompletableFuture.completedFuture(toEmployeeProfile(employee, null));
+                    }
+                    return EmployeeCache.getAsync(employee.getManagerId()).thenApply(manager -> toEmployeeProfile(employee, manager));
+                });
+            })
+            .whenComplete((employeeProfile, e) -> {
+                if (e != null) {
+                    logger.log(Level.SEVERE, "Failed to get employee profile for user with ID: " + userId, e);
+                }
+            });
+    }
+
+    private static EmployeeProfile toEmployeeProfile(Employee employee, Employee manager) {
+        if (employee == null) {
+            return null;
         }
+
+        return new EmployeeProfile(
+            employee.getId(),
+            employee.getFirstName(),
+            employee.getLastName(),
+            employee.getEmail(),
+            manager == null ? null : manager.getFirstName(),
+            manager == null ? null : manager.getLastName(),
+            employee.getJobTitle(),
+            employee.getDepartment(),
+            employee.getEmploymentType(),
+            employee.getEmploymentStatus(),
+            employee.getStartDate()
+        );
     }
 
     /**
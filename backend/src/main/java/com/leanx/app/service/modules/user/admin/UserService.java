@@ -10,10 +10,13 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.leanx.app.model.dto.LoginContext;
 import com.leanx.app.model.entity.User;
 import com.leanx.app.repository.UserEmployeeLinkRepository;
 import com.leanx.app.repository.UserRepository;
 import com.leanx.app.repository.base.StoredProceduresRepository;
+import com.leanx.app.service.modules.user.auth.UserAuthCache;
+import com.leanx.app.utils.database.TransactionTemplate;
 
 /**
  * Service class for administrative operations related to user accounts.
@@ -39,7 +42,8 @@ public final class UserService {
     }
 
     /**
-     * Executes an update operation on a user record in the database.
+     * Executes an update operation on a user record in the database and removes the user from
+     * the {@link UserAuthCache} once the update is committed.
      *
      * @param updates A map containing the fields to update and their new values.
      * The keys of the map should correspond to the database column names.
@@ -50,7 +54,11 @@ public final class UserService {
      */
     private boolean executeUpdate(Map<String, Object> updates, Integer userId) throws SQLException {
         try {
-            return userCrudRepository.update(userId, updates) > 0;
+            boolean updated = userCrudRepository.update(userId, updates) > 0;
+            if (updated) {
+                TransactionTemplate.afterCommit(() -> UserAuthCache.invalidate(userId));
+            }
+            return updated;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to update user with ID: " + userId, e);
             throw e;
@@ -98,6 +106,17 @@ public final class UserService {
         throw new IllegalArgumentException("Invalid identifier type! Expected String or Integer.");
     }
 
+    /**
+     * Retrieves the authentication data, linked employee, roles and permissions of a user in one query.
+     *
+     * @param username The username of the user.
+     * @return The {@link LoginContext} of the user, or {@code null} if no user with this name exists.
+     * @throws SQLException If a database access error occurs during the retrieval.
+     */
+    public LoginContext getLoginContext(String username) throws SQLException {
+        return userCrudRepository.findLoginContext(username);
+    }
+
     /**
      * Updates the password hash for a specific user.
      *
@@ -161,6 +180,28 @@ public final class UserService {
         return executeUpdate(updates, userId);
     }
 
+    /**
+     * Counts a failed login attempt of a specific user by atomically incrementing the stored
+     * count, so that concurrent attempts, also on other application instances, are never lost.
+     *
+     * @param userId    The ID of the user whose failed login attempts count is to be incremented.
+     * @param updatedBy The ID of the user who performed the update.
+     * @return The number of failed login attempts including this one, or {@code 0} if the user does not exist.
+     * @throws SQLException If a database access error occurs during the update.
+     */
+    public int incrementNumFailedLoginAttempts(Integer userId, Integer updatedBy) throws SQLException {
+        try {
+            int numFailedAttempts = userCrudRepository.incrementNumFailedLoginAttempts(userId, updatedBy);
+            if (numFailedAttempts > 0) {
+                TransactionTemplate.afterCommit(() -> UserAuthCache.invalidate(userId));
+            }
+            return numFailedAttempts;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to update user with ID: " + userId, e);
+            throw e;
+        }
+    }
+
     /**
      * Resets the number of failed login attempts to zero for a specific user.
      *
@@ -315,7 +356,8 @@ public final class UserService {
     }
 
     /**
-     * Deactivates a user account using a stored procedure.
+     * Deactivates a user account using a stored procedure and removes the user from the
+     * {@link UserAuthCache} afterwards.
      *
      * @param userId        The ID of the user account to deactivate.
      * @param currentUserId The ID of the user performing the deactivation.
@@ -324,6 +366,10 @@ public final class UserService {
      * stored procedure (as defined by the procedure itself).
      */
     public boolean deactivateUser(Integer userId, Integer currentUserId) throws IllegalArgumentException {
-        return storedProceduresRepository.callDeactivateUserAccount(userId, currentUserId);
+        boolean deactivated = storedProceduresRepository.callDeactivateUserAccount(userId, currentUserId);
+        if (deactivated) {
+            TransactionTemplate.afterCommit(() -> UserAuthCache.invalidate(userId));
+        }
+        return deactivated;
     }
 }
\ No newline at end of file
@@ -6,8 +6,11 @@ import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.leanx.app.model.dto.LoginContext;
+import com.leanx.app.model.dto.UserAuthSnapshot;
 import com.leanx.app.model.entity.User;
 import com.leanx.app.model.entity.User.UserStatus;
+import com.leanx.app.model.views.PasswordHistoryView;
 import com.leanx.app.repository.PasswordHistoryViewRepository;
 import com.leanx.app.repository.base.ViewRepository;
 import com.leanx.app.service.modules.system.PasswordService;
@@ -16,6 +19,7 @@ import com.leanx.app.service.modules.user.auth.exceptions.AccountDeactivatedExce
 import com.leanx.app.service.modules.user.auth.exceptions.AccountLockedException;
 import com.leanx.app.service.modules.user.auth.exceptions.FirstLoginException;
 import com.leanx.app.service.modules.user.auth.exceptions.PasswordExpiredException;
+import com.leanx.app.utils.database.TransactionTemplate;
 
 /**
  * The {@code AuthenticationService} class provides functionalities related to user authentication,
@@ -28,6 +32,7 @@ public class AuthenticationService {
     
     private final UserService userService;
     private final PasswordService passwordService;
+    private final PasswordHistoryViewRepository passwordHistoryViewRepository;
 
     /**
      * Constructs an instance of {@code AuthenticationService}.
@@ -36,13 +41,19 @@ public class AuthenticationService {
     public AuthenticationService() {
         this.userService = new UserService();
         this.passwordService = new PasswordService();
+        this.passwordHistoryViewRepository = new PasswordHistoryViewRepository();
     }
 
 
     /**
      * Authenticates the user by checking their username and password.
      * This method verifies the user's existence, lock status, failed login attempts, password expiry, and checks if
-     * the password matches the stored hash.
+     * the password matches the stored hash. All resulting updates of the user, such as unlocking, counting failed
+     * attempts and recording the login, are committed as one transaction.
+     * <p>
+     * The user is read from the {@link UserAuthCache}, so attempts against an account that is locked, deactivated or
+     * was just tried do not read it again. Before a correct password is accepted, the snapshot is compared with the
+     * database, so a password or status changed by another application instance is never missed by a login.
      *
      * @param username The username of the user attempting to authenticate.
      * @param password The plain text password entered by the user.
@@ -51,14 +62,40 @@ public class AuthenticationService {
      * @throws PasswordExpiredException If the user's password has expired.
      * @throws FirstLoginException      If the user needs to change their password before first login.
      * @throws AccountDeactivatedException If the user's account is deactivated.
+     * @see #login(String, String)
      */
     public int authenticate(String username, String password) throws AccountLockedException, PasswordExpiredException, FirstLoginException, AccountDeactivatedException {
+        LoginContext context = login(username, password);
+        return context != null ? context.getUserId() : -1;
+    }
+
+    /**
+     * Authenticates the user like {@link #authenticate(String, String)} and returns what the session of the user
+     * needs. The current state of the user, which a successful login is checked against, is read in one query
+     * together with the linked employee, the roles and the permissions of the user.
+     *
+     * @param username The username of the user attempting to authenticate.
+     * @param password The plain text password entered by the user.
+     * @return The {@link LoginContext} of the user if authentication is successful, {@code null} otherwise.
+     * @throws AccountLockedException  If the user's account is locked.
+     * @throws PasswordExpiredException If the user's password has expired.
+     * @throws FirstLoginException      If the user needs to change their password before first login.
+     * @throws AccountDeactivatedException If the user's account is deactivated.
+     */
+    public LoginContext login(String username, String password) throws AccountLockedException, PasswordExpiredException, FirstLoginException, AccountDeactivatedException {
         try {
-            User user = userService.getUserByIdentifier(username);
+            return login(username, password, UserAuthCache.get(username));
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error authenticating user with username: {0}" + username, e);
+            return null;
+        }
+    }
 
+    private LoginContext login(String username, String password, UserAuthSnapshot user) throws AccountLockedException, PasswordExpiredException, FirstLoginException, AccountDeactivatedException {
+        try {
             if (user == null) {
                 logger.log(Level.WARNING, "Failed to find user with username: {0}", username);
-                return -1;
+                return null;
             }
 
             /* 
@@ -73,10 +110,11 @@ public class AuthenticationService {
                 throw new AccountDeactivatedException("Authentication failed. The account does not exist anymore. Please contact support for further information.");
             }
 
-            if (user.getStatus() == UserStatus.LOCKED) {
+            boolean unlock = user.getStatus() == UserStatus.LOCKED;
+            if (unlock) {
                 if (user.getLockUntil() == null) {
                     logger.log(Level.WARNING, "Locked user attempted to login: {0}", username);
-                    return -1;
+                    return null;
                 }
 
                 long currentTime = System.currentTimeMillis();
@@ -86,31 +124,61 @@ public class AuthenticationService {
                     logger.log(Level.WARNING, "Failed login attempt due to user being temporarily locked: {0}", username);
                     throw new AccountLockedException("Too many failed login attempts! Your account is temporarily locked. Please try again later or contact support.");
                 }
+            }
 
-                userService.unlockUser(user.getId(), 2);
-                user.setStatus(UserStatus.ACTIVE);
-                user.setNumFailedLoginAttempts(0);
+            // the password is verified before the transaction starts, so the slow hash comparison holds no connection
+            boolean passwordMatches = passwordService.checkPassword(password, user.getPasswordHash());
+            // a login is only granted on the current state of the user, never on a cached one
+            LoginContext context = passwordMatches ? userService.getLoginContext(username) : null;
+            if (passwordMatches && (context == null || !user.equals(context.getUser()))) {
+                logger.log(Level.INFO, "Cached authentication data of user {0} was outdated, checking again", username);
+                UserAuthCache.invalidate(user.getId());
+                return login(username, password, context != null ? context.getUser() : null);
             }
 
-            if (!passwordService.checkPassword(password, user.getPasswordHash())) {  
-                userService.updateNumFailedLoginAttempts(user.getId(), 2, user.getNumFailedLoginAttempts() + 1);
+            boolean passwordExpired = user.getPasswordExpiryDate() != null && user.getPasswordExpiryDate().before(new Date(System.currentTimeMillis()));
+            // failed attempts are counted by the database, the snapshot may miss concurrent ones
+            boolean lock = TransactionTemplate.execute(() -> {
+                if (unlock) {
+                    userService.unlockUser(user.getId(), 2);
+                }
 
-                if (user.getNumFailedLoginAttempts() + 1 >= passwordService.getMaxNumFailedAttempts()) {
+                if (!passwordMatches) {
+                    int numFailedAttempts;
+                    if (unlock) {
+                        numFailedAttempts = 1;
+                        userService.updateNumFailedLoginAttempts(user.getId(), 2, numFailedAttempts);
+                    } else {
+                        numFailedAttempts = userService.incrementNumFailedLoginAttempts(user.getId(), 2);
+                    }
+                    if (numFailedAttempts >= passwordService.getMaxNumFailedAttempts()) {
+                        userService.lockUser(user.getId(), 2);
+                        return true;
+                    }
+                } else if (!passwordExpired) {
+                    userService.resetNumFailedLoginAttempts(user.getId(), 2);
+                    if (!user.isFirstLogin()) {
+                        userService.updateLastLoginAt(user.getId(), 2);
+                    }
+                }
+                return false;
+            });
+
+            if (!passwordMatches) {
+                if (lock) {
                     logger.log(Level.WARNING, "User locked due to exceeding allowed number of failed login attempts: {0}", username);
-                    userService.lockUser(user.getId(), 2);
-                    return -1;
+                    return null;
                 }
 
                 logger.log(Level.WARNING, "Incorrect password attempt for user: {0}", username);
-                return -1;
+                return null;
             }
 
-            if (user.getPasswordExpiryDate() != null && user.getPasswordExpiryDate().before(new Date(System.currentTimeMillis()))) {
+            if (passwordExpired) {
                 logger.log(Level.WARNING, "Password expired for user: {0}", username);
                 throw new PasswordExpiredException("Password is expired. Please set a new password.");
             }
 
-            userService.resetNumFailedLoginAttempts(user.getId(), 2);
             logger.log(Level.INFO, "Successfully authenticated user: {0}", username);
 
             if (user.isFirstLogin()) {
@@ -118,17 +186,17 @@ public class AuthenticationService {
                 throw new FirstLoginException("First Login. Please set a new password.");
             }
 
-            userService.updateLastLoginAt(user.getId(), 2);
-            return user.getId();
+            return context;
         } catch (IllegalArgumentException | SQLException e) {
             logger.log(Level.SEVERE, "Error authenticating user with username: {0}" + username, e);
-            return -1;
+            return null;
         }
     }
 
     /**
      * Changes the user's password.
      * This method validates the new password against the policy, hashes it, and updates the user's password in the database.
+     * Clearing the first login flag and updating the password are committed as one transaction.
      *
      * @param identifierObj The user identifier that {@link UserService#getUserByIdentifier(Object)} can handle.
      * @param changedBy     The ID of the user who is changing the password.
@@ -162,12 +230,15 @@ public class AuthenticationService {
             throw new IllegalArgumentException("New password is in recent password history!");
         }
 
-        if(user.isFirstLogin()) {
-            userService.setIsFirstLoginFalse(user.getId(), 2);
-        }
-
         String newPasswordHash = passwordService.hashPassword(newPassword);
-        return userService.updatePassword(user.getId(), changedBy, newPasswordHash);
+
+        return TransactionTemplate.execute(() -> {
+            if(user.isFirstLogin()) {
+                userService.setIsFirstLoginFalse(user.getId(), 2);
+            }
+
+            return userService.updatePassword(user.getId(), changedBy, newPasswordHash);
+        });
     }
 
     /**
@@ -179,10 +250,14 @@ public class AuthenticationService {
      * @throws SQLException if a database error occurs while retrieving the password history.
      */
     public boolean inRecentPasswordHistory(Integer userId, String newPassword) throws SQLException {
-        List<String> passwordHistory = PasswordHistoryViewRepository.loadPasswordHistory(userId, passwordService.getHistorySize());
+        if (passwordService.getHistorySize() < 1) {
+            return false;
+        }
+
+        List<PasswordHistoryView> passwordHistory = passwordHistoryViewRepository.findPasswordHistory(userId, null, passwordService.getHistorySize());
         boolean found = false;
-        for (String hash : passwordHistory) {
-            if(passwordService.checkPassword(newPassword, hash)) {
+        for (PasswordHistoryView entry : passwordHistory) {
+            if(entry.getPasswordHash() != null && passwordService.checkPassword(newPassword, entry.getPasswordHash())) {
                 found = true;
             }
         }
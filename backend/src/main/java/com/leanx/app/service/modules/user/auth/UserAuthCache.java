@@ -0,0 +1,82 @@
+package com.leanx.app.service.modules.user.auth;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+import com.leanx.app.model.dto.UserAuthSnapshot;
+import com.leanx.app.repository.UserRepository;
+import com.leanx.app.utils.EnvironmentUtils;
+import com.leanx.app.utils.LoadingCacheStatistics;
+import com.leanx.app.utils.TinyLfuCache;
+
+/**
+ * Read-through cache of {@link UserAuthSnapshot}s by lowercased username, used by the
+ * {@link AuthenticationService} so that repeated login attempts against the same account, in
+ * particular against a locked or deactivated one, do not each read the user from the database.
+ * <p>
+ * The cache holds at most 'USER_AUTH_CACHE_CAPACITY' snapshots (default 1000, 0 disables it)
+ * and evicts rarely used ones first (see {@link TinyLfuCache}). Snapshots are invalidated by the
+ * {@code UserService} after every committed write of a user and expire after
+ * 'USER_AUTH_CACHE_TTL_MS' (default 30 seconds), which bounds how long changes made by other
+ * application instances stay invisible. Snapshots are loaded from the primary, so the load
+ * following an invalidation never brings back the state from before the write.
+ * <p>
+ * Usernames are compared case-insensitively by the database, so they are lowercased to make all
+ * spellings of a name share one entry. Writes only know the ID of the user, so their snapshots
+ * are found by scanning the cache, which is small.
+ */
+public final class UserAuthCache {
+
+    /**
+     * The maximum number of cached snapshots, retrieved from the optional
+     * 'USER_AUTH_CACHE_CAPACITY' environment variable.
+     */
+    public static final int CAPACITY = EnvironmentUtils.getInt("USER_AUTH_CACHE_CAPACITY", 1000);
+
+    /**
+     * The time after which a cached snapshot expires, retrieved from the optional
+     * 'USER_AUTH_CACHE_TTL_MS' environment variable.
+     */
+    public static final long TTL_MILLIS = EnvironmentUtils.getLong("USER_AUTH_CACHE_TTL_MS", 30_000);
+
+    private static final UserRepository userRepository = new UserRepository();
+    private static final TinyLfuCache<String, UserAuthSnapshot> cache = new TinyLfuCache<>(CAPACITY, TTL_MILLIS);
+
+    private UserAuthCache() {}
+
+    /**
+     * Gets the authentication snapshot of a user, loading it from the database if it is not cached.
+     *
+     * @param username The username.
+     * @return The {@link UserAuthSnapshot}, or {@code null} if no user with this name exists.
+     * @throws SQLException If the user has to be loaded and the database cannot be accessed.
+     */
+    public static UserAuthSnapshot get(String username) throws SQLException {
+        return cache.get(username.toLowerCase(Locale.ROOT), key -> UserAuthSnapshot.of(userRepository.read(key)));
+    }
+
+    /**
+     * Removes the snapshot of a user from the cache after the user was changed.
+     *
+     * @param userId The ID of the user.
+     */
+    public static void invalidate(int userId) {
+        cache.invalidateIf(user -> user.getId() == userId);
+    }
+
+    /**
+     * Removes all snapshots from the cache, for example after users were deactivated by a stored procedure.
+     */
+    public static void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Gets the hit ratio, eviction and load latency statistics of the cache.
+     *
+     * @return The cache statistics.
+     */
+    public static LoadingCacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+}
@@ -7,6 +7,7 @@ import java.util.logging.Logger;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leanx.app.utils.database.DatabaseUnavailableException;
 
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -77,7 +78,9 @@ public class ApiUtils {
      * and the status code to {@link HttpServletResponse#SC_INTERNAL_SERVER_ERROR} (500 Internal Server Error).
      * The response body will be a JSON object with "error" and "details" keys,
      * including the provided message and the exception's message.
-     * The exception is also logged at the SEVERE level.
+     * The exception is also logged at the SEVERE level. If the exception was caused by a
+     * {@link DatabaseUnavailableException}, a 503 response is sent instead, see
+     * {@link #sendServiceUnavailableResponse(HttpServletResponse, DatabaseUnavailableException)}.
      *
      * @param response The {@link HttpServletResponse} object to write the response to.
      * @param message  A custom error message to be included in the JSON response. If null, a default message is used.
@@ -85,6 +88,12 @@ public class ApiUtils {
      * @throws IOException If an I/O error occurs while writing to the response.
      */
     public static void sendExceptionResponse(HttpServletResponse response, String message, Exception e) throws IOException {
+        DatabaseUnavailableException unavailable = findDatabaseUnavailable(e);
+        if (unavailable != null) {
+            sendServiceUnavailableResponse(response, unavailable);
+            return;
+        }
+
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
@@ -97,6 +106,37 @@ public class ApiUtils {
         logger.log(Level.SEVERE, "Exception response sent: " + errorMessage, e);
     }
 
+    /**
+     * Sends a JSON response indicating that the database is temporarily unavailable.
+     * Sets the status code to {@link HttpServletResponse#SC_SERVICE_UNAVAILABLE} (503 Service Unavailable)
+     * and the "Retry-After" header to the number of seconds after which the client may retry.
+     *
+     * @param response The {@link HttpServletResponse} object to write the response to.
+     * @param e        The {@link DatabaseUnavailableException} that rejected the request.
+     * @throws IOException If an I/O error occurs while writing to the response.
+     */
+    public static void sendServiceUnavailableResponse(HttpServletResponse response, DatabaseUnavailableException e) throws IOException {
+        response.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+        sendErrorResponse(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service temporarily unavailable! Please try again later.");
+
+        logger.log(Level.WARNING, "Service unavailable response sent: {0}", e.getMessage());
+    }
+
+    /**
+     * Finds a {@link DatabaseUnavailableException} in the cause chain of the given exception.
+     *
+     * @param e The exception to inspect.
+     * @return The {@link DatabaseUnavailableException}, or {@code null} if there is none.
+     */
+    private static DatabaseUnavailableException findDatabaseUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseUnavailableException unavailable) {
+                return unavailable;
+            }
+        }
+        return null;
+    }
+
     /**
      * Sends a JSON response indicating a redirect to a different URL.
      * Sets the content type to "application/json", character encoding to "UTF-8",
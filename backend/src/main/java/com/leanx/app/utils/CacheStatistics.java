@@ -0,0 +1,76 @@
+package com.leanx.app.utils;
+
+/**
+ * Immutable point-in-time snapshot of the size and counters of a cache.
+ * Counters are cumulative since the cache was created.
+ */
+public class CacheStatistics {
+
+    private final int size;
+    private final int capacity;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    /**
+     * Constructs a new {@code CacheStatistics} snapshot.
+     *
+     * @param size          The number of entries currently cached.
+     * @param capacity      The maximum number of cached entries.
+     * @param hitCount      The number of lookups that found a cached entry.
+     * @param missCount     The number of lookups that did not find a cached entry.
+     * @param evictionCount The number of entries removed to make room for new ones.
+     */
+    public CacheStatistics(int size, int capacity, long hitCount, long missCount, long evictionCount) {
+        this.size = size;
+        this.capacity = capacity;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Gets the number of entries currently cached.
+     *
+     * @return The cache size.
+     */
+    public int getSize() { return size; }
+
+    /**
+     * Gets the maximum number of cached entries.
+     *
+     * @return The cache capacity.
+     */
+    public int getCapacity() { return capacity; }
+
+    /**
+     * Gets the number of lookups that found a cached entry.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() { return hitCount; }
+
+    /**
+     * Gets the number of lookups that did not find a cached entry.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() { return missCount; }
+
+    /**
+     * Gets the number of entries removed to make room for new ones.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() { return evictionCount; }
+
+    /**
+     * Gets the share of lookups that found a cached entry.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if there were no lookups yet.
+     */
+    public double getHitRatio() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+}
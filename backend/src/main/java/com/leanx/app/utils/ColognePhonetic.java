@@ -0,0 +1,98 @@
+package com.leanx.app.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Encoder for the Cologne phonetics (Kölner Phonetik), a phonetic algorithm for German words.
+ * Words that sound alike get the same code of digits, for example "Meier", "Meyer", "Maier"
+ * and "Mayer" are all encoded as {@code 67}, and "Müller" and "Mueller" as {@code 657}.
+ * <p>
+ * Every letter is mapped to a digit depending on its neighbours, consecutive equal digits are
+ * collapsed and all {@code 0} (vowels) except a leading one are removed. Diacritics are
+ * ignored, {@code ß} is treated as {@code s} and {@code h} as well as characters other than
+ * letters are skipped.
+ */
+public final class ColognePhonetic {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final char START = '/';
+    private static final char IGNORED = '-';
+
+    private ColognePhonetic() {}
+
+    /**
+     * Encodes a word (or a sequence of words, which are encoded as one) into its Cologne phonetic code.
+     *
+     * @param text The text to encode, may be {@code null}.
+     * @return The phonetic code, or an empty string if the text contains no encodable letters.
+     */
+    public static String encode(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        String letters = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .replace("ß", "s").toUpperCase(Locale.ROOT);
+        StringBuilder code = new StringBuilder(letters.length());
+        char lastCode = START;
+
+        for (int i = 0; i < letters.length(); i++) {
+            char letter = letters.charAt(i);
+            char previous = i > 0 ? letters.charAt(i - 1) : 0;
+            char next = i + 1 < letters.length() ? letters.charAt(i + 1) : 0;
+
+            if ((letter < 'A' || letter > 'Z' || letter == 'H') && lastCode == START) {
+                continue;
+            }
+
+            char digit;
+            switch (letter) {
+                case 'A', 'E', 'I', 'J', 'O', 'U', 'Y' -> digit = '0';
+                case 'B' -> digit = '1';
+                case 'P' -> digit = next == 'H' ? '3' : '1';
+                case 'D', 'T' -> digit = isOneOf(next, "CSZ") ? '8' : '2';
+                case 'F', 'V', 'W' -> digit = '3';
+                case 'G', 'K', 'Q' -> digit = '4';
+                case 'C' -> {
+                    if (lastCode == START) {
+                        digit = isOneOf(next, "AHKLOQRUX") ? '4' : '8';
+                    } else {
+                        digit = !isOneOf(previous, "SZ") && isOneOf(next, "AHKOQUX") ? '4' : '8';
+                    }
+                }
+                case 'X' -> {
+                    if (!isOneOf(previous, "CKQ")) {
+                        lastCode = append(code, '4', lastCode);
+                    }
+                    digit = '8';
+                }
+                case 'L' -> digit = '5';
+                case 'M', 'N' -> digit = '6';
+                case 'R' -> digit = '7';
+                case 'S', 'Z' -> digit = '8';
+                default -> digit = IGNORED;
+            }
+            lastCode = append(code, digit, lastCode);
+        }
+        return code.toString();
+    }
+
+    /**
+     * Appends a digit unless it repeats the previous one or is a {@code 0} after the first position.
+     *
+     * @return The digit, which becomes the previous one for the next letter.
+     */
+    private static char append(StringBuilder code, char digit, char lastCode) {
+        if (digit != IGNORED && digit != lastCode && (digit != '0' || lastCode == START)) {
+            code.append(digit);
+        }
+        return digit;
+    }
+
+    private static boolean isOneOf(char letter, String letters) {
+        return letter != 0 && letters.indexOf(letter) >= 0;
+    }
+}
@@ -1,17 +1,48 @@
 package com.leanx.app.utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
+import com.leanx.app.utils.database.Bulkhead;
+import com.leanx.app.utils.database.BulkheadStatistics;
+import com.leanx.app.utils.database.CircuitBreaker;
+import com.leanx.app.utils.database.CircuitBreakerStatistics;
+import com.leanx.app.utils.database.ConnectionGuard;
+import com.leanx.app.utils.database.ConnectionPool;
+import com.leanx.app.utils.database.ConnectionPoolSettings;
+import com.leanx.app.utils.database.DatabaseUnavailableException;
+import com.leanx.app.utils.database.PoolStatistics;
+import com.leanx.app.utils.database.QueryInstrumentation;
+import com.leanx.app.utils.database.QueryMetrics;
+import com.leanx.app.utils.database.QueryTimeouts;
+import com.leanx.app.utils.database.ReadRoutingStatistics;
+import com.leanx.app.utils.database.ReadYourWrites;
+import com.leanx.app.utils.database.ReplicaRouter;
+import com.leanx.app.utils.database.TransactionTemplate;
+
 /**
  * Utility class for managing database connections.
- * Providing different methods to establish connections, test the connection,
+ * Providing different methods to obtain pooled connections, test the connection,
  * and load the MySQL JDBC driver.
  * Configuration details such as JDBC URL, username, password, and database name
- * are expected to be provided through environment variables.
+ * are expected to be provided through environment variables. The sizing of the
+ * connection pool can be tuned through the optional {@code RDS_MYSQL_POOL_*}
+ * environment variables described in {@link ConnectionPoolSettings}.
+ * <p>
+ * Read-only queries can be offloaded to read replicas listed in the optional
+ * 'RDS_MYSQL_READ_ENDPOINTS' environment variable as comma separated {@code host[:port]}
+ * entries. Each replica gets a pool of its own, sized like the primary pool.
+ * <p>
+ * Connections are guarded by a {@link CircuitBreaker} and a {@link Bulkhead} for as long as
+ * they are held (see {@link ConnectionGuard}), tuned through the optional
+ * {@code RDS_MYSQL_CIRCUIT_*} and 'RDS_MYSQL_BULKHEAD_MAX_WAITING' environment variables, so that
+ * requests fail fast while the database is unavailable. The replicas share a guard of their own.
  */
 public class DatabaseUtils {
 
@@ -26,10 +57,36 @@ public class DatabaseUtils {
      */
     public static final String DB_NAME = System.getenv("RDS_MYSQL_DB_NAME");
 
+    /**
+     * The fetch size used for queries whose rows are streamed from the database,
+     * retrieved from the optional 'RDS_MYSQL_FETCH_SIZE' environment variable.
+     * The default of {@link Integer#MIN_VALUE} makes the MySQL driver stream the
+     * result set row by row; a positive value enables server-side cursors that
+     * fetch the given number of rows per round trip.
+     */
+    public static final int FETCH_SIZE = EnvironmentUtils.getInt("RDS_MYSQL_FETCH_SIZE", Integer.MIN_VALUE);
+
+    /**
+     * The number of rows sent to the database in one JDBC batch and committed in one
+     * transaction by the batch write methods of the repositories, retrieved from the
+     * optional 'RDS_MYSQL_BATCH_SIZE' environment variable.
+     */
+    public static final int BATCH_SIZE = EnvironmentUtils.getInt("RDS_MYSQL_BATCH_SIZE", 500);
+
+    private static final String JDBC_PROPERTIES = buildJdbcProperties();
+
+    private static final ConnectionPool connectionPool;
+
+    private static final ConnectionGuard primaryGuard;
+
+    private static final ConnectionGuard replicaGuard;
+
+    private static final ReplicaRouter replicaRouter;
+
     /**
      * Static initializer block that attempts to load the MySQL JDBC driver
-     * when the {@code DatabaseUtils} class is loaded. If the driver is not found,
-     * a {@link RuntimeException} is thrown, halting the application.
+     * when the {@code DatabaseUtils} class is loaded and creates the connection pool.
+     * If the driver is not found, a {@link RuntimeException} is thrown, halting the application.
      */
     static {
         try {
@@ -39,27 +96,255 @@ public class DatabaseUtils {
             logger.log(Level.SEVERE, "Failed to load MySQL JDBC Driver: {0}", e.getMessage());
             throw new RuntimeException("Failed to load MySQL JDBC Driver", e);
         }
+
+        connectionPool = new ConnectionPool(ConnectionPoolSettings.fromEnvironment("primary", JDBC_URL + DB_NAME + JDBC_PROPERTIES, DB_USER, DB_PASSWORD));
+
+        List<ConnectionPool> replicaPools = createReplicaPools();
+        int maxPoolSize = connectionPool.getSettings().getMaxSize();
+        int maxWaiting = EnvironmentUtils.getInt("RDS_MYSQL_BULKHEAD_MAX_WAITING", maxPoolSize);
+        primaryGuard = createGuard("primary", maxPoolSize + maxWaiting);
+        replicaGuard = createGuard("replicas", replicaPools.size() * maxPoolSize + maxWaiting);
+
+        long maxLagSeconds = EnvironmentUtils.getLong("RDS_MYSQL_REPLICA_MAX_LAG_S", 5);
+        replicaRouter = new ReplicaRouter(
+            connectionPool,
+            primaryGuard,
+            replicaPools,
+            replicaGuard,
+            maxLagSeconds,
+            EnvironmentUtils.getLong("RDS_MYSQL_READ_YOUR_WRITES_MS", maxLagSeconds * 1_000),
+            EnvironmentUtils.getLong("RDS_MYSQL_REPLICA_LAG_CHECK_INTERVAL_MS", 1_000)
+        );
     }
 
     /**
-     * Establishes a connection to the MySQL database using the configuration
-     * loaded from environment variables.
+     * Creates the circuit breaker and the bulkhead guarding the connections of a database.
+     *
+     * @param name          The name of the database used in log messages and statistics.
+     * @param maxConcurrent The number of connections that may be in use or waited for at the same time.
+     * @return The {@link ConnectionGuard}.
+     */
+    private static ConnectionGuard createGuard(String name, int maxConcurrent) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+            name,
+            EnvironmentUtils.getInt("RDS_MYSQL_CIRCUIT_FAILURE_THRESHOLD", 5),
+            EnvironmentUtils.getLong("RDS_MYSQL_CIRCUIT_OPEN_MS", 10_000),
+            EnvironmentUtils.getInt("RDS_MYSQL_CIRCUIT_HALF_OPEN_PROBES", 1)
+        );
+        return new ConnectionGuard(circuitBreaker, new Bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Creates one connection pool for every read replica listed in the
+     * 'RDS_MYSQL_READ_ENDPOINTS' environment variable. Entries without a port use
+     * the port of the primary.
+     *
+     * @return The replica pools, or an empty list if no replica is configured.
+     */
+    private static List<ConnectionPool> createReplicaPools() {
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (String endpoint : EnvironmentUtils.getString("RDS_MYSQL_READ_ENDPOINTS", "").split(",")) {
+            endpoint = endpoint.trim();
+            if (endpoint.isEmpty()) {
+                continue;
+            }
+            if (!endpoint.contains(":")) {
+                endpoint += ":" + System.getenv("RDS_MYSQL_PORT");
+            }
+
+            String poolName = "replica-" + (pools.size() + 1);
+            pools.add(new ConnectionPool(ConnectionPoolSettings.fromEnvironment(poolName,
+                "jdbc:mysql://" + endpoint + "/" + DB_NAME + JDBC_PROPERTIES, DB_USER, DB_PASSWORD)));
+            logger.log(Level.INFO, "Read replica ''{0}'' configured at {1}", new Object[]{poolName, endpoint});
+        }
+        return pools;
+    }
+
+    /**
+     * Builds the query string of the JDBC URL. Server-side cursors are enabled when a positive
+     * fetch size is configured, server-side prepared statements when statements are cached per
+     * connection, so that MySQL parses and plans each cached statement only once. Batched
+     * statements are always rewritten into multi-row statements by the driver.
+     *
+     * @return The query string including the leading '?'.
+     */
+    private static String buildJdbcProperties() {
+        List<String> properties = new ArrayList<>();
+        properties.add("rewriteBatchedStatements=true");
+        if (FETCH_SIZE > 0) {
+            properties.add("useCursorFetch=true");
+        }
+        if (EnvironmentUtils.getInt("RDS_MYSQL_STATEMENT_CACHE_SIZE", ConnectionPoolSettings.DEFAULT_STATEMENT_CACHE_SIZE) > 0) {
+            properties.add("useServerPrepStmts=true");
+        }
+        return "?" + String.join("&", properties);
+    }
+
+    /**
+     * Borrows a connection to the primary MySQL database from the connection pool.
+     * Statements that write through the connection make the reads of the current session
+     * use the primary as well until the replicas have caught up, so read-only queries
+     * should use {@link #getMySQLReadConnection()} instead. Within a {@link TransactionTemplate}
+     * transaction, the connection bound to the transaction is returned instead.
      *
      * @return A {@link Connection} object representing the database connection.
-     * The caller is responsible for closing this connection after use.
-     * @throws SQLException If a database access error occurs or the connection
-     * cannot be established.
+     * The caller is responsible for closing this connection after use, which
+     * returns it to the pool.
+     * @throws DatabaseUnavailableException If the circuit breaker is open or too many
+     * connections are already in use or waited for.
+     * @throws SQLException If a database access error occurs or no connection
+     * becomes available within the configured borrow timeout.
      */
     public static Connection getMySQLConnection() throws SQLException {
+        Connection bound = TransactionTemplate.getBoundConnection(DatabaseUtils::borrowMySQLConnection);
+        return bound != null ? bound : borrowMySQLConnection();
+    }
+
+    /**
+     * Borrows a connection to the primary MySQL database from the connection pool,
+     * bypassing the transaction of the current thread.
+     *
+     * @return A {@link Connection} object representing the database connection.
+     * @throws SQLException If a database access error occurs or no connection
+     * becomes available within the configured borrow timeout.
+     */
+    private static Connection borrowMySQLConnection() throws SQLException {
         try {
-            Connection c = DriverManager.getConnection(JDBC_URL + DB_NAME, DB_USER, DB_PASSWORD);
-            return c;
+            long start = System.nanoTime();
+            ConnectionGuard.Lease lease = primaryGuard.borrow(connectionPool::getConnection);
+            return instrument(lease, start, replicaRouter.hasReplicas());
+        } catch (DatabaseUnavailableException e) {
+            throw e;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to connect to database: {0}", JDBC_URL + DB_NAME + e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * Borrows a connection for read-only queries. The connection belongs to a read replica
+     * unless no replica is configured or available, or the current session wrote recently,
+     * in which case it belongs to the primary. Queries on this connection may therefore see
+     * data that is a few seconds old and must never write. Within a {@link TransactionTemplate}
+     * transaction, the connection bound to the transaction is returned, so reads see the
+     * uncommitted writes of the transaction.
+     *
+     * @return A {@link Connection} object that must only be used for reads.
+     * The caller is responsible for closing this connection after use.
+     * @throws DatabaseUnavailableException If the circuit breaker is open or too many
+     * connections are already in use or waited for.
+     * @throws SQLException If a database access error occurs or no connection
+     * becomes available within the configured borrow timeout.
+     */
+    public static Connection getMySQLReadConnection() throws SQLException {
+        Connection bound = TransactionTemplate.getBoundConnection(DatabaseUtils::borrowMySQLConnection);
+        if (bound != null) {
+            return bound;
+        }
+
+        try {
+            long start = System.nanoTime();
+            ConnectionGuard.Lease lease = replicaRouter.getConnection();
+            return instrument(lease, start, false);
+        } catch (DatabaseUnavailableException e) {
+            throw e;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to connect to database for reading: {0}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Records the time it took to borrow a connection and wraps the connection so that its
+     * lease is released when it is closed and the statements executed through it are recorded
+     * in the circuit breaker, in {@link QueryMetrics} and kept within their time budget by
+     * {@link QueryTimeouts}, unless the latter two are disabled through the
+     * 'RDS_MYSQL_QUERY_METRICS' and 'RDS_MYSQL_QUERY_TIMEOUT_MS' environment variables.
+     *
+     * @param lease       The lease of the borrowed connection.
+     * @param start       The value of {@link System#nanoTime()} before the connection was requested.
+     * @param trackWrites Whether writes through the connection are recorded in {@link ReadYourWrites}.
+     * @return The instrumented connection.
+     */
+    private static Connection instrument(ConnectionGuard.Lease lease, long start, boolean trackWrites) {
+        if (QueryMetrics.ENABLED) {
+            QueryMetrics.recordAcquire(System.nanoTime() - start);
+        }
+        return QueryInstrumentation.wrap(lease, trackWrites);
+    }
+
+    /**
+     * Returns the pooled {@link DataSource} backing {@link #getMySQLConnection()}.
+     *
+     * @return The {@link DataSource} of the MySQL database.
+     */
+    public static DataSource getDataSource() {
+        return connectionPool;
+    }
+
+    /**
+     * Returns a snapshot of the current state of the connection pool.
+     *
+     * @return The {@link PoolStatistics} of the connection pool.
+     */
+    public static PoolStatistics getPoolStatistics() {
+        return connectionPool.getStatistics();
+    }
+
+    /**
+     * Returns a snapshot of the routing of read-only queries to the read replicas.
+     *
+     * @return The {@link ReadRoutingStatistics} of the replica router.
+     */
+    public static ReadRoutingStatistics getReadRoutingStatistics() {
+        return replicaRouter.getStatistics();
+    }
+
+    /**
+     * Returns a snapshot of the circuit breaker guarding the primary database.
+     *
+     * @return The {@link CircuitBreakerStatistics} of the circuit breaker.
+     */
+    public static CircuitBreakerStatistics getCircuitBreakerStatistics() {
+        return primaryGuard.getCircuitBreakerStatistics();
+    }
+
+    /**
+     * Returns a snapshot of the bulkhead bounding the connections to the primary database.
+     *
+     * @return The {@link BulkheadStatistics} of the bulkhead.
+     */
+    public static BulkheadStatistics getBulkheadStatistics() {
+        return primaryGuard.getBulkheadStatistics();
+    }
+
+    /**
+     * Returns a snapshot of the circuit breaker guarding the read replicas.
+     *
+     * @return The {@link CircuitBreakerStatistics} of the circuit breaker.
+     */
+    public static CircuitBreakerStatistics getReplicaCircuitBreakerStatistics() {
+        return replicaGuard.getCircuitBreakerStatistics();
+    }
+
+    /**
+     * Returns a snapshot of the bulkhead bounding the connections to the read replicas.
+     *
+     * @return The {@link BulkheadStatistics} of the bulkhead.
+     */
+    public static BulkheadStatistics getReplicaBulkheadStatistics() {
+        return replicaGuard.getBulkheadStatistics();
+    }
+
+    /**
+     * Closes the connection pools of the primary and the replicas and all idle
+     * connections. Called when the application is undeployed.
+     */
+    public static void shutdown() {
+        replicaRouter.close();
+        connectionPool.close();
+    }
+
     /**
      * Tests the database connection by attempting to establish a connection
      * and validating it within a 5-second timeout.
@@ -69,7 +354,7 @@ public class DatabaseUtils {
      * connection attempt or validation will be caught and logged.
      */
     public static boolean testMySQLConnection() {
-        try (Connection connection = getMySQLConnection()) {
+        try (Connection connection = connectionPool.getConnection()) {
             return connection != null && connection.isValid(5); // Test connection with a 5-second timeout
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Database connection test failed: {0}", e.getMessage());
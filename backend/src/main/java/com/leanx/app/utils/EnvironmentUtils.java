@@ -0,0 +1,116 @@
+package com.leanx.app.utils;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utility class for reading optional configuration values from environment variables.
+ * Every accessor falls back to the given default value if the variable is not set
+ * or cannot be parsed, so that tuning parameters never prevent the application from starting.
+ */
+public class EnvironmentUtils {
+
+    private static final Logger logger = Logger.getLogger(EnvironmentUtils.class.getName());
+
+    /**
+     * Reads a string value from the environment.
+     *
+     * @param name         The name of the environment variable.
+     * @param defaultValue The value to return if the variable is not set or blank.
+     * @return The value of the environment variable, or {@code defaultValue}.
+     */
+    public static String getString(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return (value == null || value.isBlank()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Reads an integer value from the environment.
+     *
+     * @param name         The name of the environment variable.
+     * @param defaultValue The value to return if the variable is not set or not a valid integer.
+     * @return The parsed value of the environment variable, or {@code defaultValue}.
+     */
+    public static int getInt(String name, int defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid integer value for {0}: {1}. Using default {2}.", new Object[]{name, value, defaultValue});
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a long value from the environment.
+     *
+     * @param name         The name of the environment variable.
+     * @param defaultValue The value to return if the variable is not set or not a valid long.
+     * @return The parsed value of the environment variable, or {@code defaultValue}.
+     */
+    public static long getLong(String name, long defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid long value for {0}: {1}. Using default {2}.", new Object[]{name, value, defaultValue});
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a boolean value from the environment. Only the (case-insensitive)
+     * values {@code true} and {@code false} are accepted.
+     *
+     * @param name         The name of the environment variable.
+     * @param defaultValue The value to return if the variable is not set or not a valid boolean.
+     * @return The parsed value of the environment variable, or {@code defaultValue}.
+     */
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value);
+        }
+
+        logger.log(Level.WARNING, "Invalid boolean value for {0}: {1}. Using default {2}.", new Object[]{name, value, defaultValue});
+        return defaultValue;
+    }
+
+    /**
+     * Reads an enum constant from the environment. The value is matched case-insensitively
+     * against the names of the constants of the given enum type.
+     *
+     * @param name         The name of the environment variable.
+     * @param type         The enum type.
+     * @param defaultValue The value to return if the variable is not set or names no constant of {@code type}.
+     * @param <E>          The enum type.
+     * @return The constant named by the environment variable, or {@code defaultValue}.
+     */
+    public static <E extends Enum<E>> E getEnum(String name, Class<E> type, E defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+
+        logger.log(Level.WARNING, "Invalid value for {0}: {1}. Using default {2}.", new Object[]{name, value, defaultValue});
+        return defaultValue;
+    }
+}
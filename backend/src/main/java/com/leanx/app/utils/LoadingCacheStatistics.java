@@ -0,0 +1,76 @@
+package com.leanx.app.utils;
+
+import com.leanx.app.utils.database.LatencyHistogram;
+
+/**
+ * Immutable point-in-time snapshot of a read-through cache: the counters of
+ * {@link CacheStatistics} plus the loads of missing entries and their latency.
+ * Counters are cumulative since the cache was created.
+ */
+public class LoadingCacheStatistics extends CacheStatistics {
+
+    private final long loadCount;
+    private final long loadFailureCount;
+    private final long expirationCount;
+    private final long invalidationCount;
+    private final LatencyHistogram.Snapshot loadLatency;
+
+    /**
+     * Constructs a new {@code LoadingCacheStatistics} snapshot.
+     *
+     * @param size              The number of entries currently cached.
+     * @param capacity          The maximum number of cached entries.
+     * @param hitCount          The number of lookups that found a cached entry.
+     * @param missCount         The number of lookups that did not find a cached entry.
+     * @param evictionCount     The number of entries removed to make room for new ones.
+     * @param loadCount         The number of successful loads of missing entries.
+     * @param loadFailureCount  The number of loads that failed with an exception.
+     * @param expirationCount   The number of entries found expired on lookup.
+     * @param invalidationCount The number of explicit invalidations.
+     * @param loadLatency       The latency distribution of all loads.
+     */
+    public LoadingCacheStatistics(int size, int capacity, long hitCount, long missCount, long evictionCount, long loadCount,
+                                  long loadFailureCount, long expirationCount, long invalidationCount, LatencyHistogram.Snapshot loadLatency) {
+        super(size, capacity, hitCount, missCount, evictionCount);
+        this.loadCount = loadCount;
+        this.loadFailureCount = loadFailureCount;
+        this.expirationCount = expirationCount;
+        this.invalidationCount = invalidationCount;
+        this.loadLatency = loadLatency;
+    }
+
+    /**
+     * Gets the number of successful loads of missing entries.
+     *
+     * @return The load count.
+     */
+    public long getLoadCount() { return loadCount; }
+
+    /**
+     * Gets the number of loads that failed with an exception.
+     *
+     * @return The load failure count.
+     */
+    public long getLoadFailureCount() { return loadFailureCount; }
+
+    /**
+     * Gets the number of entries that were found expired on lookup.
+     *
+     * @return The expiration count.
+     */
+    public long getExpirationCount() { return expirationCount; }
+
+    /**
+     * Gets the number of explicit invalidations, for example after writes.
+     *
+     * @return The invalidation count.
+     */
+    public long getInvalidationCount() { return invalidationCount; }
+
+    /**
+     * Gets the latency distribution of all loads, successful or not.
+     *
+     * @return The load latency snapshot.
+     */
+    public LatencyHistogram.Snapshot getLoadLatency() { return loadLatency; }
+}
@@ -0,0 +1,461 @@
+package com.leanx.app.utils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.leanx.app.utils.database.LatencyHistogram;
+
+/**
+ * Bounded read-through cache with expiry after write and a frequency-aware eviction policy
+ * (W-TinyLFU).
+ * <p>
+ * New entries enter a small LRU window (1% of the capacity). Entries leaving the window compete
+ * with the least recently used entry of the main area for admission: a count-min sketch with
+ * 4-bit counters estimates how often both keys were requested recently, and only the more
+ * frequently used one is kept. The main area is a segmented LRU, in which entries requested
+ * again move from a probation to a protected segment (80% of the main area). One-off lookups,
+ * such as a scan over many records, therefore cannot displace the frequently used entries.
+ * The counters of the sketch are halved periodically, so that the popularity of keys ages.
+ * <p>
+ * Loads of missing entries run outside of the lock of the cache. A value loaded while its key
+ * (or the whole cache) was invalidated is returned to the caller but not cached, so that a
+ * load racing with a write cannot reinsert the old value. Invalidations are tracked per key for
+ * the keys being loaded, so writes of other keys do not discard running loads.
+ * {@code null} values are never cached.
+ * A capacity of 0 disables caching; every lookup then loads.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the cached values.
+ */
+public class TinyLfuCache<K, V> {
+
+    /**
+     * Loads the value of a key that is not cached.
+     *
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+
+        /**
+         * Loads the value of a key.
+         *
+         * @param key The key.
+         * @return The value, or {@code null} if there is none.
+         * @throws SQLException If a database access error occurs.
+         */
+        V load(K key) throws SQLException;
+    }
+
+    private final int capacity;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final long ttlNanos;
+
+    private final Map<K, Node<V>> data = new HashMap<>();
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final Map<K, Load> loads = new HashMap<>();
+    private long invalidations;
+    private long lastInvalidateAll;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+    private final LatencyHistogram loadLatency = new LatencyHistogram();
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity  The maximum number of entries, 0 or less to disable caching.
+     * @param ttlMillis The time after which an entry expires, 0 or less for no expiry.
+     */
+    public TinyLfuCache(int capacity, long ttlMillis) {
+        this.capacity = Math.max(0, capacity);
+        this.windowCapacity = Math.max(1, this.capacity / 100);
+        this.protectedCapacity = Math.max(0, this.capacity - windowCapacity) * 8 / 10;
+        this.ttlNanos = ttlMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMillis) : Long.MAX_VALUE;
+        this.sketch = new FrequencySketch(this.capacity);
+    }
+
+    /**
+     * Gets the cached value of a key and records the lookup.
+     *
+     * @param key The key.
+     * @return The cached value, or {@code null} if the key is not cached or its entry expired.
+     */
+    public V getIfPresent(K key) {
+        if (capacity == 0) {
+            missCount.increment();
+            return null;
+        }
+
+        synchronized (this) {
+            sketch.increment(key.hashCode());
+            Node<V> node = data.get(key);
+            if (node == null) {
+                missCount.increment();
+                return null;
+            }
+            if (System.nanoTime() - node.writtenAt >= ttlNanos) {
+                unlink(key, node);
+                expirationCount.increment();
+                missCount.increment();
+                return null;
+            }
+
+            touch(key, node);
+            hitCount.increment();
+            return node.value;
+        }
+    }
+
+    /**
+     * Gets the value of a key, loading and caching it if it is not cached.
+     *
+     * @param key    The key.
+     * @param loader Loads the value if it is not cached.
+     * @return The value, or {@code null} if the loader returned {@code null}.
+     * @throws SQLException If the loader fails.
+     */
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        long loadStart = startLoad(key);
+        long start = System.nanoTime();
+        try {
+            value = loader.load(key);
+        } catch (SQLException | RuntimeException e) {
+            loadFailureCount.increment();
+            finishLoad(key, null, loadStart);
+            throw e;
+        } finally {
+            loadLatency.record(System.nanoTime() - start);
+        }
+
+        loadCount.increment();
+        finishLoad(key, value, loadStart);
+        return value;
+    }
+
+    /**
+     * Asynchronous variant of {@link #get(Object, Loader)}.
+     *
+     * @param key    The key.
+     * @param loader Starts loading the value if it is not cached.
+     * @return A {@code CompletableFuture} completed with the value, or failing with the exception of the loader.
+     */
+    public CompletableFuture<V> getAsync(K key, Function<K, CompletableFuture<V>> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+
+        long loadStart = startLoad(key);
+        long start = System.nanoTime();
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.apply(key);
+        } catch (RuntimeException e) {
+            finishLoad(key, null, loadStart);
+            throw e;
+        }
+        return loading.whenComplete((loaded, e) -> {
+            loadLatency.record(System.nanoTime() - start);
+            if (e != null) {
+                loadFailureCount.increment();
+                finishLoad(key, null, loadStart);
+            } else {
+                loadCount.increment();
+                finishLoad(key, loaded, loadStart);
+            }
+        });
+    }
+
+    /**
+     * Removes the entry of a key, for example after the underlying record was written.
+     * Loads of the key that are still running will not be cached.
+     *
+     * @param key The key.
+     */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        Load load = loads.get(key);
+        if (load != null) {
+            load.invalidatedAt = invalidations;
+        }
+        invalidationCount.increment();
+        Node<V> node = data.get(key);
+        if (node != null) {
+            unlink(key, node);
+        }
+    }
+
+    /**
+     * Removes the entries whose value matches a condition, for example when the key of a changed
+     * value is not known. The values of running loads are not known yet, so none of them will be
+     * cached.
+     *
+     * @param condition Selects the values to remove.
+     */
+    public synchronized void invalidateIf(Predicate<? super V> condition) {
+        invalidations++;
+        for (Load load : loads.values()) {
+            load.invalidatedAt = invalidations;
+        }
+        invalidationCount.increment();
+        List<Map.Entry<K, Node<V>>> matches = new ArrayList<>();
+        for (Map.Entry<K, Node<V>> entry : data.entrySet()) {
+            if (condition.test(entry.getValue().value)) {
+                matches.add(entry);
+            }
+        }
+        for (Map.Entry<K, Node<V>> match : matches) {
+            unlink(match.getKey(), match.getValue());
+        }
+    }
+
+    /**
+     * Removes all entries. Loads that are still running will not be cached.
+     */
+    public synchronized void invalidateAll() {
+        lastInvalidateAll = ++invalidations;
+        invalidationCount.increment();
+        data.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    /**
+     * Gets a snapshot of the size and counters of the cache.
+     *
+     * @return The cache statistics.
+     */
+    public LoadingCacheStatistics getStatistics() {
+        int size;
+        synchronized (this) {
+            size = data.size();
+        }
+        return new LoadingCacheStatistics(size, capacity, hitCount.sum(), missCount.sum(), evictionCount.sum(), loadCount.sum(),
+            loadFailureCount.sum(), expirationCount.sum(), invalidationCount.sum(), loadLatency.snapshot());
+    }
+
+    /**
+     * Registers a load of a key, so that invalidations of the key are noticed when it finishes.
+     *
+     * @return The number of invalidations before the load started.
+     */
+    private synchronized long startLoad(K key) {
+        if (capacity > 0) {
+            loads.computeIfAbsent(key, k -> new Load()).count++;
+        }
+        return invalidations;
+    }
+
+    /**
+     * Ends a load and caches the loaded value unless it is {@code null} or the key or the whole
+     * cache was invalidated since the load started.
+     */
+    private synchronized void finishLoad(K key, V value, long loadStart) {
+        Load load = loads.get(key);
+        if (load == null) {
+            return;
+        }
+        if (--load.count == 0) {
+            loads.remove(key);
+        }
+        if (value == null || load.invalidatedAt > loadStart || lastInvalidateAll > loadStart) {
+            return;
+        }
+
+        Node<V> node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            node.writtenAt = System.nanoTime();
+            touch(key, node);
+            return;
+        }
+
+        node = new Node<>(value);
+        data.put(key, node);
+        window.put(key, node);
+        if (window.size() > windowCapacity) {
+            Iterator<Map.Entry<K, Node<V>>> oldest = window.entrySet().iterator();
+            Map.Entry<K, Node<V>> candidate = oldest.next();
+            oldest.remove();
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Moves an entry leaving the window into the probation segment, evicting either the entry
+     * or the least recently used entry of the main area if the cache is full.
+     */
+    private void admit(K key, Node<V> node) {
+        int mainCapacity = capacity - windowCapacity;
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            node.segment = Segment.PROBATION;
+            probation.put(key, node);
+            return;
+        }
+
+        LinkedHashMap<K, Node<V>> victims = probation.isEmpty() ? protectedSegment : probation;
+        if (victims.isEmpty()) {
+            data.remove(key);
+            evictionCount.increment();
+            return;
+        }
+
+        Map.Entry<K, Node<V>> victim = victims.entrySet().iterator().next();
+        if (sketch.frequency(key.hashCode()) > sketch.frequency(victim.getKey().hashCode())) {
+            victims.remove(victim.getKey());
+            data.remove(victim.getKey());
+            node.segment = Segment.PROBATION;
+            probation.put(key, node);
+        } else {
+            data.remove(key);
+        }
+        evictionCount.increment();
+    }
+
+    /**
+     * Records an access: moves the entry to the most recently used position of its segment and
+     * promotes entries of the probation segment to the protected segment.
+     */
+    private void touch(K key, Node<V> node) {
+        switch (node.segment) {
+            case WINDOW -> window.get(key);
+            case PROTECTED -> protectedSegment.get(key);
+            case PROBATION -> {
+                probation.remove(key);
+                node.segment = Segment.PROTECTED;
+                protectedSegment.put(key, node);
+                if (protectedSegment.size() > protectedCapacity) {
+                    Iterator<Map.Entry<K, Node<V>>> oldest = protectedSegment.entrySet().iterator();
+                    Map.Entry<K, Node<V>> demoted = oldest.next();
+                    oldest.remove();
+                    demoted.getValue().segment = Segment.PROBATION;
+                    probation.put(demoted.getKey(), demoted.getValue());
+                }
+            }
+        }
+    }
+
+    private void unlink(K key, Node<V> node) {
+        data.remove(key);
+        switch (node.segment) {
+            case WINDOW -> window.remove(key);
+            case PROBATION -> probation.remove(key);
+            case PROTECTED -> protectedSegment.remove(key);
+        }
+    }
+
+    private enum Segment { WINDOW, PROBATION, PROTECTED }
+
+    /**
+     * The loads of a key that are still running and the last invalidation of the key during them.
+     */
+    private static final class Load {
+
+        private int count;
+        private long invalidatedAt;
+    }
+
+    /**
+     * A cached value with the time it was written and the segment it is in.
+     */
+    private static final class Node<V> {
+
+        private V value;
+        private long writtenAt = System.nanoTime();
+        private Segment segment = Segment.WINDOW;
+
+        private Node(V value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Count-min sketch with four 4-bit counters per key, estimating how often keys were
+     * requested recently. The table holds one {@code long} of sixteen counters per entry of the
+     * cache. After ten times as many increments as the cache has entries, all counters are halved.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int capacity) {
+            this.table = new long[Integer.highestOneBit(Math.max(16, capacity) - 1) << 1];
+            this.sampleSize = 10 * Math.max(16, capacity);
+        }
+
+        private int frequency(int hashCode) {
+            int hash = spread(hashCode);
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                frequency = Math.min(frequency, (int) ((table[index(hash, i)] >>> shift(hash, i)) & 0xfL));
+            }
+            return frequency;
+        }
+
+        private void increment(int hashCode) {
+            int hash = spread(hashCode);
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = index(hash, i);
+                int shift = shift(hash, i);
+                if (((table[index] >>> shift) & 0xfL) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private int index(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) (h & (table.length - 1));
+        }
+
+        private static int shift(int hash, int i) {
+            return ((hash >>> (i << 3)) & 0xf) << 2;
+        }
+
+        private static int spread(int hashCode) {
+            int h = hashCode * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
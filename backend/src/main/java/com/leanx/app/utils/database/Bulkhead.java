@@ -0,0 +1,60 @@
+package com.leanx.app.utils.database;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead bounding the number of database connections that are in use or being waited for
+ * at the same time.
+ * <p>
+ * A permit is taken before a connection is borrowed and only given back when the connection is
+ * closed, so the limit covers the connections held by callers as well as the threads queuing
+ * inside the pool for up to the borrow timeout. It is sized as the pool size plus a short queue:
+ * once it is reached, further calls are rejected immediately with a
+ * {@link DatabaseUnavailableException}, so a slow database cannot tie up every request thread
+ * of the servlet container.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * Constructs a new {@code Bulkhead}.
+     *
+     * @param maxConcurrent The maximum number of connections in use or being waited for at the same time.
+     */
+    public Bulkhead(int maxConcurrent) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+    }
+
+    /**
+     * Takes a permit, which the caller must give back through {@link #release()}.
+     *
+     * @throws DatabaseUnavailableException If all permits are taken.
+     */
+    public void acquire() throws DatabaseUnavailableException {
+        if (concurrent.incrementAndGet() > maxConcurrent) {
+            concurrent.decrementAndGet();
+            rejectedCount.increment();
+            throw new DatabaseUnavailableException("Too many requests waiting for a database connection", 1);
+        }
+    }
+
+    /**
+     * Gives back a permit taken through {@link #acquire()}.
+     */
+    public void release() {
+        concurrent.decrementAndGet();
+    }
+
+    /**
+     * Creates a snapshot of the state and counters of the bulkhead.
+     *
+     * @return The {@link BulkheadStatistics}.
+     */
+    public BulkheadStatistics getStatistics() {
+        return new BulkheadStatistics(maxConcurrent, concurrent.get(), rejectedCount.sum());
+    }
+}
@@ -0,0 +1,46 @@
+package com.leanx.app.utils.database;
+
+/**
+ * Immutable point-in-time snapshot of the state of a {@link Bulkhead}.
+ * Counters are cumulative since the bulkhead was created.
+ */
+public class BulkheadStatistics {
+
+    private final int maxConcurrent;
+    private final int concurrent;
+    private final long rejectedCount;
+
+    /**
+     * Constructs a new {@code BulkheadStatistics} snapshot.
+     *
+     * @param maxConcurrent The maximum number of connections in use or being waited for at the same time.
+     * @param concurrent    The number of connections currently in use or being waited for.
+     * @param rejectedCount The number of calls rejected because all permits were taken.
+     */
+    public BulkheadStatistics(int maxConcurrent, int concurrent, long rejectedCount) {
+        this.maxConcurrent = maxConcurrent;
+        this.concurrent = concurrent;
+        this.rejectedCount = rejectedCount;
+    }
+
+    /**
+     * Gets the maximum number of connections in use or being waited for at the same time.
+     *
+     * @return The number of permits.
+     */
+    public int getMaxConcurrent() { return maxConcurrent; }
+
+    /**
+     * Gets the number of connections currently in use or being waited for.
+     *
+     * @return The number of taken permits.
+     */
+    public int getConcurrent() { return concurrent; }
+
+    /**
+     * Gets the number of calls rejected because all permits were taken.
+     *
+     * @return The number of rejected calls.
+     */
+    public long getRejectedCount() { return rejectedCount; }
+}
@@ -0,0 +1,245 @@
+package com.leanx.app.utils.database;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Circuit breaker around the borrowing of database connections.
+ * <p>
+ * While {@code CLOSED}, all calls pass. After the configured number of consecutive calls failed
+ * because the database could not be reached or no connection became available in time, or
+ * statements on borrowed connections failed because the connection was lost (see
+ * {@link #record(SQLException)}), the breaker becomes {@code OPEN} and rejects all calls with a
+ * {@link DatabaseUnavailableException} instead of letting them wait. Once the open duration
+ * elapsed it becomes {@code HALF_OPEN} and lets a limited number of probe calls through: the
+ * first successful probe closes the breaker, a failed probe opens it again. Other errors, such as SQL syntax errors, never trip the breaker.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    /**
+     * Enumeration defining the states of the circuit breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenProbes;
+
+    private volatile State state = State.CLOSED;
+    private volatile long stateSince = System.currentTimeMillis();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private int probesInFlight;
+
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder openedCount = new LongAdder();
+    private final LongAdder halfOpenedCount = new LongAdder();
+    private final LongAdder closedCount = new LongAdder();
+
+    /**
+     * Constructs a new, closed {@code CircuitBreaker}.
+     *
+     * @param name               The name used in log messages and statistics.
+     * @param failureThreshold   The number of consecutive failures after which the breaker opens.
+     * @param openDurationMillis The time the breaker stays open before probe calls are let through.
+     * @param halfOpenProbes     The maximum number of concurrent probe calls while half-open.
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis, int halfOpenProbes) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = Math.max(0, openDurationMillis);
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+
+    /**
+     * Runs the call if the breaker permits it and records its outcome.
+     *
+     * @param call The call to run.
+     * @param <T>  The type of the result.
+     * @return The result of the call.
+     * @throws DatabaseUnavailableException If the breaker is open, or half-open with all probes in flight.
+     * @throws SQLException                 If the call fails.
+     */
+    public <T> T call(DatabaseExecutor.SqlCallable<T> call) throws SQLException {
+        boolean probe = acquirePermission();
+        boolean success = false;
+        boolean failure = false;
+        try {
+            T result = call.call();
+            success = true;
+            return result;
+        } catch (SQLException e) {
+            failure = isUnavailable(e);
+            throw e;
+        } finally {
+            if (success) {
+                onSuccess(probe);
+            } else if (failure) {
+                onFailure(probe);
+            } else if (probe) {
+                releaseProbe();
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a call made on a connection borrowed through the breaker, such as
+     * the execution of a statement. Failures count like failed borrows; successes reset the
+     * count of consecutive failures, but only a probe borrow closes a half-open breaker.
+     *
+     * @param failure The failure of the call, or {@code null} if it succeeded.
+     */
+    void record(SQLException failure) {
+        if (failure == null) {
+            onSuccess(false);
+        } else if (isUnavailable(failure)) {
+            onFailure(false);
+        }
+    }
+
+    /**
+     * Checks whether a failure indicates that the database is unavailable: no connection became
+     * available in time, or the database could not be reached. Rejections by another
+     * {@code CircuitBreaker} or a {@link Bulkhead} do not count.
+     *
+     * @param e The failure.
+     * @return {@code true} if the failure counts towards opening the breaker.
+     */
+    static boolean isUnavailable(SQLException e) {
+        if (e instanceof DatabaseUnavailableException) {
+            return false;
+        }
+        return e instanceof SQLTransientConnectionException
+            || e instanceof SQLNonTransientConnectionException
+            || (e.getSQLState() != null && e.getSQLState().startsWith("08"));
+    }
+
+    /**
+     * Gets the current state.
+     *
+     * @return The {@link State}.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Creates a snapshot of the state and counters of the breaker.
+     *
+     * @return The {@link CircuitBreakerStatistics}.
+     */
+    public CircuitBreakerStatistics getStatistics() {
+        return new CircuitBreakerStatistics(name, state, stateSince, consecutiveFailures.get(), failureThreshold,
+            openDurationMillis, openedCount.sum(), halfOpenedCount.sum(), closedCount.sum(), rejectedCount.sum());
+    }
+
+    /**
+     * Checks whether a call may run, moving from {@code OPEN} to {@code HALF_OPEN} once the open duration elapsed.
+     *
+     * @return {@code true} if the call is a probe of the half-open breaker.
+     * @throws DatabaseUnavailableException If the call is rejected.
+     */
+    private boolean acquirePermission() throws DatabaseUnavailableException {
+        if (state == State.CLOSED) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (state == State.OPEN) {
+                long remainingMillis = stateSince + openDurationMillis - System.currentTimeMillis();
+                if (remainingMillis > 0) {
+                    rejectedCount.increment();
+                    throw new DatabaseUnavailableException("Database '" + name + "' is unavailable, circuit breaker is open",
+                        TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999));
+                }
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight >= halfOpenProbes) {
+                    rejectedCount.increment();
+                    throw new DatabaseUnavailableException("Database '" + name + "' is unavailable, waiting for probe calls", 1);
+                }
+                probesInFlight++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private void onSuccess(boolean probe) {
+        if (probe) {
+            synchronized (this) {
+                releaseProbe();
+                if (state == State.HALF_OPEN) {
+                    transition(State.CLOSED);
+                }
+            }
+        }
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private void onFailure(boolean probe) {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (!probe && (failures < failureThreshold || state != State.CLOSED)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (probe) {
+                releaseProbe();
+            }
+            if ((probe && state == State.HALF_OPEN) || (state == State.CLOSED && failures >= failureThreshold)) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a finished probe call. Probes that started before the last transition
+     * to {@code HALF_OPEN} no longer hold a slot.
+     */
+    private synchronized void releaseProbe() {
+        probesInFlight = Math.max(0, probesInFlight - 1);
+    }
+
+    /**
+     * Moves the breaker to the given state. Must be called while holding the monitor of the breaker.
+     *
+     * @param next The new state.
+     */
+    private void transition(State next) {
+        State previous = state;
+        state = next;
+        stateSince = System.currentTimeMillis();
+
+        switch (next) {
+            case OPEN:
+                openedCount.increment();
+                logger.log(Level.WARNING, "Circuit breaker of database ''{0}'' opened after {1} consecutive failures ({2} before), rejecting calls for {3} ms",
+                    new Object[]{name, consecutiveFailures.get(), previous, openDurationMillis});
+                break;
+            case HALF_OPEN:
+                halfOpenedCount.increment();
+                probesInFlight = 0;
+                logger.log(Level.INFO, "Circuit breaker of database ''{0}'' half-open, letting probe calls through", name);
+                break;
+            case CLOSED:
+                closedCount.increment();
+                consecutiveFailures.set(0);
+                logger.log(Level.INFO, "Circuit breaker of database ''{0}'' closed", name);
+                break;
+        }
+    }
+}
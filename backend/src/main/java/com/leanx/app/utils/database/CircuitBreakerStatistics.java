@@ -0,0 +1,118 @@
+package com.leanx.app.utils.database;
+
+/**
+ * Immutable point-in-time snapshot of the state of a {@link CircuitBreaker}.
+ * Counters are cumulative since the breaker was created.
+ */
+public class CircuitBreakerStatistics {
+
+    private final String name;
+    private final CircuitBreaker.State state;
+    private final long stateSince;
+    private final int consecutiveFailures;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final long openedCount;
+    private final long halfOpenedCount;
+    private final long closedCount;
+    private final long rejectedCount;
+
+    /**
+     * Constructs a new {@code CircuitBreakerStatistics} snapshot.
+     *
+     * @param name                The name of the breaker.
+     * @param state               The current state.
+     * @param stateSince          The time of the last state transition in milliseconds since the epoch.
+     * @param consecutiveFailures The number of consecutive failures.
+     * @param failureThreshold    The number of consecutive failures after which the breaker opens.
+     * @param openDurationMillis  The time the breaker stays open before probe calls are let through.
+     * @param openedCount         The number of transitions to {@code OPEN}.
+     * @param halfOpenedCount     The number of transitions to {@code HALF_OPEN}.
+     * @param closedCount         The number of transitions to {@code CLOSED}.
+     * @param rejectedCount       The number of calls rejected without reaching the database.
+     */
+    public CircuitBreakerStatistics(String name, CircuitBreaker.State state, long stateSince, int consecutiveFailures,
+                                    int failureThreshold, long openDurationMillis, long openedCount, long halfOpenedCount,
+                                    long closedCount, long rejectedCount) {
+        this.name = name;
+        this.state = state;
+        this.stateSince = stateSince;
+        this.consecutiveFailures = consecutiveFailures;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.openedCount = openedCount;
+        this.halfOpenedCount = halfOpenedCount;
+        this.closedCount = closedCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+    /**
+     * Gets the name of the breaker.
+     *
+     * @return The name.
+     */
+    public String getName() { return name; }
+
+    /**
+     * Gets the current state of the breaker.
+     *
+     * @return The {@link CircuitBreaker.State}.
+     */
+    public CircuitBreaker.State getState() { return state; }
+
+    /**
+     * Gets the time of the last state transition.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getStateSince() { return stateSince; }
+
+    /**
+     * Gets the number of consecutive calls that failed because the database was unavailable.
+     *
+     * @return The number of consecutive failures.
+     */
+    public int getConsecutiveFailures() { return consecutiveFailures; }
+
+    /**
+     * Gets the number of consecutive failures after which the breaker opens.
+     *
+     * @return The failure threshold.
+     */
+    public int getFailureThreshold() { return failureThreshold; }
+
+    /**
+     * Gets the time the breaker stays open before probe calls are let through.
+     *
+     * @return The open duration in milliseconds.
+     */
+    public long getOpenDurationMillis() { return openDurationMillis; }
+
+    /**
+     * Gets the number of transitions to {@code OPEN}.
+     *
+     * @return The number of times the breaker opened.
+     */
+    public long getOpenedCount() { return openedCount; }
+
+    /**
+     * Gets the number of transitions to {@code HALF_OPEN}.
+     *
+     * @return The number of times the breaker became half-open.
+     */
+    public long getHalfOpenedCount() { return halfOpenedCount; }
+
+    /**
+     * Gets the number of transitions to {@code CLOSED}.
+     *
+     * @return The number of times the breaker closed again.
+     */
+    public long getClosedCount() { return closedCount; }
+
+    /**
+     * Gets the number of calls rejected without reaching the database.
+     *
+     * @return The number of rejected calls.
+     */
+    public long getRejectedCount() { return rejectedCount; }
+}
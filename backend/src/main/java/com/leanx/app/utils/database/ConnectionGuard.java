@@ -0,0 +1,116 @@
+package com.leanx.app.utils.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Guards the connections of one database through a {@link CircuitBreaker} and a {@link Bulkhead}
+ * for their whole life, not only while they are borrowed.
+ * <p>
+ * A connection is borrowed through the breaker with a permit of the bulkhead, which is only given
+ * back when the connection is closed. The outcome of every statement executed on the connection
+ * is recorded in the breaker, so a database that accepts connections but fails the statements
+ * on them still opens it. Each database, or group of replicas, has a guard of its own, so a
+ * failing replica does not reject the calls to the primary.
+ */
+public class ConnectionGuard {
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    /**
+     * Constructs a new {@code ConnectionGuard}.
+     *
+     * @param circuitBreaker The circuit breaker of the database.
+     * @param bulkhead       The bulkhead bounding the connections of the database.
+     */
+    public ConnectionGuard(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Borrows a connection unless the breaker is open or all permits of the bulkhead are taken.
+     * The caller must {@link Lease#release() release} the lease when the connection is closed.
+     *
+     * @param borrower Borrows the connection from a pool.
+     * @return The lease of the borrowed connection.
+     * @throws DatabaseUnavailableException If the call is rejected.
+     * @throws SQLException                 If the connection cannot be borrowed.
+     */
+    public Lease borrow(DatabaseExecutor.SqlCallable<Connection> borrower) throws SQLException {
+        Connection connection = circuitBreaker.call(() -> {
+            bulkhead.acquire();
+            boolean borrowed = false;
+            try {
+                Connection borrowedConnection = borrower.call();
+                borrowed = true;
+                return borrowedConnection;
+            } finally {
+                if (!borrowed) {
+                    bulkhead.release();
+                }
+            }
+        });
+        return new Lease(connection);
+    }
+
+    /**
+     * Creates a snapshot of the state and counters of the circuit breaker.
+     *
+     * @return The {@link CircuitBreakerStatistics}.
+     */
+    public CircuitBreakerStatistics getCircuitBreakerStatistics() {
+        return circuitBreaker.getStatistics();
+    }
+
+    /**
+     * Creates a snapshot of the state and counters of the bulkhead.
+     *
+     * @return The {@link BulkheadStatistics}.
+     */
+    public BulkheadStatistics getBulkheadStatistics() {
+        return bulkhead.getStatistics();
+    }
+
+    /**
+     * A connection borrowed through the guard, holding a permit of the bulkhead until it is released.
+     */
+    public final class Lease {
+
+        private final Connection connection;
+        private boolean released;
+
+        private Lease(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * Gets the borrowed connection.
+         *
+         * @return The pooled {@link Connection}.
+         */
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Records the outcome of a call made on the connection in the circuit breaker.
+         *
+         * @param failure The failure of the call, or {@code null} if it succeeded.
+         */
+        public void record(SQLException failure) {
+            circuitBreaker.record(failure);
+        }
+
+        /**
+         * Gives the permit back to the bulkhead. Further calls have no effect.
+         */
+        public void release() {
+            if (!released) {
+                released = true;
+                bulkhead.release();
+            }
+        }
+    }
+}
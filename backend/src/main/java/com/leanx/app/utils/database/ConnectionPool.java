@@ -0,0 +1,700 @@
+package com.leanx.app.utils.database;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * Bounded JDBC connection pool exposed as a {@link DataSource}.
+ * <p>
+ * Physical connections are created lazily up to {@code maxSize} and handed out as
+ * proxies whose {@link Connection#close()} returns the connection to the pool instead
+ * of closing it. Idle connections are kept in LIFO order so that the most recently
+ * used (and therefore warm) connection is reused first, while a background task closes
+ * connections that exceeded their idle timeout or maximum lifetime, keeps the pool at
+ * its minimum size and reports connections that have been borrowed for suspiciously long.
+ * <p>
+ * Callers that cannot obtain a connection within the configured borrow timeout receive a
+ * {@link SQLTransientConnectionException} instead of blocking indefinitely.
+ * <p>
+ * Prepared statements are cached per physical connection (see {@link StatementCache}):
+ * closing a statement obtained from a pooled connection resets it and keeps it open for
+ * the next caller preparing the same SQL on that connection.
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final ConnectionPoolSettings settings;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder closedCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LatencyHistogram borrowLatency = new LatencyHistogram();
+    private final StatementCacheMetrics statementCacheMetrics = new StatementCacheMetrics();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    /**
+     * Constructs a new {@code ConnectionPool} and schedules its housekeeping task.
+     * No connection is opened synchronously, so a temporarily unavailable database
+     * does not prevent the application from starting.
+     *
+     * @param settings The {@link ConnectionPoolSettings} of the pool.
+     */
+    public ConnectionPool(ConnectionPoolSettings settings) {
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leanx-db-pool-" + settings.getPoolName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 0, settings.getHousekeepingIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting at most the configured borrow timeout
+     * for a connection to become available. The caller must close the returned connection
+     * to give it back to the pool.
+     *
+     * @return A pooled {@link Connection}.
+     * @throws SQLTransientConnectionException If no connection became available within the borrow timeout.
+     * @throws SQLException                    If the pool is closed or a new physical connection cannot be established.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool '" + settings.getPoolName() + "' is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        waitingThreads.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(settings.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from pool '" + settings.getPoolName() + "'", e);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+
+        if (!acquired) {
+            borrowTimeoutCount.increment();
+            throw new SQLTransientConnectionException("Timed out after " + settings.getBorrowTimeoutMillis()
+                + "ms waiting for a connection from pool '" + settings.getPoolName() + "' (active="
+                + borrowedConnections.size() + ", idle=" + idleConnections.size() + ", waiting=" + waitingThreads.get() + ")");
+        }
+
+        try {
+            PooledConnection pooledConnection = takeIdleOrCreate();
+            pooledConnection.markBorrowed(settings.getLeakDetectionThresholdMillis() > 0);
+            borrowedConnections.add(pooledConnection);
+            borrowCount.increment();
+            borrowLatency.record(System.nanoTime() - start);
+            return pooledConnection.createHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Not supported, the pool always connects with the credentials it was configured with.
+     *
+     * @throws SQLFeatureNotSupportedException Always.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connection pool '" + settings.getPoolName() + "' does not support custom credentials");
+    }
+
+    /**
+     * Returns an idle connection if a usable one exists, or opens a new physical connection otherwise.
+     * The caller must hold a permit.
+     *
+     * @return A usable {@link PooledConnection}.
+     * @throws SQLException If a new physical connection cannot be established.
+     */
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            if (isUsable(pooledConnection)) {
+                return pooledConnection;
+            }
+            discard(pooledConnection);
+        }
+        return createConnection();
+    }
+
+    /**
+     * Checks whether an idle connection may be handed out. Connections that exceeded their
+     * maximum lifetime are rejected, connections that have been idle for longer than the
+     * validation interval are validated against the database.
+     *
+     * @param pooledConnection The idle connection to check.
+     * @return {@code true} if the connection is usable, {@code false} otherwise.
+     */
+    private boolean isUsable(PooledConnection pooledConnection) {
+        long now = System.nanoTime();
+        if (pooledConnection.isExpired(now)) {
+            return false;
+        }
+
+        if (now - pooledConnection.lastReturnedAt < TimeUnit.MILLISECONDS.toNanos(settings.getValidationIntervalMillis())) {
+            return true;
+        }
+
+        try {
+            if (pooledConnection.connection.isValid(settings.getValidationTimeoutSeconds())) {
+                return true;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Connection validation failed: {0}", e.getMessage());
+        }
+
+        validationFailureCount.increment();
+        return false;
+    }
+
+    /**
+     * Opens a new physical connection to the database.
+     *
+     * @return The new {@link PooledConnection}.
+     * @throws SQLException If the connection cannot be established.
+     */
+    private PooledConnection createConnection() throws SQLException {
+        totalConnections.incrementAndGet();
+        try {
+            Connection connection = DriverManager.getConnection(settings.getJdbcUrl(), settings.getUser(), settings.getPassword());
+            createdCount.increment();
+            return new PooledConnection(connection);
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives a borrowed connection back to the pool. Connections that are broken, expired
+     * or cannot be reset to their initial state are closed instead.
+     *
+     * @param pooledConnection The connection to return.
+     */
+    private void release(PooledConnection pooledConnection) {
+        borrowedConnections.remove(pooledConnection);
+        try {
+            if (closed || pooledConnection.broken || pooledConnection.isExpired(System.nanoTime()) || !pooledConnection.reset()) {
+                discard(pooledConnection);
+                return;
+            }
+
+            pooledConnection.lastReturnedAt = System.nanoTime();
+            idleConnections.offerFirst(pooledConnection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes the physical connection and removes it from the pool.
+     *
+     * @param pooledConnection The connection to close.
+     */
+    private void discard(PooledConnection pooledConnection) {
+        totalConnections.decrementAndGet();
+        closedCount.increment();
+        pooledConnection.statementCache.clear();
+        try {
+            pooledConnection.connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Failed to close physical connection: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Background task that reports potential connection leaks, closes idle connections
+     * that exceeded their idle timeout or lifetime and refills the pool to its minimum size.
+     */
+    private void housekeep() {
+        try {
+            long now = System.nanoTime();
+
+            long leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(settings.getLeakDetectionThresholdMillis());
+            if (leakThresholdNanos > 0) {
+                for (PooledConnection pooledConnection : borrowedConnections) {
+                    if (!pooledConnection.leakReported && now - pooledConnection.borrowedAt > leakThresholdNanos) {
+                        pooledConnection.leakReported = true;
+                        leakCount.increment();
+                        logger.log(Level.WARNING, "Possible connection leak in pool '" + settings.getPoolName() + "': connection borrowed by thread '"
+                            + pooledConnection.borrowingThread + "' " + TimeUnit.NANOSECONDS.toMillis(now - pooledConnection.borrowedAt)
+                            + "ms ago has not been returned.", pooledConnection.borrowStackTrace);
+                    }
+                }
+            }
+
+            long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getIdleTimeoutMillis());
+            Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+            while (iterator.hasNext()) {
+                PooledConnection pooledConnection = iterator.next();
+                boolean idleTooLong = now - pooledConnection.lastReturnedAt > idleTimeoutNanos && totalConnections.get() > settings.getMinSize();
+                if ((idleTooLong || pooledConnection.isExpired(now)) && idleConnections.removeFirstOccurrence(pooledConnection)) {
+                    discard(pooledConnection);
+                }
+            }
+
+            while (!closed && totalConnections.get() < settings.getMinSize() && permits.tryAcquire()) {
+                try {
+                    PooledConnection pooledConnection = createConnection();
+                    pooledConnection.lastReturnedAt = System.nanoTime();
+                    idleConnections.offerLast(pooledConnection);
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to fill connection pool ''{0}'' to its minimum size: {1}", new Object[]{settings.getPoolName(), e.getMessage()});
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Unexpected error during connection pool housekeeping", e);
+        }
+    }
+
+    /**
+     * Creates a snapshot of the current pool state and its counters.
+     *
+     * @return The current {@link PoolStatistics}.
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(
+            settings.getPoolName(),
+            borrowedConnections.size(),
+            idleConnections.size(),
+            totalConnections.get(),
+            waitingThreads.get(),
+            settings.getMinSize(),
+            settings.getMaxSize(),
+            borrowCount.sum(),
+            borrowTimeoutCount.sum(),
+            createdCount.sum(),
+            closedCount.sum(),
+            validationFailureCount.sum(),
+            leakCount.sum(),
+            borrowLatency.snapshot(),
+            statementCacheMetrics.snapshot(settings.getStatementCacheSize())
+        );
+    }
+
+    /**
+     * Gets the settings this pool was created with.
+     *
+     * @return The {@link ConnectionPoolSettings} of the pool.
+     */
+    public ConnectionPoolSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Closes the pool. Idle connections are closed immediately, borrowed connections
+     * are closed as soon as they are returned. Further borrow attempts fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            discard(pooledConnection);
+        }
+        logger.log(Level.INFO, "Connection pool ''{0}'' closed.", settings.getPoolName());
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getLogger(ConnectionPool.class.getPackageName());
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("ConnectionPool is not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection managed by the pool together with its bookkeeping data.
+     */
+    private class PooledConnection {
+
+        private final Connection connection;
+        private final StatementCache statementCache = new StatementCache(settings.getStatementCacheSize(), statementCacheMetrics);
+        private final long createdAt = System.nanoTime();
+        private final int defaultTransactionIsolation;
+
+        private volatile long lastReturnedAt = createdAt;
+        private volatile long borrowedAt;
+        private volatile String borrowingThread;
+        private volatile Throwable borrowStackTrace;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+
+        private boolean autoCommitChanged;
+        private boolean readOnlyChanged;
+        private boolean transactionIsolationChanged;
+
+        private PooledConnection(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.defaultTransactionIsolation = connection.getTransactionIsolation();
+        }
+
+        private boolean isExpired(long now) {
+            return now - createdAt > TimeUnit.MILLISECONDS.toNanos(settings.getMaxLifetimeMillis());
+        }
+
+        private void markBorrowed(boolean captureStackTrace) {
+            this.borrowedAt = System.nanoTime();
+            this.borrowingThread = Thread.currentThread().getName();
+            this.borrowStackTrace = captureStackTrace ? new Exception("Connection borrowed here") : null;
+            this.leakReported = false;
+        }
+
+        /**
+         * Restores the session state that callers may have changed while the connection was borrowed.
+         *
+         * @return {@code true} if the connection was reset successfully, {@code false} if it should be discarded.
+         */
+        private boolean reset() {
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                if (autoCommitChanged) {
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                    autoCommitChanged = false;
+                }
+                if (readOnlyChanged) {
+                    connection.setReadOnly(false);
+                    readOnlyChanged = false;
+                }
+                if (transactionIsolationChanged) {
+                    connection.setTransactionIsolation(defaultTransactionIsolation);
+                    transactionIsolationChanged = false;
+                }
+                connection.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to reset pooled connection, discarding it: {0}", e.getMessage());
+                return false;
+            }
+        }
+
+        private Connection createHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandle(this)
+            );
+        }
+    }
+
+    /**
+     * Invocation handler of the connection proxies handed out to callers. Each borrow
+     * gets its own handle, so a caller that keeps a reference after closing the connection
+     * cannot interfere with the next borrower.
+     */
+    private class ConnectionHandle implements InvocationHandler {
+
+        private final PooledConnection pooledConnection;
+        private final List<StatementHandle> openStatements = new ArrayList<>();
+        private boolean closed;
+
+        private ConnectionHandle(PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        for (StatementHandle statement : new ArrayList<>(openStatements)) {
+                            statement.close();
+                        }
+                        release(pooledConnection);
+                    }
+                    return null;
+                case "prepareStatement": {
+                    String key = settings.getStatementCacheSize() > 0 ? StatementCache.key(args) : null;
+                    if (!closed && key != null) {
+                        return prepareCached((Connection) proxy, key, method, args);
+                    }
+                    break;
+                }
+                case "isClosed":
+                    return closed || pooledConnection.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + settings.getPoolName() + ", " + pooledConnection.connection + "]";
+                case "setAutoCommit":
+                    pooledConnection.autoCommitChanged = true;
+                    break;
+                case "setReadOnly":
+                    pooledConnection.readOnlyChanged = true;
+                    break;
+                case "setTransactionIsolation":
+                    pooledConnection.transactionIsolationChanged = true;
+                    break;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+
+            try {
+                return method.invoke(pooledConnection.connection, args);
+            } catch (InvocationTargetException e) {
+                throw translate(e);
+            }
+        }
+
+        /**
+         * Returns a cached statement for the given SQL, preparing a new one on a cache miss.
+         *
+         * @param proxy  The connection proxy the statement belongs to.
+         * @param key    The cache key of the statement.
+         * @param method The {@code prepareStatement} method that was called.
+         * @param args   The arguments of the call.
+         * @return A proxy of the statement that is returned to the cache when closed.
+         * @throws Throwable If the statement cannot be prepared.
+         */
+        private PreparedStatement prepareCached(Connection proxy, String key, Method method, Object[] args) throws Throwable {
+            PreparedStatement statement = pooledConnection.statementCache.take(key);
+            if (statement == null) {
+                try {
+                    statement = (PreparedStatement) method.invoke(pooledConnection.connection, args);
+                } catch (InvocationTargetException e) {
+                    throw translate(e);
+                }
+            }
+
+            StatementHandle handle = new StatementHandle(this, proxy, key, statement);
+            openStatements.add(handle);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                handle
+            );
+        }
+
+        /**
+         * Unwraps an exception thrown by the physical connection or one of its statements
+         * and marks the connection as broken if the exception indicates a connection failure.
+         *
+         * @param e The exception thrown by the reflective call.
+         * @return The original exception.
+         */
+        private Throwable translate(InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException && isConnectionError(sqlException)) {
+                pooledConnection.broken = true;
+            }
+            return cause;
+        }
+
+        /**
+         * Checks whether an exception indicates that the physical connection is no longer usable.
+         *
+         * @param e The exception thrown by the driver.
+         * @return {@code true} if the connection should be discarded when it is returned.
+         */
+        private boolean isConnectionError(SQLException e) {
+            String sqlState = e.getSQLState();
+            return sqlState != null && sqlState.startsWith("08");
+        }
+    }
+
+    /**
+     * Invocation handler of the statement proxies handed out for cached statements.
+     * Closing the proxy closes the open result set, clears the parameters and restores
+     * the statement options callers may have changed, then returns the statement to the
+     * cache of its connection.
+     */
+    private class StatementHandle implements InvocationHandler {
+
+        private final ConnectionHandle connectionHandle;
+        private final Connection connectionProxy;
+        private final String key;
+        private final PreparedStatement statement;
+        private boolean closed;
+        private boolean optionsChanged;
+        private boolean reusable = true;
+
+        private StatementHandle(ConnectionHandle connectionHandle, Connection connectionProxy, String key, PreparedStatement statement) {
+            this.connectionHandle = connectionHandle;
+            this.connectionProxy = connectionProxy;
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connectionProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                case "setFetchSize":
+                case "setFetchDirection":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setMaxFieldSize":
+                case "setQueryTimeout":
+                    optionsChanged = true;
+                    break;
+                case "closeOnCompletion":
+                case "setPoolable":
+                case "setCursorName":
+                case "setEscapeProcessing":
+                    reusable = false;
+                    break;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw connectionHandle.translate(e);
+            }
+        }
+
+        /**
+         * Resets the statement and returns it to the statement cache of the connection.
+         * Statements that cannot be reset are closed instead.
+         */
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            connectionHandle.openStatements.remove(this);
+
+            PooledConnection pooledConnection = connectionHandle.pooledConnection;
+            try {
+                if (!reusable || pooledConnection.broken || statement.isClosed()) {
+                    statement.close();
+                    return;
+                }
+
+                ResultSet resultSet = statement.getResultSet();
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (optionsChanged) {
+                    statement.setFetchSize(0);
+                    statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+                    statement.setMaxRows(0);
+                    statement.setMaxFieldSize(0);
+                    statement.setQueryTimeout(0);
+                }
+                pooledConnection.statementCache.put(key, statement);
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Failed to reset cached statement, closing it: {0}", e.getMessage());
+                try {
+                    statement.close();
+                } catch (SQLException closeException) {
+                    logger.log(Level.FINE, "Failed to close statement: {0}", closeException.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.leanx.app.utils.database;
+
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * Immutable configuration of a {@link ConnectionPool}.
+ * The sizing and timeout parameters are read from optional environment variables
+ * (prefixed with {@code RDS_MYSQL_POOL_}), falling back to defaults that suit a
+ * single Tomcat instance in front of one MySQL server. The number of prepared
+ * statements cached per connection is read from {@code RDS_MYSQL_STATEMENT_CACHE_SIZE}.
+ */
+public class ConnectionPoolSettings {
+
+    /** The default number of prepared statements cached per connection. */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    private final String poolName;
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long validationIntervalMillis;
+    private final int validationTimeoutSeconds;
+    private final long leakDetectionThresholdMillis;
+    private final long housekeepingIntervalMillis;
+    private final int statementCacheSize;
+
+    /**
+     * Constructs a new {@code ConnectionPoolSettings} instance.
+     *
+     * @param poolName                     The name of the pool, used in log messages and statistics.
+     * @param jdbcUrl                      The JDBC URL of the database.
+     * @param user                         The database user.
+     * @param password                     The password of the database user.
+     * @param minSize                      The number of connections kept open even when idle.
+     * @param maxSize                      The maximum number of physical connections.
+     * @param borrowTimeoutMillis          The maximum time a caller waits for a free connection.
+     * @param idleTimeoutMillis            The time after which an idle connection above {@code minSize} is closed.
+     * @param maxLifetimeMillis            The maximum lifetime of a physical connection.
+     * @param validationIntervalMillis     Connections idle for longer than this are validated before being handed out.
+     * @param validationTimeoutSeconds     The timeout passed to {@link java.sql.Connection#isValid(int)}.
+     * @param leakDetectionThresholdMillis The time after which a borrowed connection is reported as a potential leak (0 disables).
+     * @param housekeepingIntervalMillis   The interval of the background eviction and leak detection task.
+     * @param statementCacheSize           The number of prepared statements cached per connection (0 disables the cache).
+     */
+    public ConnectionPoolSettings(String poolName, String jdbcUrl, String user, String password, int minSize, int maxSize,
+                                  long borrowTimeoutMillis, long idleTimeoutMillis, long maxLifetimeMillis,
+                                  long validationIntervalMillis, int validationTimeoutSeconds,
+                                  long leakDetectionThresholdMillis, long housekeepingIntervalMillis, int statementCacheSize) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+
+        this.poolName = poolName;
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Creates pool settings for the given database using the sizing and timeout
+     * parameters configured in the environment.
+     *
+     * @param poolName The name of the pool.
+     * @param jdbcUrl  The JDBC URL of the database.
+     * @param user     The database user.
+     * @param password The password of the database user.
+     * @return The {@code ConnectionPoolSettings} for the given database.
+     */
+    public static ConnectionPoolSettings fromEnvironment(String poolName, String jdbcUrl, String user, String password) {
+        return new ConnectionPoolSettings(
+            poolName,
+            jdbcUrl,
+            user,
+            password,
+            EnvironmentUtils.getInt("RDS_MYSQL_POOL_MIN_SIZE", 2),
+            EnvironmentUtils.getInt("RDS_MYSQL_POOL_MAX_SIZE", 20),
+            EnvironmentUtils.getLong("RDS_MYSQL_POOL_BORROW_TIMEOUT_MS", 5_000),
+            EnvironmentUtils.getLong("RDS_MYSQL_POOL_IDLE_TIMEOUT_MS", 600_000),
+            EnvironmentUtils.getLong("RDS_MYSQL_POOL_MAX_LIFETIME_MS", 1_800_000),
+            EnvironmentUtils.getLong("RDS_MYSQL_POOL_VALIDATION_INTERVAL_MS", 500),
+            EnvironmentUtils.getInt("RDS_MYSQL_POOL_VALIDATION_TIMEOUT_S", 2),
+            EnvironmentUtils.getLong("RDS_MYSQL_POOL_LEAK_THRESHOLD_MS", 60_000),
+            EnvironmentUtils.getLong("RDS_MYSQL_POOL_HOUSEKEEPING_INTERVAL_MS", 30_000),
+            EnvironmentUtils.getInt("RDS_MYSQL_STATEMENT_CACHE_SIZE", DEFAULT_STATEMENT_CACHE_SIZE)
+        );
+    }
+
+    /**
+     * Gets the name of the pool.
+     *
+     * @return The pool name.
+     */
+    public String getPoolName() { return poolName; }
+
+    /**
+     * Gets the JDBC URL of the database.
+     *
+     * @return The JDBC URL.
+     */
+    public String getJdbcUrl() { return jdbcUrl; }
+
+    /**
+     * Gets the database user.
+     *
+     * @return The database user.
+     */
+    public String getUser() { return user; }
+
+    /**
+     * Gets the password of the database user.
+     *
+     * @return The password.
+     */
+    public String getPassword() { return password; }
+
+    /**
+     * Gets the number of connections kept open even when idle.
+     *
+     * @return The minimum pool size.
+     */
+    public int getMinSize() { return minSize; }
+
+    /**
+     * Gets the maximum number of physical connections.
+     *
+     * @return The maximum pool size.
+     */
+    public int getMaxSize() { return maxSize; }
+
+    /**
+     * Gets the maximum time a caller waits for a free connection.
+     *
+     * @return The borrow timeout in milliseconds.
+     */
+    public long getBorrowTimeoutMillis() { return borrowTimeoutMillis; }
+
+    /**
+     * Gets the time after which an idle connection above the minimum size is closed.
+     *
+     * @return The idle timeout in milliseconds.
+     */
+    public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+
+    /**
+     * Gets the maximum lifetime of a physical connection.
+     *
+     * @return The maximum lifetime in milliseconds.
+     */
+    public long getMaxLifetimeMillis() { return maxLifetimeMillis; }
+
+    /**
+     * Gets the idle time after which a connection is validated before being handed out.
+     *
+     * @return The validation interval in milliseconds.
+     */
+    public long getValidationIntervalMillis() { return validationIntervalMillis; }
+
+    /**
+     * Gets the timeout used when validating a connection.
+     *
+     * @return The validation timeout in seconds.
+     */
+    public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+
+    /**
+     * Gets the time after which a borrowed connection is reported as a potential leak.
+     *
+     * @return The leak detection threshold in milliseconds, or 0 if leak detection is disabled.
+     */
+    public long getLeakDetectionThresholdMillis() { return leakDetectionThresholdMillis; }
+
+    /**
+     * Gets the interval of the background eviction and leak detection task.
+     *
+     * @return The housekeeping interval in milliseconds.
+     */
+    public long getHousekeepingIntervalMillis() { return housekeepingIntervalMillis; }
+
+    /**
+     * Gets the number of prepared statements cached per connection.
+     *
+     * @return The statement cache size, or 0 if statement caching is disabled.
+     */
+    public int getStatementCacheSize() { return statementCacheSize; }
+}
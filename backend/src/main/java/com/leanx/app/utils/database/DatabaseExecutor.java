@@ -0,0 +1,179 @@
+package com.leanx.app.utils.database;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.leanx.app.utils.DatabaseUtils;
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * Executor for running blocking database calls asynchronously, so that independent
+ * queries can run in parallel and request threads do not wait on MySQL.
+ * <p>
+ * Tasks run on virtual threads if the Java runtime supports them, and on a fixed pool of
+ * daemon threads otherwise. In both cases at most {@link #MAX_CONCURRENCY} tasks access the
+ * database at the same time, which defaults to the maximum size of the connection pool, so
+ * that asynchronous callers queue here instead of timing out in the pool. The time of the
+ * last write of the calling thread is handed to the task (see {@link ReadYourWrites}), as is
+ * the deadline of its request (see {@link RequestDeadline}).
+ * <p>
+ * Tasks should only read: writes made by a task are not recorded for the calling session.
+ */
+public final class DatabaseExecutor {
+
+    private static final Logger logger = Logger.getLogger(DatabaseExecutor.class.getName());
+
+    /**
+     * The maximum number of tasks accessing the database at the same time, retrieved from
+     * the optional 'RDS_MYSQL_ASYNC_MAX_CONCURRENCY' environment variable.
+     */
+    public static final int MAX_CONCURRENCY = Math.max(1, EnvironmentUtils.getInt("RDS_MYSQL_ASYNC_MAX_CONCURRENCY",
+        DatabaseUtils.getPoolStatistics().getMaxSize()));
+
+    private static final Semaphore permits = new Semaphore(MAX_CONCURRENCY, true);
+
+    private static final ExecutorService executor = createExecutor();
+
+    /**
+     * A database call that returns a result and may throw an {@link SQLException}.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface SqlCallable<T> {
+
+        /**
+         * Executes the call.
+         *
+         * @return The result of the call.
+         * @throws SQLException If a database access error occurs.
+         */
+        T call() throws SQLException;
+    }
+
+    private DatabaseExecutor() {}
+
+    /**
+     * Creates a virtual thread per task executor if the runtime provides one (Java 21 and later),
+     * or a fixed thread pool with {@link #MAX_CONCURRENCY} daemon threads otherwise.
+     *
+     * @return The executor running the tasks.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            ExecutorService virtualThreads = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("Running asynchronous database calls on virtual threads.");
+            return virtualThreads;
+        } catch (ReflectiveOperationException e) {
+            logger.log(Level.INFO, "Virtual threads are not available, running asynchronous database calls on {0} platform threads.",
+                MAX_CONCURRENCY);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(MAX_CONCURRENCY, runnable -> {
+            Thread thread = new Thread(runnable, "leanx-db-async-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the given database call asynchronously.
+     *
+     * @param task The database call.
+     * @param <T>  The type of the result.
+     * @return A {@link CompletableFuture} completed with the result of the call, or completed
+     * exceptionally with the {@link SQLException} or {@link RuntimeException} thrown by it.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(SqlCallable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Long lastWriteAt = ReadYourWrites.getLastWriteAt();
+        RequestDeadline deadline = RequestDeadline.current();
+
+        try {
+            executor.execute(() -> {
+                ReadYourWrites.restore(lastWriteAt);
+                RequestDeadline.bind(deadline);
+                try {
+                    permits.acquire();
+                    try {
+                        future.complete(task.call());
+                    } finally {
+                        permits.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(new SQLException("Interrupted while waiting to access the database", e));
+                } catch (SQLException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    ReadYourWrites.clear();
+                    RequestDeadline.clear();
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for an asynchronous database call and returns its result, rethrowing the
+     * {@link SQLException} it failed with.
+     *
+     * @param future The future of the call.
+     * @param <T>    The type of the result.
+     * @return The result of the call.
+     * @throws SQLException If the call failed with an {@link SQLException} or the waiting thread was interrupted.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database call", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Converts the failure of an asynchronous database call back into the exception
+     * thrown by the call.
+     *
+     * @param failure The exception a future completed with, possibly wrapped in a {@link CompletionException}.
+     * @return The {@link SQLException} thrown by the call.
+     * @throws RuntimeException If the call failed with an unchecked exception.
+     */
+    public static SQLException unwrap(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof SQLException sqlException) {
+            return sqlException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new SQLException(cause);
+    }
+
+    /**
+     * Stops accepting new tasks. Called when the application is undeployed.
+     */
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.leanx.app.utils.database;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.leanx.app.utils.DatabaseUtils;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * Servlet context listener that initializes the database connection pool when the
+ * application starts and closes it when the application is undeployed, so that no
+ * physical connections, housekeeping or asynchronous database threads outlive the
+ * web application.
+ */
+@WebListener
+public class DatabaseLifecycleListener implements ServletContextListener {
+
+    private static final Logger logger = Logger.getLogger(DatabaseLifecycleListener.class.getName());
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        logger.log(Level.INFO, "Database connection pool initialized: {0}", DatabaseUtils.getPoolStatistics().getPoolName());
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        DatabaseExecutor.shutdown();
+        DatabaseUtils.shutdown();
+    }
+}
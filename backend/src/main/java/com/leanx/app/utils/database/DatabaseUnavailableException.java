@@ -0,0 +1,33 @@
+package com.leanx.app.utils.database;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown instead of waiting for a connection when the database is considered unavailable,
+ * either because the {@link CircuitBreaker} is open or because the {@link Bulkhead} is full.
+ * Callers should fail fast and ask the client to retry after {@link #getRetryAfterSeconds()}.
+ */
+public class DatabaseUnavailableException extends SQLTransientConnectionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new {@code DatabaseUnavailableException}.
+     *
+     * @param message           The detail message.
+     * @param retryAfterSeconds The number of seconds after which the request may be retried.
+     */
+    public DatabaseUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /**
+     * Gets the number of seconds after which the request may be retried.
+     *
+     * @return The retry delay in seconds, at least 1.
+     */
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,155 @@
+package com.leanx.app.utils.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed, exponentially growing bucket boundaries
+ * between 100 microseconds and 10 seconds. Recording a value is a single atomic
+ * increment, so the histogram can be updated on every database call without
+ * measurable overhead. Percentiles are approximated by the upper bound of the
+ * bucket they fall into.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Upper bucket boundaries in microseconds. A final overflow bucket catches everything above.
+     */
+    private static final long[] BOUNDS_MICROS = {
+        100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+        100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a single latency measurement.
+     *
+     * @param nanos The measured duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long micros = nanos / 1_000;
+        int index = 0;
+        while (index < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[index]) {
+            index++;
+        }
+
+        buckets.incrementAndGet(index);
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Creates a point-in-time snapshot of the histogram that can be serialized to JSON.
+     *
+     * @return A {@link Snapshot} of the current histogram state.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(counts, total, totalNanos.sum(), maxNanos.get());
+    }
+
+    /**
+     * Immutable snapshot of a {@link LatencyHistogram}. All durations are reported in milliseconds.
+     */
+    public static class Snapshot {
+
+        private final long count;
+        private final double meanMillis;
+        private final double maxMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final Map<String, Long> buckets;
+
+        private Snapshot(long[] counts, long total, long totalNanos, long maxNanos) {
+            this.count = total;
+            this.meanMillis = total == 0 ? 0 : totalNanos / (double) total / 1_000_000;
+            this.maxMillis = maxNanos / 1_000_000.0;
+            this.p50Millis = percentile(counts, total, 0.50, maxMillis);
+            this.p95Millis = percentile(counts, total, 0.95, maxMillis);
+            this.p99Millis = percentile(counts, total, 0.99, maxMillis);
+
+            this.buckets = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                String label = i < BOUNDS_MICROS.length ? "<=" + (BOUNDS_MICROS[i] / 1_000.0) + "ms" : ">" + (BOUNDS_MICROS[BOUNDS_MICROS.length - 1] / 1_000.0) + "ms";
+                this.buckets.put(label, counts[i]);
+            }
+        }
+
+        private static double percentile(long[] counts, long total, double quantile, double maxMillis) {
+            if (total == 0) {
+                return 0;
+            }
+
+            long threshold = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= threshold) {
+                    return i < BOUNDS_MICROS.length ? Math.min(BOUNDS_MICROS[i] / 1_000.0, maxMillis) : maxMillis;
+                }
+            }
+            return maxMillis;
+        }
+
+        /**
+         * Gets the number of recorded measurements.
+         *
+         * @return The measurement count.
+         */
+        public long getCount() { return count; }
+
+        /**
+         * Gets the mean of all recorded measurements.
+         *
+         * @return The mean latency in milliseconds.
+         */
+        public double getMeanMillis() { return meanMillis; }
+
+        /**
+         * Gets the largest recorded measurement.
+         *
+         * @return The maximum latency in milliseconds.
+         */
+        public double getMaxMillis() { return maxMillis; }
+
+        /**
+         * Gets the approximated median.
+         *
+         * @return The 50th percentile in milliseconds.
+         */
+        public double getP50Millis() { return p50Millis; }
+
+        /**
+         * Gets the approximated 95th percentile.
+         *
+         * @return The 95th percentile in milliseconds.
+         */
+        public double getP95Millis() { return p95Millis; }
+
+        /**
+         * Gets the approximated 99th percentile.
+         *
+         * @return The 99th percentile in milliseconds.
+         */
+        public double getP99Millis() { return p99Millis; }
+
+        /**
+         * Gets the number of measurements per bucket, keyed by the bucket boundary.
+         *
+         * @return An ordered map of bucket labels to counts.
+         */
+        public Map<String, Long> getBuckets() { return buckets; }
+    }
+}
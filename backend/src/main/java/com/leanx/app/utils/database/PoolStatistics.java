@@ -0,0 +1,172 @@
+package com.leanx.app.utils.database;
+
+import com.leanx.app.utils.CacheStatistics;
+
+/**
+ * Immutable point-in-time snapshot of the state and counters of a {@link ConnectionPool}.
+ * Counters are cumulative since the pool was created.
+ */
+public class PoolStatistics {
+
+    private final String poolName;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int waitingThreads;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowCount;
+    private final long borrowTimeoutCount;
+    private final long createdCount;
+    private final long closedCount;
+    private final long validationFailureCount;
+    private final long leakCount;
+    private final LatencyHistogram.Snapshot borrowLatency;
+    private final CacheStatistics statementCache;
+
+    /**
+     * Constructs a new {@code PoolStatistics} snapshot.
+     *
+     * @param poolName               The name of the pool.
+     * @param activeConnections      The number of connections currently borrowed.
+     * @param idleConnections        The number of connections currently idle.
+     * @param totalConnections       The number of open physical connections.
+     * @param waitingThreads         The number of threads waiting for a connection.
+     * @param minSize                The configured minimum pool size.
+     * @param maxSize                The configured maximum pool size.
+     * @param borrowCount            The number of successful borrows.
+     * @param borrowTimeoutCount     The number of borrows that timed out.
+     * @param createdCount           The number of physical connections opened.
+     * @param closedCount            The number of physical connections closed.
+     * @param validationFailureCount The number of idle connections that failed validation.
+     * @param leakCount              The number of connections reported as potential leaks.
+     * @param borrowLatency          The histogram of the time spent waiting for a connection.
+     * @param statementCache         The counters of the prepared statement caches of all connections.
+     */
+    public PoolStatistics(String poolName, int activeConnections, int idleConnections, int totalConnections, int waitingThreads,
+                          int minSize, int maxSize, long borrowCount, long borrowTimeoutCount, long createdCount, long closedCount,
+                          long validationFailureCount, long leakCount, LatencyHistogram.Snapshot borrowLatency,
+                          CacheStatistics statementCache) {
+        this.poolName = poolName;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.waitingThreads = waitingThreads;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowCount = borrowCount;
+        this.borrowTimeoutCount = borrowTimeoutCount;
+        this.createdCount = createdCount;
+        this.closedCount = closedCount;
+        this.validationFailureCount = validationFailureCount;
+        this.leakCount = leakCount;
+        this.borrowLatency = borrowLatency;
+        this.statementCache = statementCache;
+    }
+
+    /**
+     * Gets the name of the pool.
+     *
+     * @return The pool name.
+     */
+    public String getPoolName() { return poolName; }
+
+    /**
+     * Gets the number of connections currently borrowed.
+     *
+     * @return The number of active connections.
+     */
+    public int getActiveConnections() { return activeConnections; }
+
+    /**
+     * Gets the number of connections currently idle in the pool.
+     *
+     * @return The number of idle connections.
+     */
+    public int getIdleConnections() { return idleConnections; }
+
+    /**
+     * Gets the number of open physical connections.
+     *
+     * @return The total number of connections.
+     */
+    public int getTotalConnections() { return totalConnections; }
+
+    /**
+     * Gets the number of threads currently waiting for a connection.
+     *
+     * @return The number of waiting threads.
+     */
+    public int getWaitingThreads() { return waitingThreads; }
+
+    /**
+     * Gets the configured minimum pool size.
+     *
+     * @return The minimum pool size.
+     */
+    public int getMinSize() { return minSize; }
+
+    /**
+     * Gets the configured maximum pool size.
+     *
+     * @return The maximum pool size.
+     */
+    public int getMaxSize() { return maxSize; }
+
+    /**
+     * Gets the number of successful borrows.
+     *
+     * @return The borrow count.
+     */
+    public long getBorrowCount() { return borrowCount; }
+
+    /**
+     * Gets the number of borrows that timed out waiting for a connection.
+     *
+     * @return The borrow timeout count.
+     */
+    public long getBorrowTimeoutCount() { return borrowTimeoutCount; }
+
+    /**
+     * Gets the number of physical connections opened.
+     *
+     * @return The number of created connections.
+     */
+    public long getCreatedCount() { return createdCount; }
+
+    /**
+     * Gets the number of physical connections closed.
+     *
+     * @return The number of closed connections.
+     */
+    public long getClosedCount() { return closedCount; }
+
+    /**
+     * Gets the number of idle connections that failed validation on borrow.
+     *
+     * @return The validation failure count.
+     */
+    public long getValidationFailureCount() { return validationFailureCount; }
+
+    /**
+     * Gets the number of connections reported as potential leaks.
+     *
+     * @return The leak count.
+     */
+    public long getLeakCount() { return leakCount; }
+
+    /**
+     * Gets the histogram of the time callers spent waiting for a connection.
+     *
+     * @return The borrow latency histogram.
+     */
+    public LatencyHistogram.Snapshot getBorrowLatency() { return borrowLatency; }
+
+    /**
+     * Gets the counters of the prepared statement caches. The size is the number of idle
+     * statements cached across all connections, the capacity is the limit per connection.
+     *
+     * @return The statement cache statistics.
+     */
+    public CacheStatistics getStatementCache() { return statementCache; }
+}
@@ -0,0 +1,403 @@
+package com.leanx.app.utils.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Wraps JDBC connections so that every statement executed through them is recorded in
+ * {@link QueryMetrics}: the execution time, failures and the number of rows returned by
+ * queries or affected by updates, grouped by the normalized SQL of the statement.
+ * Executions are also kept within their time budget by {@link QueryTimeouts}.
+ * <p>
+ * Connections to the primary can also track writes: every successful execution that is not a
+ * query, and every commit of a transaction that wrote, is recorded in {@link ReadYourWrites},
+ * so that only sessions that actually wrote read from the primary afterwards.
+ * <p>
+ * Every connection belongs to a {@link ConnectionGuard.Lease}: the outcome of each execution and
+ * commit is recorded in the circuit breaker of the database, and the permit of the bulkhead is
+ * released when the connection is closed.
+ * <p>
+ * The proxies only observe the calls and otherwise delegate everything to the wrapped
+ * objects, so the behaviour of the connection, including the statement caching of the
+ * {@link ConnectionPool}, is unchanged.
+ */
+public final class QueryInstrumentation {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final Pattern READ_ONLY_SQL = Pattern.compile("^[\\s(]*(SELECT|SHOW|EXPLAIN|DESCRIBE|DESC)\\b", Pattern.CASE_INSENSITIVE);
+
+    private QueryInstrumentation() {}
+
+    /**
+     * Wraps the given connection.
+     *
+     * @param lease       The lease of the connection to instrument.
+     * @param trackWrites Whether writes through the connection are recorded in {@link ReadYourWrites}.
+     * @return A proxy of the connection recording the statements executed through it.
+     */
+    public static Connection wrap(ConnectionGuard.Lease lease, boolean trackWrites) {
+        return proxy(Connection.class, new ConnectionHandler(lease, trackWrites));
+    }
+
+    /**
+     * Checks whether a statement executed with {@code execute} may write, which is assumed for
+     * everything but queries.
+     */
+    private static boolean isWrite(String method, String sql) {
+        return switch (method) {
+            case "executeQuery" -> false;
+            case "execute" -> sql == null || !READ_ONLY_SQL.matcher(sql).lookingAt();
+            default -> true;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryInstrumentation.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Looks up the time budget of the application method running a statement, unless time budgets are disabled.
+     */
+    private static long budgetForCaller() {
+        return QueryTimeouts.ENABLED ? QueryTimeouts.budgetForCaller() : 0;
+    }
+
+    /**
+     * Looks up the metrics entry of the given SQL, unless neither metrics nor time budgets need it.
+     */
+    private static QueryMetrics.Entry entry(String sql) {
+        return QueryMetrics.ENABLED || QueryTimeouts.ENABLED ? QueryMetrics.entry(sql) : null;
+    }
+
+    /**
+     * Invocation handler of the connection proxies, wrapping every statement created,
+     * recording commits of transactions that wrote and releasing the lease on close.
+     */
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final ConnectionGuard.Lease lease;
+        private final Connection connection;
+        private final boolean trackWrites;
+        private boolean wrote;
+
+        private ConnectionHandler(ConnectionGuard.Lease lease, boolean trackWrites) {
+            this.lease = lease;
+            this.connection = lease.getConnection();
+            this.trackWrites = trackWrites;
+        }
+
+        /**
+         * Runs a call on the connection or one of its statements and records its outcome in the lease.
+         */
+        private Object guarded(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                Object result = QueryInstrumentation.invoke(target, method, args);
+                lease.record(null);
+                return result;
+            } catch (SQLException e) {
+                lease.record(e);
+                throw e;
+            }
+        }
+
+        private void recordWrite() {
+            if (trackWrites) {
+                wrote = true;
+                ReadYourWrites.recordWrite();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                case "prepareCall": {
+                    Statement statement = (Statement) QueryInstrumentation.invoke(connection, method, args);
+                    String sql = (String) args[0];
+                    return proxy(method.getReturnType(),
+                        new StatementHandler(statement, (Connection) proxy, this, sql, entry(sql), budgetForCaller()));
+                }
+                case "createStatement": {
+                    Statement statement = (Statement) QueryInstrumentation.invoke(connection, method, args);
+                    return proxy(Statement.class, new StatementHandler(statement, (Connection) proxy, this, null, null, 0));
+                }
+                case "commit": {
+                    Object result = guarded(connection, method, args);
+                    if (wrote) {
+                        // reads after the commit must see it, so the write is dated to the commit
+                        ReadYourWrites.recordWrite();
+                        wrote = false;
+                    }
+                    return result;
+                }
+                case "rollback":
+                    if (args == null) {
+                        wrote = false;
+                    }
+                    return QueryInstrumentation.invoke(connection, method, args);
+                case "close":
+                    try {
+                        return QueryInstrumentation.invoke(connection, method, args);
+                    } finally {
+                        lease.release();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "InstrumentedConnection[" + connection + "]";
+                default:
+                    return QueryInstrumentation.invoke(connection, method, args);
+            }
+        }
+    }
+
+    /**
+     * Invocation handler of the statement proxies, timing every execution. Prepared and
+     * callable statements are recorded under the SQL they were prepared with, plain statements
+     * under the SQL passed to each execution.
+     */
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final Connection connectionProxy;
+        private final ConnectionHandler connectionHandler;
+        private final String preparedSql;
+        private final QueryMetrics.Entry preparedEntry;
+        private final long preparedBudget;
+        private final Map<Integer, String> parameterTypes = new TreeMap<>();
+        private int batchSize;
+        private QueryMetrics.Entry lastEntry;
+        private ResultSet resultSet;
+        private ResultSet resultSetProxy;
+        private ResultSetHandler resultSetHandler;
+
+        private StatementHandler(Statement statement, Connection connectionProxy, ConnectionHandler connectionHandler,
+                                 String preparedSql, QueryMetrics.Entry preparedEntry, long preparedBudget) {
+            this.statement = statement;
+            this.connectionProxy = connectionProxy;
+            this.connectionHandler = connectionHandler;
+            this.preparedSql = preparedSql;
+            this.preparedEntry = preparedEntry;
+            this.preparedBudget = preparedBudget;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(proxy, method, args);
+            }
+
+            switch (name) {
+                case "getResultSet":
+                    return wrapResultSet((ResultSet) QueryInstrumentation.invoke(statement, method, args), proxy, lastEntry);
+                case "getConnection":
+                    return connectionProxy;
+                case "addBatch":
+                    batchSize++;
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    break;
+                case "clearParameters":
+                    parameterTypes.clear();
+                    break;
+                case "close":
+                    closeResultSet();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "InstrumentedStatement[" + statement + "]";
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        parameterTypes.put(index, parameterType(name, args[1]));
+                    }
+                    break;
+            }
+            return QueryInstrumentation.invoke(statement, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            closeResultSet();
+            QueryMetrics.Entry entry = currentEntry(args);
+            lastEntry = entry;
+            int executedBatchSize = batchSize;
+            if (method.getName().contains("Batch")) {
+                batchSize = 0;
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+            Object result;
+            try {
+                result = QueryTimeouts.ENABLED
+                    ? QueryTimeouts.execute(statement, entry, preparedSql != null ? preparedBudget : budgetForCaller(),
+                        () -> connectionHandler.guarded(statement, method, args))
+                    : connectionHandler.guarded(statement, method, args);
+                failed = false;
+            } finally {
+                if (entry != null && QueryMetrics.ENABLED) {
+                    entry.record(System.nanoTime() - start, failed, () -> parameterShape(executedBatchSize));
+                }
+            }
+
+            if (isWrite(method.getName(), preparedSql != null ? preparedSql : sqlArgument(args))) {
+                connectionHandler.recordWrite();
+            }
+
+            if (entry != null && QueryMetrics.ENABLED) {
+                if (result instanceof ResultSet rs) {
+                    return wrapResultSet(rs, proxy, entry);
+                } else if (result instanceof Integer count) {
+                    entry.addRows(count);
+                } else if (result instanceof Long count) {
+                    entry.addRows(count);
+                } else if (result instanceof int[] counts) {
+                    for (int count : counts) {
+                        entry.addRows(count);
+                    }
+                } else if (result instanceof long[] counts) {
+                    for (long count : counts) {
+                        entry.addRows(count);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static String sqlArgument(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+        }
+
+        private QueryMetrics.Entry currentEntry(Object[] args) {
+            if (preparedEntry != null) {
+                return preparedEntry;
+            }
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                return entry(sql);
+            }
+            return null;
+        }
+
+        private ResultSet wrapResultSet(ResultSet rs, Object statementProxy, QueryMetrics.Entry entry) {
+            if (rs == null || entry == null) {
+                return rs;
+            }
+            if (rs == resultSet) {
+                return resultSetProxy;
+            }
+
+            closeResultSet();
+            resultSet = rs;
+            resultSetHandler = new ResultSetHandler(rs, statementProxy, entry);
+            resultSetProxy = proxy(ResultSet.class, resultSetHandler);
+            return resultSetProxy;
+        }
+
+        /**
+         * Records the rows read from the current result set, which is closed implicitly
+         * when the statement is executed again or closed.
+         */
+        private void closeResultSet() {
+            if (resultSetHandler != null) {
+                resultSetHandler.flush();
+            }
+            resultSet = null;
+            resultSetProxy = null;
+            resultSetHandler = null;
+        }
+
+        private String parameterShape(int executedBatchSize) {
+            String shape = parameterTypes.isEmpty() ? "none" : parameterTypes.toString();
+            return executedBatchSize > 0 ? shape + " x " + executedBatchSize + " batched rows" : shape;
+        }
+
+        private static String parameterType(String setter, Object value) {
+            if ("setObject".equals(setter) && value != null) {
+                return value.getClass().getSimpleName();
+            }
+            if ("setNull".equals(setter) || value == null) {
+                return "null";
+            }
+            return setter.substring(3);
+        }
+    }
+
+    /**
+     * Invocation handler of the result set proxies, counting the rows read.
+     */
+    private static class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet resultSet;
+        private final Object statementProxy;
+        private final QueryMetrics.Entry entry;
+        private long rows;
+        private boolean flushed;
+
+        private ResultSetHandler(ResultSet resultSet, Object statementProxy, QueryMetrics.Entry entry) {
+            this.resultSet = resultSet;
+            this.statementProxy = statementProxy;
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    Object hasNext = QueryInstrumentation.invoke(resultSet, method, args);
+                    if (Boolean.TRUE.equals(hasNext)) {
+                        rows++;
+                    }
+                    return hasNext;
+                }
+                case "close":
+                    flush();
+                    break;
+                case "getStatement":
+                    return statementProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "InstrumentedResultSet[" + resultSet + "]";
+                default:
+                    break;
+            }
+            return QueryInstrumentation.invoke(resultSet, method, args);
+        }
+
+        private void flush() {
+            if (!flushed) {
+                flushed = true;
+                entry.addRows(rows);
+            }
+        }
+    }
+}
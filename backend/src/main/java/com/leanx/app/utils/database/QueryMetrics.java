@@ -0,0 +1,234 @@
+package com.leanx.app.utils.database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * Registry of the execution counters of all SQL statements run through connections
+ * instrumented by {@link QueryInstrumentation}.
+ * <p>
+ * Statements are grouped by their normalized SQL text, in which literals are replaced by
+ * {@code ?} and {@code IN} lists are collapsed, so that the same query issued with different
+ * values is counted once. At most {@link #MAX_STATEMENTS} statements are tracked; further
+ * statements are counted under {@link #OTHER}.
+ * <p>
+ * Executions taking at least {@link #SLOW_QUERY_THRESHOLD_MILLIS} are written to the slow
+ * query log, the logger named {@code com.leanx.app.utils.database.QueryMetrics.slow}, together
+ * with the types of their bind parameters. Parameter values are never logged.
+ */
+public final class QueryMetrics {
+
+    private static final Logger slowQueryLogger = Logger.getLogger(QueryMetrics.class.getName() + ".slow");
+
+    /**
+     * Whether connections are instrumented, retrieved from the optional
+     * 'RDS_MYSQL_QUERY_METRICS' environment variable.
+     */
+    public static final boolean ENABLED = EnvironmentUtils.getBoolean("RDS_MYSQL_QUERY_METRICS", true);
+
+    /**
+     * The execution time from which a statement is written to the slow query log, retrieved
+     * from the optional 'RDS_MYSQL_SLOW_QUERY_MS' environment variable.
+     */
+    public static final long SLOW_QUERY_THRESHOLD_MILLIS = EnvironmentUtils.getLong("RDS_MYSQL_SLOW_QUERY_MS", 500);
+
+    /** The maximum number of distinct statements tracked. */
+    public static final int MAX_STATEMENTS = 1_000;
+
+    /** The SQL under which statements beyond {@link #MAX_STATEMENTS} are counted. */
+    public static final String OTHER = "<other>";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final long SLOW_QUERY_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(SLOW_QUERY_THRESHOLD_MILLIS);
+
+    private static final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Entry> entriesBySql = new ConcurrentHashMap<>();
+    private static volatile LatencyHistogram acquireLatency = new LatencyHistogram();
+
+    private QueryMetrics() {}
+
+    /**
+     * Returns the counters of the given SQL statement, creating them on first use.
+     *
+     * @param sql The SQL statement as passed to the driver.
+     * @return The {@link Entry} of the normalized statement.
+     */
+    static Entry entry(String sql) {
+        Entry entry = entriesBySql.get(sql);
+        if (entry != null) {
+            return entry;
+        }
+
+        String normalized = normalize(sql);
+        if (!entries.containsKey(normalized) && entries.size() >= MAX_STATEMENTS) {
+            normalized = OTHER;
+        }
+        entry = entries.computeIfAbsent(normalized, key -> new Entry(key, findSource()));
+        if (entriesBySql.size() < 4 * MAX_STATEMENTS) {
+            entriesBySql.putIfAbsent(sql, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Normalizes an SQL statement by replacing literals with {@code ?}, collapsing {@code IN}
+     * lists to a single placeholder and collapsing whitespace.
+     *
+     * @param sql The SQL statement.
+     * @return The normalized SQL.
+     */
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return IN_LIST.matcher(normalized).replaceAll("IN (?...)");
+    }
+
+    /**
+     * Finds the application method that executes a statement, skipping the database utilities
+     * and the generic repository helpers.
+     *
+     * @return The simple class name and method name, or {@code "unknown"}.
+     */
+    static String findSource() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(frame -> frame.getClassName().startsWith("com.leanx.app.")
+                && !frame.getClassName().startsWith("com.leanx.app.utils.")
+                && !frame.getClassName().startsWith("com.leanx.app.repository.base."))
+            .findFirst()
+            .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) + "." + frame.getMethodName())
+            .orElse("unknown"));
+    }
+
+    /**
+     * Records the time it took to borrow a connection.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public static void recordAcquire(long nanos) {
+        acquireLatency.record(nanos);
+    }
+
+    /**
+     * Gets the histogram of the time it took to borrow connections from the primary
+     * and replica pools.
+     *
+     * @return The latency {@link LatencyHistogram.Snapshot}.
+     */
+    public static LatencyHistogram.Snapshot getAcquireLatency() {
+        return acquireLatency.snapshot();
+    }
+
+    /**
+     * Creates snapshots of the counters of the statements that took the most time in total.
+     *
+     * @param limit The maximum number of statements to return.
+     * @return The {@link QueryStatistics}, ordered by total execution time, descending.
+     */
+    public static List<QueryStatistics> getStatistics(int limit) {
+        List<QueryStatistics> statistics = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            statistics.add(entry.snapshot());
+        }
+        statistics.sort(Comparator.comparingDouble(QueryStatistics::getTotalMillis).reversed());
+        return statistics.size() > limit ? new ArrayList<>(statistics.subList(0, limit)) : statistics;
+    }
+
+    /**
+     * Gets the number of distinct statements tracked.
+     *
+     * @return The number of statements.
+     */
+    public static int getStatementCount() {
+        return entries.size();
+    }
+
+    /**
+     * Discards all counters, e.g. before measuring a specific load.
+     */
+    public static void reset() {
+        entriesBySql.clear();
+        entries.clear();
+        acquireLatency = new LatencyHistogram();
+    }
+
+    /**
+     * The counters of one normalized SQL statement.
+     */
+    static final class Entry {
+
+        private final String sql;
+        private final String source;
+        private final LongAdder callCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder timeoutCount = new LongAdder();
+        private final LongAdder rowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private Entry(String sql, String source) {
+            this.sql = sql;
+            this.source = source;
+        }
+
+        /**
+         * Records an execution that was cancelled because it exceeded its time budget or the
+         * deadline of its request.
+         */
+        void recordTimeout() {
+            timeoutCount.increment();
+        }
+
+        /**
+         * Records one execution and writes it to the slow query log if it exceeded the threshold.
+         *
+         * @param nanos          The execution time in nanoseconds.
+         * @param failed         Whether the execution failed.
+         * @param parameterShape The types of the bind parameters, only evaluated for slow executions.
+         */
+        void record(long nanos, boolean failed, Supplier<String> parameterShape) {
+            callCount.increment();
+            totalNanos.add(nanos);
+            latency.record(nanos);
+            if (failed) {
+                errorCount.increment();
+            }
+            if (SLOW_QUERY_THRESHOLD_NANOS > 0 && nanos >= SLOW_QUERY_THRESHOLD_NANOS) {
+                slowCount.increment();
+                slowQueryLogger.log(Level.WARNING, "Slow query ({0} ms{1}) in {2}: {3} parameters: {4}", new Object[]{
+                    TimeUnit.NANOSECONDS.toMillis(nanos), failed ? ", failed" : "", source, sql, parameterShape.get()});
+            }
+        }
+
+        /**
+         * Adds rows returned by a query or affected by an update.
+         *
+         * @param rows The number of rows.
+         */
+        void addRows(long rows) {
+            if (rows > 0) {
+                rowCount.add(rows);
+            }
+        }
+
+        private QueryStatistics snapshot() {
+            return new QueryStatistics(sql, source, callCount.sum(), errorCount.sum(), slowCount.sum(), timeoutCount.sum(),
+                rowCount.sum(), totalNanos.sum() / 1_000_000.0, latency.snapshot());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.leanx.app.utils.database;
+
+/**
+ * Immutable point-in-time snapshot of the counters of one normalized SQL statement.
+ * Counters are cumulative since the application started or the metrics were last reset.
+ */
+public class QueryStatistics {
+
+    private final String sql;
+    private final String source;
+    private final long callCount;
+    private final long errorCount;
+    private final long slowCount;
+    private final long timeoutCount;
+    private final long rowCount;
+    private final double totalMillis;
+    private final LatencyHistogram.Snapshot latency;
+
+    /**
+     * Constructs a new {@code QueryStatistics} snapshot.
+     *
+     * @param sql          The normalized SQL statement.
+     * @param source       The class and method that first executed the statement.
+     * @param callCount    The number of executions.
+     * @param errorCount   The number of executions that failed.
+     * @param slowCount    The number of executions that exceeded the slow query threshold.
+     * @param timeoutCount The number of executions cancelled because they exceeded their time budget.
+     * @param rowCount     The number of rows returned by queries or affected by updates.
+     * @param totalMillis  The total execution time in milliseconds.
+     * @param latency      The histogram of the execution times.
+     */
+    public QueryStatistics(String sql, String source, long callCount, long errorCount, long slowCount, long timeoutCount,
+                           long rowCount, double totalMillis, LatencyHistogram.Snapshot latency) {
+        this.sql = sql;
+        this.source = source;
+        this.callCount = callCount;
+        this.errorCount = errorCount;
+        this.slowCount = slowCount;
+        this.timeoutCount = timeoutCount;
+        this.rowCount = rowCount;
+        this.totalMillis = totalMillis;
+        this.latency = latency;
+    }
+
+    /**
+     * Gets the normalized SQL statement, with literals replaced by {@code ?}.
+     *
+     * @return The normalized SQL.
+     */
+    public String getSql() { return sql; }
+
+    /**
+     * Gets the class and method that first executed the statement.
+     *
+     * @return The source, e.g. {@code EmployeeRepository.findSubordinates}.
+     */
+    public String getSource() { return source; }
+
+    /**
+     * Gets the number of executions.
+     *
+     * @return The number of calls.
+     */
+    public long getCallCount() { return callCount; }
+
+    /**
+     * Gets the number of executions that failed.
+     *
+     * @return The number of errors.
+     */
+    public long getErrorCount() { return errorCount; }
+
+    /**
+     * Gets the number of executions that exceeded the slow query threshold.
+     *
+     * @return The number of slow calls.
+     */
+    public long getSlowCount() { return slowCount; }
+
+    /**
+     * Gets the number of executions cancelled because they exceeded their time budget or the
+     * deadline of their request.
+     *
+     * @return The number of timeouts.
+     */
+    public long getTimeoutCount() { return timeoutCount; }
+
+    /**
+     * Gets the number of rows returned by queries or affected by updates.
+     *
+     * @return The number of rows.
+     */
+    public long getRowCount() { return rowCount; }
+
+    /**
+     * Gets the total execution time.
+     *
+     * @return The total time in milliseconds.
+     */
+    public double getTotalMillis() { return totalMillis; }
+
+    /**
+     * Gets the histogram of the execution times.
+     *
+     * @return The latency {@link LatencyHistogram.Snapshot}.
+     */
+    public LatencyHistogram.Snapshot getLatency() { return latency; }
+}
@@ -0,0 +1,232 @@
+package com.leanx.app.utils.database;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * Enforces time limits on the statements executed through connections instrumented by
+ * {@link QueryInstrumentation}.
+ * <p>
+ * Every execution gets a budget: the budget configured for the repository method executing the
+ * statement in 'RDS_MYSQL_QUERY_BUDGETS', or {@link #DEFAULT_TIMEOUT_MILLIS}. The method is looked
+ * up for every prepared statement, since the same SQL may be run by methods with different budgets. Within a request
+ * the budget is shortened to the time left until the {@link RequestDeadline}. A statement that
+ * exceeds its budget is cancelled with {@link Statement#cancel()} and fails with an
+ * {@link SQLTimeoutException}; the timeout is counted in the {@link QueryMetrics} of the statement.
+ * Statements of a cancelled request are cancelled as well.
+ * <p>
+ * Budgets apply to the execution of a statement. Rows of a streamed result set that are read
+ * after the execution returned are not covered.
+ */
+public final class QueryTimeouts {
+
+    private static final Logger logger = Logger.getLogger(QueryTimeouts.class.getName());
+
+    /**
+     * The budget of statements without a configured budget, retrieved from the optional
+     * 'RDS_MYSQL_QUERY_TIMEOUT_MS' environment variable. {@code 0} disables the default budget.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = EnvironmentUtils.getLong("RDS_MYSQL_QUERY_TIMEOUT_MS", 30_000);
+
+    /**
+     * The time a request may spend on database calls, retrieved from the optional
+     * 'RDS_MYSQL_REQUEST_DEADLINE_MS' environment variable. {@code 0} disables request deadlines.
+     */
+    public static final long REQUEST_DEADLINE_MILLIS = EnvironmentUtils.getLong("RDS_MYSQL_REQUEST_DEADLINE_MS", 30_000);
+
+    /**
+     * The budgets of the queries known to be expensive, overridden by the
+     * 'RDS_MYSQL_QUERY_BUDGETS' environment variable.
+     */
+    private static final String DEFAULT_BUDGETS = "EmployeeRepository.findSubordinates=5000,EmployeeRepository.findByName=2000,EmployeeRepository.findByNameFullText=2000";
+
+    private static final Map<String, Long> budgets = parseBudgets(EnvironmentUtils.getString("RDS_MYSQL_QUERY_BUDGETS", DEFAULT_BUDGETS));
+
+    /** Whether any time limit is configured, in which case connections are instrumented even without query metrics. */
+    public static final boolean ENABLED = DEFAULT_TIMEOUT_MILLIS > 0 || REQUEST_DEADLINE_MILLIS > 0 || !budgets.isEmpty();
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leanx-db-query-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private QueryTimeouts() {}
+
+    /**
+     * A statement execution, e.g. a call of {@code executeQuery}.
+     */
+    @FunctionalInterface
+    interface Execution {
+
+        /**
+         * Runs the execution.
+         *
+         * @return The result of the execution.
+         * @throws Throwable If the execution fails.
+         */
+        Object run() throws Throwable;
+    }
+
+    /**
+     * Parses budgets given as comma separated {@code Class.method=millis} entries.
+     *
+     * @param value The configured budgets.
+     * @return The budgets in milliseconds, keyed by the simple class name and method name.
+     */
+    private static Map<String, Long> parseBudgets(String value) {
+        Map<String, Long> parsed = new HashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2 || parts[0].isBlank()) {
+                continue;
+            }
+            try {
+                parsed.put(parts[0].trim(), Long.parseLong(parts[1].trim()));
+            } catch (NumberFormatException e) {
+                logger.log(Level.WARNING, "Ignoring invalid query budget: {0}", entry);
+            }
+        }
+        return Collections.unmodifiableMap(parsed);
+    }
+
+    /**
+     * Gets the budget of the statements executed by the calling application method. The stack
+     * is only walked if any budget is configured.
+     *
+     * @return The budget in milliseconds, {@code 0} for none.
+     */
+    static long budgetForCaller() {
+        return budgets.isEmpty() ? DEFAULT_TIMEOUT_MILLIS : budgets.getOrDefault(QueryMetrics.findSource(), DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Runs a statement execution within its budget and the deadline of the current request.
+     *
+     * @param statement The statement being executed.
+     * @param entry     The {@link QueryMetrics.Entry} of the statement, or {@code null} if unknown.
+     * @param budget    The budget of the statement in milliseconds, {@code 0} for none.
+     * @param execution The execution.
+     * @return The result of the execution.
+     * @throws SQLTimeoutException If the budget or the request deadline was exceeded.
+     * @throws SQLException        If the request was cancelled.
+     * @throws Throwable           If the execution fails otherwise.
+     */
+    static Object execute(Statement statement, QueryMetrics.Entry entry, long budget, Execution execution) throws Throwable {
+        RequestDeadline deadline = RequestDeadline.current();
+        long timeout = budget;
+        boolean limitedByDeadline = false;
+
+        if (deadline != null) {
+            long remaining = deadline.getRemainingMillis();
+            if (deadline.isCancelled()) {
+                throw new SQLException("Query cancelled because the request was aborted", "70100");
+            }
+            if (remaining <= 0) {
+                if (entry != null) {
+                    entry.recordTimeout();
+                }
+                throw new SQLTimeoutException("Request deadline exceeded before the query was executed");
+            }
+            if (timeout <= 0 || remaining < timeout) {
+                timeout = remaining;
+                limitedByDeadline = true;
+            }
+        }
+
+        RunningStatement running = new RunningStatement(statement);
+        Runnable canceller = running::cancel;
+        ScheduledFuture<?> timeoutTask = timeout > 0 ? timer.schedule(running::timeOut, timeout, TimeUnit.MILLISECONDS) : null;
+        if (deadline != null) {
+            deadline.register(canceller);
+        }
+        try {
+            if (deadline != null && deadline.isCancelled()) {
+                throw new SQLException("Query cancelled because the request was aborted", "70100");
+            }
+            return execution.run();
+        } catch (SQLException e) {
+            if (running.isTimedOut()) {
+                if (entry != null) {
+                    entry.recordTimeout();
+                }
+                throw new SQLTimeoutException("Query exceeded its " + (limitedByDeadline ? "request deadline" : "time budget")
+                    + " of " + timeout + " ms", e.getSQLState(), e.getErrorCode(), e);
+            }
+            if (running.isCancelled()) {
+                throw new SQLException("Query cancelled because the request was aborted", "70100", e);
+            }
+            throw e;
+        } finally {
+            running.finish();
+            if (timeoutTask != null) {
+                timeoutTask.cancel(false);
+            }
+            if (deadline != null) {
+                deadline.unregister(canceller);
+            }
+        }
+    }
+
+    /**
+     * Tracks one execution, so that a statement is only cancelled while it is executing and
+     * never after it finished, when the cancellation could hit the next statement of the connection.
+     */
+    private static final class RunningStatement {
+
+        private final Statement statement;
+        private boolean finished;
+        private boolean timedOut;
+        private boolean cancelled;
+
+        private RunningStatement(Statement statement) {
+            this.statement = statement;
+        }
+
+        private synchronized void timeOut() {
+            if (!finished) {
+                timedOut = true;
+                cancelStatement();
+            }
+        }
+
+        private synchronized void cancel() {
+            if (!finished) {
+                cancelled = true;
+                cancelStatement();
+            }
+        }
+
+        private synchronized void finish() {
+            finished = true;
+        }
+
+        private synchronized boolean isTimedOut() {
+            return timedOut;
+        }
+
+        private synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void cancelStatement() {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to cancel statement: {0}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.leanx.app.utils.database;
+
+import java.util.List;
+
+/**
+ * Immutable point-in-time snapshot of the routing of read-only queries by a {@link ReplicaRouter}.
+ * Counters are cumulative since the router was created.
+ */
+public class ReadRoutingStatistics {
+
+    private final long replicaReadCount;
+    private final long stickyReadCount;
+    private final long fallbackReadCount;
+    private final long maxLagSeconds;
+    private final List<Replica> replicas;
+
+    /**
+     * Constructs a new {@code ReadRoutingStatistics} snapshot.
+     *
+     * @param replicaReadCount  The number of reads served by a replica.
+     * @param stickyReadCount   The number of reads served by the primary because the session wrote recently.
+     * @param fallbackReadCount The number of reads served by the primary because no replica was available.
+     * @param maxLagSeconds     The maximum replication lag of a replica that still serves reads.
+     * @param replicas          The state of each replica.
+     */
+    public ReadRoutingStatistics(long replicaReadCount, long stickyReadCount, long fallbackReadCount, long maxLagSeconds,
+                                 List<Replica> replicas) {
+        this.replicaReadCount = replicaReadCount;
+        this.stickyReadCount = stickyReadCount;
+        this.fallbackReadCount = fallbackReadCount;
+        this.maxLagSeconds = maxLagSeconds;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    /**
+     * Gets the number of reads served by a replica.
+     *
+     * @return The number of replica reads.
+     */
+    public long getReplicaReadCount() { return replicaReadCount; }
+
+    /**
+     * Gets the number of reads served by the primary because the session wrote recently.
+     *
+     * @return The number of sticky reads.
+     */
+    public long getStickyReadCount() { return stickyReadCount; }
+
+    /**
+     * Gets the number of reads served by the primary because no replica was available.
+     * Reads are never counted here if no replica is configured.
+     *
+     * @return The number of fallback reads.
+     */
+    public long getFallbackReadCount() { return fallbackReadCount; }
+
+    /**
+     * Gets the maximum replication lag of a replica that still serves reads.
+     *
+     * @return The maximum lag in seconds.
+     */
+    public long getMaxLagSeconds() { return maxLagSeconds; }
+
+    /**
+     * Gets the state of each replica.
+     *
+     * @return The replica states, in the configured order.
+     */
+    public List<Replica> getReplicas() { return replicas; }
+
+    /**
+     * Immutable snapshot of the state of a single read replica.
+     */
+    public static class Replica {
+
+        private final boolean available;
+        private final Long lagSeconds;
+        private final long readCount;
+        private final PoolStatistics pool;
+
+        /**
+         * Constructs a new {@code Replica} snapshot.
+         *
+         * @param available  Whether the replica currently serves reads.
+         * @param lagSeconds The last measured replication lag, or {@code null} if unknown.
+         * @param readCount  The number of reads served by the replica.
+         * @param pool       The statistics of the connection pool of the replica.
+         */
+        public Replica(boolean available, Long lagSeconds, long readCount, PoolStatistics pool) {
+            this.available = available;
+            this.lagSeconds = lagSeconds;
+            this.readCount = readCount;
+            this.pool = pool;
+        }
+
+        /**
+         * Checks whether the replica currently serves reads.
+         *
+         * @return {@code true} if the replica is reachable and within the lag limit.
+         */
+        public boolean isAvailable() { return available; }
+
+        /**
+         * Gets the last measured replication lag.
+         *
+         * @return The lag in seconds, or {@code null} if it is unknown or replication is stopped.
+         */
+        public Long getLagSeconds() { return lagSeconds; }
+
+        /**
+         * Gets the number of reads served by the replica.
+         *
+         * @return The number of reads.
+         */
+        public long getReadCount() { return readCount; }
+
+        /**
+         * Gets the statistics of the connection pool of the replica.
+         *
+         * @return The {@link PoolStatistics} of the replica.
+         */
+        public PoolStatistics getPool() { return pool; }
+    }
+}
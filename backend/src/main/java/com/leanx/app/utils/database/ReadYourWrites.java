@@ -0,0 +1,66 @@
+package com.leanx.app.utils.database;
+
+/**
+ * Tracks the time of the last write of the current thread, so that reads following
+ * a write are served by the primary until the read replicas have caught up.
+ * <p>
+ * Within a web request the time is restored from and saved back to the HTTP session by
+ * {@link ReadYourWritesFilter}, which extends the guarantee to all requests of a session.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> lastWriteAt = new ThreadLocal<>();
+
+    private ReadYourWrites() {}
+
+    /**
+     * Records that the current thread may have written to the primary database.
+     */
+    public static void recordWrite() {
+        lastWriteAt.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Restores the time of the last write of the session the current thread works for,
+     * unless the thread already recorded a later write.
+     *
+     * @param writeAt The time of the last write in milliseconds since the epoch, or {@code null}.
+     */
+    public static void restore(Long writeAt) {
+        Long current = lastWriteAt.get();
+        if (writeAt != null && (current == null || writeAt > current)) {
+            lastWriteAt.set(writeAt);
+        }
+    }
+
+    /**
+     * Gets the time of the last write of the current thread.
+     *
+     * @return The time in milliseconds since the epoch, or {@code null} if no write was recorded.
+     */
+    public static Long getLastWriteAt() {
+        return lastWriteAt.get();
+    }
+
+    /**
+     * Removes the time of the last write from the current thread.
+     *
+     * @return The time in milliseconds since the epoch, or {@code null} if no write was recorded.
+     */
+    public static Long clear() {
+        Long writeAt = lastWriteAt.get();
+        lastWriteAt.remove();
+        return writeAt;
+    }
+
+    /**
+     * Checks whether the current thread wrote to the primary within the given window.
+     *
+     * @param windowMillis The time after a write during which reads must use the primary.
+     * @return {@code true} if reads of the current thread must use the primary.
+     */
+    static boolean isWithin(long windowMillis) {
+        Long writeAt = lastWriteAt.get();
+        return writeAt != null && System.currentTimeMillis() - writeAt < windowMillis;
+    }
+}
@@ -0,0 +1,60 @@
+package com.leanx.app.utils.database;
+
+import java.io.IOException;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Servlet filter that carries the time of the last database write of a session across
+ * requests. Before a request is processed, the time stored in the session is bound to the
+ * request thread through {@link ReadYourWrites}; afterwards a newer write time is stored
+ * back in the session. Reads of a session therefore keep using the primary database for a
+ * short while after the session wrote, even if the next request is served by another thread.
+ */
+@WebFilter(urlPatterns = "/api/*", asyncSupported = true)
+public class ReadYourWritesFilter implements Filter {
+
+    /** The name of the session attribute holding the time of the last write. */
+    public static final String SESSION_ATTRIBUTE = "lastDatabaseWriteAt";
+
+    /**
+     * Binds the last write time of the session to the request thread for the duration of the request.
+     *
+     * @param request  The {@code ServletRequest} object representing the client's request.
+     * @param response The {@code ServletResponse} object representing the server's response.
+     * @param chain    The {@code FilterChain} to pass the request on to.
+     * @throws IOException      If an I/O error occurs during the processing of the request.
+     * @throws ServletException If a servlet-specific error occurs during the processing of the request.
+     */
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+
+        HttpSession session = httpRequest.getSession(false);
+        Long sessionWriteAt = session != null ? (Long) session.getAttribute(SESSION_ATTRIBUTE) : null;
+        ReadYourWrites.clear();
+        ReadYourWrites.restore(sessionWriteAt);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Long writeAt = ReadYourWrites.clear();
+            // the request may have created or invalidated the session, e.g. on login and logout
+            session = httpRequest.getSession(false);
+            if (writeAt != null && !writeAt.equals(sessionWriteAt) && session != null) {
+                try {
+                    session.setAttribute(SESSION_ATTRIBUTE, writeAt);
+                } catch (IllegalStateException e) {
+                    // session was invalidated while the request was processed
+                }
+            }
+        }
+    }
+}
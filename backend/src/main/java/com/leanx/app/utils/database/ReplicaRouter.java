@@ -0,0 +1,241 @@
+package com.leanx.app.utils.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Routes read-only queries to the connection pools of the read replicas.
+ * <p>
+ * Replicas are used round-robin. A background task periodically measures the replication
+ * lag of every replica; replicas that lag behind by more than the configured limit, whose
+ * replication is stopped or that cannot be reached are skipped until the next check.
+ * Reads fall back to the primary if no replica is available, and always use the primary
+ * for a while after the current thread or session wrote (see {@link ReadYourWrites}).
+ * <p>
+ * Connections are borrowed through the {@link ConnectionGuard} of their database: the replicas
+ * share a guard of their own, and reads fall back to the primary while it rejects them.
+ */
+public class ReplicaRouter implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ReplicaRouter.class.getName());
+
+    /** MySQL error code of a syntax error, returned by servers that predate {@code SHOW REPLICA STATUS}. */
+    private static final int ER_PARSE_ERROR = 1064;
+
+    private final ConnectionPool primary;
+    private final ConnectionGuard primaryGuard;
+    private final ConnectionGuard replicaGuard;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagSeconds;
+    private final long stickinessMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService lagMonitor;
+
+    private final LongAdder replicaReadCount = new LongAdder();
+    private final LongAdder stickyReadCount = new LongAdder();
+    private final LongAdder fallbackReadCount = new LongAdder();
+
+    /**
+     * Constructs a new {@code ReplicaRouter} and, if replicas are given, schedules the
+     * replication lag check. Replicas serve reads once their first check succeeded.
+     *
+     * @param primary                The connection pool of the primary database.
+     * @param primaryGuard           The guard of the connections to the primary.
+     * @param replicaPools           The connection pools of the read replicas, possibly empty.
+     * @param replicaGuard           The guard of the connections to the replicas.
+     * @param maxLagSeconds          The maximum replication lag of a replica that still serves reads.
+     * @param stickinessMillis       The time after a write during which reads use the primary.
+     * @param lagCheckIntervalMillis The interval between two replication lag checks.
+     */
+    public ReplicaRouter(ConnectionPool primary, ConnectionGuard primaryGuard, List<ConnectionPool> replicaPools,
+                         ConnectionGuard replicaGuard, long maxLagSeconds, long stickinessMillis, long lagCheckIntervalMillis) {
+        this.primary = primary;
+        this.primaryGuard = primaryGuard;
+        this.replicaGuard = replicaGuard;
+        this.maxLagSeconds = maxLagSeconds;
+        this.stickinessMillis = stickinessMillis;
+        for (ConnectionPool pool : replicaPools) {
+            replicas.add(new Replica(pool));
+        }
+
+        if (replicas.isEmpty()) {
+            this.lagMonitor = null;
+        } else {
+            this.lagMonitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "leanx-db-replica-lag");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.lagMonitor.scheduleWithFixedDelay(this::checkLag, 0, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Checks whether read replicas are configured, that is whether reads can be served by
+     * anything but the primary.
+     *
+     * @return {@code true} if at least one replica is configured.
+     */
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * Borrows a connection for read-only queries. The connection belongs to the next available
+     * replica, or to the primary if the current thread wrote recently or no replica is available.
+     * The caller must close the connection to give it back to its pool and then release the lease.
+     *
+     * @return The lease of a pooled {@link Connection} that must only be used for reads.
+     * @throws DatabaseUnavailableException If the guard of the primary rejects the call.
+     * @throws SQLException If no connection can be borrowed from the primary.
+     */
+    public ConnectionGuard.Lease getConnection() throws SQLException {
+        if (replicas.isEmpty()) {
+            return primaryGuard.borrow(primary::getConnection);
+        }
+        if (ReadYourWrites.isWithin(stickinessMillis)) {
+            stickyReadCount.increment();
+            return primaryGuard.borrow(primary::getConnection);
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                ConnectionGuard.Lease lease = replicaGuard.borrow(replica.pool::getConnection);
+                replica.readCount.increment();
+                replicaReadCount.increment();
+                return lease;
+            } catch (DatabaseUnavailableException e) {
+                break;
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to borrow a connection from replica pool ''{0}'': {1}",
+                    new Object[]{replica.pool.getSettings().getPoolName(), e.getMessage()});
+            }
+        }
+
+        fallbackReadCount.increment();
+        return primaryGuard.borrow(primary::getConnection);
+    }
+
+    /**
+     * Background task measuring the replication lag of every replica and updating
+     * which replicas serve reads.
+     */
+    private void checkLag() {
+        for (Replica replica : replicas) {
+            String poolName = replica.pool.getSettings().getPoolName();
+            try {
+                Long lagSeconds = queryLag(replica);
+                boolean available = lagSeconds != null && lagSeconds <= maxLagSeconds;
+                if (available != replica.available) {
+                    logger.log(available ? Level.INFO : Level.WARNING, "Replica ''{0}'' {1} reads (lag: {2}s)",
+                        new Object[]{poolName, available ? "serves" : "no longer serves", lagSeconds});
+                }
+                replica.lagSeconds = lagSeconds;
+                replica.available = available;
+            } catch (SQLException | RuntimeException e) {
+                if (replica.available) {
+                    logger.log(Level.WARNING, "Replica ''{0}'' no longer serves reads, lag check failed: {1}",
+                        new Object[]{poolName, e.getMessage()});
+                }
+                replica.lagSeconds = null;
+                replica.available = false;
+            }
+        }
+    }
+
+    /**
+     * Queries the replication lag of a replica.
+     *
+     * @param replica The replica to check.
+     * @return The lag in seconds, {@code 0} if the server is no binary log replica (e.g. the reader
+     * endpoint of a cluster), or {@code null} if replication is stopped.
+     * @throws SQLException If the replica cannot be reached or the status cannot be read.
+     */
+    private Long queryLag(Replica replica) throws SQLException {
+        try (Connection c = replica.pool.getConnection();
+             Statement stmt = c.createStatement()) {
+            if (!replica.legacyStatus) {
+                try (ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+                    return readLag(rs, "Seconds_Behind_Source");
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != ER_PARSE_ERROR) {
+                        throw e;
+                    }
+                    replica.legacyStatus = true;
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SHOW SLAVE STATUS")) {
+                return readLag(rs, "Seconds_Behind_Master");
+            }
+        }
+    }
+
+    private static Long readLag(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return 0L;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+
+    /**
+     * Creates a snapshot of the routing counters and the state of every replica.
+     *
+     * @return The current {@link ReadRoutingStatistics}.
+     */
+    public ReadRoutingStatistics getStatistics() {
+        List<ReadRoutingStatistics.Replica> replicaStatistics = new ArrayList<>();
+        for (Replica replica : replicas) {
+            replicaStatistics.add(new ReadRoutingStatistics.Replica(replica.available, replica.lagSeconds,
+                replica.readCount.sum(), replica.pool.getStatistics()));
+        }
+        return new ReadRoutingStatistics(replicaReadCount.sum(), stickyReadCount.sum(), fallbackReadCount.sum(), maxLagSeconds,
+            replicaStatistics);
+    }
+
+    /**
+     * Stops the replication lag check and closes the connection pools of all replicas.
+     * The primary pool is not closed.
+     */
+    @Override
+    public void close() {
+        if (lagMonitor != null) {
+            lagMonitor.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    /**
+     * A read replica with the state maintained by the replication lag check.
+     */
+    private static class Replica {
+
+        private final ConnectionPool pool;
+        private final LongAdder readCount = new LongAdder();
+        private volatile boolean available;
+        private volatile Long lagSeconds;
+        private boolean legacyStatus;
+
+        private Replica(ConnectionPool pool) {
+            this.pool = pool;
+        }
+    }
+}
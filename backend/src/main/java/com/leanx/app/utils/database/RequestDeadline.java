@@ -0,0 +1,113 @@
+package com.leanx.app.utils.database;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The deadline of the request the current thread works for. Statements executed through
+ * instrumented connections never run past the deadline (see {@link QueryTimeouts}), and
+ * {@link #cancel()} aborts the statements of the request that are still running, e.g. when
+ * the client disconnected.
+ * <p>
+ * Within a web request the deadline is started by {@link RequestDeadlineFilter}; asynchronous
+ * database calls of the {@link DatabaseExecutor} inherit the deadline of the submitting thread.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> current = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final Set<Runnable> cancellers = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private RequestDeadline(long timeoutMillis) {
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Starts a deadline and binds it to the current thread.
+     *
+     * @param timeoutMillis The time the request may take.
+     * @return The new {@code RequestDeadline}.
+     */
+    public static RequestDeadline start(long timeoutMillis) {
+        RequestDeadline deadline = new RequestDeadline(timeoutMillis);
+        current.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * Gets the deadline bound to the current thread.
+     *
+     * @return The {@code RequestDeadline}, or {@code null} if the thread works for no request.
+     */
+    public static RequestDeadline current() {
+        return current.get();
+    }
+
+    /**
+     * Binds the given deadline to the current thread, e.g. in a task working for a request.
+     *
+     * @param deadline The deadline, or {@code null} to remove the deadline of the current thread.
+     */
+    public static void bind(RequestDeadline deadline) {
+        if (deadline != null) {
+            current.set(deadline);
+        } else {
+            current.remove();
+        }
+    }
+
+    /**
+     * Removes the deadline from the current thread.
+     */
+    public static void clear() {
+        current.remove();
+    }
+
+    /**
+     * Gets the time left until the deadline.
+     *
+     * @return The remaining time in milliseconds, zero or negative once the deadline passed.
+     */
+    public long getRemainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Checks whether the request was cancelled.
+     *
+     * @return {@code true} after {@link #cancel()}.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels the request: statements of the request that are still running are cancelled and
+     * statements executed afterwards fail immediately.
+     */
+    public void cancel() {
+        cancelled = true;
+        cancellers.forEach(Runnable::run);
+    }
+
+    /**
+     * Registers the canceller of a statement that starts executing for this request.
+     *
+     * @param canceller Cancels the statement while it is still executing.
+     */
+    void register(Runnable canceller) {
+        cancellers.add(canceller);
+    }
+
+    /**
+     * Unregisters the canceller of a statement that finished executing.
+     *
+     * @param canceller The canceller passed to {@link #register(Runnable)}.
+     */
+    void unregister(Runnable canceller) {
+        cancellers.remove(canceller);
+    }
+}
@@ -0,0 +1,89 @@
+package com.leanx.app.utils.database;
+
+import java.io.IOException;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+
+/**
+ * Servlet filter that starts the {@link RequestDeadline} of every API request, so that the
+ * statements executed for a request do not run longer than 'RDS_MYSQL_REQUEST_DEADLINE_MS'
+ * in total (see {@link QueryTimeouts}).
+ * <p>
+ * Servlet containers only report a client that went away for asynchronous requests. If a
+ * request is processed asynchronously, the statements still running for it are cancelled
+ * when the container reports an error or a timeout of the request; synchronous requests are
+ * bounded by the deadline alone.
+ */
+@WebFilter(urlPatterns = "/api/*", asyncSupported = true)
+public class RequestDeadlineFilter implements Filter {
+
+    /**
+     * Binds a new deadline to the request thread for the duration of the request.
+     *
+     * @param request  The {@code ServletRequest} object representing the client's request.
+     * @param response The {@code ServletResponse} object representing the server's response.
+     * @param chain    The {@code FilterChain} to pass the request on to.
+     * @throws IOException      If an I/O error occurs during the processing of the request.
+     * @throws ServletException If a servlet-specific error occurs during the processing of the request.
+     */
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (QueryTimeouts.REQUEST_DEADLINE_MILLIS <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestDeadline deadline = RequestDeadline.start(QueryTimeouts.REQUEST_DEADLINE_MILLIS);
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                try {
+                    request.getAsyncContext().addListener(new CancellingListener(deadline));
+                } catch (IllegalStateException e) {
+                    // the asynchronous processing already completed
+                }
+            }
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    /**
+     * Cancels the statements of an asynchronous request that failed or timed out.
+     */
+    private static class CancellingListener implements AsyncListener {
+
+        private final RequestDeadline deadline;
+
+        private CancellingListener(RequestDeadline deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // nothing left to cancel
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            deadline.cancel();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            deadline.cancel();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
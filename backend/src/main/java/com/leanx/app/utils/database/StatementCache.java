@@ -0,0 +1,137 @@
+package com.leanx.app.utils.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LRU cache of the idle prepared statements of a single physical connection.
+ * <p>
+ * A statement is removed from the cache while a caller uses it and put back when the caller
+ * closes it, so the same SQL can be prepared more than once on a connection (e.g. by nested
+ * queries) without two callers sharing a statement. Statements evicted from the cache are
+ * closed, which deallocates them on the server.
+ * <p>
+ * Instances are not thread-safe: a pooled connection, and therefore its cache, is only used
+ * by the thread that borrowed it or by the pool while the connection is idle.
+ */
+class StatementCache {
+
+    private static final Logger logger = Logger.getLogger(StatementCache.class.getName());
+
+    private final int capacity;
+    private final StatementCacheMetrics metrics;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    /**
+     * Constructs a new {@code StatementCache}.
+     *
+     * @param capacity The maximum number of idle statements kept open.
+     * @param metrics  The counters shared by all statement caches of the pool.
+     */
+    StatementCache(int capacity, StatementCacheMetrics metrics) {
+        this.capacity = capacity;
+        this.metrics = metrics;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Builds the cache key for a {@code prepareStatement} call.
+     *
+     * @param args The arguments of the call.
+     * @return The cache key, or {@code null} if statements prepared with these arguments are not cached.
+     */
+    static String key(Object[] args) {
+        if (args == null || !(args[0] instanceof String sql)) {
+            return null;
+        }
+
+        switch (args.length) {
+            case 1:
+                return ResultSet.TYPE_FORWARD_ONLY + ":" + ResultSet.CONCUR_READ_ONLY + ":" + Statement.NO_GENERATED_KEYS + ":" + sql;
+            case 2:
+                return args[1] instanceof Integer autoGeneratedKeys
+                    ? ResultSet.TYPE_FORWARD_ONLY + ":" + ResultSet.CONCUR_READ_ONLY + ":" + autoGeneratedKeys + ":" + sql
+                    : null;
+            case 3:
+                return args[1] + ":" + args[2] + ":" + Statement.NO_GENERATED_KEYS + ":" + sql;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Takes an idle statement out of the cache.
+     *
+     * @param key The cache key of the statement.
+     * @return The cached statement, or {@code null} if none is cached for the key.
+     */
+    PreparedStatement take(String key) {
+        PreparedStatement statement = statements.remove(key);
+        if (statement != null) {
+            metrics.size.decrement();
+            metrics.hitCount.increment();
+        } else {
+            metrics.missCount.increment();
+        }
+        return statement;
+    }
+
+    /**
+     * Puts a statement that is no longer used back into the cache. If a statement for the
+     * same key is already cached, the given statement is closed instead. If the cache is
+     * full, the least recently used statement is evicted and closed.
+     *
+     * @param key       The cache key of the statement.
+     * @param statement The statement, reset to its initial state.
+     */
+    void put(String key, PreparedStatement statement) {
+        if (capacity <= 0 || statements.containsKey(key)) {
+            closeQuietly(statement);
+            return;
+        }
+
+        statements.put(key, statement);
+        metrics.size.increment();
+        if (statements.size() > capacity) {
+            Iterator<PreparedStatement> eldest = statements.values().iterator();
+            closeQuietly(eldest.next());
+            eldest.remove();
+            metrics.size.decrement();
+            metrics.evictionCount.increment();
+        }
+    }
+
+    /**
+     * Gets the number of idle statements in the cache.
+     *
+     * @return The cache size.
+     */
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes and removes all cached statements.
+     */
+    void clear() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        metrics.size.add(-statements.size());
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Failed to close cached statement: {0}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.leanx.app.utils.database;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.leanx.app.utils.CacheStatistics;
+
+/**
+ * Counters shared by the {@link StatementCache}s of all connections of a pool.
+ */
+class StatementCacheMetrics {
+
+    final LongAdder size = new LongAdder();
+    final LongAdder hitCount = new LongAdder();
+    final LongAdder missCount = new LongAdder();
+    final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a snapshot of the counters.
+     *
+     * @param capacity The capacity of the statement cache of a single connection.
+     * @return The current {@link CacheStatistics}.
+     */
+    CacheStatistics snapshot(int capacity) {
+        return new CacheStatistics((int) size.sum(), capacity, hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+}
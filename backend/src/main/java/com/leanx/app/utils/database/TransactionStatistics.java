@@ -0,0 +1,78 @@
+package com.leanx.app.utils.database;
+
+/**
+ * Immutable point-in-time snapshot of the transactions run through the {@link TransactionTemplate}.
+ * Counters are cumulative since the application started.
+ */
+public class TransactionStatistics {
+
+    private final long commitCount;
+    private final long rollbackCount;
+    private final long retryCount;
+    private final long deadlockCount;
+    private final int maxRetries;
+    private final LatencyHistogram.Snapshot duration;
+
+    /**
+     * Constructs a new {@code TransactionStatistics} snapshot.
+     *
+     * @param commitCount   The number of committed transactions.
+     * @param rollbackCount The number of rolled back transaction attempts, including retried ones.
+     * @param retryCount    The number of attempts retried after a deadlock or lock wait timeout.
+     * @param deadlockCount The number of attempts aborted by a deadlock.
+     * @param maxRetries    The maximum number of retries of a transaction.
+     * @param duration      The histogram of the duration of the attempts.
+     */
+    public TransactionStatistics(long commitCount, long rollbackCount, long retryCount, long deadlockCount, int maxRetries,
+                                 LatencyHistogram.Snapshot duration) {
+        this.commitCount = commitCount;
+        this.rollbackCount = rollbackCount;
+        this.retryCount = retryCount;
+        this.deadlockCount = deadlockCount;
+        this.maxRetries = maxRetries;
+        this.duration = duration;
+    }
+
+    /**
+     * Gets the number of committed transactions.
+     *
+     * @return The number of commits.
+     */
+    public long getCommitCount() { return commitCount; }
+
+    /**
+     * Gets the number of rolled back transaction attempts, including attempts that were retried.
+     *
+     * @return The number of rollbacks.
+     */
+    public long getRollbackCount() { return rollbackCount; }
+
+    /**
+     * Gets the number of attempts retried after a deadlock or lock wait timeout.
+     *
+     * @return The number of retries.
+     */
+    public long getRetryCount() { return retryCount; }
+
+    /**
+     * Gets the number of attempts aborted by a deadlock.
+     *
+     * @return The number of deadlocks.
+     */
+    public long getDeadlockCount() { return deadlockCount; }
+
+    /**
+     * Gets the maximum number of retries of a transaction.
+     *
+     * @return The maximum number of retries.
+     */
+    public int getMaxRetries() { return maxRetries; }
+
+    /**
+     * Gets the histogram of the duration of the transaction attempts, from the start of the
+     * callback to the commit or rollback.
+     *
+     * @return The duration {@link LatencyHistogram.Snapshot}.
+     */
+    public LatencyHistogram.Snapshot getDuration() { return duration; }
+}
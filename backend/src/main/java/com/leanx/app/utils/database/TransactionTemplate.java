@@ -0,0 +1,303 @@
+package com.leanx.app.utils.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.leanx.app.utils.EnvironmentUtils;
+
+/**
+ * Runs the steps of a service method as a single database transaction.
+ * <p>
+ * While {@link #execute(DatabaseExecutor.SqlCallable)} runs, one connection of the primary
+ * database is bound to the current thread and every call of
+ * {@link com.leanx.app.utils.DatabaseUtils#getMySQLConnection()} and
+ * {@link com.leanx.app.utils.DatabaseUtils#getMySQLReadConnection()} on that thread returns it,
+ * so repositories take part in the transaction without any changes. The connection is only
+ * borrowed when the first statement needs it, so a transaction that turns out to have nothing
+ * to do costs nothing. Closing, committing or switching auto-commit on the bound connection has
+ * no effect; a {@code rollback()} by a participant marks the transaction for rollback instead.
+ * <p>
+ * The transaction commits when the callback returns and rolls back when it throws. Transactions
+ * aborted by a deadlock or a lock wait timeout are rolled back and run again up to
+ * {@link #MAX_RETRIES} times, so callbacks must not have side effects outside the database;
+ * those belong in {@link #afterCommit(Runnable)}. Nested calls join the outer transaction.
+ * Tasks of the {@link DatabaseExecutor} run on other threads and therefore never take part
+ * in a transaction of the calling thread.
+ */
+public final class TransactionTemplate {
+
+    private static final Logger logger = Logger.getLogger(TransactionTemplate.class.getName());
+
+    /**
+     * The number of times a transaction aborted by a deadlock or lock wait timeout is retried,
+     * retrieved from the optional 'RDS_MYSQL_TX_MAX_RETRIES' environment variable.
+     */
+    public static final int MAX_RETRIES = EnvironmentUtils.getInt("RDS_MYSQL_TX_MAX_RETRIES", 3);
+
+    /**
+     * The base delay before a retry, multiplied by the number of the attempt and randomized,
+     * retrieved from the optional 'RDS_MYSQL_TX_RETRY_BACKOFF_MS' environment variable.
+     */
+    public static final long RETRY_BACKOFF_MILLIS = EnvironmentUtils.getLong("RDS_MYSQL_TX_RETRY_BACKOFF_MS", 20);
+
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    private static final ThreadLocal<Transaction> current = new ThreadLocal<>();
+
+    private static final LongAdder commitCount = new LongAdder();
+    private static final LongAdder rollbackCount = new LongAdder();
+    private static final LongAdder retryCount = new LongAdder();
+    private static final LongAdder deadlockCount = new LongAdder();
+    private static final LatencyHistogram duration = new LatencyHistogram();
+
+    private TransactionTemplate() {}
+
+    /**
+     * Runs the callback in a transaction, or as part of the transaction already running on the
+     * current thread.
+     *
+     * @param callback The steps of the transaction.
+     * @param <T>      The type of the result.
+     * @return The result of the callback.
+     * @throws SQLException If a database access error occurs, the transaction cannot be committed,
+     * was marked for rollback by a participant or kept failing with deadlocks.
+     */
+    public static <T> T execute(DatabaseExecutor.SqlCallable<T> callback) throws SQLException {
+        if (current.get() != null) {
+            return callback.call();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            Transaction transaction = new Transaction();
+            current.set(transaction);
+            long start = System.nanoTime();
+            try {
+                T result = callback.call();
+                transaction.commit();
+                commitCount.increment();
+                duration.record(System.nanoTime() - start);
+                current.remove();
+                transaction.close();
+                transaction.runAfterCommit();
+                return result;
+            } catch (SQLException e) {
+                rollback(transaction, start);
+                if (!isRetryable(e) || attempt > MAX_RETRIES) {
+                    throw e;
+                }
+                retryCount.increment();
+                logger.log(Level.WARNING, "Transaction aborted by lock conflict, retry {0} of {1}: {2}",
+                    new Object[]{attempt, MAX_RETRIES, e.getMessage()});
+                transaction.close();
+                backOff(attempt);
+            } catch (RuntimeException | Error e) {
+                rollback(transaction, start);
+                throw e;
+            } finally {
+                current.remove();
+                transaction.close();
+            }
+        }
+    }
+
+    /**
+     * Registers an action to run after the transaction of the current thread committed, such as
+     * invalidating a cache or publishing an event. The action is discarded if the transaction rolls
+     * back. Without a transaction the action runs immediately.
+     *
+     * @param action The action to run.
+     */
+    public static void afterCommit(Runnable action) {
+        Transaction transaction = current.get();
+        if (transaction != null) {
+            transaction.afterCommit.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Checks whether a transaction is running on the current thread.
+     *
+     * @return {@code true} within {@link #execute(DatabaseExecutor.SqlCallable)}.
+     */
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * Returns the connection bound to the transaction of the current thread, borrowing it on first use.
+     *
+     * @param borrower Borrows a connection of the primary database.
+     * @return The bound connection, or {@code null} if no transaction is running on the current thread.
+     * @throws SQLException If no connection can be borrowed or auto-commit cannot be disabled.
+     */
+    public static Connection getBoundConnection(DatabaseExecutor.SqlCallable<Connection> borrower) throws SQLException {
+        Transaction transaction = current.get();
+        return transaction != null ? transaction.connection(borrower) : null;
+    }
+
+    /**
+     * Creates a snapshot of the transaction counters.
+     *
+     * @return The {@link TransactionStatistics}.
+     */
+    public static TransactionStatistics getStatistics() {
+        return new TransactionStatistics(commitCount.sum(), rollbackCount.sum(), retryCount.sum(), deadlockCount.sum(),
+            MAX_RETRIES, duration.snapshot());
+    }
+
+    private static void rollback(Transaction transaction, long start) {
+        transaction.rollback();
+        rollbackCount.increment();
+        duration.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Checks whether the transaction failed because of a deadlock or lock wait timeout, after
+     * which the whole transaction is rolled back and can safely run again.
+     *
+     * @param e The exception the transaction failed with.
+     * @return {@code true} if the transaction may be retried.
+     */
+    private static boolean isRetryable(SQLException e) {
+        for (SQLException cause = e; cause != null; cause = cause.getNextException()) {
+            if (cause.getErrorCode() == ER_LOCK_DEADLOCK || "40001".equals(cause.getSQLState())) {
+                deadlockCount.increment();
+                return true;
+            }
+            if (cause.getErrorCode() == ER_LOCK_WAIT_TIMEOUT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void backOff(int attempt) throws SQLException {
+        long delay = RETRY_BACKOFF_MILLIS * attempt;
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting to retry the transaction", e);
+        }
+    }
+
+    /**
+     * The state of the transaction of one thread.
+     */
+    private static final class Transaction implements InvocationHandler {
+
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private Connection connection;
+        private Connection participant;
+        private boolean rollbackOnly;
+
+        private Connection connection(DatabaseExecutor.SqlCallable<Connection> borrower) throws SQLException {
+            if (connection == null) {
+                Connection borrowed = borrower.call();
+                try {
+                    borrowed.setAutoCommit(false);
+                } catch (SQLException e) {
+                    borrowed.close();
+                    throw e;
+                }
+                connection = borrowed;
+                participant = (Connection) Proxy.newProxyInstance(
+                    TransactionTemplate.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+            }
+            return participant;
+        }
+
+        /**
+         * Intercepts the calls of the participants that would end the transaction early.
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "setAutoCommit":
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        rollbackOnly = true;
+                        return null;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "TransactionalConnection[" + connection + "]";
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void commit() throws SQLException {
+            if (connection == null) {
+                return;
+            }
+            if (rollbackOnly) {
+                throw new SQLException("Transaction rolled back because a participant requested a rollback");
+            }
+            connection.commit();
+        }
+
+        private void rollback() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to roll back transaction: {0}", e.getMessage());
+            }
+        }
+
+        private void runAfterCommit() {
+            for (Runnable action : afterCommit) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "After-commit action failed", e);
+                }
+            }
+        }
+
+        /**
+         * Returns the bound connection to its pool, which restores auto-commit. Calling it again has no effect.
+         */
+        private void close() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to release transaction connection: {0}", e.getMessage());
+            }
+            connection = null;
+            participant = null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.leanx.app.repository;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.leanx.app.model.entity.Employee;
+import com.leanx.app.utils.DatabaseUtils;
+
+/**
+ * Compares the latency of the {@code LIKE} and FULLTEXT (ngram) employee searches of the
+ * {@link EmployeeRepository} against the database configured by the 'RDS_MYSQL_*'
+ * environment variables.
+ * <p>
+ * Usage: {@code EmployeeSearchBenchmark [iterations] [query ...]}. Every query is run
+ * {@code iterations} times (default 200) with each search after a warm-up of the same
+ * length, and the median, 95th percentile and result count are printed per query.
+ */
+public class EmployeeSearchBenchmark {
+
+    private static final List<String> DEFAULT_QUERIES = List.of("an", "mül", "schmidt", "son", "ma", "john doe", "engineer", "sales");
+
+    private interface Search {
+        List<Employee> run(String query) throws SQLException;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        List<String> queries = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : DEFAULT_QUERIES;
+
+        EmployeeRepository repository = new EmployeeRepository();
+        Search like = repository::findByName;
+        Search fullText = query -> repository.findByNameFullText(query, 100);
+
+        System.out.printf(Locale.ROOT, "%-12s %-9s %10s %10s %8s%n", "query", "search", "p50 (ms)", "p95 (ms)", "rows");
+        try {
+            for (String query : queries) {
+                measure(query, "like", like, iterations);
+                measure(query, "fulltext", fullText, iterations);
+            }
+        } finally {
+            DatabaseUtils.shutdown();
+        }
+    }
+
+    private static void measure(String query, String name, Search search, int iterations) throws SQLException {
+        for (int i = 0; i < iterations; i++) {
+            search.run(query);
+        }
+
+        long[] nanos = new long[iterations];
+        int rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            rows = search.run(query).size();
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf(Locale.ROOT, "%-12s %-9s %10.3f %10.3f %8d%n", query, name,
+            nanos[iterations / 2] / 1e6, nanos[Math.min(iterations - 1, (int) (iterations * 0.95))] / 1e6, rows);
+    }
+}
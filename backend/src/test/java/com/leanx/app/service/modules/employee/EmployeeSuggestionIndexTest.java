@@ -0,0 +1,128 @@
+package com.leanx.app.service.modules.employee;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.leanx.app.model.dto.EmployeeSuggestion;
+import com.leanx.app.model.entity.Employee;
+
+/**
+ * Checks that renames applied to the {@link EmployeeSuggestionIndex} leave the trie answering
+ * exactly like a trie built from scratch over the renamed employees.
+ */
+class EmployeeSuggestionIndexTest {
+
+    private final Map<Integer, Employee> employees = new LinkedHashMap<>();
+
+    private void add(int id, String firstName, String lastName) {
+        employees.put(id, new Employee(id, firstName, lastName, null));
+    }
+
+    private EmployeeSuggestionIndex build() {
+        return EmployeeSuggestionIndex.build(new ArrayList<>(employees.values()), Collections.emptyMap());
+    }
+
+    private void rename(EmployeeSuggestionIndex index, int id, String firstName, String lastName) {
+        index.update(id, firstName, lastName);
+        Employee employee = employees.get(id);
+        employees.put(id, new Employee(id, firstName != null ? firstName : employee.getFirstName(),
+            lastName != null ? lastName : employee.getLastName(), null));
+    }
+
+    private static List<Integer> suggest(EmployeeSuggestionIndex index, String prefix) {
+        return index.suggest(prefix, EmployeeSuggestionIndex.MAX_K).stream()
+            .map(EmployeeSuggestion::getId)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    void renameReplacesKeys() {
+        add(1, "Anna", "Schmidt");
+        add(2, "Bernd", "Meier");
+        EmployeeSuggestionIndex index = build();
+
+        rename(index, 1, "Hanna", null);
+
+        assertEquals(List.of(), suggest(index, "ann"));
+        assertEquals(List.of(1), suggest(index, "han"));
+        assertEquals(List.of(1), suggest(index, "schm"));
+        assertEquals(List.of(1), suggest(index, "schmidt h"));
+        assertEquals("Hanna Schmidt", index.suggest("hanna", 1).get(0).getDisplayName());
+        assertMatchesRebuild(index, "Anna", "Hanna", "Schmidt", "Bernd", "Meier");
+    }
+
+    @Test
+    void splitFollowedByMerge() {
+        add(1, "Martin", "Xu");
+        add(2, "Zoe", "Yu");
+        EmployeeSuggestionIndex index = build();
+
+        // "marta" splits the edge "martin" after "mart"
+        rename(index, 2, "Marta", null);
+        assertEquals(List.of(2, 1), suggest(index, "mart"));
+        assertEquals(List.of(1), suggest(index, "marti"));
+        assertEquals(List.of(2), suggest(index, "marta"));
+        assertMatchesRebuild(index, "Martin Xu", "Marta Yu", "Zoe");
+
+        // removing "marta" leaves "mart" with a single child, which is merged back into "martin"
+        rename(index, 2, "Zoe", null);
+        assertEquals(List.of(1), suggest(index, "mart"));
+        assertEquals(List.of(1), suggest(index, "martin x"));
+        assertEquals(List.of(), suggest(index, "marta"));
+        assertEquals(List.of(2), suggest(index, "zoe"));
+        assertMatchesRebuild(index, "Martin Xu", "Marta Yu", "Zoe Yu");
+    }
+
+    @Test
+    void topKWithMoreCandidatesThanMaxK() {
+        int candidates = EmployeeSuggestionIndex.MAX_K + 5;
+        List<Integer> byLength = new ArrayList<>();
+        for (int i = 1; i <= candidates; i++) {
+            add(i, "A" + "n".repeat(i), "Berg");
+            byLength.add(i);
+        }
+        add(100, "Anja", "Berg");
+        add(101, "Anja", "Adler");
+        EmployeeSuggestionIndex index = build();
+
+        // the shortest names come first, equal lengths are ordered by display name
+        List<Integer> expected = new ArrayList<>(byLength.subList(0, 2));
+        expected.addAll(List.of(101, 100));
+        expected.addAll(byLength.subList(2, EmployeeSuggestionIndex.MAX_K - 2));
+        assertEquals(expected, suggest(index, "an"));
+        assertEquals(List.of(101, 100), suggest(index, "anj"));
+        assertEquals(2, index.suggest("an", 2).size());
+
+        // the renamed employees drop out and the next candidates beyond the kept lists move up
+        rename(index, 1, "Zoe", null);
+        rename(index, 101, "Zoe", null);
+        expected.remove(Integer.valueOf(1));
+        expected.remove(Integer.valueOf(101));
+        expected.addAll(byLength.subList(EmployeeSuggestionIndex.MAX_K - 2, EmployeeSuggestionIndex.MAX_K));
+        assertEquals(expected, suggest(index, "an"));
+        assertMatchesRebuild(index, "An", "Annn", "Anja", "Zoe", "Berg", "Adler");
+    }
+
+    /**
+     * Compares the suggestions for every prefix of the given names with those of a rebuilt trie.
+     */
+    private void assertMatchesRebuild(EmployeeSuggestionIndex index, String... names) {
+        EmployeeSuggestionIndex rebuilt = build();
+        assertEquals(rebuilt.size(), index.size());
+        for (String name : names) {
+            String normalized = EmployeeNameIndex.normalize(name);
+            for (int length = 1; length <= normalized.length(); length++) {
+                String prefix = normalized.substring(0, length);
+                assertEquals(suggest(rebuilt, prefix), suggest(index, prefix), "suggestions for '" + prefix + "'");
+            }
+        }
+    }
+}
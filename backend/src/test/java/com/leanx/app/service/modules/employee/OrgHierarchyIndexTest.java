@@ -0,0 +1,221 @@
+package com.leanx.app.service.modules.employee;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the incremental updates of the {@link OrgHierarchyIndex} against an index built from
+ * scratch over the same reporting lines.
+ */
+class OrgHierarchyIndexTest {
+
+    /**
+     * 1
+     * ├── 2
+     * │   ├── 4
+     * │   └── 5
+     * └── 3
+     *     └── 6
+     * 7
+     */
+    private static Map<Integer, Integer> sampleHierarchy() {
+        Map<Integer, Integer> managerIds = new HashMap<>();
+        managerIds.put(1, null);
+        managerIds.put(2, 1);
+        managerIds.put(3, 1);
+        managerIds.put(4, 2);
+        managerIds.put(5, 2);
+        managerIds.put(6, 3);
+        managerIds.put(7, null);
+        return managerIds;
+    }
+
+    @Test
+    void buildAnswersSubordinateChecks() {
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(sampleHierarchy());
+
+        assertEquals(7, index.size());
+        assertTrue(index.isSubordinate(4, 1));
+        assertTrue(index.isSubordinate(6, 3));
+        assertFalse(index.isSubordinate(6, 2));
+        assertFalse(index.isSubordinate(1, 1));
+        assertFalse(index.isSubordinate(1, 4));
+        assertFalse(index.isSubordinate(99, 1));
+    }
+
+    @Test
+    void moveToEarlierPositionInTour() {
+        Map<Integer, Integer> managerIds = sampleHierarchy();
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(managerIds);
+
+        // 6 leaves the subtree of 3 and is placed after the subtree of 2, which comes first in the tour
+        OrgHierarchyIndex moved = index.withManager(6, 2);
+        managerIds.put(6, 2);
+
+        assertSameHierarchy(OrgHierarchyIndex.build(managerIds), moved, managerIds);
+        assertTrue(moved.isSubordinate(6, 2));
+        assertFalse(moved.isSubordinate(6, 3));
+    }
+
+    @Test
+    void moveToLaterPositionInTour() {
+        Map<Integer, Integer> managerIds = sampleHierarchy();
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(managerIds);
+
+        OrgHierarchyIndex moved = index.withManager(2, 3);
+        managerIds.put(2, 3);
+
+        assertSameHierarchy(OrgHierarchyIndex.build(managerIds), moved, managerIds);
+        assertTrue(moved.isSubordinate(5, 3));
+        assertTrue(moved.isSubordinate(4, 1));
+    }
+
+    @Test
+    void moveToRoot() {
+        Map<Integer, Integer> managerIds = sampleHierarchy();
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(managerIds);
+
+        OrgHierarchyIndex moved = index.withManager(2, null);
+        managerIds.put(2, null);
+
+        assertSameHierarchy(OrgHierarchyIndex.build(managerIds), moved, managerIds);
+        assertFalse(moved.isSubordinate(4, 1));
+        assertTrue(moved.isSubordinate(4, 2));
+    }
+
+    @Test
+    void moveBelowOtherTree() {
+        Map<Integer, Integer> managerIds = sampleHierarchy();
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(managerIds);
+
+        OrgHierarchyIndex moved = index.withManager(1, 7);
+        managerIds.put(1, 7);
+
+        assertSameHierarchy(OrgHierarchyIndex.build(managerIds), moved, managerIds);
+        assertTrue(moved.isSubordinate(6, 7));
+    }
+
+    @Test
+    void unchangedManagerKeepsIndex() {
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(sampleHierarchy());
+
+        assertSame(index, index.withManager(4, 2));
+        assertSame(index, index.withManager(7, null));
+    }
+
+    @Test
+    void moveBelowOwnSubordinateIsRejected() {
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(sampleHierarchy());
+
+        assertNull(index.withManager(1, 4));
+        assertNull(index.withManager(2, 2));
+        assertNull(index.withManager(3, 6));
+    }
+
+    @Test
+    void unknownEmployeesAreRejected() {
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(sampleHierarchy());
+
+        assertNull(index.withManager(99, 1));
+        assertNull(index.withManager(4, 99));
+        assertNull(index.withEmployee(8, 99));
+        assertNull(index.withEmployee(4, 1));
+    }
+
+    @Test
+    void insertBelowManagerAndAsRoot() {
+        Map<Integer, Integer> managerIds = sampleHierarchy();
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(managerIds);
+
+        index = index.withEmployee(8, 2);
+        managerIds.put(8, 2);
+        index = index.withEmployee(20, null);
+        managerIds.put(20, null);
+        index = index.withEmployee(9, 20);
+        managerIds.put(9, 20);
+
+        assertSameHierarchy(OrgHierarchyIndex.build(managerIds), index, managerIds);
+        assertTrue(index.isSubordinate(8, 1));
+        assertTrue(index.isSubordinate(9, 20));
+    }
+
+    @Test
+    void cyclesInBuildAreBroken() {
+        Map<Integer, Integer> managerIds = new HashMap<>();
+        managerIds.put(1, 2);
+        managerIds.put(2, 1);
+        managerIds.put(3, 1);
+
+        OrgHierarchyIndex index = OrgHierarchyIndex.build(managerIds);
+
+        assertEquals(3, index.size());
+        assertTrue(index.isSubordinate(3, 1));
+        assertFalse(index.isSubordinate(1, 2) && index.isSubordinate(2, 1));
+    }
+
+    @Test
+    void randomChangesMatchRebuild() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            Map<Integer, Integer> managerIds = new HashMap<>();
+            List<Integer> employees = new ArrayList<>();
+            int nextId = 1;
+            for (int i = 0; i < 25; i++) {
+                int id = nextId;
+                nextId += 1 + random.nextInt(3);
+                managerIds.put(id, employees.isEmpty() || random.nextInt(5) == 0 ? null : employees.get(random.nextInt(employees.size())));
+                employees.add(id);
+            }
+
+            OrgHierarchyIndex index = OrgHierarchyIndex.build(managerIds);
+            for (int step = 0; step < 200; step++) {
+                Integer managerId = random.nextInt(6) == 0 ? null : employees.get(random.nextInt(employees.size()));
+                if (random.nextInt(4) == 0) {
+                    int id = nextId;
+                    nextId += 1 + random.nextInt(3);
+                    index = index.withEmployee(id, managerId);
+                    managerIds.put(id, managerId);
+                    employees.add(id);
+                } else {
+                    int employeeId = employees.get(random.nextInt(employees.size()));
+                    boolean cycle = managerId != null && (managerId == employeeId || index.isSubordinate(managerId, employeeId));
+                    OrgHierarchyIndex moved = index.withManager(employeeId, managerId);
+                    if (cycle) {
+                        assertNull(moved, "moving " + employeeId + " below " + managerId);
+                        continue;
+                    }
+                    index = moved;
+                    managerIds.put(employeeId, managerId);
+                }
+
+                assertNotNull(index);
+                assertSameHierarchy(OrgHierarchyIndex.build(managerIds), index, managerIds);
+            }
+        }
+    }
+
+    private static void assertSameHierarchy(OrgHierarchyIndex expected, OrgHierarchyIndex actual, Map<Integer, Integer> managerIds) {
+        assertEquals(expected.size(), actual.size());
+        int[] ids = managerIds.keySet().stream().mapToInt(Integer::intValue).toArray();
+        for (int manager : ids) {
+            assertTrue(actual.contains(manager));
+            assertEquals(expected.teamMembership(manager, ids), actual.teamMembership(manager, ids), "team of " + manager);
+            for (int employee : ids) {
+                assertEquals(expected.isSubordinate(employee, manager), actual.isSubordinate(employee, manager),
+                    employee + " below " + manager);
+            }
+        }
+    }
+}
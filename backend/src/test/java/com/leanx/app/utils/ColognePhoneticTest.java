@@ -0,0 +1,58 @@
+package com.leanx.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Checks {@link ColognePhonetic#encode(String)} against the examples of the algorithm and its
+ * context rules.
+ */
+class ColognePhoneticTest {
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+        // spellings that sound alike
+        "Meier, 67",
+        "Meyer, 67",
+        "Maier, 67",
+        "Mayer, 67",
+        "Müller, 657",
+        "Mueller, 657",
+        "Wikipedia, 3412",
+        "Müller-Lüdenscheidt, 65752682",
+        // C at the start: 4 before A, H, K, L, O, Q, R, U, X, otherwise 8
+        "Cäsar, 487",
+        "Christ, 4782",
+        "Celle, 85",
+        // C elsewhere: 4 before A, H, K, O, Q, U, X unless after S or Z, otherwise 8
+        "Bach, 14",
+        "Becker, 147",
+        "Lucie, 58",
+        "Schacht, 842",
+        // X: 48, but 8 after C, K or Q
+        "Dix, 248",
+        "Pax, 148",
+        "Packx, 148",
+        // other context rules: PH is 3, D and T before C, S or Z are 8
+        "Philipp, 351",
+        "Matz, 68",
+        "Schmidt, 862",
+        // leading vowels and H
+        "Otto, 02",
+        "Hexe, 048",
+    })
+    void encode(String text, String code) {
+        assertEquals(code, ColognePhonetic.encode(text));
+    }
+
+    @Test
+    void encodeWithoutLetters() {
+        assertEquals("", ColognePhonetic.encode(null));
+        assertEquals("", ColognePhonetic.encode(""));
+        assertEquals("", ColognePhonetic.encode(" - 42"));
+        assertEquals("", ColognePhonetic.encode("H"));
+    }
+}
@@ -173,6 +173,10 @@ CREATE TABLE employees (
     created_by INT NOT NULL,
     last_updated_by INT DEFAULT NULL,
     last_updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_employees_first_name (first_name), -- keyset pagination (sort by first name)
+    INDEX idx_employees_last_name (last_name), -- keyset pagination (sort by last name)
+    INDEX idx_employees_hire_date (hire_date), -- keyset pagination (sort by hire date)
+    FULLTEXT INDEX ft_employees_search (first_name, last_name, email, job_title, department) WITH PARSER ngram, -- EMPLOYEE_SEARCH_MODE=fulltext
     FOREIGN KEY (manager_id) REFERENCES employees(id),
     FOREIGN KEY (created_by) REFERENCES users(id),
     FOREIGN KEY (last_updated_by) REFERENCES users(id)
@@ -246,6 +250,17 @@ CREATE TABLE user_employee_link (
     FOREIGN KEY (employee_id) REFERENCES employees(id)
 );
 
+-- closure table of the reporting hierarchy: one row for every employee and each of their direct or indirect managers
+CREATE TABLE employee_hierarchy_closure (
+    ancestor_id INT NOT NULL,
+    descendant_id INT NOT NULL,
+    depth INT NOT NULL, -- 0 for the row of an employee with themselves, 1 for their direct manager
+    PRIMARY KEY (ancestor_id, depth, descendant_id), -- subtree of a manager, optionally limited in depth
+    UNIQUE INDEX idx_employee_hierarchy_closure_descendant (descendant_id, ancestor_id), -- manager chain of an employee
+    FOREIGN KEY (ancestor_id) REFERENCES employees(id) ON DELETE CASCADE,
+    FOREIGN KEY (descendant_id) REFERENCES employees(id) ON DELETE CASCADE
+);
+
 /* ---------------- Transactions, General Ledger, Controlling (Finance Modul) -------------------- */
 
 
@@ -572,6 +587,51 @@ BEGIN
     END IF;
 END $$
 
+CREATE TRIGGER insert_employee_hierarchy_closure
+AFTER INSERT ON employees
+FOR EACH ROW
+BEGIN
+    INSERT INTO employee_hierarchy_closure (ancestor_id, descendant_id, depth)
+    VALUES (NEW.id, NEW.id, 0);
+
+    -- employees without a manager reference themselves
+    IF NEW.manager_id <> NEW.id THEN
+        INSERT INTO employee_hierarchy_closure (ancestor_id, descendant_id, depth)
+        SELECT ancestor_id, NEW.id, depth + 1
+        FROM employee_hierarchy_closure
+        WHERE descendant_id = NEW.manager_id;
+    END IF;
+END $$
+
+CREATE TRIGGER update_employee_hierarchy_closure
+AFTER UPDATE ON employees
+FOR EACH ROW
+BEGIN
+    IF NEW.manager_id <> OLD.manager_id THEN
+        IF NEW.manager_id <> NEW.id AND EXISTS (
+            SELECT 1 FROM employee_hierarchy_closure WHERE ancestor_id = NEW.id AND descendant_id = NEW.manager_id
+        ) THEN
+            SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Invalid manager_id: an employee cannot report to one of their subordinates';
+        END IF;
+
+        -- detach the subtree of the employee from their previous managers
+        DELETE path
+        FROM employee_hierarchy_closure path
+        JOIN employee_hierarchy_closure subtree ON subtree.descendant_id = path.descendant_id
+        LEFT JOIN employee_hierarchy_closure inner_path ON inner_path.ancestor_id = NEW.id AND inner_path.descendant_id = path.ancestor_id
+        WHERE subtree.ancestor_id = NEW.id AND inner_path.ancestor_id IS NULL;
+
+        -- attach it below the managers of the new manager
+        IF NEW.manager_id <> NEW.id THEN
+            INSERT INTO employee_hierarchy_closure (ancestor_id, descendant_id, depth)
+            SELECT manager_chain.ancestor_id, subtree.descendant_id, manager_chain.depth + subtree.depth + 1
+            FROM employee_hierarchy_closure manager_chain
+            JOIN employee_hierarchy_closure subtree ON subtree.ancestor_id = NEW.id
+            WHERE manager_chain.descendant_id = NEW.manager_id;
+        END IF;
+    END IF;
+END $$
+
 DELIMITER ;
 
 COMMIT;
@@ -695,6 +755,26 @@ CREATE PROCEDURE TerminateEmployee (
     COMMIT;
 END $$
 
+CREATE PROCEDURE RebuildEmployeeHierarchyClosure ()
+BEGIN
+    START TRANSACTION;
+
+    DELETE FROM employee_hierarchy_closure;
+
+    -- employees without a manager reference themselves and are the roots of the hierarchy
+    INSERT INTO employee_hierarchy_closure (ancestor_id, descendant_id, depth)
+    WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+        SELECT id, id, 0 FROM employees
+        UNION ALL
+        SELECT paths.ancestor_id, e.id, paths.depth + 1
+        FROM paths
+        JOIN employees e ON e.manager_id = paths.descendant_id AND e.manager_id <> e.id
+    )
+    SELECT ancestor_id, descendant_id, depth FROM paths;
+
+    COMMIT;
+END $$
+
 DELIMITER ;
 
 COMMIT;
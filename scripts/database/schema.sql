@@ -161,6 +161,10 @@ CREATE TABLE employees (
     created_by INT NOT NULL,
     last_updated_by INT DEFAULT NULL,
     last_updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_employees_first_name (first_name), -- keyset pagination (sort by first name)
+    INDEX idx_employees_last_name (last_name), -- keyset pagination (sort by last name)
+    INDEX idx_employees_hire_date (hire_date), -- keyset pagination (sort by hire date)
+    FULLTEXT INDEX ft_employees_search (first_name, last_name, email, job_title, department) WITH PARSER ngram, -- EMPLOYEE_SEARCH_MODE=fulltext
     FOREIGN KEY (manager_id) REFERENCES employees(id),
     FOREIGN KEY (created_by) REFERENCES users(id),
     FOREIGN KEY (last_updated_by) REFERENCES users(id)
@@ -234,4 +238,15 @@ CREATE TABLE user_employee_link (
     FOREIGN KEY (employee_id) REFERENCES employees(id)
 );
 
+-- closure table of the reporting hierarchy: one row for every employee and each of their direct or indirect managers
+CREATE TABLE employee_hierarchy_closure (
+    ancestor_id INT NOT NULL,
+    descendant_id INT NOT NULL,
+    depth INT NOT NULL, -- 0 for the row of an employee with themselves, 1 for their direct manager
+    PRIMARY KEY (ancestor_id, depth, descendant_id), -- subtree of a manager, optionally limited in depth
+    UNIQUE INDEX idx_employee_hierarchy_closure_descendant (descendant_id, ancestor_id), -- manager chain of an employee
+    FOREIGN KEY (ancestor_id) REFERENCES employees(id) ON DELETE CASCADE,
+    FOREIGN KEY (descendant_id) REFERENCES employees(id) ON DELETE CASCADE
+);
+
 /* ---------------- Transactions, General Ledger, Controlling (Finance Modul) -------------------- */
\ No newline at end of file